@@ -0,0 +1,114 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.example.hid;
+
+import com.serial4j.core.hid.device.dataframe.registry.JoystickRegistry;
+import com.serial4j.core.hid.device.dataframe.schema.FrameFieldType;
+import com.serial4j.core.hid.device.dataframe.schema.FrameSchema;
+import com.serial4j.core.hid.device.dataframe.schema.FrameValues;
+
+/**
+ * Examines and tests the in-place parsing, and the formatting of the key/value
+ * data frames by a {@link FrameSchema}, each case prints "true" if it passes.
+ *
+ * @author pavl_g
+ */
+public final class TestFrameSchema {
+
+    private static final FrameSchema SCHEMA = FrameSchema.build()
+            .field("x", FrameFieldType.INT)
+            .field("t", FrameFieldType.LONG)
+            .field("v", FrameFieldType.DOUBLE)
+            .compile();
+    private static final int X = SCHEMA.getFieldIndex("x");
+    private static final int T = SCHEMA.getFieldIndex("t");
+    private static final int V = SCHEMA.getFieldIndex("v");
+
+    public static void main(String[] args) {
+        final FrameValues values = SCHEMA.newValues();
+
+        // parses all the fields, and skips the unknown fields
+        System.out.println(SCHEMA.parse("[x = -1023, t = 1700000000000, v = 3.25]", values)
+                && values.getInt(X) == -1023 && values.getLong(T) == 1700000000000L && values.getDouble(V) == 3.25);
+        System.out.println(SCHEMA.parse("x=1,unknown=abc,t=2,v=.5", values)
+                && values.getInt(X) == 1 && values.getLong(T) == 2 && values.getDouble(V) == 0.5);
+
+        // rejects the missing and the malformed fields
+        System.out.println(!SCHEMA.parse("x=1,t=2", values) && !values.isPresent(V));
+        System.out.println(!SCHEMA.parse("x=,t=2,v=1", values) && !values.isPresent(X));
+        System.out.println(!SCHEMA.parse("x=1,t=2,v=.", values) && !values.isPresent(V));
+        System.out.println(!SCHEMA.parse("x=1,t=2,v=1.5q", values));
+
+        // parses the bounds of the integers, and rejects the overflowing integers
+        System.out.println(SCHEMA.parse("x=-2147483648,t=-9223372036854775808,v=0", values)
+                && values.getInt(X) == Integer.MIN_VALUE && values.getLong(T) == Long.MIN_VALUE);
+        System.out.println(SCHEMA.parse("x=2147483647,t=9223372036854775807,v=0", values)
+                && values.getInt(X) == Integer.MAX_VALUE && values.getLong(T) == Long.MAX_VALUE);
+        System.out.println(!SCHEMA.parse("x=2147483648,t=1,v=0", values) && !values.isPresent(X));
+        System.out.println(!SCHEMA.parse("x=1,t=9223372036854775808,v=0", values) && !values.isPresent(T));
+        System.out.println(!SCHEMA.parse("x=1,t=-99999999999999999999999,v=0", values) && !values.isPresent(T));
+
+        // parses the long fractions as Double#parseDouble does, and the fractions beyond the double range
+        final String[] numbers = {
+                "1234567890123456789012345678901234567890.5",
+                "-0.000000000000000000000012345678901234567",
+                "3.14159265358979323846264338327950288",
+                "0.1",
+                "00000000000000000000000042.000000000000000000000000"
+        };
+        for (final String number : numbers) {
+            final double expected = Double.parseDouble(number);
+            System.out.println(SCHEMA.parse("x=0,t=0,v=" + number, values)
+                    && Math.abs(values.getDouble(V) - expected) <= Math.abs(expected) * 1e-15);
+        }
+        System.out.println(SCHEMA.parse("x=0,t=0,v=1" + "0".repeat(400), values)
+                && values.getDouble(V) == Double.POSITIVE_INFINITY);
+        System.out.println(SCHEMA.parse("x=0,t=0,v=0." + "0".repeat(400) + "1", values)
+                && values.getDouble(V) == 0.0);
+
+        // formats the values into a frame that is parsed back into the same values
+        final FrameValues formatted = SCHEMA.newValues();
+        formatted.setInt(X, -7);
+        formatted.setLong(T, Long.MAX_VALUE);
+        formatted.setDouble(V, 1e-7);
+        final String frame = SCHEMA.format(formatted, new StringBuilder()).toString();
+        System.out.println(frame.equals("x=-7,t=9223372036854775807,v=0.0000001")
+                && SCHEMA.parse(frame, values) && values.getInt(X) == -7
+                && values.getLong(T) == Long.MAX_VALUE && values.getDouble(V) == 1e-7);
+
+        // encodes a joystick report into a frame that is decoded back into the same report
+        final JoystickRegistry.Decoder decoder = new JoystickRegistry.Decoder();
+        final JoystickRegistry report = new JoystickRegistry(1023, -12, 1);
+        System.out.println(decoder.decode(decoder.encode(report)).equals(report));
+    }
+}
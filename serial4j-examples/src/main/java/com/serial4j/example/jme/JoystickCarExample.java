@@ -31,6 +31,9 @@ import com.jme3.scene.shape.Sphere;
 import com.jme3.shadow.DirectionalLightShadowRenderer;
 import com.jme3.system.AppSettings;
 import com.jme3.util.SkyFactory;
+import com.serial4j.core.hid.HidReader;
+import com.serial4j.core.hid.HidState;
+import com.serial4j.core.hid.HidStateSnapshot;
 import com.serial4j.core.hid.device.dataframe.DataFrameDevice;
 import com.serial4j.core.hid.device.dataframe.registry.JoystickRegistry;
 import com.serial4j.core.serial.SerialPort;
@@ -44,17 +47,19 @@ import com.serial4j.core.terminal.control.BaudRate;
  *
  * @author pavl_g
  */
-public class JoystickCarExample extends SimpleApplication implements DataFrameDevice.ReportDescriptor.DecoderListener<JoystickRegistry> {
+public class JoystickCarExample extends SimpleApplication {
 
     private static String[] args;
     private final Vector3f jumpForce = new Vector3f(0, 20000f, 0);
     private final float accelerationPower = 10000f;
     private float accelerationForce = 0f;
-    private volatile boolean isTerminated = false;
     private Node vehicleNode;
     private BulletAppState bulletAppState;
     private VehicleControl vehicle;
     private DataFrameDevice<JoystickRegistry> dataFrameDevice;
+    private HidReader hidReader;
+    private final HidStateSnapshot joystickSnapshot = JoystickRegistry.newStateSnapshot();
+    private final HidState joystickState = joystickSnapshot.newState();
     private BitmapText joystickValue;
     private String action;
     private ChaseCamera chaseCamera;
@@ -92,13 +97,13 @@ public class JoystickCarExample extends SimpleApplication implements DataFrameDe
                 FilePermissions.build().append(FilePermissions.OperativeConst.O_RDONLY));
         dataFrameDevice.init();
         dataFrameDevice.getTerminalDevice().setBaudRate(BaudRate.B57600);
-        dataFrameDevice.setDecoderListener(this);
+        // the reports are published to the snapshot, and read by the render loop
+        dataFrameDevice.setStateSnapshot(joystickSnapshot, JoystickRegistry::updateState);
 
-        new Thread(() -> {
-            while (!isTerminated) {
-                dataFrameDevice.receive();
-            }
-        }).start();
+        // the joystick is received once its port is readable
+        hidReader = new HidReader("Joystick-Reader");
+        hidReader.start();
+        hidReader.register(dataFrameDevice);
     }
 
     private void addSky() {
@@ -283,20 +288,16 @@ public class JoystickCarExample extends SimpleApplication implements DataFrameDe
         // update camera
         cam.setRotation(vehicleNode.getChild("camera").getWorldRotation());
         cam.setLocation(vehicleNode.getChild("camera").getWorldTranslation());
+        // apply the latest joystick state on the render thread
+        if (joystickSnapshot.read(joystickState)) {
+            onJoystickUpdate(joystickState.getInt(JoystickRegistry.X_CHANNEL),
+                    joystickState.getInt(JoystickRegistry.Y_CHANNEL),
+                    joystickState.getInt(JoystickRegistry.BUTTON_CHANNEL));
+        }
     }
 
-    @Override
-    public void onEncodingCompleted(String encoded) {
-
-    }
-
-    @Override
-    public void onDecodingCompleted(JoystickRegistry decoded) {
-        final int x = decoded.x();
-        final int y = decoded.y();
-        final int b = decoded.b();
-
-        joystickValue.setText(decoded + "\n" + "Action = " + action + "\n");
+    private void onJoystickUpdate(final int x, final int y, final int b) {
+        joystickValue.setText("x = " + x + ", y = " + y + ", b = " + b + "\n" + "Action = " + action + "\n");
 
         if (x > 1023f / 1.5f) {
             accelerationForce = accelerationPower * (x / 1023f);
@@ -335,7 +336,8 @@ public class JoystickCarExample extends SimpleApplication implements DataFrameDe
     @Override
     public void requestClose(boolean esc) {
         super.requestClose(esc);
-        isTerminated = true;
+        hidReader.unregister(dataFrameDevice);
+        hidReader.shutdown();
         dataFrameDevice.close();
     }
 
@@ -60,6 +60,7 @@ import com.jme3.scene.Spatial;
 import com.jme3.scene.shape.Box;
 import com.jme3.scene.shape.Sphere;
 import com.jme3.shadow.DirectionalLightShadowFilter;
+import com.serial4j.core.hid.HidReader;
 import com.serial4j.core.hid.device.dataframe.DataFrameDevice;
 import com.serial4j.core.hid.device.dataframe.registry.JoystickRegistry;
 import com.serial4j.core.serial.SerialPort;
@@ -112,6 +113,7 @@ public class RollingTheMonkey extends SimpleApplication implements DataFrameDevi
     private BitmapText messageText;
 
     private DataFrameDevice<JoystickRegistry> dataFrameDevice;
+    private HidReader hidReader;
     private static String[] args;
 
     public static void main(String[] args) {
@@ -128,11 +130,10 @@ public class RollingTheMonkey extends SimpleApplication implements DataFrameDevi
         dataFrameDevice.getTerminalDevice().setBaudRate(BaudRate.B57600);
         dataFrameDevice.setDecoderListener(this);
 
-        new Thread(() -> {
-            while (true) {
-                dataFrameDevice.receive();
-            }
-        }).start();
+        // the joystick is received once its port is readable
+        hidReader = new HidReader("Joystick-Reader");
+        hidReader.start();
+        hidReader.register(dataFrameDevice);
 
         flyCam.setEnabled(false);
         cam.setLocation(new Vector3f(0.0f, 12.0f, 21.0f));
@@ -395,6 +396,8 @@ public class RollingTheMonkey extends SimpleApplication implements DataFrameDevi
     @Override
     public void requestClose(boolean esc) {
         super.requestClose(esc);
+        hidReader.unregister(dataFrameDevice);
+        hidReader.shutdown();
         dataFrameDevice.close();
     }
 
@@ -451,7 +454,7 @@ public class RollingTheMonkey extends SimpleApplication implements DataFrameDevi
     }
 
     @Override
-    public void onEncodingCompleted(String raw) {
+    public void onEncodingCompleted(CharSequence raw) {
 
     }
 
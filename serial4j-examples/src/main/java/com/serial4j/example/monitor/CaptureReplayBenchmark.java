@@ -0,0 +1,93 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.example.monitor;
+
+import com.serial4j.core.serial.capture.CaptureReplayer;
+import com.serial4j.core.serial.monitor.SerialDataListener;
+import com.serial4j.core.serial.monitor.SerialMonitor;
+import com.serial4j.core.terminal.PseudoTerminal;
+import com.serial4j.core.terminal.control.BaudRate;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays a capture journal through a pseudo-terminal into a {@link SerialMonitor}, and reports
+ * the decoded frames and the throughput, run it with:
+ * └──╼ $./gradlew :serial4j-examples:run --args="com.serial4j.example.monitor.CaptureReplayBenchmark /path/to/journal 10"
+ * where the second argument is the replay speed, or "max" to replay as fast as possible.
+ *
+ * @author pavl_g
+ */
+public final class CaptureReplayBenchmark {
+    public static void main(String[] args) throws Exception {
+        final double speed = args.length < 2 ? 1.0
+                : "max".equals(args[1]) ? CaptureReplayer.AS_FAST_AS_POSSIBLE : Double.parseDouble(args[1]);
+        final PseudoTerminal pseudoTerminal = PseudoTerminal.open();
+        final AtomicLong frames = new AtomicLong();
+        final AtomicLong receivedBytes = new AtomicLong();
+
+        final SerialMonitor serialMonitor = new SerialMonitor("Replayed-Monitor");
+        serialMonitor.setSerialDataListener(new SerialDataListener() {
+            @Override
+            public void onDataReceived(final ByteBuffer chunk, final long timestamp) {
+                receivedBytes.addAndGet(chunk.remaining());
+            }
+
+            @Override
+            public void onFrameReceived(final ByteBuffer frame, final long timestamp) {
+                frames.incrementAndGet();
+            }
+        });
+        serialMonitor.startDataMonitoring(pseudoTerminal.getSlavePath(), BaudRate.B115200, null);
+
+        final CaptureReplayer captureReplayer = new CaptureReplayer(Paths.get(args[0]), pseudoTerminal);
+        captureReplayer.setSpeed(speed);
+        final long start = System.nanoTime();
+        final long bytes = captureReplayer.replay();
+        while (receivedBytes.get() < bytes) {
+            Thread.sleep(1);
+        }
+        final double seconds = (System.nanoTime() - start) / 1e9;
+        /* the frames of the last chunk are decoded after its dispatch */
+        serialMonitor.setTerminate();
+        serialMonitor.getMonitorThread().join();
+
+        System.out.printf("Replayed %d chunks (%d bytes) in %.3f s, %.1f KiB/s, %d frames, max lateness %d us%n",
+                captureReplayer.getReplayedRecords(), bytes, seconds, bytes / seconds / 1024, frames.get(),
+                TimeUnit.NANOSECONDS.toMicros(captureReplayer.getMaxLateness()));
+
+        pseudoTerminal.close();
+    }
+}
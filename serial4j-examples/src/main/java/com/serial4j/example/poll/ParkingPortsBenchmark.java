@@ -0,0 +1,181 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.example.poll;
+
+import com.serial4j.core.serial.SerialPort;
+import com.serial4j.core.terminal.ParkingTerminalDevice;
+import com.serial4j.core.terminal.PseudoTerminal;
+import com.serial4j.core.terminal.TerminalDevice;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmarks a thread per port across hundreds of pseudo-terminal ports using the
+ * {@link ParkingTerminalDevice}, each port has an echo thread on its slave side and
+ * a driver thread on its master side exchanging fixed-size messages.
+ *
+ * <p>
+ * With virtual threads, the waiting threads park on the shared event poller and unmount
+ * from their carriers, so a small carrier pool serves all the ports, run it with:
+ * └──╼ $./gradlew :serial4j-examples:run --args="com.serial4j.example.poll.ParkingPortsBenchmark 500"
+ * on jdk-21 or later, and the jvm argument "-Djdk.virtualThreadScheduler.parallelism=4" to size the carrier pool,
+ * otherwise a platform thread per task is used.
+ * </p>
+ *
+ * <p>
+ * Note: each port uses two file descriptors, raise the open files limit (e.g., "ulimit -n 4096")
+ * for 500 ports.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class ParkingPortsBenchmark {
+
+    private static final int MESSAGES_PER_PORT = 200;
+    private static final int MESSAGE_SIZE = 32;
+
+    public static void main(String[] args) throws Exception {
+        final int numberOfPorts = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        final List<PseudoTerminal> pseudoTerminals = new ArrayList<>();
+        final List<TerminalDevice> slaves = new ArrayList<>();
+        for (int i = 0; i < numberOfPorts; i++) {
+            final PseudoTerminal pseudoTerminal = PseudoTerminal.open();
+            final TerminalDevice slave = new TerminalDevice();
+            slave.openPort(new SerialPort(pseudoTerminal.getSlavePath()));
+            slave.initTerminal();
+            pseudoTerminals.add(pseudoTerminal);
+            slaves.add(slave);
+        }
+
+        final AtomicLong totalRoundTripNanos = new AtomicLong();
+        final AtomicLong peakThreads = new AtomicLong();
+        final List<Future<?>> futures = new ArrayList<>();
+        final long start = System.nanoTime();
+
+        final ExecutorService executor = newThreadPerTaskExecutor();
+        try {
+            for (int i = 0; i < numberOfPorts; i++) {
+                final ParkingTerminalDevice slave = new ParkingTerminalDevice(slaves.get(i));
+                final ParkingTerminalDevice master = new ParkingTerminalDevice(pseudoTerminals.get(i).getMaster());
+                futures.add(executor.submit(() -> echo(slave)));
+                futures.add(executor.submit(() -> drive(master, totalRoundTripNanos)));
+            }
+            /* samples the number of the live platform threads while the ports are being served */
+            while (!futures.stream().allMatch(Future::isDone)) {
+                peakThreads.accumulateAndGet(ManagementFactory.getThreadMXBean().getThreadCount(), Math::max);
+                Thread.sleep(10);
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final long elapsed = System.nanoTime() - start;
+        final long messages = (long) numberOfPorts * MESSAGES_PER_PORT;
+        System.out.printf("Ports = %d, messages = %d, elapsed = %d ms%n", numberOfPorts, messages,
+                TimeUnit.NANOSECONDS.toMillis(elapsed));
+        System.out.printf("Throughput = %.0f messages/s, mean round-trip = %d us%n",
+                messages / (elapsed / 1e9), TimeUnit.NANOSECONDS.toMicros(totalRoundTripNanos.get() / messages));
+        System.out.printf("Peak live platform threads = %d%n", peakThreads.get());
+
+        for (int i = 0; i < numberOfPorts; i++) {
+            slaves.get(i).closePort();
+            pseudoTerminals.get(i).close();
+        }
+    }
+
+    /**
+     * Echoes the received bytes back on the slave side.
+     */
+    private static Void echo(final ParkingTerminalDevice slave) throws InterruptedException {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(MESSAGE_SIZE);
+        long remaining = (long) MESSAGES_PER_PORT * MESSAGE_SIZE;
+        while (remaining > 0) {
+            buffer.clear();
+            final int bytes = slave.read(buffer);
+            if (bytes < 0) {
+                break;
+            }
+            remaining -= bytes;
+            slave.write(buffer.flip());
+        }
+        return null;
+    }
+
+    /**
+     * Sends the messages on the master side and awaits their echoes.
+     */
+    private static Void drive(final ParkingTerminalDevice master, final AtomicLong totalRoundTripNanos)
+            throws InterruptedException {
+        final ByteBuffer message = ByteBuffer.allocateDirect(MESSAGE_SIZE);
+        final ByteBuffer echo = ByteBuffer.allocateDirect(MESSAGE_SIZE);
+        for (int i = 0; i < MESSAGES_PER_PORT; i++) {
+            message.clear();
+            while (message.hasRemaining()) {
+                message.put((byte) i);
+            }
+            final long sent = System.nanoTime();
+            master.write(message.flip());
+            echo.clear();
+            while (echo.hasRemaining()) {
+                if (master.read(echo) < 0) {
+                    throw new IllegalStateException("Port has hung up!");
+                }
+            }
+            totalRoundTripNanos.addAndGet(System.nanoTime() - sent);
+        }
+        return null;
+    }
+
+    /**
+     * Creates a virtual thread per task executor reflectively, so that the example still compiles on the jdks
+     * before jdk-21, or a platform thread per task executor if virtual threads are not available.
+     */
+    private static ExecutorService newThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            System.out.println("Virtual threads are not available, falling back to platform threads!");
+            return Executors.newCachedThreadPool();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/* DO NOT EDIT THIS FILE - it is machine generated */
+#include <jni.h>
+/* Header for class com_serial4j_core_poll_NativePoller */
+
+#ifndef _Included_com_serial4j_core_poll_NativePoller
+#define _Included_com_serial4j_core_poll_NativePoller
+#ifdef __cplusplus
+extern "C" {
+#endif
+/*
+ * Class:     com_serial4j_core_poll_NativePoller
+ * Method:    createWakeup
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_com_serial4j_core_poll_NativePoller_createWakeup
+  (JNIEnv *, jclass);
+
+/*
+ * Class:     com_serial4j_core_poll_NativePoller
+ * Method:    signalWakeup
+ * Signature: (I)I
+ */
+JNIEXPORT jint JNICALL Java_com_serial4j_core_poll_NativePoller_signalWakeup
+  (JNIEnv *, jclass, jint);
+
+/*
+ * Class:     com_serial4j_core_poll_NativePoller
+ * Method:    clearWakeup
+ * Signature: (I)I
+ */
+JNIEXPORT jint JNICALL Java_com_serial4j_core_poll_NativePoller_clearWakeup
+  (JNIEnv *, jclass, jint);
+
+/*
+ * Class:     com_serial4j_core_poll_NativePoller
+ * Method:    poll
+ * Signature: ([I[I[IIJ)I
+ */
+JNIEXPORT jint JNICALL Java_com_serial4j_core_poll_NativePoller_poll
+  (JNIEnv *, jclass, jintArray, jintArray, jintArray, jint, jlong);
+
+/*
+ * Class:     com_serial4j_core_poll_NativePoller
+ * Method:    closeDescriptor
+ * Signature: (I)I
+ */
+JNIEXPORT jint JNICALL Java_com_serial4j_core_poll_NativePoller_closeDescriptor
+  (JNIEnv *, jclass, jint);
+
+/*
+ * Class:     com_serial4j_core_poll_NativePoller
+ * Method:    getErrno
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_com_serial4j_core_poll_NativePoller_getErrno
+  (JNIEnv *, jclass);
+
+/*
+ * Class:     com_serial4j_core_poll_NativePoller
+ * Method:    getPollIn
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_com_serial4j_core_poll_NativePoller_getPollIn
+  (JNIEnv *, jclass);
+
+/*
+ * Class:     com_serial4j_core_poll_NativePoller
+ * Method:    getPollPri
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_com_serial4j_core_poll_NativePoller_getPollPri
+  (JNIEnv *, jclass);
+
+/*
+ * Class:     com_serial4j_core_poll_NativePoller
+ * Method:    getPollOut
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_com_serial4j_core_poll_NativePoller_getPollOut
+  (JNIEnv *, jclass);
+
+/*
+ * Class:     com_serial4j_core_poll_NativePoller
+ * Method:    getPollErr
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_com_serial4j_core_poll_NativePoller_getPollErr
+  (JNIEnv *, jclass);
+
+/*
+ * Class:     com_serial4j_core_poll_NativePoller
+ * Method:    getPollHup
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_com_serial4j_core_poll_NativePoller_getPollHup
+  (JNIEnv *, jclass);
+
+/*
+ * Class:     com_serial4j_core_poll_NativePoller
+ * Method:    getPollNval
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_com_serial4j_core_poll_NativePoller_getPollNval
+  (JNIEnv *, jclass);
+
+#ifdef __cplusplus
+}
+#endif
+#endif
@@ -159,6 +159,46 @@ JNIEXPORT jlong JNICALL Java_com_serial4j_core_terminal_NativeTerminalDevice_sre
 JNIEXPORT jlong JNICALL Java_com_serial4j_core_terminal_NativeTerminalDevice_iread
   (JNIEnv *, jobject, jint);
 
+/*
+ * Class:     com_serial4j_core_terminal_NativeTerminalDevice
+ * Method:    readBuffer
+ * Signature: (Ljava/nio/ByteBuffer;II)J
+ */
+JNIEXPORT jlong JNICALL Java_com_serial4j_core_terminal_NativeTerminalDevice_readBuffer
+  (JNIEnv *, jobject, jobject, jint, jint);
+
+/*
+ * Class:     com_serial4j_core_terminal_NativeTerminalDevice
+ * Method:    writeBuffer
+ * Signature: (Ljava/nio/ByteBuffer;II)J
+ */
+JNIEXPORT jlong JNICALL Java_com_serial4j_core_terminal_NativeTerminalDevice_writeBuffer
+  (JNIEnv *, jobject, jobject, jint, jint);
+
+/*
+ * Class:     com_serial4j_core_terminal_NativeTerminalDevice
+ * Method:    writeBuffers
+ * Signature: ([Ljava/nio/ByteBuffer;[I[II)J
+ */
+JNIEXPORT jlong JNICALL Java_com_serial4j_core_terminal_NativeTerminalDevice_writeBuffers
+  (JNIEnv *, jobject, jobjectArray, jintArray, jintArray, jint);
+
+/*
+ * Class:     com_serial4j_core_terminal_NativeTerminalDevice
+ * Method:    read
+ * Signature: ([BII)J
+ */
+JNIEXPORT jlong JNICALL Java_com_serial4j_core_terminal_NativeTerminalDevice_read
+  (JNIEnv *, jobject, jbyteArray, jint, jint);
+
+/*
+ * Class:     com_serial4j_core_terminal_NativeTerminalDevice
+ * Method:    write
+ * Signature: ([BII)J
+ */
+JNIEXPORT jlong JNICALL Java_com_serial4j_core_terminal_NativeTerminalDevice_write___3BII
+  (JNIEnv *, jobject, jbyteArray, jint, jint);
+
 /*
  * Class:     com_serial4j_core_terminal_NativeTerminalDevice
  * Method:    seek
@@ -215,6 +255,30 @@ JNIEXPORT jint JNICALL Java_com_serial4j_core_terminal_NativeTerminalDevice_setB
 JNIEXPORT jint JNICALL Java_com_serial4j_core_terminal_NativeTerminalDevice_closePort
   (JNIEnv *, jobject);
 
+/*
+ * Class:     com_serial4j_core_terminal_NativeTerminalDevice
+ * Method:    setNonBlocking
+ * Signature: (I)I
+ */
+JNIEXPORT jint JNICALL Java_com_serial4j_core_terminal_NativeTerminalDevice_setNonBlocking
+  (JNIEnv *, jobject, jint);
+
+/*
+ * Class:     com_serial4j_core_terminal_NativeTerminalDevice
+ * Method:    unlockPseudoTerminal
+ * Signature: ()Ljava/lang/String;
+ */
+JNIEXPORT jstring JNICALL Java_com_serial4j_core_terminal_NativeTerminalDevice_unlockPseudoTerminal
+  (JNIEnv *, jobject);
+
+/*
+ * Class:     com_serial4j_core_terminal_NativeTerminalDevice
+ * Method:    getOutputQueueSize
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_com_serial4j_core_terminal_NativeTerminalDevice_getOutputQueueSize
+  (JNIEnv *, jobject);
+
 #ifdef __cplusplus
 }
 #endif
@@ -0,0 +1,100 @@
+/**
+ * @file Poller.h
+ * @author pavl_g.
+ * @brief Represents the file descriptors readiness multiplexing for POSIX systems.
+ * @note This is utilized by the event poller of the Serial4j api to wait on multiple terminal devices from a single thread.
+ * @version 0.1
+ * @date 2022-08-24
+ *
+ * @copyright 
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#ifndef _POLLER
+#define _POLLER
+
+#include<poll.h>
+#include<time.h>
+#include<unistd.h>
+#include<stdlib.h>
+#include<stdint.h>
+#include<errno.h>
+#include<sys/eventfd.h>
+
+#include<ErrnoUtils.h>
+
+namespace Poller {
+
+    /**
+     * @brief Creates a non-blocking wakeup file descriptor (an eventfd counter) that could be
+     * polled along with the terminal devices to interrupt a blocking poll from another thread.
+     *
+     * @return int the wakeup file descriptor, or (-1) for failure.
+     */
+    int createWakeup();
+
+    /**
+     * @brief Signals the wakeup file descriptor, so that a blocking poll returns.
+     *
+     * @param fd the wakeup file descriptor.
+     * @return int (0) for success, (-1) for failure, (-2) for invalid descriptor.
+     */
+    int signalWakeup(int* fd);
+
+    /**
+     * @brief Clears the pending signals of the wakeup file descriptor.
+     *
+     * @param fd the wakeup file descriptor.
+     * @return int (0) for success, (-1) for failure, (-2) for invalid descriptor.
+     */
+    int clearWakeup(int* fd);
+
+    /**
+     * @brief Waits for one of a set of file descriptors to become ready to perform I/O.
+     * @note Uses <poll.h> [ppoll] for a nanosecond timeout, interrupted system calls are reported as (0) ready descriptors.
+     *
+     * @param fds the file descriptors to wait on.
+     * @param events the requested events for each file descriptor.
+     * @param revents a buffer to write the returned events for each file descriptor.
+     * @param count the number of the file descriptors.
+     * @param timeout the timeout in nanoseconds, (-1) to wait indefinitely.
+     * @return int the number of the ready file descriptors, (0) for timeout, or (-1) for failure.
+     */
+    int pollDescriptors(const int* fds, const int* events, int* revents, int count, long timeout);
+
+    /**
+     * @brief Closes a file descriptor created by this poller.
+     *
+     * @param fd the file descriptor to close.
+     * @return int (0) for success, (-1) for failure, (-2) for invalid descriptor.
+     */
+    int closeDescriptor(int* fd);
+}
+
+#endif
@@ -48,6 +48,9 @@
 #include<fcntl.h>
 #include<errno.h>
 #include<dirent.h>
+#include<limits.h>
+#include<sys/ioctl.h>
+#include<sys/uio.h>
 
 #include<AddressesBuffer.h>
 #include<SerialUtils.h>
@@ -236,6 +239,16 @@ namespace TerminalDevice {
      */
     ssize_t writeData(const void* buffer, int length, int* fd);
 
+    /**
+     * @brief Writes the data of multiple buffers to the serial port device with a single gathering system call.
+     * @note Uses <sys/uio.h> [writev] posix api.
+     *
+     * @param vector the buffers to write to the file, in order.
+     * @param count the number of the buffers, up to [IOV_MAX].
+     * @return ssize_t the number of bytes written to the serial device, (-1) for failure, (-2) for invalid port.
+     */
+    ssize_t writeVector(const struct iovec* vector, int count, int* fd);
+
     /**
      * @brief Reads data from the serial port device and saves it to a buffer.
      *
@@ -254,6 +267,38 @@ namespace TerminalDevice {
      */
     off_t seek(int* fd, off_t offset, int whence);
 
+    /**
+     * @brief Enables or disables the non-blocking mode [O_NONBLOCK] of an opened file descriptor.
+     * @note Uses <fcntl.h> Unix file base api.
+     *
+     * @param fd the file descriptor of the serial port device.
+     * @param enabled (1) to enable the non-blocking mode, (0) to disable it.
+     * @return int (0) for success, (-1) for failure, (-2) for invalid port.
+     */
+    int setNonBlocking(int* fd, int enabled);
+
+    /**
+     * @brief Grants and unlocks the slave device of an opened pseudo-terminal master [/dev/ptmx],
+     * and retrieves the slave device path.
+     * @note Uses <stdlib.h> posix pseudo-terminal api.
+     *
+     * @param fd the file descriptor of the pseudo-terminal master device.
+     * @param name a buffer to write the slave device path to.
+     * @param length the length of the buffer.
+     * @return int (0) for success, (-1) for failure, (-2) for invalid port.
+     */
+    int unlockPseudoTerminal(int* fd, char* name, int length);
+
+    /**
+     * @brief Retrieves the number of bytes in the output queue of the terminal device
+     * that are not transmitted yet, without blocking.
+     * @note Uses <sys/ioctl.h> [TIOCOUTQ] request.
+     *
+     * @param fd the file descriptor of the terminal device.
+     * @return int the number of the untransmitted bytes, (-1) for failure, (-2) for invalid port.
+     */
+    int getOutputQueueSize(int* fd);
+
     /**
      * @brief Closes the serial port device.
      *
@@ -0,0 +1,110 @@
+/**
+ * @file com_serial4j_core_poll_NativePoller.cpp
+ * @author pavl_g.
+ * @brief Instantiates a native interface of the readiness multiplexing api for the java programming language.
+ * @version 0.1
+ * @date 2022-09-06
+ * 
+ * @copyright 
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include<jni/com_serial4j_core_poll_NativePoller.h>
+#include<errno.h>
+#include<Poller.h>
+
+JNIEXPORT jint JNICALL Java_com_serial4j_core_poll_NativePoller_createWakeup
+  (JNIEnv* env, jclass clazz) {
+    return Poller::createWakeup();
+}
+
+JNIEXPORT jint JNICALL Java_com_serial4j_core_poll_NativePoller_signalWakeup
+  (JNIEnv* env, jclass clazz, jint fd) {
+    return Poller::signalWakeup(&fd);
+}
+
+JNIEXPORT jint JNICALL Java_com_serial4j_core_poll_NativePoller_clearWakeup
+  (JNIEnv* env, jclass clazz, jint fd) {
+    return Poller::clearWakeup(&fd);
+}
+
+JNIEXPORT jint JNICALL Java_com_serial4j_core_poll_NativePoller_poll
+  (JNIEnv* env, jclass clazz, jintArray fds, jintArray events, jintArray revents, jint count, jlong timeout) {
+    /* the poll thread is a platform thread, the arrays are copied as the call could block indefinitely */
+    jint* fdsElements = env->GetIntArrayElements(fds, NULL);
+    jint* eventsElements = env->GetIntArrayElements(events, NULL);
+    jint* reventsElements = env->GetIntArrayElements(revents, NULL);
+    int ready = Poller::pollDescriptors(fdsElements, eventsElements, reventsElements, count, timeout);
+    const int error = errno;
+    env->ReleaseIntArrayElements(fds, fdsElements, JNI_ABORT);
+    env->ReleaseIntArrayElements(events, eventsElements, JNI_ABORT);
+    env->ReleaseIntArrayElements(revents, reventsElements, 0);
+    errno = error;
+    return ready;
+}
+
+JNIEXPORT jint JNICALL Java_com_serial4j_core_poll_NativePoller_closeDescriptor
+  (JNIEnv* env, jclass clazz, jint fd) {
+    return Poller::closeDescriptor(&fd);
+}
+
+JNIEXPORT jint JNICALL Java_com_serial4j_core_poll_NativePoller_getErrno
+  (JNIEnv* env, jclass clazz) {
+    return errno;
+}
+
+JNIEXPORT jint JNICALL Java_com_serial4j_core_poll_NativePoller_getPollIn
+  (JNIEnv* env, jclass clazz) {
+    return POLLIN;
+}
+
+JNIEXPORT jint JNICALL Java_com_serial4j_core_poll_NativePoller_getPollPri
+  (JNIEnv* env, jclass clazz) {
+    return POLLPRI;
+}
+
+JNIEXPORT jint JNICALL Java_com_serial4j_core_poll_NativePoller_getPollOut
+  (JNIEnv* env, jclass clazz) {
+    return POLLOUT;
+}
+
+JNIEXPORT jint JNICALL Java_com_serial4j_core_poll_NativePoller_getPollErr
+  (JNIEnv* env, jclass clazz) {
+    return POLLERR;
+}
+
+JNIEXPORT jint JNICALL Java_com_serial4j_core_poll_NativePoller_getPollHup
+  (JNIEnv* env, jclass clazz) {
+    return POLLHUP;
+}
+
+JNIEXPORT jint JNICALL Java_com_serial4j_core_poll_NativePoller_getPollNval
+  (JNIEnv* env, jclass clazz) {
+    return POLLNVAL;
+}
@@ -42,6 +42,12 @@
 #include<stdlib.h>
 #include<JniUtils.h>
 
+/**
+ * The size of the stack buffer staging the java byte arrays, the array elements can't be
+ * pinned across a blocking system call.
+ */
+#define ARRAY_STAGING_SIZE (8 * 1024)
+
 AddressesBuffer serialPorts;
 
 /**
@@ -210,6 +216,97 @@ JNIEXPORT jlong JNICALL Java_com_serial4j_core_terminal_NativeTerminalDevice_ire
     return bytes;
 }
 
+JNIEXPORT jlong JNICALL Java_com_serial4j_core_terminal_NativeTerminalDevice_readBuffer
+  (JNIEnv* env, jobject object, jobject buffer, jint offset, jint length) {
+    int fd = JniUtils::getPortDescriptorFromSerialPort(env, &object);
+    /* read directly into the native memory of the direct buffer, no intermediate copies */
+    jbyte* address = (jbyte*) env->GetDirectBufferAddress(buffer);
+    return TerminalDevice::readData((void*) (address + offset), length, &fd);
+}
+
+JNIEXPORT jlong JNICALL Java_com_serial4j_core_terminal_NativeTerminalDevice_writeBuffer
+  (JNIEnv* env, jobject object, jobject buffer, jint offset, jint length) {
+    int fd = JniUtils::getPortDescriptorFromSerialPort(env, &object);
+    /* write directly from the native memory of the direct buffer, no intermediate copies */
+    jbyte* address = (jbyte*) env->GetDirectBufferAddress(buffer);
+    return TerminalDevice::writeData((const void*) (address + offset), length, &fd);
+}
+
+JNIEXPORT jlong JNICALL Java_com_serial4j_core_terminal_NativeTerminalDevice_writeBuffers
+  (JNIEnv* env, jobject object, jobjectArray buffers, jintArray positions, jintArray lengths, jint count) {
+    int fd = JniUtils::getPortDescriptorFromSerialPort(env, &object);
+    struct iovec* vector = (struct iovec*) malloc(sizeof(struct iovec) * (count > 0 ? count : 1));
+    if (vector == NULL) {
+        errno = ENOMEM;
+        return ERR_OPERATION_FAILED;
+    }
+    jint* offsets = env->GetIntArrayElements(positions, NULL);
+    jint* sizes = env->GetIntArrayElements(lengths, NULL);
+    if (offsets == NULL || sizes == NULL) {
+        if (offsets != NULL) {
+            env->ReleaseIntArrayElements(positions, offsets, JNI_ABORT);
+        }
+        if (sizes != NULL) {
+            env->ReleaseIntArrayElements(lengths, sizes, JNI_ABORT);
+        }
+        free(vector);
+        errno = ENOMEM;
+        return ERR_OPERATION_FAILED;
+    }
+    /* gather directly from the native memory of the direct buffers, no intermediate copies */
+    for (int i = 0; i < count; i++) {
+        jobject buffer = env->GetObjectArrayElement(buffers, i);
+        vector[i].iov_base = (void*) (((jbyte*) env->GetDirectBufferAddress(buffer)) + offsets[i]);
+        vector[i].iov_len = sizes[i];
+        env->DeleteLocalRef(buffer);
+    }
+    env->ReleaseIntArrayElements(positions, offsets, JNI_ABORT);
+    env->ReleaseIntArrayElements(lengths, sizes, JNI_ABORT);
+    long bytes = TerminalDevice::writeVector(vector, count, &fd);
+    const int error = errno;
+    free(vector);
+    errno = error;
+    return bytes;
+}
+
+JNIEXPORT jlong JNICALL Java_com_serial4j_core_terminal_NativeTerminalDevice_read
+  (JNIEnv* env, jobject object, jbyteArray buffer, jint offset, jint length) {
+    int fd = JniUtils::getPortDescriptorFromSerialPort(env, &object);
+    /* reads up to the staging size at once, a short read is valid, and the callers read again */
+    jbyte data[ARRAY_STAGING_SIZE];
+    long bytes = TerminalDevice::readData((void*) data, length < ARRAY_STAGING_SIZE ? length : ARRAY_STAGING_SIZE, &fd);
+    if (bytes > 0) {
+        const int error = errno;
+        env->SetByteArrayRegion(buffer, offset, bytes, data);
+        errno = error;
+    }
+    return bytes;
+}
+
+JNIEXPORT jlong JNICALL Java_com_serial4j_core_terminal_NativeTerminalDevice_write___3BII
+  (JNIEnv* env, jobject object, jbyteArray buffer, jint offset, jint length) {
+    int fd = JniUtils::getPortDescriptorFromSerialPort(env, &object);
+    /* writes in chunks of the staging size, stops at the first short write, or error */
+    jbyte data[ARRAY_STAGING_SIZE];
+    long written = 0;
+    do {
+        const int chunk = (length - written) < ARRAY_STAGING_SIZE ? (int) (length - written) : ARRAY_STAGING_SIZE;
+        env->GetByteArrayRegion(buffer, offset + written, chunk, data);
+        if (env->ExceptionCheck()) {
+            return ERR_OPERATION_FAILED;
+        }
+        const long bytes = TerminalDevice::writeData((const void*) data, chunk, &fd);
+        if (bytes < 0) {
+            return written > 0 ? written : bytes;
+        }
+        written += bytes;
+        if (bytes < chunk) {
+            break;
+        }
+    } while (written < length);
+    return written;
+}
+
 JNIEXPORT jlong JNICALL Java_com_serial4j_core_terminal_NativeTerminalDevice_seek
   (JNIEnv* env, jobject object, jlong offset, jint whence) {
     int fd = JniUtils::getPortDescriptorFromSerialPort(env, &object);
@@ -263,6 +360,30 @@ JNIEXPORT jint JNICALL Java_com_serial4j_core_terminal_NativeTerminalDevice_getM
     return state;
 }
 
+JNIEXPORT jint JNICALL Java_com_serial4j_core_terminal_NativeTerminalDevice_setNonBlocking
+  (JNIEnv* env, jobject object, jint enabled) {
+    int fd = JniUtils::getPortDescriptorFromSerialPort(env, &object);
+    return TerminalDevice::setNonBlocking(&fd, enabled);
+}
+
+JNIEXPORT jint JNICALL Java_com_serial4j_core_terminal_NativeTerminalDevice_getOutputQueueSize
+  (JNIEnv* env, jobject object) {
+    int fd = JniUtils::getPortDescriptorFromSerialPort(env, &object);
+    return TerminalDevice::getOutputQueueSize(&fd);
+}
+
+JNIEXPORT jstring JNICALL Java_com_serial4j_core_terminal_NativeTerminalDevice_unlockPseudoTerminal
+  (JNIEnv* env, jobject object) {
+    int fd = JniUtils::getPortDescriptorFromSerialPort(env, &object);
+    char name[PATH_MAX];
+    /* clear the memory blocks before using */
+    memset(name, '\0', sizeof(name));
+    if (TerminalDevice::unlockPseudoTerminal(&fd, name, sizeof(name)) != OPERATION_SUCCEEDED) {
+        return NULL;
+    }
+    return env->NewStringUTF(name);
+}
+
 JNIEXPORT jint JNICALL Java_com_serial4j_core_terminal_NativeTerminalDevice_closePort
   (JNIEnv* env, jobject object) {
     
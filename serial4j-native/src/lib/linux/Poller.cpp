@@ -0,0 +1,99 @@
+/**
+ * @file Poller.cpp
+ * @author pavl_g.
+ * @brief Implements the file descriptors readiness multiplexing for POSIX systems.
+ * @version 0.1
+ * @date 2022-08-24
+ *
+ * @copyright 
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include<Poller.h>
+
+int Poller::createWakeup() {
+    return eventfd(0, EFD_NONBLOCK | EFD_CLOEXEC);
+}
+
+int Poller::signalWakeup(int* fd) {
+    if (*fd <= 0) {
+        return ERR_INVALID_PORT;
+    }
+    const uint64_t signal = 1;
+    /* a saturated counter (EAGAIN) is still a pending wakeup */
+    if (write(*fd, &signal, sizeof(signal)) == ERR_OPERATION_FAILED && errno != EAGAIN) {
+        return ERR_OPERATION_FAILED;
+    }
+    return OPERATION_SUCCEEDED;
+}
+
+int Poller::clearWakeup(int* fd) {
+    if (*fd <= 0) {
+        return ERR_INVALID_PORT;
+    }
+    uint64_t signals;
+    /* a cleared counter (EAGAIN) has no pending wakeups */
+    if (read(*fd, &signals, sizeof(signals)) == ERR_OPERATION_FAILED && errno != EAGAIN) {
+        return ERR_OPERATION_FAILED;
+    }
+    return OPERATION_SUCCEEDED;
+}
+
+int Poller::pollDescriptors(const int* fds, const int* events, int* revents, int count, long timeout) {
+    struct pollfd* descriptors = (struct pollfd*) calloc(count, sizeof(struct pollfd));
+    if (descriptors == NULL) {
+        return ERR_OPERATION_FAILED;
+    }
+    for (int i = 0; i < count; i++) {
+        descriptors[i].fd = fds[i];
+        descriptors[i].events = (short) events[i];
+    }
+    struct timespec interval;
+    interval.tv_sec = timeout / 1000000000L;
+    interval.tv_nsec = timeout % 1000000000L;
+    int ready = ppoll(descriptors, count, timeout < 0 ? NULL : &interval, NULL);
+    if (ready == ERR_OPERATION_FAILED && errno == EINTR) {
+        ready = 0;
+    }
+    for (int i = 0; i < count; i++) {
+        revents[i] = ready > 0 ? descriptors[i].revents : 0;
+    }
+    /* preserve the poll errno from being overwritten */
+    const int error = errno;
+    free(descriptors);
+    errno = error;
+    return ready;
+}
+
+int Poller::closeDescriptor(int* fd) {
+    if (*fd <= 0) {
+        return ERR_INVALID_PORT;
+    }
+    return close(*fd);
+}
@@ -232,6 +232,13 @@ ssize_t TerminalDevice::writeData(const void* buffer, int length, int* fd) {
     return write(*fd, buffer, length);
 }
 
+ssize_t TerminalDevice::writeVector(const struct iovec* vector, int count, int* fd) {
+    if (*fd <= 0) {
+        return ERR_INVALID_PORT;
+    }
+    return writev(*fd, vector, count);
+}
+
 ssize_t TerminalDevice::readData(void* buffer, int length, int* fd) {
     if (*fd <= 0) {
         return ERR_INVALID_PORT;
@@ -246,6 +253,39 @@ off_t TerminalDevice::seek(int* fd, off_t offset, int whence) {
     return lseek(*fd, offset, whence);
 }
 
+int TerminalDevice::setNonBlocking(int* fd, int enabled) {
+    if (*fd <= 0) {
+        return ERR_INVALID_PORT;
+    }
+    int flags = fcntl(*fd, F_GETFL);
+    if (flags == ERR_OPERATION_FAILED) {
+        return ERR_OPERATION_FAILED;
+    }
+    flags = enabled ? (flags | O_NONBLOCK) : (flags & ~O_NONBLOCK);
+    return fcntl(*fd, F_SETFL, flags);
+}
+
+int TerminalDevice::unlockPseudoTerminal(int* fd, char* name, int length) {
+    if (*fd <= 0) {
+        return ERR_INVALID_PORT;
+    }
+    if (grantpt(*fd) == ERR_OPERATION_FAILED || unlockpt(*fd) == ERR_OPERATION_FAILED) {
+        return ERR_OPERATION_FAILED;
+    }
+    return ptsname_r(*fd, name, length) == OPERATION_SUCCEEDED ? OPERATION_SUCCEEDED : ERR_OPERATION_FAILED;
+}
+
+int TerminalDevice::getOutputQueueSize(int* fd) {
+    if (*fd <= 0) {
+        return ERR_INVALID_PORT;
+    }
+    int size = 0;
+    if (ioctl(*fd, TIOCOUTQ, &size) == ERR_OPERATION_FAILED) {
+        return ERR_OPERATION_FAILED;
+    }
+    return size;
+}
+
 int TerminalDevice::closePort(int* fd) {
     if (*fd <= 0) {
         return ERR_INVALID_PORT;
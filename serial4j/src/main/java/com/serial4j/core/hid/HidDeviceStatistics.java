@@ -0,0 +1,193 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.hid;
+
+/**
+ * The report rate and latency statistics of a device aggregated by a {@link HidHub}.
+ *
+ * <p>
+ * The receive statistics are updated by the receive thread of the device, and the delivery statistics
+ * by the consumer of the hub, the statistics could be read from any thread.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class HidDeviceStatistics {
+
+    /**
+     * The period of the report rate measurement.
+     */
+    private static final long RATE_PERIOD = 1_000_000_000L;
+
+    private final HumanInterfaceDevice<?, ?> device;
+
+    /* the receive side */
+    private volatile long reports;
+    private volatile long lateReports;
+    private volatile long totalDecodeLatency;
+    private volatile long maxDecodeLatency;
+    private volatile double reportRate;
+    private volatile long periodStart;
+    private volatile long periodReports;
+
+    /* the delivery side */
+    private volatile long deliveredReports;
+    private volatile long totalDeliveryLatency;
+    private volatile long maxDeliveryLatency;
+
+    HidDeviceStatistics(final HumanInterfaceDevice<?, ?> device) {
+        this.device = device;
+    }
+
+    void onReceived(final long timestamp, final long now, final boolean late) {
+        final long latency = now - timestamp;
+        totalDecodeLatency += latency;
+        if (latency > maxDecodeLatency) {
+            maxDecodeLatency = latency;
+        }
+        if (late) {
+            lateReports++;
+        }
+        reports++;
+        if (periodStart == 0) {
+            periodStart = now;
+        }
+        periodReports++;
+        final long elapsed = now - periodStart;
+        if (elapsed >= RATE_PERIOD) {
+            reportRate = periodReports * 1e9 / elapsed;
+            periodStart = now;
+            periodReports = 0;
+        }
+    }
+
+    void onDelivered(final long timestamp, final long now) {
+        final long latency = now - timestamp;
+        totalDeliveryLatency += latency;
+        if (latency > maxDeliveryLatency) {
+            maxDeliveryLatency = latency;
+        }
+        deliveredReports++;
+    }
+
+    /**
+     * Retrieves the device of these statistics.
+     *
+     * @return the device
+     */
+    public HumanInterfaceDevice<?, ?> getDevice() {
+        return device;
+    }
+
+    /**
+     * Retrieves the number of the reports received by the hub.
+     *
+     * @return the number of reports
+     */
+    public long getReports() {
+        return reports;
+    }
+
+    /**
+     * Retrieves the number of the reports that arrived beyond the lateness bound.
+     *
+     * @return the number of late reports
+     */
+    public long getLateReports() {
+        return lateReports;
+    }
+
+    /**
+     * Retrieves the report rate measured on the last complete period of 1 second, or on the current
+     * period once it runs past 1 second with no report completing it, so that the rate of a device
+     * going silent decays to zero.
+     *
+     * @return the number of reports per second
+     */
+    public double getReportRate() {
+        final long start = periodStart;
+        final long elapsed = System.nanoTime() - start;
+        if (start != 0 && elapsed >= RATE_PERIOD) {
+            return periodReports * 1e9 / elapsed;
+        }
+        return reportRate;
+    }
+
+    /**
+     * Retrieves the mean latency from the receive timestamp to the decoded report.
+     *
+     * @return the mean decode latency in nanoseconds
+     */
+    public long getMeanDecodeLatency() {
+        final long reports = this.reports;
+        return reports == 0 ? 0 : totalDecodeLatency / reports;
+    }
+
+    /**
+     * Retrieves the maximum latency from the receive timestamp to the decoded report.
+     *
+     * @return the maximum decode latency in nanoseconds
+     */
+    public long getMaxDecodeLatency() {
+        return maxDecodeLatency;
+    }
+
+    /**
+     * Retrieves the number of the reports delivered to the hub consumer.
+     *
+     * @return the number of delivered reports
+     */
+    public long getDeliveredReports() {
+        return deliveredReports;
+    }
+
+    /**
+     * Retrieves the mean latency from the receive timestamp to the delivery to the hub consumer,
+     * including the lateness bound of the ordering.
+     *
+     * @return the mean delivery latency in nanoseconds
+     */
+    public long getMeanDeliveryLatency() {
+        final long delivered = deliveredReports;
+        return delivered == 0 ? 0 : totalDeliveryLatency / delivered;
+    }
+
+    /**
+     * Retrieves the maximum latency from the receive timestamp to the delivery to the hub consumer.
+     *
+     * @return the maximum delivery latency in nanoseconds
+     */
+    public long getMaxDeliveryLatency() {
+        return maxDeliveryLatency;
+    }
+}
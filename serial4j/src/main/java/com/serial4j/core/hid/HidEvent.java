@@ -0,0 +1,120 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.hid;
+
+/**
+ * A decoded report of a device aggregated by a {@link HidHub}, tagged with its receive timestamp.
+ *
+ * @author pavl_g
+ */
+public final class HidEvent implements Comparable<HidEvent> {
+
+    private final HumanInterfaceDevice<?, ?> device;
+    private final Object report;
+    private final long timestamp;
+    private final long sequence;
+    private final boolean late;
+
+    HidEvent(final HumanInterfaceDevice<?, ?> device, final Object report,
+             final long timestamp, final long sequence, final boolean late) {
+        this.device = device;
+        this.report = report;
+        this.timestamp = timestamp;
+        this.sequence = sequence;
+        this.late = late;
+    }
+
+    /**
+     * Retrieves the device of this event.
+     *
+     * @return the source device
+     */
+    public HumanInterfaceDevice<?, ?> getDevice() {
+        return device;
+    }
+
+    /**
+     * Retrieves the decoded report, e.g., a {@code JoystickRegistry}.
+     *
+     * @param <D> the type of the decoded reports of the source device
+     * @return the decoded report
+     */
+    @SuppressWarnings("unchecked")
+    public <D> D getReport() {
+        return (D) report;
+    }
+
+    /**
+     * Retrieves the receive timestamp of the report, see {@link HumanInterfaceDevice#getReportTimestamp()}.
+     *
+     * @return the monotonic time in nanoseconds
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Retrieves the order of arrival of this event at the hub, which breaks the timestamp ties.
+     *
+     * @return the arrival sequence
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Tests whether this event arrived at the hub after an event with a later timestamp was released,
+     * i.e., it's beyond the lateness bound, and is released out of order.
+     *
+     * @return true if the event is late, false otherwise
+     */
+    public boolean isLate() {
+        return late;
+    }
+
+    @Override
+    public int compareTo(final HidEvent other) {
+        final int order = Long.compare(timestamp, other.timestamp);
+        return order != 0 ? order : Long.compare(sequence, other.sequence);
+    }
+
+    @Override
+    public String toString() {
+        return "HidEvent = [" +
+                "device=" + device.getVendor() +
+                ", report=" + report +
+                ", timestamp=" + timestamp +
+                ", late=" + late +
+                ']';
+    }
+}
@@ -0,0 +1,413 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.hid;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Aggregates the decoded reports of many devices (e.g., a joystick, analog pedals, and GPIO button boxes)
+ * into a single stream of {@link HidEvent}s ordered by their receive timestamps.
+ *
+ * <p>
+ * The reports are tagged with their receive timestamps (the port readiness time of the {@link HidReader}),
+ * and merged into a priority queue, an event is released to the consumer once the watermark, the current time
+ * less the maximum lateness, passes its timestamp, so that the reports of the devices received on different
+ * threads, or dispatched late within the lateness bound, are still delivered in their true arrival order;
+ * an event arriving beyond the lateness bound is released immediately, and flagged as late.
+ * </p>
+ *
+ * <p>
+ * The merged stream holds up to {@link HidHub#MAX_PENDING_EVENTS} events, so that a consumer falling behind
+ * doesn't pile the events of the devices up without a bound, the oldest pending event is dropped to merge
+ * a new event into a full stream, and the watermark is advanced past it, see {@link HidHub#getDroppedEvents()}.
+ * </p>
+ *
+ * <p>
+ * The serial devices registered by {@link HidHub#register(HumanInterfaceDevice)} are received by the
+ * hub reader, the other devices are received by the application threads.
+ * </p>
+ *
+ * <p>
+ * Example:
+ * <pre>{@code
+ * final HidHub hub = new HidHub("Cockpit", 2, TimeUnit.MILLISECONDS);
+ * hub.start();
+ * hub.register(joystickDevice);
+ * hub.register(pedalsDevice);
+ * HidEvent event;
+ * while ((event = hub.poll(100, TimeUnit.MILLISECONDS)) != null) {
+ *     ...
+ * }
+ * }</pre>
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class HidHub {
+
+    /**
+     * The maximum number of the merged events pending for the consumer.
+     */
+    public static final int MAX_PENDING_EVENTS = 4096;
+
+    private final HidReader hidReader;
+    private final boolean sharedReader;
+    private final long maxLateness;
+    private final Map<HumanInterfaceDevice<?, ?>, HidDeviceStatistics> statistics = new ConcurrentHashMap<>();
+
+    /* the merged stream, guarded by the lock */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition releasable = lock.newCondition();
+    private final PriorityQueue<HidEvent> events = new PriorityQueue<>();
+    private long sequence;
+    private long watermark = Long.MIN_VALUE;
+    private long lateEvents;
+    private long droppedEvents;
+
+    /**
+     * Instantiates a hub receiving its serial devices on its own {@link HidReader}.
+     *
+     * @param name        the name of the hub reader thread
+     * @param maxLateness the maximum delay of a report dispatch after its receive timestamp
+     *                    that keeps the report in order, the added delivery latency
+     * @param unit        the unit of the maximum lateness
+     */
+    public HidHub(final String name, final long maxLateness, final TimeUnit unit) {
+        this(new HidReader(name), false, maxLateness, unit);
+    }
+
+    /**
+     * Instantiates a hub receiving its serial devices on a shared {@link HidReader},
+     * which is neither started, nor shut down by this hub.
+     *
+     * @param hidReader   a shared reader
+     * @param maxLateness the maximum delay of a report dispatch after its receive timestamp
+     *                    that keeps the report in order, the added delivery latency
+     * @param unit        the unit of the maximum lateness
+     */
+    public HidHub(final HidReader hidReader, final long maxLateness, final TimeUnit unit) {
+        this(hidReader, true, maxLateness, unit);
+    }
+
+    private HidHub(final HidReader hidReader, final boolean sharedReader, final long maxLateness, final TimeUnit unit) {
+        if (maxLateness < 0) {
+            throw new IllegalArgumentException("The maximum lateness can't be negative!");
+        }
+        this.hidReader = hidReader;
+        this.sharedReader = sharedReader;
+        this.maxLateness = unit.toNanos(maxLateness);
+    }
+
+    /**
+     * Starts the hub reader, if it's not shared.
+     */
+    public void start() {
+        if (!sharedReader) {
+            hidReader.start();
+        }
+    }
+
+    /**
+     * Registers an initialized device, its decoded reports are merged into the hub stream before dispatching
+     * its current decoder listener; a {@link StandardSerialDevice} is received by the hub reader afterwards,
+     * the other devices must be received by the application.
+     *
+     * @param device an initialized device
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void register(final HumanInterfaceDevice<?, ?> device) {
+        final HidDeviceStatistics deviceStatistics = new HidDeviceStatistics(device);
+        if (statistics.putIfAbsent(device, deviceStatistics) != null) {
+            throw new IllegalStateException("Device " + device.getVendor() + " is already registered!");
+        }
+        final HumanInterfaceDevice.ReportDescriptor.DecoderListener delegate = device.getDecoderListener();
+        device.setDecoderListener(new HubListener(device, deviceStatistics, delegate));
+        if (device instanceof StandardSerialDevice<?, ?> serialDevice) {
+            try {
+                hidReader.register(serialDevice);
+            } catch (final IllegalStateException e) {
+                device.setDecoderListener(delegate);
+                statistics.remove(device);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Unregisters a device, and restores its decoder listener, the merged events of the device
+     * are still delivered.
+     *
+     * @param device a registered device
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void unregister(final HumanInterfaceDevice<?, ?> device) {
+        if (statistics.remove(device) == null) {
+            return;
+        }
+        if (device instanceof StandardSerialDevice<?, ?> serialDevice) {
+            hidReader.unregister(serialDevice);
+        }
+        if (device.getDecoderListener() instanceof HubListener hubListener) {
+            device.setDecoderListener(hubListener.delegate);
+        }
+    }
+
+    /**
+     * Retrieves the next event of the merged stream, if its timestamp is behind the watermark.
+     *
+     * @return the next ordered event, or null if there are no releasable events yet
+     */
+    public HidEvent poll() {
+        lock.lock();
+        try {
+            return release(System.nanoTime());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the next event of the merged stream, waiting for an event to become releasable if necessary.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the unit of the timeout
+     * @return the next ordered event, or null if the timeout elapses
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public HidEvent poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                final long now = System.nanoTime();
+                final HidEvent event = release(now);
+                if (event != null) {
+                    return event;
+                }
+                long wait = deadline - now;
+                if (wait <= 0) {
+                    return null;
+                }
+                final HidEvent head = events.peek();
+                if (head != null) {
+                    /* wait until the watermark passes the head */
+                    wait = Math.min(wait, head.getTimestamp() + maxLateness - now);
+                }
+                releasable.awaitNanos(Math.max(wait, 1));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the hub, the devices are unregistered, and the hub reader is shut down if it's not shared,
+     * the devices are not closed.
+     */
+    public void shutdown() {
+        for (final HumanInterfaceDevice<?, ?> device : new ArrayList<>(statistics.keySet())) {
+            unregister(device);
+        }
+        if (!sharedReader) {
+            hidReader.shutdown();
+        }
+    }
+
+    /**
+     * Retrieves the statistics of a registered device.
+     *
+     * @param device a registered device
+     * @return the device statistics, or null if the device is not registered
+     */
+    public HidDeviceStatistics getStatistics(final HumanInterfaceDevice<?, ?> device) {
+        return statistics.get(device);
+    }
+
+    /**
+     * Retrieves the statistics of all the registered devices.
+     *
+     * @return a new list of the device statistics
+     */
+    public List<HidDeviceStatistics> getStatistics() {
+        return new ArrayList<>(statistics.values());
+    }
+
+    /**
+     * Retrieves the number of the merged events waiting for the watermark.
+     *
+     * @return the number of pending events
+     */
+    public int getPendingEvents() {
+        lock.lock();
+        try {
+            return events.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the number of the events that arrived beyond the lateness bound, and were released out of order.
+     *
+     * @return the number of late events
+     */
+    public long getLateEvents() {
+        lock.lock();
+        try {
+            return lateEvents;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the number of the oldest pending events dropped to merge new events into a full stream.
+     *
+     * @return the number of dropped events
+     */
+    public long getDroppedEvents() {
+        lock.lock();
+        try {
+            return droppedEvents;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the maximum lateness of the ordering.
+     *
+     * @return the maximum lateness in nanoseconds
+     */
+    public long getMaxLateness() {
+        return maxLateness;
+    }
+
+    /**
+     * Retrieves the reader of the hub serial devices.
+     *
+     * @return the hub reader
+     */
+    public HidReader getHidReader() {
+        return hidReader;
+    }
+
+    private HidEvent release(final long now) {
+        final HidEvent head = events.peek();
+        if (head == null || head.getTimestamp() > now - maxLateness) {
+            return null;
+        }
+        events.poll();
+        watermark = Math.max(watermark, head.getTimestamp());
+        final HidDeviceStatistics deviceStatistics = statistics.get(head.getDevice());
+        if (deviceStatistics != null) {
+            deviceStatistics.onDelivered(head.getTimestamp(), now);
+        }
+        return head;
+    }
+
+    private void merge(final HumanInterfaceDevice<?, ?> device, final HidDeviceStatistics deviceStatistics,
+                       final Object report, final long timestamp) {
+        final long now = System.nanoTime();
+        lock.lock();
+        try {
+            /* an event behind an already released event can't be ordered anymore */
+            final boolean late = timestamp < watermark;
+            if (late) {
+                lateEvents++;
+            }
+            final HidEvent event = new HidEvent(device, report, timestamp, sequence++, late);
+            if (events.size() == MAX_PENDING_EVENTS) {
+                /* the consumer is behind, drop the oldest event, the events behind it can't be ordered anymore */
+                watermark = Math.max(watermark, events.poll().getTimestamp());
+                droppedEvents++;
+            }
+            events.offer(event);
+            deviceStatistics.onReceived(timestamp, now, late);
+            if (events.peek() == event) {
+                releasable.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Merges the decoded reports of a device, then dispatches its original listener.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final class HubListener implements HumanInterfaceDevice.ReportDescriptor.IntDecoderListener {
+
+        private final HumanInterfaceDevice<?, ?> device;
+        private final HidDeviceStatistics deviceStatistics;
+        private final HumanInterfaceDevice.ReportDescriptor.DecoderListener delegate;
+
+        HubListener(final HumanInterfaceDevice<?, ?> device, final HidDeviceStatistics deviceStatistics,
+                    final HumanInterfaceDevice.ReportDescriptor.DecoderListener delegate) {
+            this.device = device;
+            this.deviceStatistics = deviceStatistics;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onEncodingCompleted(final Object encoded) {
+            if (delegate != null) {
+                delegate.onEncodingCompleted(encoded);
+            }
+        }
+
+        @Override
+        public void onIntEncodingCompleted(final int encoded) {
+            if (delegate instanceof HumanInterfaceDevice.ReportDescriptor.IntDecoderListener intDelegate) {
+                intDelegate.onIntEncodingCompleted(encoded);
+            } else if (delegate != null) {
+                delegate.onEncodingCompleted(encoded);
+            }
+        }
+
+        @Override
+        public void onDecodingCompleted(final Object decoded) {
+            merge(device, deviceStatistics, decoded, device.getReportTimestamp());
+            if (delegate != null) {
+                delegate.onDecodingCompleted(decoded);
+            }
+        }
+    }
+}
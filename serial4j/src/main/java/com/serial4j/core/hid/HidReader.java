@@ -0,0 +1,294 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.hid;
+
+import com.serial4j.core.poll.EventPoller;
+import com.serial4j.core.poll.PollEvent;
+import com.serial4j.core.poll.ReadinessListener;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Owns the receive loop of one or many serial HIDs, the devices are received on an {@link EventPoller}
+ * thread once their ports become readable, and the decoded reports are delivered to their
+ * {@link HumanInterfaceDevice.ReportDescriptor.DecoderListener}s (and their {@link HidStateSnapshot}s) on that thread.
+ *
+ * <p>
+ * A ready device is drained by dispatching {@link HumanInterfaceDevice#receive()} until no more
+ * reports are completed, and then its port is armed again, so that the applications receive
+ * the HID events with neither a polling thread of their own, nor an idle CPU burn. A device flooding
+ * more than a bounded number of reports is yielded to the other devices, and its drain is resumed by
+ * a task on the event loop, as its remaining reports could be buffered by the device rather than the port.
+ * </p>
+ *
+ * <p>
+ * Example:
+ * <pre>{@code
+ * final HidReader hidReader = new HidReader("HID-Reader");
+ * hidReader.start();
+ * mouseDevice.init();
+ * mouseDevice.setDecoderListener(listener);
+ * hidReader.register(mouseDevice);
+ * ...
+ * hidReader.unregister(mouseDevice);
+ * mouseDevice.close();
+ * hidReader.shutdown();
+ * }</pre>
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class HidReader {
+
+    private static final Logger LOGGER = Logger.getLogger(HidReader.class.getName());
+
+    /**
+     * The maximum number of the reports received from a device on a single readiness,
+     * so that a flooding device doesn't starve the other devices of the reader.
+     */
+    private static final int MAX_REPORTS_PER_READINESS = 64;
+
+    /**
+     * The maximum time in milliseconds that {@link HidReader#unregister(StandardSerialDevice)} waits for the event loop.
+     */
+    private static final long UNREGISTER_TIMEOUT = 1000;
+
+    private final EventPoller eventPoller;
+    private final boolean sharedEventPoller;
+
+    /**
+     * The registered devices by file descriptor, registered by the caller threads,
+     * and removed by the event loop thread.
+     */
+    private final Map<Integer, Registration> registrations = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a reader on its own event loop, started by {@link HidReader#start()}.
+     *
+     * @param name the name of the reader thread
+     */
+    public HidReader(final String name) {
+        this.eventPoller = new EventPoller(name);
+        this.sharedEventPoller = false;
+    }
+
+    /**
+     * Instantiates a reader on a shared event loop, which is neither started, nor shut down by this reader.
+     *
+     * @param eventPoller a shared event poller
+     */
+    public HidReader(final EventPoller eventPoller) {
+        this.eventPoller = eventPoller;
+        this.sharedEventPoller = true;
+    }
+
+    /**
+     * Starts the event loop of this reader, if it's not shared.
+     */
+    public void start() {
+        if (!sharedEventPoller) {
+            eventPoller.start();
+        }
+    }
+
+    /**
+     * Registers an initialized device, the device is received on the reader thread afterwards,
+     * and must not be received by other threads.
+     *
+     * @param device an initialized serial HID
+     * @throws IllegalStateException if the device port is already registered
+     */
+    public void register(final StandardSerialDevice<?, ?> device) {
+        final int fd = device.getTerminalDevice().getSerialPort().getFd();
+        final Registration registration = new Registration(fd, device);
+        if (registrations.putIfAbsent(fd, registration) != null) {
+            throw new IllegalStateException("Device " + device.getVendor() + " is already registered!");
+        }
+        eventPoller.execute(() -> {
+            if (registrations.get(fd) == registration) {
+                eventPoller.arm(fd, PollEvent.POLLIN, registration);
+            }
+        });
+    }
+
+    /**
+     * Unregisters a device, and blocks up to a second until the device is no longer received by the reader,
+     * so that the device could be closed safely afterwards.
+     *
+     * @param device a registered device
+     * @return true if the device is detached from the reader, false if the event loop hasn't detached
+     *         the device in time (e.g., the event loop isn't started), or the waiting thread is interrupted,
+     *         in which case the device must not be closed yet.
+     */
+    public boolean unregister(final StandardSerialDevice<?, ?> device) {
+        if (eventPoller.isInEventLoop()) {
+            remove(device);
+            return true;
+        }
+        final CountDownLatch latch = new CountDownLatch(1);
+        eventPoller.execute(() -> {
+            try {
+                remove(device);
+            } finally {
+                latch.countDown();
+            }
+        });
+        try {
+            if (latch.await(UNREGISTER_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+            LOGGER.log(Level.WARNING, "The event loop of the HID reader hasn't detached the device!");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    /**
+     * Stops the reader, the devices are disarmed, and the event loop is shut down if it's not shared,
+     * the devices are not closed.
+     */
+    public void shutdown() {
+        eventPoller.execute(() -> {
+            for (final Registration registration : registrations.values()) {
+                eventPoller.disarm(registration.fd, PollEvent.POLLIN);
+            }
+            registrations.clear();
+            if (!sharedEventPoller) {
+                eventPoller.shutdown();
+            }
+        });
+    }
+
+    /**
+     * Waits for the event loop of this reader to terminate.
+     *
+     * @param timeout the maximum time to wait in milliseconds
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitTermination(final long timeout) throws InterruptedException {
+        final Thread thread = eventPoller.getThread();
+        if (thread != null && !sharedEventPoller) {
+            thread.join(timeout);
+        }
+    }
+
+    /**
+     * Retrieves the number of the registered devices.
+     *
+     * @return the number of devices
+     */
+    public int getNumberOfDevices() {
+        return registrations.size();
+    }
+
+    /**
+     * Retrieves the event loop of this reader.
+     *
+     * @return the event poller
+     */
+    public EventPoller getEventPoller() {
+        return eventPoller;
+    }
+
+    private void remove(final StandardSerialDevice<?, ?> device) {
+        registrations.values().removeIf(registration -> {
+            if (registration.device != device) {
+                return false;
+            }
+            eventPoller.disarm(registration.fd, PollEvent.POLLIN);
+            return true;
+        });
+    }
+
+    /**
+     * Receives a registered device on its readiness.
+     */
+    private final class Registration implements ReadinessListener {
+
+        private final int fd;
+        private final StandardSerialDevice<?, ?> device;
+
+        Registration(final int fd, final StandardSerialDevice<?, ?> device) {
+            this.fd = fd;
+            this.device = device;
+        }
+
+        @Override
+        public void onReady(final int fd, final int revents, final long timestamp) {
+            if (registrations.get(fd) != this) {
+                return;
+            }
+            if (PollEvent.POLLNVAL.isSet(revents)) {
+                LOGGER.log(Level.SEVERE, "Device " + device.getVendor() + " port is no longer valid!");
+                remove(device);
+                return;
+            }
+            final long firstReport = device.getReceivedReports();
+            long reports = firstReport;
+            boolean drained = false;
+            /* the reports of this readiness are stamped with the readiness time */
+            device.readinessTimestamp = timestamp;
+            try {
+                /* drain the device until a receive completes no report */
+                for (int i = 0; i < MAX_REPORTS_PER_READINESS && !drained; i++) {
+                    device.receive();
+                    final long received = device.getReceivedReports();
+                    drained = received == reports;
+                    reports = received;
+                }
+            } catch (final RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Device " + device.getVendor() + " receive has failed!", e);
+                drained = true;
+            } finally {
+                device.readinessTimestamp = 0;
+            }
+            if (reports == firstReport && (PollEvent.POLLHUP.isSet(revents) || PollEvent.POLLERR.isSet(revents))) {
+                /* a hung up port with no data has reached its end */
+                LOGGER.log(Level.WARNING, "Device " + device.getVendor() + " port has hung up!");
+                remove(device);
+                return;
+            }
+            if (!drained) {
+                /* the remaining reports could be buffered by the device with an empty port, which arms no readiness */
+                eventPoller.execute(() -> onReady(fd, 0, timestamp));
+                return;
+            }
+            eventPoller.arm(fd, PollEvent.POLLIN, this);
+        }
+    }
+}
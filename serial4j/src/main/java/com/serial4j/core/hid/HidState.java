@@ -0,0 +1,123 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.hid;
+
+/**
+ * The reader side of a {@link HidStateSnapshot}, holds a consistent copy of the last read state,
+ * and the deltas of the relative channels since the previous read; the state is reused by the reads
+ * of its single reader thread.
+ *
+ * @author pavl_g
+ */
+public final class HidState {
+
+    final HidStateSnapshot snapshot;
+    private final long[] values;
+    private final long[] totals;
+    private long sequence;
+    private long timestamp;
+    private long skippedUpdates;
+
+    HidState(final HidStateSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.values = new long[snapshot.getNumberOfChannels()];
+        this.totals = new long[snapshot.getNumberOfChannels()];
+    }
+
+    void update(final long sequence, final long timestamp, final long[] buffer, final int offset, final boolean updated) {
+        if (updated && this.sequence != 0) {
+            skippedUpdates += sequence - this.sequence - 1;
+        }
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        for (int channel = 0; channel < values.length; channel++) {
+            final long value = buffer[offset + channel];
+            if (snapshot.isRelative(channel)) {
+                values[channel] = value - totals[channel];
+                totals[channel] = value;
+            } else {
+                values[channel] = value;
+            }
+        }
+    }
+
+    /**
+     * Retrieves a channel value.
+     *
+     * @param channel the channel index
+     * @return the latest value of an absolute channel, or the accumulated delta of a relative channel
+     * since the previous read
+     */
+    public long get(final int channel) {
+        return values[channel];
+    }
+
+    /**
+     * Retrieves a channel value as an int.
+     *
+     * @param channel the channel index
+     * @return the latest value of an absolute channel, or the accumulated delta of a relative channel
+     * since the previous read
+     */
+    public int getInt(final int channel) {
+        return (int) values[channel];
+    }
+
+    /**
+     * Retrieves the number of the publishes of the last read state.
+     *
+     * @return the state sequence, or 0 if nothing is published yet
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Retrieves the publish timestamp of the last read state.
+     *
+     * @return the monotonic time in nanoseconds of the state
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Retrieves the number of the published states overwritten before being read, their relative
+     * deltas are still accumulated in the next read.
+     *
+     * @return the number of skipped states
+     */
+    public long getSkippedUpdates() {
+        return skippedUpdates;
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.hid;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A latest-value cell of the state of a {@link HumanInterfaceDevice}, written by the device receive
+ * thread, and read by a consumer running at a different rate (e.g., a render loop at 60-144 Hz).
+ *
+ * <p>
+ * The state is a fixed set of numeric channels: the absolute channels hold their latest value
+ * (e.g., a joystick axis or a button), and the relative channels accumulate their deltas
+ * (e.g., a mouse motion), so that the motion between two reads is never lost even if
+ * several reports are published in between.
+ * </p>
+ *
+ * <p>
+ * The cell is a triple buffer: the writer publishes a complete state by exchanging its back buffer
+ * with the middle buffer, and the reader picks up the middle buffer by exchanging it with its front buffer,
+ * so that both the writer and the reader are wait-free, never observe a torn state, and never allocate.
+ * The relative channels are published as running totals, and the reader derives the deltas against
+ * its previous read in its {@link HidState}.
+ * </p>
+ *
+ * <p>
+ * The cell has a single writer and a single reader, e.g.:
+ * <pre>{@code
+ * final HidStateSnapshot snapshot = MouseRegistry.newStateSnapshot();
+ * mouseDevice.setStateSnapshot(snapshot, MouseRegistry::updateState);
+ * final HidState state = snapshot.newState();
+ * // on each frame of the render loop
+ * if (snapshot.read(state)) {
+ *     pointer.move(state.getInt(MouseRegistry.X_CHANNEL), state.getInt(MouseRegistry.Y_CHANNEL));
+ * }
+ * }</pre>
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class HidStateSnapshot {
+
+    /* the header of each buffer */
+    private static final int SEQUENCE = 0;
+    private static final int TIMESTAMP = 1;
+    private static final int HEADER = 2;
+
+    private static final int INDEX_MASK = 0x3;
+    private static final int DIRTY = 0x4;
+
+    private final int numberOfChannels;
+    private final boolean[] relativeChannels;
+    private final long[][] buffers;
+
+    /**
+     * The index of the middle buffer, flagged dirty when published and not read yet.
+     */
+    private final AtomicInteger middle = new AtomicInteger(1);
+
+    /* the writer side */
+    private final long[] current;
+    private int back = 2;
+    private long sequence;
+
+    /* the reader side */
+    private int front;
+
+    /**
+     * Instantiates a state cell.
+     *
+     * @param numberOfChannels the number of the state channels
+     * @param relativeChannels the indices of the relative channels, the remaining channels are absolute
+     */
+    public HidStateSnapshot(final int numberOfChannels, final int... relativeChannels) {
+        if (numberOfChannels <= 0) {
+            throw new IllegalArgumentException("A state snapshot must have at least one channel!");
+        }
+        this.numberOfChannels = numberOfChannels;
+        this.relativeChannels = new boolean[numberOfChannels];
+        for (final int channel : relativeChannels) {
+            this.relativeChannels[channel] = true;
+        }
+        this.buffers = new long[3][HEADER + numberOfChannels];
+        this.current = new long[HEADER + numberOfChannels];
+    }
+
+    /**
+     * Adjusts the latest value of an absolute channel, the value is visible to the reader
+     * after the next {@link #publish(long)}.
+     *
+     * @param channel the absolute channel index
+     * @param value   the latest channel value
+     */
+    public void set(final int channel, final long value) {
+        current[HEADER + channel] = value;
+    }
+
+    /**
+     * Accumulates a delta into a relative channel, the delta is visible to the reader
+     * after the next {@link #publish(long)}.
+     *
+     * @param channel the relative channel index
+     * @param delta   the channel delta
+     */
+    public void add(final int channel, final long delta) {
+        current[HEADER + channel] += delta;
+    }
+
+    /**
+     * Publishes the current state to the reader, to be called by the writer thread only.
+     *
+     * @param timestamp the monotonic time in nanoseconds of the state, e.g., the report receive time
+     */
+    public void publish(final long timestamp) {
+        current[SEQUENCE] = ++sequence;
+        current[TIMESTAMP] = timestamp;
+        final long[] buffer = buffers[back];
+        System.arraycopy(current, 0, buffer, 0, current.length);
+        /* the exchange releases the buffer contents to the reader */
+        back = middle.getAndSet(back | DIRTY) & INDEX_MASK;
+    }
+
+    /**
+     * Reads the latest published state, to be called by the reader thread only.
+     *
+     * @param state the reader state, the relative channels are updated with the deltas since its previous read
+     * @return true if a new state is published since the previous read, false otherwise
+     */
+    public boolean read(final HidState state) {
+        if (state.snapshot != this) {
+            throw new IllegalArgumentException("The state is not created by this snapshot!");
+        }
+        final boolean updated = (middle.get() & DIRTY) != 0;
+        if (updated) {
+            /* the exchange acquires the contents of the last published buffer */
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        final long[] buffer = buffers[front];
+        state.update(buffer[SEQUENCE], buffer[TIMESTAMP], buffer, HEADER, updated);
+        return updated;
+    }
+
+    /**
+     * Instantiates the reader state of this snapshot.
+     *
+     * @return a new reader state
+     */
+    public HidState newState() {
+        return new HidState(this);
+    }
+
+    /**
+     * Retrieves the number of the state channels.
+     *
+     * @return the number of channels
+     */
+    public int getNumberOfChannels() {
+        return numberOfChannels;
+    }
+
+    /**
+     * Tests whether a channel is relative.
+     *
+     * @param channel the channel index
+     * @return true if the channel accumulates deltas, false if it holds its latest value
+     */
+    public boolean isRelative(final int channel) {
+        return relativeChannels[channel];
+    }
+
+    /**
+     * Defines the update of the state channels from the decoded reports, dispatched on the device receive
+     * thread before the state is published.
+     *
+     * @param <D> the type of the decoded data
+     */
+    @FunctionalInterface
+    public interface Updater<D> {
+
+        /**
+         * Dispatched on each decoded report to update the state channels.
+         *
+         * @param decoded  the decoded report
+         * @param snapshot the state cell to {@link HidStateSnapshot#set(int, long)}
+         *                 or {@link HidStateSnapshot#add(int, long)} its channels
+         */
+        void onStateUpdate(D decoded, HidStateSnapshot snapshot);
+    }
+}
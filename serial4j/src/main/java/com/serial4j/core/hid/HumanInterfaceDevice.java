@@ -33,7 +33,9 @@
 package com.serial4j.core.hid;
 
 import com.serial4j.core.hid.device.dataframe.DataFrameDevice;
+import java.util.Objects;
 import java.util.function.Function;
+import java.util.function.IntToLongFunction;
 
 /**
  * A Human Interface Device is an abstract interactive interface that
@@ -56,6 +58,13 @@ import java.util.function.Function;
 @SuppressWarnings("all")
 public abstract class HumanInterfaceDevice<E, D> implements AutoCloseable, Cloneable {
 
+    /**
+     * The result of a primitive report reader when no complete report is available.
+     *
+     * @see HumanInterfaceDevice#decodeInt(IntToLongFunction)
+     */
+    protected static final long NO_REPORT = -1;
+
     /**
      * An associated report descriptor that provides descriptive
      * data for IO packets.
@@ -79,6 +88,32 @@ public abstract class HumanInterfaceDevice<E, D> implements AutoCloseable, Clone
      */
     protected ReportDescriptor.Decoder<E, D> decoder;
 
+    /**
+     * An optional latest-value cell of the device state, updated and published
+     * on each decoded report for the consumers running at a different rate.
+     */
+    protected volatile HidStateSnapshot stateSnapshot;
+
+    /**
+     * The update of the {@link HumanInterfaceDevice#stateSnapshot} channels from the decoded reports.
+     */
+    protected HidStateSnapshot.Updater<D> stateUpdater;
+
+    /**
+     * The number of the received reports, written by the receive thread only.
+     */
+    private volatile long receivedReports;
+
+    /**
+     * The readiness timestamp of the port being received, set by the {@link HidReader}, or 0.
+     */
+    long readinessTimestamp;
+
+    /**
+     * The receive timestamp of the last decoded report.
+     */
+    private long reportTimestamp;
+
     /**
      * Not directly instantiable class, inheritance
      * is required to provide full-functionality.
@@ -148,6 +183,54 @@ public abstract class HumanInterfaceDevice<E, D> implements AutoCloseable, Clone
         this.decoder = decoder;
     }
 
+    /**
+     * Retrieves the latest-value cell of the device state.
+     *
+     * @return the state snapshot, or null if not set
+     */
+    public HidStateSnapshot getStateSnapshot() {
+        return stateSnapshot;
+    }
+
+    /**
+     * Retrieves the number of the reports received and decoded by this device, a {@link HidReader}
+     * drains a ready device until this number stops increasing.
+     *
+     * @return the number of the received reports
+     */
+    public long getReceivedReports() {
+        return receivedReports;
+    }
+
+    /**
+     * Retrieves the receive timestamp of the last decoded report, valid during the decoder listener dispatch;
+     * this is the port readiness time when received by a {@link HidReader}, or the decoding time otherwise.
+     *
+     * @return the monotonic time in nanoseconds as returned by {@link System#nanoTime()}
+     */
+    public long getReportTimestamp() {
+        return reportTimestamp;
+    }
+
+    /**
+     * Sets a latest-value cell of the device state, the cell is updated and published on the receive
+     * thread after each decoded report, before dispatching the decoder listener.
+     *
+     * @param stateSnapshot the state snapshot, or null to disable the state updates
+     * @param stateUpdater  the update of the state channels from the decoded reports,
+     *                      ignored if the state updates are disabled
+     * @throws NullPointerException if a state snapshot is specified with no state updater
+     */
+    public void setStateSnapshot(HidStateSnapshot stateSnapshot, HidStateSnapshot.Updater<D> stateUpdater) {
+        if (stateSnapshot == null) {
+            /* the updater is kept, as the receive thread could still be updating the previous snapshot */
+            this.stateSnapshot = null;
+            return;
+        }
+        this.stateUpdater = Objects.requireNonNull(stateUpdater, "A state snapshot requires a state updater!");
+        this.stateSnapshot = stateSnapshot;
+    }
+
     /**
      * Override to provide initialization code for this device,
      *
@@ -213,6 +296,9 @@ public abstract class HumanInterfaceDevice<E, D> implements AutoCloseable, Clone
             return;
         }
         final D concreteData = decoder.decode(encoded);
+        reportTimestamp = getReceiveTimestamp();
+        receivedReports++;
+        updateState(concreteData);
         if (decoderListener != null) {
             decoderListener.onDecodingCompleted(concreteData);
         }
@@ -244,6 +330,106 @@ public abstract class HumanInterfaceDevice<E, D> implements AutoCloseable, Clone
         return bytes;
     }
 
+    /**
+     * Defines a primitive-specialized algorithm for executing decoding post-read operations
+     * on the devices with 32-bit reports, the report is never boxed when the decoder is
+     * a {@link ReportDescriptor.IntDecoder}.
+     *
+     * <p>
+     * A call to this function dispatches the function
+     * {@link ReportDescriptor.DecoderListener#onDecodingCompleted(Object)}
+     * as a part of post-processing user operations.
+     * </p>
+     *
+     * @param read a reference to the device read() function to dispatch, which returns the
+     *             report as an unsigned 32-bit value, or {@link HumanInterfaceDevice#NO_REPORT}
+     */
+    @SuppressWarnings("unchecked")
+    protected final void decodeInt(final IntToLongFunction read) {
+        final long report = read.applyAsLong(reportDescriptor.getDataRegisterBufferLength());
+        if (report == NO_REPORT) {
+            return;
+        }
+        final D concreteData;
+        if (decoder instanceof ReportDescriptor.IntDecoder) {
+            concreteData = ((ReportDescriptor.IntDecoder<D>) decoder).decodeInt((int) report);
+        } else {
+            concreteData = decoder.decode((E) Integer.valueOf((int) report));
+        }
+        reportTimestamp = getReceiveTimestamp();
+        receivedReports++;
+        updateState(concreteData);
+        if (decoderListener != null) {
+            decoderListener.onDecodingCompleted(concreteData);
+        }
+    }
+
+    /**
+     * Defines a primitive-specialized algorithm for encoding the 32-bit reports before
+     * being sent, the report is never boxed when the decoder is a {@link ReportDescriptor.IntDecoder},
+     * and the listener is a {@link ReportDescriptor.IntDecoderListener}.
+     *
+     * @param write   a reference to the device write() function to dispatch with the encoded report,
+     *                which returns the number of the written bytes
+     * @param decoded a decoded (concrete) data packet to be encoded before
+     *                being sent to the device
+     * @return the number of the written bytes
+     */
+    @SuppressWarnings("unchecked")
+    protected final long encodeInt(final IntToLongFunction write, final D decoded) {
+        if (!(decoder instanceof ReportDescriptor.IntDecoder)) {
+            return encode(encoded -> write.applyAsLong((Integer) encoded), decoded);
+        }
+        final int encoded = ((ReportDescriptor.IntDecoder<D>) decoder).encodeInt(decoded);
+        final long bytes = write.applyAsLong(encoded);
+        if (decoderListener != null && bytes > 0) {
+            if (decoderListener instanceof ReportDescriptor.IntDecoderListener) {
+                ((ReportDescriptor.IntDecoderListener<D>) decoderListener).onIntEncodingCompleted(encoded);
+            } else {
+                decoderListener.onEncodingCompleted((E) Integer.valueOf(encoded));
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Retrieves the receive timestamp of the reports being received, the port readiness time
+     * when received by a {@link HidReader}, or the current time otherwise.
+     *
+     * @return the monotonic time in nanoseconds as returned by {@link System#nanoTime()}
+     */
+    protected final long getReceiveTimestamp() {
+        return readinessTimestamp != 0 ? readinessTimestamp : System.nanoTime();
+    }
+
+    /**
+     * Counts the reports received in bulk without the decoder (e.g., a streaming acquisition),
+     * so that a {@link HidReader} keeps draining the device.
+     *
+     * @param reports   the number of the received reports
+     * @param timestamp the receive timestamp of the reports
+     */
+    protected final void countReports(final int reports, final long timestamp) {
+        if (reports > 0) {
+            reportTimestamp = timestamp;
+            receivedReports += reports;
+        }
+    }
+
+    /**
+     * Updates and publishes the state snapshot from a decoded report, if a snapshot is set.
+     *
+     * @param concreteData the decoded report
+     */
+    private void updateState(final D concreteData) {
+        final HidStateSnapshot snapshot = stateSnapshot;
+        if (snapshot == null || concreteData == null) {
+            return;
+        }
+        stateUpdater.onStateUpdate(concreteData, snapshot);
+        snapshot.publish(reportTimestamp);
+    }
+
     /**
      * Defines the simplest form of the
      * report type with a length attribute in bytes units.
@@ -302,6 +488,42 @@ public abstract class HumanInterfaceDevice<E, D> implements AutoCloseable, Clone
             D decode(E encoded);
         }
 
+        /**
+         * Defines a primitive-specialized standard to decode/encode
+         * 32-bit data packets without boxing them.
+         *
+         * @param <D> the type of the decoded data packets
+         */
+        interface IntDecoder<D> extends Decoder<Integer, D> {
+
+            /**
+             * Encodes concrete data packets into a 32-bit report before sending
+             * to the device.
+             *
+             * @param decoded the data packet to encode.
+             * @return the encoded 32-bit report
+             */
+            int encodeInt(D decoded);
+
+            /**
+             * Decodes a received 32-bit report into a concrete version.
+             *
+             * @param encoded the raw received 32-bit report
+             * @return a decoded version of the received report
+             */
+            D decodeInt(int encoded);
+
+            @Override
+            default Integer encode(D decoded) {
+                return encodeInt(decoded);
+            }
+
+            @Override
+            default D decode(Integer encoded) {
+                return decodeInt(encoded);
+            }
+        }
+
         /**
          * Defines a dispatch listener that is dispatched
          * when decoding/encoding completes, usually this
@@ -326,5 +548,24 @@ public abstract class HumanInterfaceDevice<E, D> implements AutoCloseable, Clone
              */
             void onDecodingCompleted(D decoded);
         }
+
+        /**
+         * Defines a primitive-specialized dispatch listener for the
+         * 32-bit reports, which receives the encoded reports without boxing.
+         *
+         * @param <D> the type of the decoded data packets
+         */
+        interface IntDecoderListener<D> extends DecoderListener<Integer, D> {
+
+            /**
+             * Dispatched when encoding a 32-bit report completes
+             * before sending it to the device.
+             *
+             * @param encoded the raw 32-bit report
+             */
+            default void onIntEncodingCompleted(int encoded) {
+                onEncodingCompleted(encoded);
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -38,6 +38,8 @@ import com.serial4j.core.terminal.FilePermissions;
 import com.serial4j.core.terminal.ReadConfiguration;
 import com.serial4j.core.terminal.TerminalDevice;
 import com.serial4j.core.terminal.control.BaudRate;
+import com.serial4j.util.Constants;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Provides a standard implementation for a serial-based HID.
@@ -73,6 +75,11 @@ public abstract class StandardSerialDevice<E, D> extends HumanInterfaceDevice<E,
      */
     protected FilePermissions operativePermissions;
 
+    /**
+     * A reusable buffer receiving the bytes of a multi-byte report in a single read.
+     */
+    private byte[] reportBuffer = new byte[Integer.BYTES];
+
     /**
      * Instantiates a serial-based human-interface-device (HID) with a terminal device to handle
      * terminal IO and line-speed operations, and a serial port to which this device is connected to.
@@ -110,6 +117,46 @@ public abstract class StandardSerialDevice<E, D> extends HumanInterfaceDevice<E,
         super.close();
     }
 
+    /**
+     * Reads the missing bytes of a little-endian report of up to 32 bits in a single read,
+     * a partially received report is kept in the input buffer and the input clock, and
+     * resumed on the next call.
+     *
+     * <p>
+     * The report assembly costs at most one system call per call regardless of the report length,
+     * as opposed to clocking the report in one byte at a time.
+     * </p>
+     *
+     * @param inputBuffer the accumulated bits of the partial report
+     * @param inputClock  the number of the received bytes of the partial report
+     * @return the complete report as an unsigned 32-bit value, or {@link HumanInterfaceDevice#NO_REPORT}
+     * if the report is not complete yet
+     */
+    protected final long readReport(final AtomicInteger inputBuffer, final AtomicInteger inputClock) {
+        final int reportLength = reportDescriptor.getReportLength();
+        if (reportBuffer.length < reportLength) {
+            reportBuffer = new byte[reportLength];
+        }
+        final int offset = inputClock.get();
+        final int bytes = terminalDevice.read(reportBuffer, offset, reportLength - offset);
+        if (bytes <= 0) {
+            return NO_REPORT;
+        }
+        int report = inputBuffer.get();
+        for (int frame = offset; frame < offset + bytes; frame++) {
+            // place the bits of each frame from the LSB to the MSB
+            report |= (reportBuffer[frame] & 0xFF) << (frame * Constants.DEFAULT_DATA_REGISTER_BUFFER_LENGTH);
+        }
+        if (offset + bytes < reportLength) {
+            inputBuffer.set(report);
+            inputClock.set(offset + bytes);
+            return NO_REPORT;
+        }
+        inputBuffer.set(0); // flush the input buffer
+        inputClock.set(0);
+        return Integer.toUnsignedLong(report);
+    }
+
     /**
      * Retrieves a reference to the terminal device used
      * for the read/write and terminal line-speed operations.
@@ -0,0 +1,92 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.hid.codec;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maps a record component to a bit field of a binary report, the field is read from
+ * the bytes [offset, offset + ceil((bit + width) / 8)) assembled in the field byte order,
+ * and then shifted right by the bit offset.
+ *
+ * <p>
+ * The supported component types are: boolean, byte, short, char, int, and long.
+ * </p>
+ *
+ * @author pavl_g
+ * @see RecordCodec
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.RECORD_COMPONENT)
+public @interface BinaryField {
+
+    /**
+     * The offset of the first field byte in the report.
+     *
+     * @return the byte offset
+     */
+    int offset();
+
+    /**
+     * The offset of the field bits from the least significant bit of the field bytes.
+     *
+     * @return the bit offset, default is 0
+     */
+    int bit() default 0;
+
+    /**
+     * The number of the field bits, the bits of the field bytes must not exceed 64.
+     *
+     * @return the bit width, default is the size of the component type
+     */
+    int width() default -1;
+
+    /**
+     * The byte order of the field bytes.
+     *
+     * @return the byte order, default is {@link Endianness#LITTLE_ENDIAN}
+     */
+    Endianness order() default Endianness.LITTLE_ENDIAN;
+
+    /**
+     * Whether the field is a two's complement value sign-extended into the component.
+     *
+     * @return true for the signed fields, default is false
+     */
+    boolean signed() default false;
+}
@@ -0,0 +1,320 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.hid.codec;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.RecordComponent;
+import java.nio.ByteBuffer;
+
+/**
+ * A binary codec of a report record, the record components annotated by {@link BinaryField}
+ * are mapped to the bit fields of the report.
+ *
+ * <p>
+ * The codec reflects on the record once on instantiation, and composes the field readers with the
+ * canonical constructor, and the component accessors with the field writers, into a single decoder and a single
+ * encoder {@link MethodHandle}, so that encoding and decoding involve no reflection, no boxing, and no
+ * allocations other than the decoded record.
+ * </p>
+ *
+ * <p>
+ * The codec is a record, as the JIT trusts the final fields of records to be constants, a codec held in
+ * a static final field has its composed handles constant-folded, and inlined into the call site.
+ * </p>
+ *
+ * <p>
+ * Example:
+ * <pre>{@code
+ * public record Sample(@BinaryField(offset = 0, width = 1) boolean ready,
+ *                      @BinaryField(offset = 0, bit = 1, width = 7) int channel,
+ *                      @BinaryField(offset = 1, width = 16, order = Endianness.BIG_ENDIAN, signed = true) int value) {
+ *     public static final RecordCodec<Sample> CODEC = RecordCodec.of(Sample.class);
+ * }
+ * }</pre>
+ * </p>
+ *
+ * @param recordType the record class of the reports
+ * @param length     the report length in bytes, the end of the furthest field
+ * @param decoder    the composed decoder of type (ByteBuffer buffer, int index)Object
+ * @param encoder    the composed encoder of type (ByteBuffer buffer, int index, Object record)void
+ * @param <R>        the type of the report record
+ * @author pavl_g
+ */
+public record RecordCodec<R extends Record>(Class<R> recordType, int length,
+                                            MethodHandle decoder, MethodHandle encoder) {
+
+    private static final MethodType DECODER_TYPE = MethodType.methodType(Object.class, ByteBuffer.class, int.class);
+    private static final MethodType ENCODER_TYPE = MethodType.methodType(void.class, ByteBuffer.class, int.class,
+            Object.class);
+
+    private static final MethodHandle READ_BITS;
+    private static final MethodHandle WRITE_BITS;
+    private static final MethodHandle CLEAR_BYTES;
+
+    static {
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            READ_BITS = lookup.findStatic(RecordCodec.class, "readBits", MethodType.methodType(long.class,
+                    ByteBuffer.class, int.class, int.class, int.class, boolean.class, int.class, long.class, int.class));
+            WRITE_BITS = lookup.findStatic(RecordCodec.class, "writeBits", MethodType.methodType(void.class,
+                    ByteBuffer.class, int.class, long.class, int.class, int.class, boolean.class, int.class, long.class));
+            CLEAR_BYTES = lookup.findStatic(RecordCodec.class, "clearBytes", MethodType.methodType(void.class,
+                    ByteBuffer.class, int.class, int.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Instantiates a codec from its composed handles, use {@link RecordCodec#of(Class)} to compile them.
+     *
+     * <p>
+     * The handles are guarded by casts to the record type, so that a decoder of another record
+     * fails with a {@link ClassCastException} instead of polluting the heap with a foreign record.
+     * </p>
+     *
+     * @throws IllegalArgumentException if the handles aren't of the decoder and the encoder types,
+     *                                  or the length is negative
+     */
+    public RecordCodec {
+        if (!decoder.type().equals(DECODER_TYPE) || !encoder.type().equals(ENCODER_TYPE)) {
+            throw new IllegalArgumentException("Invalid codec handles " + decoder.type() + ", " + encoder.type());
+        }
+        if (length < 0) {
+            throw new IllegalArgumentException("Negative report length " + length);
+        }
+        decoder = decoder.asType(decoder.type().changeReturnType(recordType)).asType(DECODER_TYPE);
+        encoder = encoder.asType(encoder.type().changeParameterType(2, recordType)).asType(ENCODER_TYPE);
+    }
+
+    private static <R extends Record> RecordCodec<R> compile(final Class<R> recordType,
+                                                             final MethodHandles.Lookup lookup) {
+        final RecordComponent[] components = recordType.getRecordComponents();
+        if (components == null) {
+            throw new IllegalArgumentException(recordType.getName() + " is not a record!");
+        }
+        final Class<?>[] componentTypes = new Class<?>[components.length];
+        int length = 0;
+        try {
+            MethodHandle decoder = lookup.findConstructor(recordType,
+                    MethodType.methodType(void.class, toTypes(components, componentTypes)));
+            MethodHandle encoder = MethodHandles.empty(MethodType.methodType(void.class, ByteBuffer.class, int.class, recordType));
+            for (int i = 0; i < components.length; i++) {
+                final RecordComponent component = components[i];
+                final BinaryField field = component.getAnnotation(BinaryField.class);
+                if (field == null) {
+                    throw new IllegalArgumentException("Record component " + component.getName() + " is not a @BinaryField!");
+                }
+                final Class<?> type = componentTypes[i];
+                final int width = field.width() < 0 ? sizeOf(type) : field.width();
+                final int bytes = (field.bit() + width + 7) >>> 3;
+                if (field.offset() < 0 || field.bit() < 0 || width <= 0 || width > sizeOf(type) || bytes > Long.BYTES) {
+                    throw new IllegalArgumentException("Invalid @BinaryField layout of the record component " + component.getName());
+                }
+                length = Math.max(length, field.offset() + bytes);
+                final boolean bigEndian = field.order() == Endianness.BIG_ENDIAN;
+                final long mask = width == Long.SIZE ? -1L : (1L << width) - 1;
+
+                /* (ByteBuffer, int)component, the decoder arguments become (ByteBuffer, int)... pairs */
+                final MethodHandle reader = MethodHandles.explicitCastArguments(
+                        MethodHandles.insertArguments(READ_BITS, 2, field.offset(), bytes, bigEndian,
+                                field.bit(), mask, field.signed() ? Long.SIZE - width : 0),
+                        MethodType.methodType(type, ByteBuffer.class, int.class));
+                decoder = MethodHandles.collectArguments(decoder, i * 2, reader);
+
+                /* (ByteBuffer, int, record)void, folded after the previous writers */
+                final MethodHandle accessor = MethodHandles.explicitCastArguments(lookup.unreflect(component.getAccessor()),
+                        MethodType.methodType(long.class, recordType));
+                final MethodHandle writer = MethodHandles.filterArguments(
+                        MethodHandles.insertArguments(WRITE_BITS, 3, field.offset(), bytes, bigEndian, field.bit(), mask),
+                        2, accessor);
+                encoder = MethodHandles.foldArguments(writer, encoder);
+            }
+            /* the (ByteBuffer, int) pairs of the readers are all bound to the same buffer and index */
+            final int[] reorder = new int[components.length * 2];
+            for (int i = 0; i < reorder.length; i++) {
+                reorder[i] = i & 1;
+            }
+            decoder = MethodHandles.permuteArguments(decoder,
+                    MethodType.methodType(recordType, ByteBuffer.class, int.class), reorder);
+            /* the report bytes are cleared before the writers */
+            encoder = MethodHandles.foldArguments(encoder,
+                    MethodHandles.dropArguments(MethodHandles.insertArguments(CLEAR_BYTES, 2, length), 2, recordType));
+            return new RecordCodec<>(recordType, length, decoder.asType(DECODER_TYPE), encoder.asType(ENCODER_TYPE));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot access the record " + recordType.getName(), e);
+        }
+    }
+
+    /**
+     * Compiles the codec of a public record.
+     *
+     * @param recordType the record class with {@link BinaryField} components
+     * @param <R>        the type of the record
+     * @return a new record codec
+     * @throws IllegalArgumentException if the record components aren't valid binary fields
+     */
+    public static <R extends Record> RecordCodec<R> of(final Class<R> recordType) {
+        return compile(recordType, MethodHandles.publicLookup());
+    }
+
+    /**
+     * Compiles the codec of a record using a lookup with the access to its constructor and accessors,
+     * e.g., {@code MethodHandles.lookup()} of the record class.
+     *
+     * @param recordType the record class with {@link BinaryField} components
+     * @param lookup     a lookup with the access to the record
+     * @param <R>        the type of the record
+     * @return a new record codec
+     * @throws IllegalArgumentException if the record components aren't valid binary fields
+     */
+    public static <R extends Record> RecordCodec<R> of(final Class<R> recordType, final MethodHandles.Lookup lookup) {
+        return compile(recordType, lookup);
+    }
+
+    /**
+     * Decodes a record from a report at an absolute index, the buffer position is not changed.
+     *
+     * @param buffer the buffer holding the report
+     * @param index  the index of the first report byte
+     * @return a new decoded record
+     */
+    @SuppressWarnings("unchecked")
+    public R decode(final ByteBuffer buffer, final int index) {
+        try {
+            return (R) (Object) decoder.invokeExact(buffer, index);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Decodes a record from a report at the buffer position, and advances the position by the report length.
+     *
+     * @param buffer the buffer holding the report
+     * @return a new decoded record
+     */
+    public R decode(final ByteBuffer buffer) {
+        final int index = buffer.position();
+        final R record = decode(buffer, index);
+        buffer.position(index + length);
+        return record;
+    }
+
+    /**
+     * Encodes a record into a report at an absolute index, the report bytes are cleared first,
+     * and the buffer position is not changed.
+     *
+     * @param record the record to encode
+     * @param buffer the buffer receiving the report
+     * @param index  the index of the first report byte
+     */
+    public void encode(final R record, final ByteBuffer buffer, final int index) {
+        try {
+            encoder.invokeExact(buffer, index, (Object) record);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Encodes a record into a report at the buffer position, and advances the position by the report length.
+     *
+     * @param record the record to encode
+     * @param buffer the buffer receiving the report
+     */
+    public void encode(final R record, final ByteBuffer buffer) {
+        final int index = buffer.position();
+        encode(record, buffer, index);
+        buffer.position(index + length);
+    }
+
+    private static Class<?>[] toTypes(final RecordComponent[] components, final Class<?>[] types) {
+        for (int i = 0; i < components.length; i++) {
+            types[i] = components[i].getType();
+        }
+        return types;
+    }
+
+    private static int sizeOf(final Class<?> type) {
+        if (type == boolean.class) {
+            return 1;
+        } else if (type == byte.class) {
+            return Byte.SIZE;
+        } else if (type == short.class || type == char.class) {
+            return Short.SIZE;
+        } else if (type == int.class) {
+            return Integer.SIZE;
+        } else if (type == long.class) {
+            return Long.SIZE;
+        }
+        throw new IllegalArgumentException("Unsupported binary field type " + type.getName());
+    }
+
+    private static long readContainer(final ByteBuffer buffer, final int index, final int bytes, final boolean bigEndian) {
+        long container = 0;
+        for (int i = 0; i < bytes; i++) {
+            final long value = buffer.get(index + i) & 0xFFL;
+            container = bigEndian ? (container << Byte.SIZE) | value : container | (value << (i * Byte.SIZE));
+        }
+        return container;
+    }
+
+    private static long readBits(final ByteBuffer buffer, final int index, final int offset, final int bytes,
+                                 final boolean bigEndian, final int bit, final long mask, final int signShift) {
+        final long value = (readContainer(buffer, index + offset, bytes, bigEndian) >>> bit) & mask;
+        return (value << signShift) >> signShift;
+    }
+
+    private static void writeBits(final ByteBuffer buffer, final int index, final long value, final int offset,
+                                  final int bytes, final boolean bigEndian, final int bit, final long mask) {
+        final int start = index + offset;
+        final long container = (readContainer(buffer, start, bytes, bigEndian) & ~(mask << bit)) | ((value & mask) << bit);
+        for (int i = 0; i < bytes; i++) {
+            final int shift = (bigEndian ? bytes - 1 - i : i) * Byte.SIZE;
+            buffer.put(start + i, (byte) (container >>> shift));
+        }
+    }
+
+    private static void clearBytes(final ByteBuffer buffer, final int index, final int length) {
+        for (int i = 0; i < length; i++) {
+            buffer.put(index + i, (byte) 0);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.hid.descriptor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Interprets the items of a standard HID report descriptor, and compiles the fields of a report
+ * into a {@link ReportLayout} extraction plan.
+ *
+ * <p>
+ * The interpreter supports the short items of the specification (HID 1.11, section 6.2.2):
+ * the main items (Input, Output, Feature, Collection, and End Collection), the global items (Usage Page,
+ * Logical Minimum/Maximum, Report Size, Report Id, Report Count, Push, and Pop), and the local items
+ * (Usage, Usage Minimum/Maximum); the long items and the physical/unit items are skipped.
+ * </p>
+ *
+ * <p>
+ * Example, a 3-button mouse with relative X and Y:
+ * <pre>{@code
+ * final ReportLayout layout = ReportDescriptorParser.compile(new byte[] {
+ *         0x05, 0x01,             // Usage Page (Generic Desktop)
+ *         0x09, 0x02,             // Usage (Mouse)
+ *         (byte) 0xA1, 0x01,      // Collection (Application)
+ *         0x05, 0x09,             //   Usage Page (Button)
+ *         0x19, 0x01, 0x29, 0x03, //   Usage Minimum (1), Usage Maximum (3)
+ *         0x15, 0x00, 0x25, 0x01, //   Logical Minimum (0), Logical Maximum (1)
+ *         0x75, 0x01, (byte) 0x95, 0x03, (byte) 0x81, 0x02, // 3 x 1-bit Input (Data, Variable)
+ *         0x75, 0x05, (byte) 0x95, 0x01, (byte) 0x81, 0x01, // 5-bit Input (Constant)
+ *         0x05, 0x01, 0x09, 0x30, 0x09, 0x31,               // Usage Page (Generic Desktop), X, Y
+ *         0x15, (byte) 0x81, 0x25, 0x7F,                    // Logical Minimum (-127), Logical Maximum (127)
+ *         0x75, 0x08, (byte) 0x95, 0x02, (byte) 0x81, 0x06, // 2 x 8-bit Input (Data, Variable, Relative)
+ *         (byte) 0xC0                                       // End Collection
+ * }, ReportType.INPUT);
+ * }</pre>
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class ReportDescriptorParser {
+
+    /* the columns of the compiled field rows */
+    static final int BIT_OFFSET = 0;
+    static final int BIT_SIZE = 1;
+    static final int USAGE_PAGE = 2;
+    static final int USAGE = 3;
+    static final int LOGICAL_MINIMUM = 4;
+    static final int LOGICAL_MAXIMUM = 5;
+    static final int RELATIVE = 6;
+
+    /* the item types */
+    private static final int MAIN = 0;
+    private static final int GLOBAL = 1;
+    private static final int LOCAL = 2;
+
+    /* the main item tags */
+    private static final int COLLECTION = 0xA;
+    private static final int END_COLLECTION = 0xC;
+
+    /* the global item tags */
+    private static final int USAGE_PAGE_TAG = 0x0;
+    private static final int LOGICAL_MINIMUM_TAG = 0x1;
+    private static final int LOGICAL_MAXIMUM_TAG = 0x2;
+    private static final int REPORT_SIZE_TAG = 0x7;
+    private static final int REPORT_ID_TAG = 0x8;
+    private static final int REPORT_COUNT_TAG = 0x9;
+    private static final int PUSH_TAG = 0xA;
+    private static final int POP_TAG = 0xB;
+
+    /* the local item tags */
+    private static final int USAGE_TAG = 0x0;
+    private static final int USAGE_MINIMUM_TAG = 0x1;
+    private static final int USAGE_MAXIMUM_TAG = 0x2;
+
+    /* the main data bits */
+    private static final int CONSTANT = 0x1;
+    private static final int RELATIVE_BIT = 0x4;
+
+    private static final int LONG_ITEM = 0xFE;
+
+    /* the global state table */
+    private static final int STATE_USAGE_PAGE = 0;
+    private static final int STATE_LOGICAL_MINIMUM = 1;
+    private static final int STATE_LOGICAL_MAXIMUM = 2;
+    private static final int STATE_UNSIGNED_LOGICAL_MAXIMUM = 3;
+    private static final int STATE_REPORT_SIZE = 4;
+    private static final int STATE_REPORT_ID = 5;
+    private static final int STATE_REPORT_COUNT = 6;
+    private static final int STATE_SIZE = 7;
+
+    private ReportDescriptorParser() {
+    }
+
+    /**
+     * Compiles the fields of a report type of a descriptor without report ids.
+     *
+     * @param descriptor the raw report descriptor
+     * @param reportType the report type to compile
+     * @return the compiled extraction plan
+     * @throws InvalidReportDescriptorException if the descriptor is malformed, or has no fields of this report
+     */
+    public static ReportLayout compile(final byte[] descriptor, final ReportType reportType) {
+        return compile(descriptor, reportType, 0);
+    }
+
+    /**
+     * Compiles the fields of a report of a descriptor, the reports with a non-zero id
+     * are prefixed by the report id byte.
+     *
+     * @param descriptor the raw report descriptor
+     * @param reportType the report type to compile
+     * @param reportId   the report id, or 0 if the descriptor has no report id items
+     * @return the compiled extraction plan
+     * @throws InvalidReportDescriptorException if the descriptor is malformed, or has no fields of this report
+     */
+    public static ReportLayout compile(final byte[] descriptor, final ReportType reportType, final int reportId) {
+        final List<int[]> fields = new ArrayList<>();
+        final Deque<int[]> stack = new ArrayDeque<>();
+        int[] state = new int[STATE_SIZE];
+        final List<Integer> usages = new ArrayList<>();
+        int usageMinimum = -1;
+        int usageMaximum = -1;
+        int collections = 0;
+        /* the report id byte precedes the report fields */
+        int bitOffset = reportId == 0 ? 0 : Byte.SIZE;
+        boolean hasReportIds = false;
+
+        int index = 0;
+        while (index < descriptor.length) {
+            final int prefix = descriptor[index] & 0xFF;
+            if (prefix == LONG_ITEM) {
+                if (index + 2 >= descriptor.length) {
+                    throw new InvalidReportDescriptorException("Truncated long item at " + index);
+                }
+                index += 3 + (descriptor[index + 1] & 0xFF);
+                continue;
+            }
+            final int size = (prefix & 0x3) == 3 ? 4 : prefix & 0x3;
+            final int type = (prefix >>> 2) & 0x3;
+            final int tag = prefix >>> 4;
+            if (index + size >= descriptor.length) {
+                throw new InvalidReportDescriptorException("Truncated item 0x" + Integer.toHexString(prefix) + " at " + index);
+            }
+            int data = 0;
+            for (int i = 0; i < size; i++) {
+                data |= (descriptor[index + 1 + i] & 0xFF) << (i * Byte.SIZE);
+            }
+            /* the signed data values are two's complement of the item size */
+            final int signedData = size == 0 || size == 4 ? data : (data << (32 - size * 8)) >> (32 - size * 8);
+            index += 1 + size;
+
+            if (type == MAIN) {
+                if (tag == COLLECTION) {
+                    collections++;
+                } else if (tag == END_COLLECTION) {
+                    if (--collections < 0) {
+                        throw new InvalidReportDescriptorException("End Collection without a Collection at " + index);
+                    }
+                } else if (tag == reportType.getTag() && state[STATE_REPORT_ID] == reportId) {
+                    final int reportSize = state[STATE_REPORT_SIZE];
+                    final int reportCount = state[STATE_REPORT_COUNT];
+                    final boolean constant = (data & CONSTANT) != 0;
+                    if (!constant && reportSize > Integer.SIZE) {
+                        throw new InvalidReportDescriptorException("Report fields are limited to 32 bits, found " + reportSize);
+                    }
+                    final int logicalMinimum = state[STATE_LOGICAL_MINIMUM];
+                    /* a non-negative logical range is unsigned */
+                    final int logicalMaximum = logicalMinimum < 0
+                            ? state[STATE_LOGICAL_MAXIMUM] : state[STATE_UNSIGNED_LOGICAL_MAXIMUM];
+                    for (int element = 0; element < reportCount; element++) {
+                        if (!constant) {
+                            final int usage = elementUsage(usages, usageMinimum, usageMaximum, element);
+                            final int[] field = new int[RELATIVE + 1];
+                            field[BIT_OFFSET] = bitOffset;
+                            field[BIT_SIZE] = reportSize;
+                            /* the extended usages carry their usage page in the upper 16 bits */
+                            field[USAGE_PAGE] = (usage >>> 16) != 0 ? usage >>> 16 : state[STATE_USAGE_PAGE];
+                            field[USAGE] = usage & 0xFFFF;
+                            field[LOGICAL_MINIMUM] = logicalMinimum;
+                            field[LOGICAL_MAXIMUM] = logicalMaximum;
+                            field[RELATIVE] = (data & RELATIVE_BIT) != 0 ? 1 : 0;
+                            fields.add(field);
+                        }
+                        bitOffset += reportSize;
+                    }
+                }
+                /* the local items are valid until the next main item */
+                usages.clear();
+                usageMinimum = -1;
+                usageMaximum = -1;
+            } else if (type == GLOBAL) {
+                switch (tag) {
+                    case USAGE_PAGE_TAG -> state[STATE_USAGE_PAGE] = data;
+                    case LOGICAL_MINIMUM_TAG -> state[STATE_LOGICAL_MINIMUM] = signedData;
+                    case LOGICAL_MAXIMUM_TAG -> {
+                        state[STATE_LOGICAL_MAXIMUM] = signedData;
+                        state[STATE_UNSIGNED_LOGICAL_MAXIMUM] = data;
+                    }
+                    case REPORT_SIZE_TAG -> state[STATE_REPORT_SIZE] = data;
+                    case REPORT_ID_TAG -> {
+                        if (data == 0 || data > 0xFF) {
+                            throw new InvalidReportDescriptorException("Invalid report id " + data);
+                        }
+                        state[STATE_REPORT_ID] = data;
+                        hasReportIds = true;
+                    }
+                    case REPORT_COUNT_TAG -> state[STATE_REPORT_COUNT] = data;
+                    case PUSH_TAG -> stack.push(state.clone());
+                    case POP_TAG -> {
+                        if (stack.isEmpty()) {
+                            throw new InvalidReportDescriptorException("Pop without a Push at " + index);
+                        }
+                        state = stack.pop();
+                    }
+                    default -> {
+                        /* the physical and the unit items don't affect the extraction */
+                    }
+                }
+            } else if (type == LOCAL) {
+                switch (tag) {
+                    case USAGE_TAG -> usages.add(size == 4 ? data : data & 0xFFFF);
+                    case USAGE_MINIMUM_TAG -> usageMinimum = data;
+                    case USAGE_MAXIMUM_TAG -> usageMaximum = data;
+                    default -> {
+                        /* the designators and the strings don't affect the extraction */
+                    }
+                }
+            }
+        }
+
+        if (collections != 0) {
+            throw new InvalidReportDescriptorException("Unbalanced collections in the report descriptor");
+        }
+        if (hasReportIds && reportId == 0) {
+            throw new InvalidReportDescriptorException("The report descriptor defines report ids, a report id must be specified");
+        }
+        if (fields.isEmpty()) {
+            throw new InvalidReportDescriptorException("No " + reportType + " fields for the report id " + reportId);
+        }
+        return new ReportLayout(reportType, reportId, bitOffset, fields.toArray(new int[0][]));
+    }
+
+    private static int elementUsage(final List<Integer> usages, final int usageMinimum,
+                                    final int usageMaximum, final int element) {
+        if (!usages.isEmpty()) {
+            /* the last usage applies to the remaining elements */
+            return usages.get(Math.min(element, usages.size() - 1));
+        }
+        if (usageMinimum >= 0) {
+            return usageMaximum >= usageMinimum ? Math.min(usageMinimum + element, usageMaximum) : usageMinimum + element;
+        }
+        return 0;
+    }
+}
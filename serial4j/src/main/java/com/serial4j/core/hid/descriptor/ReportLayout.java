@@ -0,0 +1,285 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.hid.descriptor;
+
+/**
+ * A flat bit-field extraction plan of a report, compiled from a HID report descriptor
+ * by the {@link ReportDescriptorParser}.
+ *
+ * <p>
+ * The plan holds the report fields in parallel primitive arrays (bit offsets, masks, and sign-extension
+ * shifts), so that a field is decoded from the raw report by a shift, a mask, and a sign extension
+ * with no allocations, e.g.:
+ * <pre>{@code
+ * final int xField = layout.findField(0x01, 0x30); // the generic desktop X axis
+ * final int x = layout.extract(report, xField);
+ * }</pre>
+ * The constant (padding) fields are not part of the plan, and the field indices follow the descriptor order.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class ReportLayout {
+
+    private final ReportType reportType;
+    private final int reportId;
+    private final int reportSize;
+    private final int[] bitOffsets;
+    private final int[] bitSizes;
+    private final long[] masks;
+    private final int[] signShifts;
+    private final int[] usagePages;
+    private final int[] usages;
+    private final int[] logicalMinimums;
+    private final int[] logicalMaximums;
+    private final boolean[] relatives;
+
+    ReportLayout(final ReportType reportType, final int reportId, final int reportSize, final int[][] fields) {
+        this.reportType = reportType;
+        this.reportId = reportId;
+        this.reportSize = reportSize;
+        final int numberOfFields = fields.length;
+        this.bitOffsets = new int[numberOfFields];
+        this.bitSizes = new int[numberOfFields];
+        this.masks = new long[numberOfFields];
+        this.signShifts = new int[numberOfFields];
+        this.usagePages = new int[numberOfFields];
+        this.usages = new int[numberOfFields];
+        this.logicalMinimums = new int[numberOfFields];
+        this.logicalMaximums = new int[numberOfFields];
+        this.relatives = new boolean[numberOfFields];
+        for (int field = 0; field < numberOfFields; field++) {
+            final int[] row = fields[field];
+            bitOffsets[field] = row[ReportDescriptorParser.BIT_OFFSET];
+            bitSizes[field] = row[ReportDescriptorParser.BIT_SIZE];
+            usagePages[field] = row[ReportDescriptorParser.USAGE_PAGE];
+            usages[field] = row[ReportDescriptorParser.USAGE];
+            logicalMinimums[field] = row[ReportDescriptorParser.LOGICAL_MINIMUM];
+            logicalMaximums[field] = row[ReportDescriptorParser.LOGICAL_MAXIMUM];
+            relatives[field] = row[ReportDescriptorParser.RELATIVE] != 0;
+            masks[field] = (1L << bitSizes[field]) - 1;
+            /* the fields with a negative logical minimum are two's complement values */
+            signShifts[field] = logicalMinimums[field] < 0 ? Integer.SIZE - bitSizes[field] : 0;
+        }
+    }
+
+    /**
+     * Extracts a field value from a report of up to 64 bits assembled in little-endian order
+     * (e.g., a report read by {@link com.serial4j.core.hid.StandardSerialDevice}).
+     *
+     * @param report the raw report bits, the first report byte is the least significant byte
+     * @param field  the field index in this plan
+     * @return the field value, sign-extended if the field logical minimum is negative
+     */
+    public int extract(final long report, final int field) {
+        final int value = (int) ((report >>> bitOffsets[field]) & masks[field]);
+        final int shift = signShifts[field];
+        return (value << shift) >> shift;
+    }
+
+    /**
+     * Extracts a field value from a report of any length in a byte buffer.
+     *
+     * @param report the buffer holding the raw report
+     * @param offset the offset of the first report byte in the buffer
+     * @param field  the field index in this plan
+     * @return the field value, sign-extended if the field logical minimum is negative
+     */
+    public int extract(final byte[] report, final int offset, final int field) {
+        final int bitOffset = bitOffsets[field];
+        final int end = offset + ((bitOffset + bitSizes[field] + 7) >>> 3);
+        long bits = 0;
+        for (int index = offset + (bitOffset >>> 3), shift = 0; index < end; index++, shift += Byte.SIZE) {
+            bits |= (report[index] & 0xFFL) << shift;
+        }
+        final int value = (int) ((bits >>> (bitOffset & 7)) & masks[field]);
+        final int shift = signShifts[field];
+        return (value << shift) >> shift;
+    }
+
+    /**
+     * Extracts all the field values of a report of up to 64 bits.
+     *
+     * @param report the raw report bits
+     * @param values a buffer of at least {@link #getNumberOfFields()} receiving the values in the field order
+     */
+    public void extractAll(final long report, final int[] values) {
+        for (int field = 0; field < bitOffsets.length; field++) {
+            values[field] = extract(report, field);
+        }
+    }
+
+    /**
+     * Extracts all the field values of a report of any length.
+     *
+     * @param report the buffer holding the raw report
+     * @param offset the offset of the first report byte in the buffer
+     * @param values a buffer of at least {@link #getNumberOfFields()} receiving the values in the field order
+     */
+    public void extractAll(final byte[] report, final int offset, final int[] values) {
+        for (int field = 0; field < bitOffsets.length; field++) {
+            values[field] = extract(report, offset, field);
+        }
+    }
+
+    /**
+     * Finds the first field of a usage.
+     *
+     * @param usagePage the usage page, e.g., 0x01 for the generic desktop controls
+     * @param usage     the usage id in the page, e.g., 0x30 for the X axis
+     * @return the field index, or -1 if there is no field of this usage
+     */
+    public int findField(final int usagePage, final int usage) {
+        for (int field = 0; field < usages.length; field++) {
+            if (usagePages[field] == usagePage && usages[field] == usage) {
+                return field;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieves the number of the data fields in this plan.
+     *
+     * @return the number of fields
+     */
+    public int getNumberOfFields() {
+        return bitOffsets.length;
+    }
+
+    /**
+     * Retrieves the report size including the report id byte and the padding fields.
+     *
+     * @return the report size in bits
+     */
+    public int getReportSize() {
+        return reportSize;
+    }
+
+    /**
+     * Retrieves the report length including the report id byte and the padding fields.
+     *
+     * @return the report length in bytes
+     */
+    public int getReportLength() {
+        return (reportSize + 7) >>> 3;
+    }
+
+    /**
+     * Retrieves the report id, the first byte of the reports with an id.
+     *
+     * @return the report id, or 0 if the reports have no id
+     */
+    public int getReportId() {
+        return reportId;
+    }
+
+    /**
+     * Retrieves the report type of this plan.
+     *
+     * @return the report type
+     */
+    public ReportType getReportType() {
+        return reportType;
+    }
+
+    /**
+     * Retrieves the offset of a field from the first report bit.
+     *
+     * @param field the field index
+     * @return the bit offset
+     */
+    public int getBitOffset(final int field) {
+        return bitOffsets[field];
+    }
+
+    /**
+     * Retrieves the size of a field.
+     *
+     * @param field the field index
+     * @return the field size in bits
+     */
+    public int getBitSize(final int field) {
+        return bitSizes[field];
+    }
+
+    /**
+     * Retrieves the usage page of a field.
+     *
+     * @param field the field index
+     * @return the usage page
+     */
+    public int getUsagePage(final int field) {
+        return usagePages[field];
+    }
+
+    /**
+     * Retrieves the usage id of a field.
+     *
+     * @param field the field index
+     * @return the usage id in the usage page
+     */
+    public int getUsage(final int field) {
+        return usages[field];
+    }
+
+    /**
+     * Retrieves the logical minimum of a field.
+     *
+     * @param field the field index
+     * @return the logical minimum value
+     */
+    public int getLogicalMinimum(final int field) {
+        return logicalMinimums[field];
+    }
+
+    /**
+     * Retrieves the logical maximum of a field.
+     *
+     * @param field the field index
+     * @return the logical maximum value
+     */
+    public int getLogicalMaximum(final int field) {
+        return logicalMaximums[field];
+    }
+
+    /**
+     * Tests whether a field is a relative value (e.g., the mouse motion), rather than an absolute value.
+     *
+     * @param field the field index
+     * @return true if the field is relative, false otherwise
+     */
+    public boolean isRelative(final int field) {
+        return relatives[field];
+    }
+}
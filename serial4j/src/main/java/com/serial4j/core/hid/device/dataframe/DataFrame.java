@@ -0,0 +1,143 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.hid.device.dataframe;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Represents a received data frame as a byte slice of the {@link DataFrameDevice} frame accumulator,
+ * the frame is exposed as a {@link CharSequence} of 8-bit characters without copying the bytes.
+ *
+ * <p>
+ * Note: the frame is reused, and is valid only until the next {@link DataFrameDevice#receive()},
+ * use {@link DataFrame#toString()} to keep a copy.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class DataFrame implements CharSequence {
+
+    private byte[] bytes;
+    private int offset;
+    private int length;
+
+    /**
+     * Instantiates an empty frame.
+     */
+    public DataFrame() {
+        this(new byte[0], 0, 0);
+    }
+
+    /**
+     * Instantiates a frame over a byte slice.
+     *
+     * @param bytes  the array holding the frame
+     * @param offset the start of the frame in the array
+     * @param length the frame length in bytes
+     */
+    public DataFrame(final byte[] bytes, final int offset, final int length) {
+        set(bytes, offset, length);
+    }
+
+    /**
+     * Points this frame at a byte slice.
+     *
+     * @param bytes  the array holding the frame
+     * @param offset the start of the frame in the array
+     * @param length the frame length in bytes
+     * @return this frame for chained invocations
+     */
+    public DataFrame set(final byte[] bytes, final int offset, final int length) {
+        if ((offset | length) < 0 || length > bytes.length - offset) {
+            throw new IndexOutOfBoundsException("Frame [" + offset + ", " + length + "] is out of the array bounds!");
+        }
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    /**
+     * Retrieves a byte of this frame.
+     *
+     * @param index the index of the byte in the frame
+     * @return the frame byte
+     */
+    public byte getByte(final int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of the frame bounds!");
+        }
+        return bytes[offset + index];
+    }
+
+    /**
+     * Retrieves the array holding this frame, the frame starts at {@link DataFrame#getOffset()}.
+     *
+     * @return the backing array of the frame
+     */
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Retrieves the start of this frame in its array.
+     *
+     * @return the frame offset
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(final int index) {
+        return (char) (getByte(index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("Range [" + start + ", " + end + ") is out of the frame bounds!");
+        }
+        return new DataFrame(bytes, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, offset, length, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -37,6 +37,8 @@ import com.serial4j.core.hid.StandardSerialDevice;
 import com.serial4j.core.hid.device.dataframe.registry.JoystickRegistry;
 import com.serial4j.core.serial.SerialPort;
 import com.serial4j.core.terminal.TerminalDevice;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * A shift-avr joystick serial interface device providing a data
@@ -45,10 +47,17 @@ import com.serial4j.core.terminal.TerminalDevice;
  *
  * @author pavl_g
  */
-public class DataFrameDevice<D> extends StandardSerialDevice<String, D> {
+public class DataFrameDevice<D> extends StandardSerialDevice<CharSequence, D> {
 
     /**
-     * A Global Input buffer for decoding operations.
+     * The maximum length of a data frame in bytes, the longer frames are discarded.
+     */
+    public static final int MAX_FRAME_LENGTH = 0x01 << 0x0A;
+
+    private static final Logger LOGGER = Logger.getLogger(DataFrameDevice.class.getName());
+
+    /**
+     * A Global Input buffer accumulating the received bytes of the data frames.
      *
      * <p>
      * <b>Global V.S. Local Buffers:</b> The use of global/heap buffer here
@@ -61,8 +70,21 @@ public class DataFrameDevice<D> extends StandardSerialDevice<String, D> {
      * characters, after which the input buffer is flushed, and the decoder is dispatched, eventually dispatching the user code
      * with the decoded data structure.
      * </p>
+     *
+     * <p>
+     * The bytes are read in bulk into this buffer, and only the newly read bytes are scanned for
+     * the frame delimiter, the bytes read past a delimiter are kept for the next frames.
+     * </p>
      */
-    protected final StringBuffer inputBuffer = new StringBuffer();
+    protected final byte[] inputBuffer = new byte[MAX_FRAME_LENGTH];
+
+    private final DataFrame frame = new DataFrame();
+    private final DataFrame pendingFrame = new DataFrame();
+    private int inputLength;
+    private int scanPosition;
+    private int consumedLength;
+    private boolean resynchronizing;
+    private long discardedFrames;
 
     /**
      * Instantiates a serial shift-avr device that is capable of
@@ -79,7 +101,7 @@ public class DataFrameDevice<D> extends StandardSerialDevice<String, D> {
     @SuppressWarnings("unchecked")
     public void init() {
         super.init();
-        decoder = (HumanInterfaceDevice.ReportDescriptor.Decoder<String, D>) new JoystickRegistry.Decoder();
+        decoder = (HumanInterfaceDevice.ReportDescriptor.Decoder<CharSequence, D>) new JoystickRegistry.Decoder();
         setDecoder(decoder);
         setReportDescriptor(new ReportDescriptor());
     }
@@ -88,31 +110,73 @@ public class DataFrameDevice<D> extends StandardSerialDevice<String, D> {
     public void receive() {
         // reads a frame terminated by LF-CR, Line feed - Carriage return ("\n\r")
         // then finishes by dispatching the decoder implementation
-        // after which the decoding listeners come into play
-        // terminating the loop thereafter.
+        // after which the decoding listeners come into play.
         // Note: as a part of loop control:
-        // the loop self-terminates with an exception if the
-        // reading exceeds 1024 (1 << 10 or 2^10) bytes without dispatching the decoder
+        // a frame exceeding 1024 (1 << 10 or 2^10) bytes without a delimiter is discarded
+        // up to the next delimiter, and the reading resynchronizes on the following frame.
         super.decode(dataRegisterLength -> {
-            for (int chars = 0; getTerminalDevice().iread(dataRegisterLength) > 0; chars++) {
-                inputBuffer.append(getTerminalDevice().getBuffer());
-                if (inputBuffer.toString().endsWith(Character.toString(reportDescriptor.getReportLength()))) {
-                    final String data = inputBuffer.toString(); // create a new local pointer
-                    inputBuffer.delete(0, inputBuffer.length()); // flush the input buffer
-                    return data;
-                } else if (chars > (0x01 << 0x0A)) {
-                    throw new NotDataFrameDeviceException();
+            compact();
+            final byte delimiter = (byte) reportDescriptor.getReportLength();
+            while (true) {
+                // scan the newly read bytes only
+                for (; scanPosition < inputLength; scanPosition++) {
+                    if (inputBuffer[scanPosition] != delimiter) {
+                        continue;
+                    }
+                    consumedLength = scanPosition + 1;
+                    scanPosition = consumedLength;
+                    if (resynchronizing) {
+                        // drop the tail of the discarded frame
+                        resynchronizing = false;
+                        compact();
+                        continue;
+                    }
+                    return frame.set(inputBuffer, 0, consumedLength);
+                }
+                if (inputLength == inputBuffer.length) {
+                    discardFrame();
+                }
+                final int bytes = getTerminalDevice().read(inputBuffer, inputLength, inputBuffer.length - inputLength);
+                if (bytes <= 0) {
+                    return null; // return null as of no value
                 }
+                inputLength += bytes;
             }
-            return null; // return null as of no value
         });
     }
 
+    /**
+     * Drops the consumed frame, and moves the bytes read past its delimiter to the start of the buffer.
+     */
+    private void compact() {
+        if (consumedLength == 0) {
+            return;
+        }
+        System.arraycopy(inputBuffer, consumedLength, inputBuffer, 0, inputLength - consumedLength);
+        inputLength -= consumedLength;
+        scanPosition -= consumedLength;
+        consumedLength = 0;
+    }
+
+    /**
+     * Discards an oversize frame, and resynchronizes on the next delimiter.
+     */
+    private void discardFrame() {
+        if (!resynchronizing) {
+            discardedFrames++;
+            LOGGER.log(Level.WARNING, "Discarding a data frame exceeding " + MAX_FRAME_LENGTH
+                    + " bytes, check the vendor sheet with the standard dataframe serial HID report descriptors!");
+        }
+        resynchronizing = true;
+        inputLength = 0;
+        scanPosition = 0;
+    }
+
     @Override
     public void transmit(D decoded) {
         // sends the encoded values plus a '\n' for data framing
         super.encode(encoded ->
-                terminalDevice.write(encoded + reportDescriptor.getReportLength()), decoded);
+                terminalDevice.write(encoded.toString() + (char) reportDescriptor.getReportLength()), decoded);
     }
 
     @Override
@@ -122,17 +186,29 @@ public class DataFrameDevice<D> extends StandardSerialDevice<String, D> {
 
     @Override
     public void close() {
-        inputBuffer.delete(0, inputBuffer.length()); // flush the input buffer
+        inputLength = 0; // flush the input buffer
+        scanPosition = 0;
+        consumedLength = 0;
+        resynchronizing = false;
         super.close(); // close the port and release resources
     }
 
     /**
-     * Retrieves the input buffer being in-use.
+     * Retrieves the received bytes not yet delivered as frames.
+     *
+     * @return a view of the input buffer holding the partial data frames, valid until the next receive
+     */
+    public final CharSequence getInputBuffer() {
+        return pendingFrame.set(inputBuffer, consumedLength, inputLength - consumedLength);
+    }
+
+    /**
+     * Retrieves the number of the discarded oversize frames.
      *
-     * @return the input buffer holding data frames
+     * @return the number of the frames exceeding {@link DataFrameDevice#MAX_FRAME_LENGTH}
      */
-    public final StringBuffer getInputBuffer() {
-        return inputBuffer;
+    public long getDiscardedFrames() {
+        return discardedFrames;
     }
 
     /**
@@ -166,7 +242,7 @@ public class DataFrameDevice<D> extends StandardSerialDevice<String, D> {
          * @param <D> the type of the decoded data.
          * @see JoystickRegistry
          */
-        public interface Decoder<D> extends HumanInterfaceDevice.ReportDescriptor.Decoder<String, D> {
+        public interface Decoder<D> extends HumanInterfaceDevice.ReportDescriptor.Decoder<CharSequence, D> {
         }
 
         /**
@@ -176,7 +252,7 @@ public class DataFrameDevice<D> extends StandardSerialDevice<String, D> {
          *
          * @param <D> the type of the decoded data packets
          */
-        public interface DecoderListener<D> extends HumanInterfaceDevice.ReportDescriptor.DecoderListener<String, D> {
+        public interface DecoderListener<D> extends HumanInterfaceDevice.ReportDescriptor.DecoderListener<CharSequence, D> {
         }
     }
 }
\ No newline at end of file
@@ -36,7 +36,10 @@ package com.serial4j.core.hid.device.dataframe;
  * Indicates a non-standard joystick device.
  *
  * @author pavl_g
+ * @deprecated no longer thrown, the {@link DataFrameDevice} discards the oversize frames and resynchronizes,
+ * see {@link DataFrameDevice#getDiscardedFrames()}.
  */
+@Deprecated
 public class NotDataFrameDeviceException extends RuntimeException {
 
     /**
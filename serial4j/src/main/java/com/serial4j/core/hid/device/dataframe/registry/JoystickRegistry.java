@@ -32,22 +32,25 @@
 
 package com.serial4j.core.hid.device.dataframe.registry;
 
+import com.serial4j.core.hid.HidStateSnapshot;
 import com.serial4j.core.hid.device.dataframe.DataFrameDevice;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import com.serial4j.core.hid.device.dataframe.schema.FrameFieldType;
+import com.serial4j.core.hid.device.dataframe.schema.FrameSchema;
+import com.serial4j.core.hid.device.dataframe.schema.SchemaFrameDecoder;
 
 /**
  * The shift-avr Joystick interface device report descriptor provides
- * the standard decoder that decodes raw string data into
- * {X} and {Y} readings.
+ * the standard decoder that decodes the raw data frames into
+ * {X}, {Y}, and {B} readings using a compiled {@link FrameSchema}.
  *
  * <p>
  * The descriptor report is defined by a data frame of max
- * number of bytes and byte-order as following: [x = 1023, y = 1023]\n\r
+ * number of bytes and byte-order as following: [x = 1023, y = 1023, b = 1]\n\r
  * </p>
  *
  * @param x the decoded X-coordinate value
  * @param y the decoded Y-coordinate value
+ * @param b the decoded button state
  * @author pavl_g
  */
 public record JoystickRegistry(int x, int y, int b) {
@@ -62,52 +65,63 @@ public record JoystickRegistry(int x, int y, int b) {
     }
 
     /**
-     * The Report descriptor decoder that is dispatched by the
-     * {@link DataFrameDevice} to decode the data reports into {@link JoystickRegistry}s.
+     * The compiled schema of the joystick frames, e.g., [x = 1023, y = 1023, b = 1].
      */
-    public static class Decoder implements DataFrameDevice.ReportDescriptor.Decoder<JoystickRegistry> {
-        private static int getPotentiometerValue(String frame, int index, char delimiter) {
-            final StringBuilder data = new StringBuilder();
-            for (int i = index; frame.charAt(i) != delimiter; i++) {
-                data.append(frame.charAt(i));
-            }
-            return Integer.parseInt(data.toString());
-        }
+    private static final FrameSchema SCHEMA = FrameSchema.build()
+            .field("x", FrameFieldType.INT)
+            .field("y", FrameFieldType.INT)
+            .field("b", FrameFieldType.INT)
+            .compile();
 
-        @Override
-        public String encode(JoystickRegistry data) {
-            throw new UnsupportedOperationException("The Joystick HID is a read-only device!");
-        }
+    private static final int X = SCHEMA.getFieldIndex("x");
+    private static final int Y = SCHEMA.getFieldIndex("y");
+    private static final int B = SCHEMA.getFieldIndex("b");
+
+    /**
+     * The {@link HidStateSnapshot} channels of the joystick state.
+     */
+    public static final int X_CHANNEL = 0;
+    public static final int Y_CHANNEL = 1;
+    public static final int BUTTON_CHANNEL = 2;
+
+    /**
+     * Instantiates a state cell of the joystick, see {@link #updateState(JoystickRegistry, HidStateSnapshot)}.
+     *
+     * @return a new state snapshot with the absolute X, Y, and button channels
+     */
+    public static HidStateSnapshot newStateSnapshot() {
+        return new HidStateSnapshot(BUTTON_CHANNEL + 1);
+    }
 
-        @Override
-        public JoystickRegistry decode(String raw) {
-            final String frame = raw.replace("\n\r", "");
-            System.out.println(frame);
-            int x = 0;
-            int y = 0;
-            int b = 0;
+    /**
+     * Updates the joystick state channels from a decoded report.
+     *
+     * @param decoded  the decoded joystick report
+     * @param snapshot the joystick state cell
+     */
+    public static void updateState(final JoystickRegistry decoded, final HidStateSnapshot snapshot) {
+        snapshot.set(X_CHANNEL, decoded.x);
+        snapshot.set(Y_CHANNEL, decoded.y);
+        snapshot.set(BUTTON_CHANNEL, decoded.b);
+    }
 
-            try {
-                for (int i = 0; i < frame.length(); i++) {
-                    if (frame.charAt(i) == 'x') {
-                        // i + 4 is the delimiter between the x and the value of x
-                        x = getPotentiometerValue(frame, i + 4, ',');
-                    } else if (frame.charAt(i) == 'y') {
-                        // i + 4 is the delimiter between the 'y' and the value of y
-                        y = getPotentiometerValue(frame, i + 4, ',');
-                    } else if (frame.charAt(i) == 'b') {
-                        b = getPotentiometerValue(frame, i + 4, ']');
-                    }
-                }
-            } catch (Exception e) {
-                x = 0;
-                y = 0;
-                b = 0;
-                Logger.getLogger(DataFrameDevice.class.getName())
-                        .log(Level.WARNING, "Decoding Fails with '" + e.getMessage() + "'", e.getCause());
-            }
+    /**
+     * The Report descriptor decoder that is dispatched by the
+     * {@link DataFrameDevice} to decode the data reports into {@link JoystickRegistry}s,
+     * the values are parsed in place from the frame bytes, and the missing values are decoded as 0.
+     */
+    public static class Decoder extends SchemaFrameDecoder<JoystickRegistry> {
 
-            return new JoystickRegistry(x, y, b);
+        /**
+         * Instantiates a joystick decoder over the shared compiled schema.
+         */
+        public Decoder() {
+            super(SCHEMA, values -> new JoystickRegistry(values.getInt(X), values.getInt(Y), values.getInt(B)),
+                    (data, values) -> {
+                        values.setInt(X, data.x);
+                        values.setInt(Y, data.y);
+                        values.setInt(B, data.b);
+                    });
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,506 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.hid.device.dataframe.schema;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A declarative schema of the key/value text data frames (e.g., "[x = 1023, y = -12, b = 1]"),
+ * defined by the field names, the numeric types, and the separators.
+ *
+ * <p>
+ * The schema is compiled once into a dispatch table indexed by the first character of the field names,
+ * and the frames are parsed in place from their characters (e.g., a
+ * {@link com.serial4j.core.hid.device.dataframe.DataFrame} over the device input buffer) into a reusable
+ * {@link FrameValues}, the ASCII numbers are accumulated digit by digit with no intermediate strings,
+ * so that the parsing doesn't allocate.
+ * </p>
+ *
+ * <p>
+ * Example:
+ * <pre>{@code
+ * final FrameSchema schema = FrameSchema.build()
+ *         .field("x", FrameFieldType.INT)
+ *         .field("y", FrameFieldType.INT)
+ *         .compile();
+ * final FrameValues values = schema.newValues();
+ * schema.parse(frame, values);
+ * final int x = values.getInt(schema.getFieldIndex("x"));
+ * }</pre>
+ * </p>
+ *
+ * <p>
+ * A compiled schema is immutable, and could be shared among the devices; the frames with unknown
+ * keys have the unknown fields skipped.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class FrameSchema {
+
+    /**
+     * The maximum number of fields in a schema.
+     */
+    public static final int MAX_FIELDS = Long.SIZE;
+
+    /**
+     * The characters skipped between the tokens by default, the frame brackets, the whitespaces,
+     * and the frame delimiters.
+     */
+    public static final String DEFAULT_IGNORED_CHARACTERS = "[]{}() \t\n\r";
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+            1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+
+    /**
+     * The bound of the decimal scale of a fraction, beyond the range of a double.
+     */
+    private static final int MAX_SCALE = 400;
+
+    private final List<String> names = new ArrayList<>();
+    private final List<FrameFieldType> types = new ArrayList<>();
+    private char keyValueSeparator = '=';
+    private char fieldSeparator = ',';
+    private String ignoredCharacters = DEFAULT_IGNORED_CHARACTERS;
+
+    /* the compiled plan */
+    private char[][] fieldNames;
+    private FrameFieldType[] fieldTypes;
+    private int[][] firstCharacterFields;
+    private final boolean[] ignored = new boolean[128];
+    private volatile boolean compiled;
+
+    private FrameSchema() {
+    }
+
+    /**
+     * Starts a new schema definition.
+     *
+     * @return a new empty schema to define its fields
+     */
+    public static FrameSchema build() {
+        return new FrameSchema();
+    }
+
+    /**
+     * Appends a field to the schema, the field index is its order of definition.
+     *
+     * @param name the field key in the frames
+     * @param type the numeric type of the field value
+     * @return this schema instance for chained calls
+     */
+    public FrameSchema field(final String name, final FrameFieldType type) {
+        checkNotCompiled();
+        if (name == null || name.isEmpty() || type == null) {
+            throw new IllegalArgumentException("Field name and type must be specified!");
+        }
+        if (names.contains(name)) {
+            throw new IllegalArgumentException("Field " + name + " is already defined!");
+        }
+        if (names.size() == MAX_FIELDS) {
+            throw new IllegalArgumentException("A frame schema is limited to " + MAX_FIELDS + " fields!");
+        }
+        names.add(name);
+        types.add(type);
+        return this;
+    }
+
+    /**
+     * Adjusts the separator between the field keys and their values, default is '='.
+     *
+     * @param keyValueSeparator the key/value separator
+     * @return this schema instance for chained calls
+     */
+    public FrameSchema setKeyValueSeparator(final char keyValueSeparator) {
+        checkNotCompiled();
+        this.keyValueSeparator = keyValueSeparator;
+        return this;
+    }
+
+    /**
+     * Adjusts the separator between the fields, default is ','.
+     *
+     * @param fieldSeparator the field separator
+     * @return this schema instance for chained calls
+     */
+    public FrameSchema setFieldSeparator(final char fieldSeparator) {
+        checkNotCompiled();
+        this.fieldSeparator = fieldSeparator;
+        return this;
+    }
+
+    /**
+     * Adjusts the ASCII characters skipped between the tokens, default is {@link #DEFAULT_IGNORED_CHARACTERS}.
+     *
+     * @param ignoredCharacters the skipped characters
+     * @return this schema instance for chained calls
+     */
+    public FrameSchema setIgnoredCharacters(final String ignoredCharacters) {
+        checkNotCompiled();
+        this.ignoredCharacters = ignoredCharacters;
+        return this;
+    }
+
+    /**
+     * Compiles the schema into its parsing plan, the schema can't be modified afterwards.
+     *
+     * @return this schema instance for chained calls
+     */
+    public synchronized FrameSchema compile() {
+        if (compiled) {
+            return this;
+        }
+        if (names.isEmpty()) {
+            throw new IllegalStateException("A frame schema must have at least one field!");
+        }
+        for (int i = 0; i < ignoredCharacters.length(); i++) {
+            final char character = ignoredCharacters.charAt(i);
+            if (character < ignored.length) {
+                ignored[character] = true;
+            }
+        }
+        if (isIgnored(keyValueSeparator) || isIgnored(fieldSeparator)) {
+            throw new IllegalStateException("The separators can't be ignored characters!");
+        }
+        fieldNames = new char[names.size()][];
+        fieldTypes = types.toArray(new FrameFieldType[0]);
+        firstCharacterFields = new int[128][];
+        for (int field = 0; field < fieldNames.length; field++) {
+            fieldNames[field] = names.get(field).toCharArray();
+            final char first = fieldNames[field][0];
+            if (first >= firstCharacterFields.length) {
+                throw new IllegalStateException("Field names must start with an ASCII character!");
+            }
+            final int[] candidates = firstCharacterFields[first];
+            if (candidates == null) {
+                firstCharacterFields[first] = new int[] {field};
+            } else {
+                firstCharacterFields[first] = Arrays.copyOf(candidates, candidates.length + 1);
+                firstCharacterFields[first][candidates.length] = field;
+            }
+        }
+        compiled = true;
+        return this;
+    }
+
+    /**
+     * Instantiates the reusable values of this schema, a values instance must be confined to a single parsing thread.
+     *
+     * @return a new values instance
+     */
+    public FrameValues newValues() {
+        compile();
+        return new FrameValues(this);
+    }
+
+    /**
+     * Parses a frame into the values in place, the fields missing in the frame are reset to 0.
+     *
+     * @param frame  the frame characters, e.g., a {@link com.serial4j.core.hid.device.dataframe.DataFrame}
+     * @param values the reusable values of this schema
+     * @return true if the frame is well-formed and all the schema fields are present, false otherwise
+     */
+    public boolean parse(final CharSequence frame, final FrameValues values) {
+        if (values.getSchema() != this) {
+            throw new IllegalArgumentException("The values are not created by this schema!");
+        }
+        values.clear();
+        boolean wellFormed = true;
+        final int length = frame.length();
+        int index = 0;
+        while (index < length) {
+            final char character = frame.charAt(index);
+            if (character == fieldSeparator || isIgnored(character)) {
+                index++;
+                continue;
+            }
+            /* the field key */
+            final int keyStart = index;
+            while (index < length && !isKeyDelimiter(frame.charAt(index))) {
+                index++;
+            }
+            final int field = findField(frame, keyStart, index);
+            index = skipIgnored(frame, index, length);
+            if (index == length || frame.charAt(index) != keyValueSeparator) {
+                wellFormed = false;
+                index = skipField(frame, index, length);
+                continue;
+            }
+            index = skipIgnored(frame, index + 1, length);
+            if (field < 0) {
+                /* unknown keys are skipped */
+                index = skipField(frame, index, length);
+                continue;
+            }
+            /* the field value */
+            final int valueEnd = fieldTypes[field] == FrameFieldType.DOUBLE
+                    ? parseFraction(frame, index, length, field, values)
+                    : parseInteger(frame, index, length, field, values);
+            if (valueEnd < 0) {
+                wellFormed = false;
+                index = skipField(frame, index, length);
+                continue;
+            }
+            index = skipIgnored(frame, valueEnd, length);
+            if (index < length && frame.charAt(index) != fieldSeparator) {
+                wellFormed = false;
+                index = skipField(frame, index, length);
+            }
+        }
+        return wellFormed && values.arePresent(fieldNames.length);
+    }
+
+    /**
+     * Formats the present fields of the values into a frame of this schema in their order of definition,
+     * e.g., "x=1023,y=-12,b=1", the frame is parsed back into the same values; the fractions are formatted
+     * with no exponent, as the exponents aren't parsed.
+     *
+     * @param values the values of this schema
+     * @param frame  the builder receiving the frame characters
+     * @return the frame builder for chained calls
+     * @throws IllegalArgumentException if a {@link FrameFieldType#DOUBLE} value is not finite
+     */
+    public StringBuilder format(final FrameValues values, final StringBuilder frame) {
+        if (values.getSchema() != this) {
+            throw new IllegalArgumentException("The values are not created by this schema!");
+        }
+        boolean first = true;
+        for (int field = 0; field < fieldNames.length; field++) {
+            if (!values.isPresent(field)) {
+                continue;
+            }
+            if (!first) {
+                frame.append(fieldSeparator);
+            }
+            first = false;
+            frame.append(fieldNames[field]).append(keyValueSeparator);
+            if (fieldTypes[field] != FrameFieldType.DOUBLE) {
+                frame.append(values.getLong(field));
+                continue;
+            }
+            final double value = values.getDouble(field);
+            if (!Double.isFinite(value)) {
+                throw new IllegalArgumentException("Field " + names.get(field) + " value " + value + " is not finite!");
+            }
+            frame.append(BigDecimal.valueOf(value).stripTrailingZeros().toPlainString());
+        }
+        return frame;
+    }
+
+    /**
+     * Retrieves the index of a field in the parsed values.
+     *
+     * @param name the field name
+     * @return the field index, or -1 if the field is not in the schema
+     */
+    public int getFieldIndex(final String name) {
+        return names.indexOf(name);
+    }
+
+    /**
+     * Retrieves the name of a field.
+     *
+     * @param field the field index
+     * @return the field name
+     */
+    public String getFieldName(final int field) {
+        return names.get(field);
+    }
+
+    /**
+     * Retrieves the numeric type of a field.
+     *
+     * @param field the field index
+     * @return the field type
+     */
+    public FrameFieldType getFieldType(final int field) {
+        return types.get(field);
+    }
+
+    /**
+     * Retrieves the number of the schema fields.
+     *
+     * @return the number of fields
+     */
+    public int getNumberOfFields() {
+        return names.size();
+    }
+
+    /**
+     * Tests whether the schema is compiled.
+     *
+     * @return true if the schema is compiled and immutable, false otherwise
+     */
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    private int parseInteger(final CharSequence frame, int index, final int length,
+                             final int field, final FrameValues values) {
+        final boolean negative = index < length && frame.charAt(index) == '-';
+        if (negative || (index < length && frame.charAt(index) == '+')) {
+            index++;
+        }
+        final int digitsStart = index;
+        /* accumulates negatively as Long#parseLong does, so that the minimum value is reachable */
+        final boolean isInt = fieldTypes[field] == FrameFieldType.INT;
+        final long limit = negative ? (isInt ? Integer.MIN_VALUE : Long.MIN_VALUE)
+                : -(isInt ? Integer.MAX_VALUE : Long.MAX_VALUE);
+        final long multiplyLimit = limit / 10;
+        long value = 0;
+        for (char digit; index < length && (digit = frame.charAt(index)) >= '0' && digit <= '9'; index++) {
+            /* the values overflowing the field type reject the field */
+            if (value < multiplyLimit) {
+                return -1;
+            }
+            value *= 10;
+            if (value < limit + (digit - '0')) {
+                return -1;
+            }
+            value -= digit - '0';
+        }
+        if (index == digitsStart) {
+            return -1;
+        }
+        values.setInteger(field, negative ? value : -value);
+        return index;
+    }
+
+    private int parseFraction(final CharSequence frame, int index, final int length,
+                              final int field, final FrameValues values) {
+        final boolean negative = index < length && frame.charAt(index) == '-';
+        if (negative || (index < length && frame.charAt(index) == '+')) {
+            index++;
+        }
+        final int digitsStart = index;
+        long mantissa = 0;
+        int scale = 0;
+        int digits = 0;
+        boolean fraction = false;
+        for (; index < length; index++) {
+            final char character = frame.charAt(index);
+            if (character >= '0' && character <= '9') {
+                if (mantissa == 0 && character == '0') {
+                    /* the leading zeros add no precision */
+                    if (fraction) {
+                        scale = Math.min(scale + 1, MAX_SCALE);
+                    }
+                } else if (digits < POWERS_OF_TEN.length - 1) {
+                    mantissa = mantissa * 10 + (character - '0');
+                    digits++;
+                    if (fraction) {
+                        scale++;
+                    }
+                } else if (!fraction) {
+                    /* the digits beyond the double precision are dropped */
+                    scale = Math.max(scale - 1, -MAX_SCALE);
+                }
+            } else if (character == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+        if (index == digitsStart || (fraction && index == digitsStart + 1)) {
+            return -1; // no digits
+        }
+        final double value;
+        if (scale >= 0 && scale < POWERS_OF_TEN.length) {
+            value = mantissa / POWERS_OF_TEN[scale];
+        } else if (scale < 0 && -scale < POWERS_OF_TEN.length) {
+            value = mantissa * POWERS_OF_TEN[-scale];
+        } else {
+            /* out of the exact powers, overflows to infinity or underflows to zero as Double#parseDouble */
+            value = scale > 0 ? mantissa / Math.pow(10, scale) : mantissa * Math.pow(10, -scale);
+        }
+        values.setFraction(field, negative ? -value : value);
+        return index;
+    }
+
+    private int findField(final CharSequence frame, final int start, final int end) {
+        if (start == end) {
+            return -1;
+        }
+        final char first = frame.charAt(start);
+        if (first >= firstCharacterFields.length || firstCharacterFields[first] == null) {
+            return -1;
+        }
+        for (final int field : firstCharacterFields[first]) {
+            final char[] name = fieldNames[field];
+            if (name.length != end - start) {
+                continue;
+            }
+            int i = 1;
+            while (i < name.length && name[i] == frame.charAt(start + i)) {
+                i++;
+            }
+            if (i == name.length) {
+                return field;
+            }
+        }
+        return -1;
+    }
+
+    private int skipIgnored(final CharSequence frame, int index, final int length) {
+        while (index < length && isIgnored(frame.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private int skipField(final CharSequence frame, int index, final int length) {
+        while (index < length && frame.charAt(index) != fieldSeparator) {
+            index++;
+        }
+        return index;
+    }
+
+    private boolean isKeyDelimiter(final char character) {
+        return character == keyValueSeparator || character == fieldSeparator || isIgnored(character);
+    }
+
+    private boolean isIgnored(final char character) {
+        return character < ignored.length && ignored[character];
+    }
+
+    private void checkNotCompiled() {
+        if (compiled) {
+            throw new IllegalStateException("The frame schema is already compiled!");
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.hid.device.dataframe.schema;
+
+/**
+ * Holds the field values parsed by a {@link FrameSchema} as primitives, the values are
+ * reused by the consecutive frames, so that parsing allocates nothing.
+ *
+ * @author pavl_g
+ */
+public final class FrameValues {
+
+    private final FrameSchema schema;
+    private final long[] integers;
+    private final double[] fractions;
+    private long presentFields;
+
+    FrameValues(final FrameSchema schema) {
+        this.schema = schema;
+        this.integers = new long[schema.getNumberOfFields()];
+        this.fractions = new double[schema.getNumberOfFields()];
+    }
+
+    void clear() {
+        presentFields = 0;
+        java.util.Arrays.fill(integers, 0);
+        java.util.Arrays.fill(fractions, 0);
+    }
+
+    void setInteger(final int field, final long value) {
+        integers[field] = value;
+        fractions[field] = value;
+        presentFields |= 1L << field;
+    }
+
+    void setFraction(final int field, final double value) {
+        fractions[field] = value;
+        integers[field] = (long) value;
+        presentFields |= 1L << field;
+    }
+
+    boolean arePresent(final int numberOfFields) {
+        return numberOfFields == Long.SIZE ? presentFields == -1L : presentFields == (1L << numberOfFields) - 1;
+    }
+
+    /**
+     * Adjusts an {@link FrameFieldType#INT} field value, e.g., to format a frame.
+     *
+     * @param field the field index in the schema
+     * @param value the field value
+     */
+    public void setInt(final int field, final int value) {
+        setInteger(field, value);
+    }
+
+    /**
+     * Adjusts a {@link FrameFieldType#LONG} field value, e.g., to format a frame.
+     *
+     * @param field the field index in the schema
+     * @param value the field value
+     */
+    public void setLong(final int field, final long value) {
+        setInteger(field, value);
+    }
+
+    /**
+     * Adjusts a {@link FrameFieldType#DOUBLE} field value, e.g., to format a frame.
+     *
+     * @param field the field index in the schema
+     * @param value the field value
+     */
+    public void setDouble(final int field, final double value) {
+        setFraction(field, value);
+    }
+
+    /**
+     * Retrieves an {@link FrameFieldType#INT} field value.
+     *
+     * @param field the field index in the schema
+     * @return the field value, or 0 if the field is missing in the last frame
+     */
+    public int getInt(final int field) {
+        return (int) integers[field];
+    }
+
+    /**
+     * Retrieves a {@link FrameFieldType#LONG} field value.
+     *
+     * @param field the field index in the schema
+     * @return the field value, or 0 if the field is missing in the last frame
+     */
+    public long getLong(final int field) {
+        return integers[field];
+    }
+
+    /**
+     * Retrieves a {@link FrameFieldType#DOUBLE} field value.
+     *
+     * @param field the field index in the schema
+     * @return the field value, or 0 if the field is missing in the last frame
+     */
+    public double getDouble(final int field) {
+        return fractions[field];
+    }
+
+    /**
+     * Tests whether a field is present in the last parsed frame.
+     *
+     * @param field the field index in the schema
+     * @return true if the field is parsed from the last frame, false otherwise.
+     */
+    public boolean isPresent(final int field) {
+        return (presentFields & (1L << field)) != 0;
+    }
+
+    /**
+     * Retrieves the schema of these values.
+     *
+     * @return the frame schema
+     */
+    public FrameSchema getSchema() {
+        return schema;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.hid.device.dataframe.schema;
+
+import com.serial4j.core.hid.device.dataframe.DataFrameDevice;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A generic {@link DataFrameDevice} decoder driven by a compiled {@link FrameSchema}, the frames are parsed
+ * into the reusable {@link FrameValues} of this decoder, and then converted by a factory into the decoded
+ * data structure, e.g., a record, or a reusable mutable target with no allocations at all; the data structures
+ * are encoded the other way around, a writer fills the field values, which are formatted by the schema.
+ *
+ * <p>
+ * A decoder instance is confined to the thread of its device, the schema could be shared among the decoders.
+ * </p>
+ *
+ * @param <D> the type of the decoded data structure
+ * @author pavl_g
+ */
+public class SchemaFrameDecoder<D> implements DataFrameDevice.ReportDescriptor.Decoder<D> {
+
+    private final FrameSchema schema;
+    private final FrameValues values;
+    private final Function<FrameValues, D> factory;
+    private final BiConsumer<D, FrameValues> writer;
+    private final FrameValues encodedValues;
+    private final StringBuilder encodedFrame = new StringBuilder();
+    private long malformedFrames;
+
+    /**
+     * Instantiates a schema decoder.
+     *
+     * @param schema  the frame schema, compiled if not compiled yet
+     * @param factory converts the parsed values into the decoded data structure
+     * @param writer  fills the field values from a data structure to encode
+     */
+    public SchemaFrameDecoder(final FrameSchema schema, final Function<FrameValues, D> factory,
+                              final BiConsumer<D, FrameValues> writer) {
+        this.schema = schema.compile();
+        this.values = schema.newValues();
+        this.factory = factory;
+        this.writer = writer;
+        this.encodedValues = schema.newValues();
+    }
+
+    @Override
+    public D decode(CharSequence data) {
+        if (!schema.parse(data, values)) {
+            malformedFrames++;
+        }
+        return factory.apply(values);
+    }
+
+    /**
+     * Encodes a data structure into a frame of the schema, see {@link FrameSchema#format(FrameValues, StringBuilder)},
+     * the fields not filled by the writer are left out of the frame.
+     *
+     * @param decoded the decoded data structure
+     * @return the encoded frame, reused by the next encoding
+     */
+    @Override
+    public CharSequence encode(D decoded) {
+        encodedValues.clear();
+        writer.accept(decoded, encodedValues);
+        encodedFrame.setLength(0);
+        return schema.format(encodedValues, encodedFrame);
+    }
+
+    /**
+     * Retrieves the number of frames that are malformed or missing some schema fields,
+     * their missing fields are decoded as 0.
+     *
+     * @return the number of malformed frames
+     */
+    public long getMalformedFrames() {
+        return malformedFrames;
+    }
+
+    /**
+     * Retrieves the parsed values of the last frame.
+     *
+     * @return the reusable values of this decoder
+     */
+    public FrameValues getValues() {
+        return values;
+    }
+
+    /**
+     * Retrieves the frame schema.
+     *
+     * @return the compiled schema
+     */
+    public FrameSchema getSchema() {
+        return schema;
+    }
+}
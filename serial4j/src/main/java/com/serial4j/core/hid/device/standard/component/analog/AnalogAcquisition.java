@@ -0,0 +1,176 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.hid.device.standard.component.analog;
+
+/**
+ * A streaming acquisition mode of an {@link AnalogModuleDevice}, the samples are received in bulk,
+ * filtered, decimated, and written into an off-heap {@link AnalogSampleRing}, bypassing the decoder,
+ * so that a kHz-rate stream involves neither a record allocation, nor a listener dispatch per sample.
+ *
+ * <p>
+ * The samples are conditioned in order by:
+ * <ol>
+ *     <li>An optional first-order low-pass filter (an exponential moving average), y += alpha * (x - y).</li>
+ *     <li>An optional decimation by averaging each N consecutive samples, which is a boxcar anti-aliasing filter.</li>
+ * </ol>
+ * The filters are configured before the acquisition is set on the device, and run on its receive thread.
+ * </p>
+ *
+ * <p>
+ * Example:
+ * <pre>{@code
+ * final AnalogAcquisition acquisition = new AnalogAcquisition(new AnalogSampleRing(65536, 16));
+ * acquisition.setLowPass(0.2);
+ * acquisition.setDecimation(4);
+ * analogDevice.setAcquisition(acquisition);
+ * hidReader.register(analogDevice);
+ * // on a consumer thread
+ * acquisition.getRing().computeStatistics(1000, statistics);
+ * }</pre>
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class AnalogAcquisition {
+
+    private final AnalogSampleRing ring;
+    private double lowPassAlpha = 1;
+    private int decimation = 1;
+
+    /* the filters state, confined to the receive thread */
+    private double filtered;
+    private boolean filterInitialized;
+    private double decimationSum;
+    private int decimationCount;
+    private long receivedSamples;
+
+    /**
+     * Instantiates an acquisition into a sample ring, with no filters.
+     *
+     * @param ring the ring receiving the conditioned samples
+     */
+    public AnalogAcquisition(final AnalogSampleRing ring) {
+        this.ring = ring;
+    }
+
+    /**
+     * Adjusts the low-pass filter coefficient, alpha = dt / (RC + dt) for a cutoff frequency of
+     * 1 / (2 * PI * RC) at a sampling period of dt.
+     *
+     * @param alpha the filter coefficient in the range (0, 1], 1 disables the filter (the default)
+     */
+    public void setLowPass(final double alpha) {
+        if (!(alpha > 0 && alpha <= 1)) {
+            throw new IllegalArgumentException("Low-pass coefficient must be in the range (0, 1]!");
+        }
+        this.lowPassAlpha = alpha;
+    }
+
+    /**
+     * Adjusts the decimation factor, each N consecutive filtered samples are averaged into a ring sample.
+     *
+     * @param decimation the decimation factor, 1 disables the decimation (the default)
+     */
+    public void setDecimation(final int decimation) {
+        if (decimation <= 0) {
+            throw new IllegalArgumentException("Decimation factor must be positive!");
+        }
+        this.decimation = decimation;
+    }
+
+    /**
+     * Conditions a received sample, and writes the decimated output into the ring,
+     * to be called by the receive thread only.
+     *
+     * @param sample    the raw sample value
+     * @param timestamp the receive timestamp of the sample in nanoseconds
+     */
+    public void onSample(final int sample, final long timestamp) {
+        receivedSamples++;
+        double value = sample;
+        if (lowPassAlpha < 1) {
+            if (!filterInitialized) {
+                filtered = sample;
+                filterInitialized = true;
+            }
+            filtered += lowPassAlpha * (sample - filtered);
+            value = filtered;
+        }
+        if (decimation == 1) {
+            ring.write((int) Math.round(value), timestamp);
+            return;
+        }
+        decimationSum += value;
+        if (++decimationCount == decimation) {
+            ring.write((int) Math.round(decimationSum / decimation), timestamp);
+            decimationSum = 0;
+            decimationCount = 0;
+        }
+    }
+
+    /**
+     * Retrieves the ring of the conditioned samples.
+     *
+     * @return the sample ring
+     */
+    public AnalogSampleRing getRing() {
+        return ring;
+    }
+
+    /**
+     * Retrieves the number of the raw samples received, before the decimation.
+     *
+     * @return the number of received samples
+     */
+    public long getReceivedSamples() {
+        return receivedSamples;
+    }
+
+    /**
+     * Retrieves the low-pass filter coefficient.
+     *
+     * @return the filter coefficient, 1 if disabled
+     */
+    public double getLowPass() {
+        return lowPassAlpha;
+    }
+
+    /**
+     * Retrieves the decimation factor.
+     *
+     * @return the decimation factor, 1 if disabled
+     */
+    public int getDecimation() {
+        return decimation;
+    }
+}
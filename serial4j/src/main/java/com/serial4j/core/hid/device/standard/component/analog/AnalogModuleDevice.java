@@ -47,6 +47,11 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class AnalogModuleDevice extends StandardSerialDevice<Integer, AnalogRegistry> {
 
+    /**
+     * The bulk size of the streaming acquisition reads.
+     */
+    private static final int ACQUISITION_CHUNK_SIZE = 4096;
+
     /**
      * Provides a global/heap input buffer to accumulate data in a 32-bit
      * report for the decoder.
@@ -59,6 +64,9 @@ public class AnalogModuleDevice extends StandardSerialDevice<Integer, AnalogRegi
      */
     protected final AtomicInteger inputClock = new AtomicInteger(0);
 
+    private volatile AnalogAcquisition acquisition;
+    private byte[] acquisitionChunk;
+
     /**
      * Instantiates an analog serial-based device with a terminal
      * and a serial port. Analog serial devices are special-purpose
@@ -81,31 +89,71 @@ public class AnalogModuleDevice extends StandardSerialDevice<Integer, AnalogRegi
 
     @Override
     public void receive() {
-        super.decode(dataRegisterBufferLength -> {
-            for (int frame = 0; terminalDevice.iread(dataRegisterBufferLength) > 0 &&
-                    frame < reportDescriptor.getReportLength(); frame++, inputClock.incrementAndGet()) {
-                final int data = terminalDevice.getBuffer()[0];
-                // obtain a shift-value scaled according to the current frame to place
-                // the bits in their right position
-                final int bits = frame * Constants.DEFAULT_DATA_REGISTER_BUFFER_LENGTH;
-                // replace the bits to the left aka. from LSB to MSB
-                // add the bits
-                inputBuffer.set(inputBuffer.intValue() | (data << bits));
-                // if the input clocks completed sending the report, flush the input and return the result
-                if (inputClock.get() == (reportDescriptor.getReportLength() - 1)) {
-                    final int value = inputBuffer.get();
-                    inputBuffer.set(0); // flush the input buffer
-                    inputClock.set(0);
-                    return value;
-                }
+        final AnalogAcquisition acquisition = this.acquisition;
+        if (acquisition != null) {
+            acquire(acquisition);
+            return;
+        }
+        // reads the missing bytes of the report at once, the bits of each frame are placed
+        // from the LSB to the MSB, and a partially received report is resumed on the next call
+        super.decodeInt(dataRegisterBufferLength -> readReport(inputBuffer, inputClock));
+    }
+
+    /**
+     * Reads the available samples in bulk into the acquisition, the reports are assembled from
+     * the LSB to the MSB, and a partially received report is resumed on the next call.
+     *
+     * @param acquisition the streaming acquisition
+     */
+    private void acquire(final AnalogAcquisition acquisition) {
+        if (acquisitionChunk == null) {
+            acquisitionChunk = new byte[ACQUISITION_CHUNK_SIZE];
+        }
+        final int bytes = terminalDevice.read(acquisitionChunk, 0, acquisitionChunk.length);
+        if (bytes <= 0) {
+            return;
+        }
+        final long timestamp = getReceiveTimestamp();
+        final int reportLength = reportDescriptor.getReportLength();
+        int report = inputBuffer.get();
+        int clock = inputClock.get();
+        int samples = 0;
+        for (int i = 0; i < bytes; i++) {
+            report |= (acquisitionChunk[i] & 0xFF) << (clock * Constants.DEFAULT_DATA_REGISTER_BUFFER_LENGTH);
+            if (++clock == reportLength) {
+                acquisition.onSample(report, timestamp);
+                report = 0;
+                clock = 0;
+                samples++;
             }
-            return null; // skip the decoder dispatch if no end-character is found
-        });
+        }
+        inputBuffer.set(report);
+        inputClock.set(clock);
+        countReports(samples, timestamp);
+    }
+
+    /**
+     * Sets a streaming acquisition, the received samples are written into its off-heap ring
+     * instead of being decoded and dispatched to the decoder listener.
+     *
+     * @param acquisition the streaming acquisition, or null to restore the decoding
+     */
+    public void setAcquisition(AnalogAcquisition acquisition) {
+        this.acquisition = acquisition;
+    }
+
+    /**
+     * Retrieves the streaming acquisition.
+     *
+     * @return the streaming acquisition, or null if the samples are decoded
+     */
+    public AnalogAcquisition getAcquisition() {
+        return acquisition;
     }
 
     @Override
     public void transmit(AnalogRegistry decoded) {
-        super.encode(encoded -> {
+        super.encodeInt(encoded -> {
             final int[] buffer = new int[reportDescriptor.getReportLength()];
             // shifting-out (clocking-out) data algorithm
             for (int frame = (buffer.length - 1); frame > 0; frame--) {
@@ -198,10 +246,22 @@ public class AnalogModuleDevice extends StandardSerialDevice<Integer, AnalogRegi
         public interface Decoder extends HumanInterfaceDevice.ReportDescriptor.Decoder<Integer, AnalogRegistry> {
         }
 
+        /**
+         * Primitive-specialized decoder type alias for the analog device.
+         */
+        public interface IntDecoder extends HumanInterfaceDevice.ReportDescriptor.IntDecoder<AnalogRegistry> {
+        }
+
         /**
          * Decoder-listener type alias for the analog device.
          */
         public interface DecoderListener extends HumanInterfaceDevice.ReportDescriptor.DecoderListener<Integer, AnalogRegistry> {
         }
+
+        /**
+         * Primitive-specialized decoder-listener type alias for the analog device.
+         */
+        public interface IntDecoderListener extends HumanInterfaceDevice.ReportDescriptor.IntDecoderListener<AnalogRegistry> {
+        }
     }
 }
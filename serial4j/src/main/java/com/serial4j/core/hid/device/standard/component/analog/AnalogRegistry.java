@@ -46,14 +46,15 @@ public record AnalogRegistry(int value) {
     /**
      * Decoder implementation of the analog registry.
      */
-    public static class Decoder implements AnalogModuleDevice.ReportDescriptor.Decoder {
+    public static class Decoder implements AnalogModuleDevice.ReportDescriptor.Decoder,
+            AnalogModuleDevice.ReportDescriptor.IntDecoder {
         @Override
-        public Integer encode(AnalogRegistry decoded) {
+        public int encodeInt(AnalogRegistry decoded) {
             return decoded.value;
         }
 
         @Override
-        public AnalogRegistry decode(Integer encoded) {
+        public AnalogRegistry decodeInt(int encoded) {
             return new AnalogRegistry(encoded);
         }
     }
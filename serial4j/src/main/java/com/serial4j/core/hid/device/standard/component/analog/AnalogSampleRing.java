@@ -0,0 +1,243 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.hid.device.standard.component.analog;
+
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An off-heap ring of the timestamped analog samples, written by a single acquisition thread,
+ * and read by any number of consumer threads.
+ *
+ * <p>
+ * The samples are stored as primitives in direct buffers, 16-bit samples (e.g., a resolution of up to 16-bit)
+ * as shorts, and wider samples as ints, with their timestamps as longs, so that a kHz-rate stream
+ * involves neither allocations nor garbage, the oldest samples are overwritten once the ring is full.
+ * </p>
+ *
+ * <p>
+ * Each sample has a sequence number, the number of samples written before it; a sample is published
+ * by advancing the write sequence after it's stored, and a reader validates that the samples it has read
+ * weren't overwritten in the meantime.
+ * </p>
+ *
+ * <p>
+ * The ring has a spare slot, the slot of the sample following the latest one holds the oldest stored sample
+ * while the writer overwrites it, hence that sample is never handed to the readers.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class AnalogSampleRing {
+
+    private final int mask;
+    private final boolean compact;
+    private final ByteBuffer samples;
+    private final ByteBuffer timestamps;
+
+    /**
+     * The sequence of the next sample to write.
+     */
+    private final AtomicLong written = new AtomicLong();
+
+    /**
+     * Instantiates an off-heap sample ring, the capacity and the spare slot are rounded up to the next
+     * power of two.
+     *
+     * @param capacity   the minimum number of the retained samples
+     * @param resolution the sample resolution in bits, samples of up to 16-bit are stored as shorts
+     */
+    public AnalogSampleRing(final int capacity, final int resolution) {
+        if (capacity <= 0 || capacity >= (1 << 26)) {
+            throw new IllegalArgumentException("Ring capacity must be in the range [1, 2^26)!");
+        }
+        final int size = Integer.highestOneBit(capacity) << 1;
+        this.mask = size - 1;
+        this.compact = resolution <= Short.SIZE;
+        this.samples = ByteBuffer.allocateDirect(size * (compact ? Short.BYTES : Integer.BYTES))
+                .order(ByteOrder.nativeOrder());
+        this.timestamps = ByteBuffer.allocateDirect(size * Long.BYTES).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Writes a sample, to be called by the acquisition thread only.
+     *
+     * @param sample    the sample value
+     * @param timestamp the sample timestamp in nanoseconds
+     */
+    public void write(final int sample, final long timestamp) {
+        final long sequence = written.get();
+        final int index = (int) sequence & mask;
+        if (compact) {
+            samples.putShort(index * Short.BYTES, (short) sample);
+        } else {
+            samples.putInt(index * Integer.BYTES, sample);
+        }
+        timestamps.putLong(index * Long.BYTES, timestamp);
+        /* publishes the stored sample */
+        written.lazySet(sequence + 1);
+    }
+
+    /**
+     * Copies the samples from a sequence into primitive arrays.
+     *
+     * @param sequence   the sequence of the first sample to copy
+     * @param samples    the array receiving the sample values
+     * @param timestamps the array receiving the sample timestamps, or null
+     * @param offset     the offset of the first copied sample in the arrays
+     * @param length     the maximum number of samples to copy
+     * @return the number of the copied samples, fewer if the latest sample is reached,
+     * or -1 if the first sample is already overwritten
+     */
+    public int export(final long sequence, final int[] samples, final long[] timestamps,
+                      final int offset, final int length) {
+        final long end = Math.min(written.get(), sequence + length);
+        if (isOverwritten(sequence)) {
+            return -1;
+        }
+        final int count = (int) Math.max(0, end - sequence);
+        for (int i = 0; i < count; i++) {
+            final int index = (int) (sequence + i) & mask;
+            samples[offset + i] = get(index);
+            if (timestamps != null) {
+                timestamps[offset + i] = this.timestamps.getLong(index * Long.BYTES);
+            }
+        }
+        /* the copied samples are valid only if not overwritten while copying */
+        return isOverwritten(sequence) ? -1 : count;
+    }
+
+    /**
+     * Copies the latest samples into primitive arrays, e.g., the last window of the stream.
+     *
+     * @param samples    the array receiving the sample values
+     * @param timestamps the array receiving the sample timestamps, or null
+     * @return the number of the copied samples, or -1 if the samples are overwritten while copying
+     */
+    public int exportLatest(final int[] samples, final long[] timestamps) {
+        final long end = written.get();
+        final int length = (int) Math.min(samples.length, Math.min(end, getCapacity()));
+        return export(end - length, samples, timestamps, 0, length);
+    }
+
+    /**
+     * Computes the statistics of the latest window of samples directly from the ring.
+     *
+     * @param window     the maximum number of the latest samples
+     * @param statistics the reusable statistics receiving the result
+     * @return true if the statistics are computed, false if the window is overwritten while reading
+     */
+    public boolean computeStatistics(final int window, final AnalogStatistics statistics) {
+        final long end = written.get();
+        final long start = Math.max(end - window, Math.max(0, end - getCapacity()));
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        long sum = 0;
+        double sumOfSquares = 0;
+        for (long sequence = start; sequence < end; sequence++) {
+            final int sample = get((int) sequence & mask);
+            min = Math.min(min, sample);
+            max = Math.max(max, sample);
+            sum += sample;
+            sumOfSquares += (double) sample * sample;
+        }
+        final int count = (int) (end - start);
+        final long firstTimestamp = count == 0 ? 0 : getTimestamp(start);
+        final long lastTimestamp = count == 0 ? 0 : getTimestamp(end - 1);
+        /* the window is valid only if not overwritten while reading */
+        if (isOverwritten(start)) {
+            return false;
+        }
+        statistics.set(start, count, min, max, sum, sumOfSquares, firstTimestamp, lastTimestamp);
+        return true;
+    }
+
+    /**
+     * Retrieves the sequence of the next sample to write, i.e., the number of the written samples.
+     *
+     * @return the write sequence
+     */
+    public long getWrittenSamples() {
+        return written.get();
+    }
+
+    /**
+     * Retrieves the sequence of the oldest sample still retained by the ring, the sample before it
+     * could be being overwritten.
+     *
+     * @return the oldest sequence
+     */
+    public long getOldestSequence() {
+        return Math.max(0, written.get() - getCapacity());
+    }
+
+    /**
+     * Retrieves the ring capacity, excluding the spare slot.
+     *
+     * @return the number of the retained samples
+     */
+    public int getCapacity() {
+        return mask;
+    }
+
+    /**
+     * Tests whether the samples are stored as 16-bit values.
+     *
+     * @return true if the samples are stored as shorts, false if stored as ints
+     */
+    public boolean isCompact() {
+        return compact;
+    }
+
+    /**
+     * Tests whether a sample is overwritten, or being overwritten, after its slot is read.
+     *
+     * @param sequence the sequence of the sample
+     * @return true if the read sample is not valid, false otherwise
+     */
+    private boolean isOverwritten(final long sequence) {
+        /* keeps the plain loads of the slots from moving after the re-read of the write sequence */
+        VarHandle.loadLoadFence();
+        return sequence < getOldestSequence();
+    }
+
+    private int get(final int index) {
+        return compact ? samples.getShort(index * Short.BYTES) & 0xFFFF : samples.getInt(index * Integer.BYTES);
+    }
+
+    private long getTimestamp(final long sequence) {
+        return timestamps.getLong(((int) sequence & mask) * Long.BYTES);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.hid.device.standard.component.analog;
+
+/**
+ * Holds the statistics of a window of analog samples computed by
+ * {@link AnalogSampleRing#computeStatistics(int, AnalogStatistics)}, the statistics are reused
+ * by the consecutive computations of a reader.
+ *
+ * @author pavl_g
+ */
+public final class AnalogStatistics {
+
+    private long firstSequence;
+    private int count;
+    private int min;
+    private int max;
+    private double mean;
+    private double rms;
+    private long firstTimestamp;
+    private long lastTimestamp;
+
+    void set(final long firstSequence, final int count, final int min, final int max, final long sum,
+             final double sumOfSquares, final long firstTimestamp, final long lastTimestamp) {
+        this.firstSequence = firstSequence;
+        this.count = count;
+        this.min = count == 0 ? 0 : min;
+        this.max = count == 0 ? 0 : max;
+        this.mean = count == 0 ? 0 : (double) sum / count;
+        this.rms = count == 0 ? 0 : Math.sqrt(sumOfSquares / count);
+        this.firstTimestamp = firstTimestamp;
+        this.lastTimestamp = lastTimestamp;
+    }
+
+    /**
+     * Retrieves the sequence of the first sample of the window.
+     *
+     * @return the first sample sequence
+     */
+    public long getFirstSequence() {
+        return firstSequence;
+    }
+
+    /**
+     * Retrieves the number of the window samples.
+     *
+     * @return the number of samples, fewer than the requested window if not written yet
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Retrieves the minimum sample of the window.
+     *
+     * @return the minimum value
+     */
+    public int getMin() {
+        return min;
+    }
+
+    /**
+     * Retrieves the maximum sample of the window.
+     *
+     * @return the maximum value
+     */
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * Retrieves the arithmetic mean of the window.
+     *
+     * @return the mean value
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Retrieves the root mean square of the window.
+     *
+     * @return the rms value
+     */
+    public double getRms() {
+        return rms;
+    }
+
+    /**
+     * Retrieves the timestamp of the first sample of the window.
+     *
+     * @return the timestamp in nanoseconds
+     */
+    public long getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    /**
+     * Retrieves the timestamp of the last sample of the window.
+     *
+     * @return the timestamp in nanoseconds
+     */
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "AnalogStatistics = [" +
+                "count=" + count +
+                ", min=" + min +
+                ", max=" + max +
+                ", mean=" + mean +
+                ", rms=" + rms +
+                ']';
+    }
+}
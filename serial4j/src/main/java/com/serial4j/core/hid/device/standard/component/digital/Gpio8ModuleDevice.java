@@ -57,20 +57,17 @@ public class Gpio8ModuleDevice extends StandardSerialDevice<Integer, GpioRegistr
 
     @Override
     public void receive() {
-        super.decode(dataRegisterBufferLength -> {
+        super.decodeInt(dataRegisterBufferLength -> {
             if (terminalDevice.iread(dataRegisterBufferLength) == 0) {
-                return null;
+                return NO_REPORT;
             }
-            final int[] data = new int[] { 
-                terminalDevice.getBuffer()[0] 
-            };
-            return data[0];
+            return terminalDevice.getBuffer()[0];
         });
     }
 
     @Override
     public void transmit(GpioRegistry decoded) {
-        super.encode(encoded -> terminalDevice.write(new int[] { encoded }), decoded);
+        super.encodeInt(encoded -> terminalDevice.write(new int[] { encoded }), decoded);
     }
 
     @Override
@@ -90,11 +87,16 @@ public class Gpio8ModuleDevice extends StandardSerialDevice<Integer, GpioRegistr
             return 1;
         }
 
-
         public interface Decoder extends ReportDescriptor.Decoder<Integer, GpioRegistry> {
         }
 
+        public interface IntDecoder extends ReportDescriptor.IntDecoder<GpioRegistry> {
+        }
+
         public interface DecoderListener extends ReportDescriptor.DecoderListener<Integer, GpioRegistry> {
         }
+
+        public interface IntDecoderListener extends ReportDescriptor.IntDecoderListener<GpioRegistry> {
+        }
     }
 }
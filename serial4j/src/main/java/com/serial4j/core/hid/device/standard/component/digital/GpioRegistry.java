@@ -1,32 +1,42 @@
 package com.serial4j.core.hid.device.standard.component.digital;
 
-public record GpioRegistry(int pin0, int pin1, int pin2, int pin3,
-                           int pin4, int pin5, int pin6, int pin7) {
-    public static class Decoder implements Gpio8ModuleDevice.GpioReportDescriptor.Decoder {
+import com.serial4j.core.hid.codec.BinaryField;
+import com.serial4j.core.hid.codec.RecordCodec;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public record GpioRegistry(@BinaryField(offset = 0, bit = 0, width = 1) int pin0,
+                           @BinaryField(offset = 0, bit = 1, width = 1) int pin1,
+                           @BinaryField(offset = 0, bit = 2, width = 1) int pin2,
+                           @BinaryField(offset = 0, bit = 3, width = 1) int pin3,
+                           @BinaryField(offset = 0, bit = 4, width = 1) int pin4,
+                           @BinaryField(offset = 0, bit = 5, width = 1) int pin5,
+                           @BinaryField(offset = 0, bit = 6, width = 1) int pin6,
+                           @BinaryField(offset = 0, bit = 7, width = 1) int pin7) {
+
+    /**
+     * The binary codec of the 1-byte GPIO report, a pin per bit from the LSB.
+     */
+    public static final RecordCodec<GpioRegistry> CODEC = RecordCodec.of(GpioRegistry.class);
+
+    public static class Decoder implements Gpio8ModuleDevice.GpioReportDescriptor.Decoder,
+            Gpio8ModuleDevice.GpioReportDescriptor.IntDecoder {
+
+        /**
+         * A reusable report buffer, the decoder is confined to its device thread.
+         */
+        private final ByteBuffer report = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
         @Override
-        public Integer encode(GpioRegistry decoded) {
-            final GpioModule gpioModule = GpioModule.build();
-            gpioModule.append(
-                    new GpioModule.Pin(decoded.pin0), new GpioModule.Pin(decoded.pin1),
-                    new GpioModule.Pin(decoded.pin2), new GpioModule.Pin(decoded.pin3),
-                    new GpioModule.Pin(decoded.pin4), new GpioModule.Pin(decoded.pin5),
-                    new GpioModule.Pin(decoded.pin6), new GpioModule.Pin(decoded.pin7)
-            );
-            return gpioModule.getValue();
+        public int encodeInt(GpioRegistry decoded) {
+            CODEC.encode(decoded, report, 0);
+            return report.get(0) & 0xFF;
         }
 
         @Override
-        public GpioRegistry decode(Integer encoded) {
-            return new GpioRegistry(
-                encoded & GpioModule.Pin.GPIO_0.getValue(),
-                encoded & GpioModule.Pin.GPIO_1.getValue(),
-                encoded & GpioModule.Pin.GPIO_2.getValue(),
-                encoded & GpioModule.Pin.GPIO_3.getValue(),
-                encoded & GpioModule.Pin.GPIO_4.getValue(),
-                encoded & GpioModule.Pin.GPIO_5.getValue(),
-                encoded & GpioModule.Pin.GPIO_6.getValue(),
-                encoded & GpioModule.Pin.GPIO_7.getValue()
-            );
+        public GpioRegistry decodeInt(int encoded) {
+            report.putInt(0, encoded);
+            return CODEC.decode(report, 0);
         }
     }
 }
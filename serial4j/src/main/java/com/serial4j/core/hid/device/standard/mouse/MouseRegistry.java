@@ -1,6 +1,10 @@
 package com.serial4j.core.hid.device.standard.mouse;
 
 import com.serial4j.core.flag.FlagConst;
+import com.serial4j.core.hid.HidStateSnapshot;
+import com.serial4j.core.hid.descriptor.ReportDescriptorParser;
+import com.serial4j.core.hid.descriptor.ReportLayout;
+import com.serial4j.core.hid.descriptor.ReportType;
 
 /**
  * A mouse registry represents a standardized data
@@ -43,27 +47,109 @@ public record MouseRegistry(Buttons buttons,
     public record DeviceSpecific(int spec1, int spec2) {
     }
 
-    public static class Decoder implements StandardMouseDevice.ReportDescriptor.Decoder {
+    /**
+     * The HID report descriptor of the 32-bit mouse report: 3 button bits, a padding bit,
+     * a 4-bit device specific nibble, the relative X and Y bytes, and a device specific byte.
+     */
+    public static final byte[] DESCRIPTOR = {
+            0x05, 0x01,                                       // Usage Page (Generic Desktop)
+            0x09, 0x02,                                       // Usage (Mouse)
+            (byte) 0xA1, 0x01,                                // Collection (Application)
+            0x05, 0x09,                                       //   Usage Page (Button)
+            0x19, 0x01, 0x29, 0x03,                           //   Usage Minimum (1), Usage Maximum (3)
+            0x15, 0x00, 0x25, 0x01,                           //   Logical Minimum (0), Logical Maximum (1)
+            0x75, 0x01, (byte) 0x95, 0x03, (byte) 0x81, 0x02, //   3 x 1-bit Input (Data, Variable)
+            (byte) 0x95, 0x01, (byte) 0x81, 0x01,             //   1-bit Input (Constant)
+            0x06, 0x00, (byte) 0xFF, 0x09, 0x01,              //   Usage Page (Vendor 0xFF00), Usage (1)
+            0x25, 0x0F, 0x75, 0x04, (byte) 0x81, 0x02,        //   4-bit Input (Data, Variable), [0, 15]
+            0x05, 0x01, 0x09, 0x30, 0x09, 0x31,               //   Usage Page (Generic Desktop), Usage (X), Usage (Y)
+            0x15, (byte) 0x81, 0x25, 0x7F,                    //   Logical Minimum (-127), Logical Maximum (127)
+            0x75, 0x08, (byte) 0x95, 0x02, (byte) 0x81, 0x06, //   2 x 8-bit Input (Data, Variable, Relative)
+            0x06, 0x00, (byte) 0xFF, 0x09, 0x02,              //   Usage Page (Vendor 0xFF00), Usage (2)
+            0x15, 0x00, 0x26, (byte) 0xFF, 0x00,              //   Logical Minimum (0), Logical Maximum (255)
+            (byte) 0x95, 0x01, (byte) 0x81, 0x02,             //   8-bit Input (Data, Variable)
+            (byte) 0xC0                                       // End Collection
+    };
+
+    /**
+     * The extraction plan of the mouse report compiled from its {@link #DESCRIPTOR}.
+     */
+    public static final ReportLayout LAYOUT = ReportDescriptorParser.compile(DESCRIPTOR, ReportType.INPUT);
+
+    private static final int BUTTON_1 = LAYOUT.findField(0x09, 1);
+    private static final int BUTTON_2 = LAYOUT.findField(0x09, 2);
+    private static final int BUTTON_3 = LAYOUT.findField(0x09, 3);
+    private static final int DEVICE_1 = LAYOUT.findField(0xFF00, 1);
+    private static final int DEVICE_2 = LAYOUT.findField(0xFF00, 2);
+    private static final int X_POINTER = LAYOUT.findField(0x01, 0x30);
+    private static final int Y_POINTER = LAYOUT.findField(0x01, 0x31);
+
+    /**
+     * The {@link HidStateSnapshot} channels of the mouse state, the pointer channels are relative.
+     */
+    public static final int BUTTON_1_CHANNEL = 0;
+    public static final int BUTTON_2_CHANNEL = 1;
+    public static final int BUTTON_3_CHANNEL = 2;
+    public static final int X_CHANNEL = 3;
+    public static final int Y_CHANNEL = 4;
+
+    /**
+     * Instantiates a state cell of the mouse, see {@link #updateState(MouseRegistry, HidStateSnapshot)}.
+     *
+     * @return a new state snapshot with the button and the relative pointer channels
+     */
+    public static HidStateSnapshot newStateSnapshot() {
+        return new HidStateSnapshot(Y_CHANNEL + 1, X_CHANNEL, Y_CHANNEL);
+    }
+
+    /**
+     * Updates the mouse state channels from a decoded report, the pointer motion is accumulated.
+     *
+     * @param decoded  the decoded mouse report
+     * @param snapshot the mouse state cell
+     */
+    public static void updateState(final MouseRegistry decoded, final HidStateSnapshot snapshot) {
+        snapshot.set(BUTTON_1_CHANNEL, decoded.buttons.button1);
+        snapshot.set(BUTTON_2_CHANNEL, decoded.buttons.button2);
+        snapshot.set(BUTTON_3_CHANNEL, decoded.buttons.button3);
+        snapshot.add(X_CHANNEL, decoded.pointer.x);
+        snapshot.add(Y_CHANNEL, decoded.pointer.y);
+    }
+
+    /**
+     * The mouse report decoder, the report fields are extracted by the compiled {@link #LAYOUT},
+     * the buttons are decoded as 0 or 1, and the pointer as signed relative motion.
+     */
+    public static class Decoder implements StandardMouseDevice.ReportDescriptor.Decoder,
+            StandardMouseDevice.ReportDescriptor.IntDecoder {
 
         @Override
-        public Integer encode(MouseRegistry decoded) {
+        public int encodeInt(MouseRegistry decoded) {
             throw new UnsupportedOperationException("Cannot send data!");
         }
 
         @Override
-        public MouseRegistry decode(Integer encoded) {
+        public MouseRegistry decodeInt(int encoded) {
+            final long report = Integer.toUnsignedLong(encoded);
             return new MouseRegistry(
-                  new Buttons(Bits.BUTTON_1.value & encoded, Bits.BUTTON_2.value & encoded, Bits.BUTTON_3.value & encoded),
-                  new DeviceSpecific(Bits.DEVICE_1.value & encoded, Bits.DEVICE_2.value & encoded),
-                  new Pointer(Bits.X_POINTER.value & encoded, Bits.Y_POINTER.value & encoded)
+                  new Buttons(LAYOUT.extract(report, BUTTON_1), LAYOUT.extract(report, BUTTON_2),
+                          LAYOUT.extract(report, BUTTON_3)),
+                  new DeviceSpecific(LAYOUT.extract(report, DEVICE_1), LAYOUT.extract(report, DEVICE_2)),
+                  new Pointer(LAYOUT.extract(report, X_POINTER), LAYOUT.extract(report, Y_POINTER))
             );
         }
     }
 
+    /**
+     * The bit masks of the report fields in place, the masked values must be shifted
+     * right by {@link Integer#numberOfTrailingZeros(int)} of the mask.
+     *
+     * @param value the field mask
+     */
     public record Bits(int value) implements FlagConst {
-        public static final Bits BUTTON_1 = new Bits(0x00000000);
-        public static final Bits BUTTON_2 = new Bits(0x00000001);
-        public static final Bits BUTTON_3 = new Bits(0x00000002);
+        public static final Bits BUTTON_1 = new Bits(0x00000001);
+        public static final Bits BUTTON_2 = new Bits(0x00000002);
+        public static final Bits BUTTON_3 = new Bits(0x00000004);
         public static final Bits DEVICE_1 = new Bits(0x000000F0);
         public static final Bits X_POINTER = new Bits(0x0000FF00);
         public static final Bits Y_POINTER = new Bits(0x00FF0000);
@@ -4,7 +4,6 @@ import com.serial4j.core.hid.HumanInterfaceDevice;
 import com.serial4j.core.hid.StandardSerialDevice;
 import com.serial4j.core.serial.SerialPort;
 import com.serial4j.core.terminal.TerminalDevice;
-import com.serial4j.util.Constants;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -31,21 +30,8 @@ public class StandardMouseDevice extends StandardSerialDevice<Integer, MouseRegi
 
     @Override
     public void receive() {
-        super.decode(dataRegisterBufferLength -> {
-            for (int frame = 0; terminalDevice.iread(dataRegisterBufferLength) > 0 &&
-                    frame < reportDescriptor.getReportLength(); frame++, inputClock.incrementAndGet()) {
-                final int data = terminalDevice.getBuffer()[0];
-                final int bits = frame * Constants.DEFAULT_DATA_REGISTER_BUFFER_LENGTH;
-                inputBuffer.set(inputBuffer.get() | (data << bits));
-                if (inputClock.get() == (reportDescriptor.getReportLength() - 1)) {
-                    final int value = inputBuffer.get();
-                    inputBuffer.set(0); // flush the input buffer
-                    inputClock.set(0);
-                    return value;
-                }
-            }
-            return null;
-        });
+        // reads the missing bytes of the report at once, resuming a partially received report
+        super.decodeInt(dataRegisterBufferLength -> readReport(inputBuffer, inputClock));
     }
 
     @Override
@@ -72,8 +58,8 @@ public class StandardMouseDevice extends StandardSerialDevice<Integer, MouseRegi
     public static class ReportDescriptor implements HumanInterfaceDevice.ReportDescriptor {
         @Override
         public int getReportLength() {
-            // 4 bytes of data (short item)
-            return Constants.STANDARD_MOUSE_BITS / Constants.DEFAULT_DATA_REGISTER_BUFFER_LENGTH;
+            // 4 bytes of data, defined by the mouse report descriptor
+            return MouseRegistry.LAYOUT.getReportLength();
         }
 
         @Override
@@ -84,7 +70,13 @@ public class StandardMouseDevice extends StandardSerialDevice<Integer, MouseRegi
         public interface Decoder extends HumanInterfaceDevice.ReportDescriptor.Decoder<Integer, MouseRegistry> {
         }
 
+        public interface IntDecoder extends HumanInterfaceDevice.ReportDescriptor.IntDecoder<MouseRegistry> {
+        }
+
         public interface DecoderListener extends HumanInterfaceDevice.ReportDescriptor.DecoderListener<Integer, MouseRegistry> {
         }
+
+        public interface IntDecoderListener extends HumanInterfaceDevice.ReportDescriptor.IntDecoderListener<MouseRegistry> {
+        }
     }
 }
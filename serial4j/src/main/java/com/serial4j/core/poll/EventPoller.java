@@ -0,0 +1,529 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.poll;
+
+import com.serial4j.core.errno.Errno;
+import com.serial4j.core.errno.ErrnoToException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Waits on the readiness of many non-blocking file descriptors from a single
+ * thread (the event loop) using the native poll api.
+ *
+ * <p>
+ * A file descriptor is armed with a one-shot interest for either reading ({@link PollEvent#POLLIN})
+ * or writing ({@link PollEvent#POLLOUT}), once it becomes ready, the interest is disarmed and its
+ * {@link ReadinessListener} is dispatched on the event loop thread, a reader and a writer could
+ * arm the same file descriptor independently.
+ * </p>
+ *
+ * <p>
+ * The arming operations and the tasks submitted by {@link EventPoller#execute(Runnable)} are
+ * queued from any thread and applied on the event loop thread, which is woken up by a native
+ * wakeup descriptor, hence all the event loop state is confined to a single thread.
+ * </p>
+ *
+ * <p>
+ * Timers scheduled by {@link EventPoller#schedule(Runnable, long, TimeUnit)} run on the event loop
+ * thread as well, the poll timeout is bounded by the nearest timer deadline.
+ * </p>
+ *
+ * <p>
+ * Once the event loop is terminated, the armed interests are notified with {@link PollEvent#POLLNVAL},
+ * and the late submissions are never lost, the interests are notified and the tasks run on the
+ * submitting thread.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class EventPoller {
+
+    private static final Logger LOGGER = Logger.getLogger(EventPoller.class.getName());
+
+    /**
+     * The minimum capacity of the poll arrays.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final String name;
+    private final Object wakeupLock = new Object();
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+
+    /**
+     * The wakeup descriptor, (-1) once closed by the terminated event loop, guarded by the wakeup lock.
+     */
+    private int wakeupFd;
+
+    /**
+     * The armed interests by file descriptor, confined to the event loop thread.
+     */
+    private final Map<Integer, Interest> interests = new HashMap<>();
+
+    /**
+     * The scheduled timers ordered by deadline, confined to the event loop thread.
+     */
+    private final PriorityQueue<ScheduledTask> timers = new PriorityQueue<>();
+
+    private int[] fds = new int[DEFAULT_CAPACITY];
+    private int[] events = new int[DEFAULT_CAPACITY];
+    private int[] revents = new int[DEFAULT_CAPACITY];
+
+    private volatile Thread thread;
+    private volatile boolean running;
+    private volatile boolean terminated;
+
+    /**
+     * Instantiates a new event poller, the event loop thread is not started
+     * until {@link EventPoller#start()} is called.
+     *
+     * @param name the name of the event loop thread
+     */
+    public EventPoller(final String name) {
+        this.name = name;
+        this.wakeupFd = NativePoller.createWakeup();
+        if (wakeupFd == Errno.ERR_OPERATION_FAILED.getValue()) {
+            ErrnoToException.throwFromErrno(NativePoller.getErrno());
+        }
+    }
+
+    /**
+     * Retrieves the shared default event poller, started as a daemon on the first call.
+     *
+     * @return the shared default event poller
+     */
+    public static EventPoller getDefault() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    /**
+     * Starts the event loop on a new daemon thread.
+     */
+    public synchronized void start() {
+        if (thread != null) {
+            throw new IllegalStateException("Event poller " + name + " is already started!");
+        }
+        running = true;
+        thread = new Thread(this::loop, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the event loop, the listeners of the remaining armed interests are dispatched with
+     * {@link PollEvent#POLLNVAL}, so that no waiting thread is left parked forever.
+     */
+    public void shutdown() {
+        running = false;
+        wakeup();
+    }
+
+    /**
+     * Arms a one-shot interest in the readiness of a file descriptor, re-arming
+     * an already armed interest replaces its listener.
+     *
+     * @param fd       the non-blocking file descriptor to wait on
+     * @param event    either {@link PollEvent#POLLIN} or {@link PollEvent#POLLOUT}
+     * @param listener the listener to dispatch on readiness
+     */
+    public void arm(final int fd, final PollEvent event, final ReadinessListener listener) {
+        if (event != PollEvent.POLLIN && event != PollEvent.POLLOUT) {
+            throw new IllegalArgumentException("Only POLLIN and POLLOUT interests could be armed!");
+        }
+        if (terminated) {
+            notify(listener, fd, PollEvent.POLLNVAL.getValue(), System.nanoTime());
+        } else if (isInEventLoop()) {
+            interests.computeIfAbsent(fd, Interest::new).set(event, listener);
+        } else {
+            execute(() -> arm(fd, event, listener));
+        }
+    }
+
+    /**
+     * Disarms an interest in the readiness of a file descriptor, if it's still armed.
+     *
+     * @param fd    the file descriptor
+     * @param event either {@link PollEvent#POLLIN} or {@link PollEvent#POLLOUT}
+     */
+    public void disarm(final int fd, final PollEvent event) {
+        if (terminated) {
+            return; // the interests are already notified and dropped
+        }
+        if (isInEventLoop()) {
+            final Interest interest = interests.get(fd);
+            if (interest != null) {
+                interest.set(event, null);
+                if (interest.isEmpty()) {
+                    interests.remove(fd);
+                }
+            }
+        } else {
+            execute(() -> disarm(fd, event));
+        }
+    }
+
+    /**
+     * Submits a task to run on the event loop thread, or on the calling thread if
+     * the event loop is terminated.
+     *
+     * @param task the task to run
+     */
+    public void execute(final Runnable task) {
+        tasks.offer(task);
+        if (terminated) {
+            /* the event loop has drained its tasks after terminating, or is about to, drain the late ones here */
+            runTasks();
+        } else {
+            wakeup();
+        }
+    }
+
+    /**
+     * Schedules a task to run on the event loop thread after a delay.
+     *
+     * @param task  the task to run
+     * @param delay the delay from now
+     * @param unit  the time unit of the delay
+     * @return a handle to cancel the scheduled task, already cancelled if the event loop is terminated
+     */
+    public ScheduledTask schedule(final Runnable task, final long delay, final TimeUnit unit) {
+        final ScheduledTask scheduledTask = new ScheduledTask(task, System.nanoTime() + unit.toNanos(delay));
+        if (isInEventLoop()) {
+            timers.offer(scheduledTask);
+        } else {
+            execute(() -> {
+                if (terminated) {
+                    scheduledTask.cancel();
+                } else {
+                    timers.offer(scheduledTask);
+                }
+            });
+        }
+        return scheduledTask;
+    }
+
+    /**
+     * Tests whether the calling thread is the event loop thread of this poller.
+     *
+     * @return true if called from the event loop thread, false otherwise
+     */
+    public boolean isInEventLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Tests whether the event loop is running.
+     *
+     * @return true if the event loop is running, false otherwise
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Retrieves the event loop thread.
+     *
+     * @return the event loop thread, or null if this poller is not started yet
+     */
+    public Thread getThread() {
+        return thread;
+    }
+
+    /**
+     * Retrieves the name of the event loop thread.
+     *
+     * @return the name of this event poller
+     */
+    public String getName() {
+        return name;
+    }
+
+    private void wakeup() {
+        if (!isInEventLoop() && wakeupPending.compareAndSet(false, true)) {
+            synchronized (wakeupLock) {
+                /* a closed descriptor number could be reused by another file, e.g. a serial port */
+                if (wakeupFd >= 0) {
+                    NativePoller.signalWakeup(wakeupFd);
+                }
+            }
+        }
+    }
+
+    private void loop() {
+        try {
+            while (running) {
+                runTimers();
+                runTasks();
+                if (!running) {
+                    break;
+                }
+                final int count = prepare();
+                final int ready = NativePoller.poll(fds, events, revents, count, getTimeout());
+                if (ready == Errno.ERR_OPERATION_FAILED.getValue()) {
+                    ErrnoToException.throwFromErrno(NativePoller.getErrno());
+                }
+                final long timestamp = System.nanoTime();
+                if (revents[0] != 0) {
+                    wakeupPending.set(false);
+                    NativePoller.clearWakeup(wakeupFd);
+                }
+                for (int i = 1; i < count && ready > 0; i++) {
+                    if (revents[i] != 0) {
+                        dispatch(fds[i], revents[i], timestamp);
+                    }
+                }
+            }
+        } catch (final Throwable e) {
+            LOGGER.log(Level.SEVERE, "Event poller " + name + " has been terminated!", e);
+            throw e;
+        } finally {
+            running = false;
+            synchronized (wakeupLock) {
+                NativePoller.closeDescriptor(wakeupFd);
+                wakeupFd = -1;
+            }
+            runTasks();
+            invalidateInterests();
+            /* the tasks submitted from now on are drained by their submitters, and the late ones by this drain */
+            terminated = true;
+            runTasks();
+            invalidateInterests();
+        }
+    }
+
+    /**
+     * Dispatches the remaining armed interests with {@link PollEvent#POLLNVAL}.
+     */
+    private void invalidateInterests() {
+        final long timestamp = System.nanoTime();
+        for (final Interest interest : interests.values().toArray(new Interest[0])) {
+            dispatch(interest.fd, PollEvent.POLLNVAL.getValue(), timestamp);
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (final RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Event poller task failed!", e);
+            }
+        }
+    }
+
+    /**
+     * Runs the expired timers.
+     */
+    private void runTimers() {
+        ScheduledTask timer;
+        while ((timer = timers.peek()) != null && timer.deadline - System.nanoTime() <= 0) {
+            timers.poll();
+            if (timer.isCancelled()) {
+                continue;
+            }
+            try {
+                timer.run();
+            } catch (final RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Event poller timer failed!", e);
+            }
+        }
+    }
+
+    /**
+     * Computes the poll timeout from the nearest timer deadline.
+     *
+     * @return the poll timeout in nanoseconds, or (-1) if there are no timers
+     */
+    private long getTimeout() {
+        ScheduledTask timer;
+        while ((timer = timers.peek()) != null && timer.isCancelled()) {
+            timers.poll();
+        }
+        if (timer == null) {
+            return -1;
+        }
+        /* the timers run at the resolution of the kernel timers, rather than a millisecond poll timeout */
+        return Math.max(0, timer.deadline - System.nanoTime());
+    }
+
+    /**
+     * Fills the poll arrays from the armed interests, the wakeup descriptor is always at index 0.
+     *
+     * @return the number of the file descriptors to poll
+     */
+    private int prepare() {
+        final int count = interests.size() + 1;
+        if (count > fds.length) {
+            final int capacity = Math.max(count, fds.length << 1);
+            fds = Arrays.copyOf(fds, capacity);
+            events = Arrays.copyOf(events, capacity);
+            revents = Arrays.copyOf(revents, capacity);
+        }
+        fds[0] = wakeupFd;
+        events[0] = PollEvent.POLLIN.getValue();
+        int index = 1;
+        for (final Interest interest : interests.values()) {
+            fds[index] = interest.fd;
+            events[index] = interest.getEvents();
+            index++;
+        }
+        return count;
+    }
+
+    private void dispatch(final int fd, final int returnedEvents, final long timestamp) {
+        final Interest interest = interests.get(fd);
+        if (interest == null) {
+            return;
+        }
+        final boolean terminal = PollEvent.isTerminal(returnedEvents);
+        final ReadinessListener reader = interest.reader;
+        final ReadinessListener writer = interest.writer;
+        final boolean readable = reader != null && (terminal || PollEvent.POLLIN.isSet(returnedEvents));
+        final boolean writable = writer != null && (terminal || PollEvent.POLLOUT.isSet(returnedEvents));
+        /* disarm before dispatching, so that the listeners could re-arm */
+        if (readable) {
+            interest.reader = null;
+        }
+        if (writable) {
+            interest.writer = null;
+        }
+        if (interest.isEmpty()) {
+            interests.remove(fd);
+        }
+        if (readable) {
+            notify(reader, fd, returnedEvents, timestamp);
+        }
+        if (writable) {
+            notify(writer, fd, returnedEvents, timestamp);
+        }
+    }
+
+    private static void notify(final ReadinessListener listener, final int fd,
+                               final int returnedEvents, final long timestamp) {
+        try {
+            listener.onReady(fd, returnedEvents, timestamp);
+        } catch (final RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Readiness listener failed!", e);
+        }
+    }
+
+    /**
+     * The armed reading and writing interests of a single file descriptor.
+     */
+    private static final class Interest {
+        private final int fd;
+        private ReadinessListener reader;
+        private ReadinessListener writer;
+
+        Interest(final int fd) {
+            this.fd = fd;
+        }
+
+        void set(final PollEvent event, final ReadinessListener listener) {
+            if (event == PollEvent.POLLIN) {
+                reader = listener;
+            } else {
+                writer = listener;
+            }
+        }
+
+        int getEvents() {
+            return (reader != null ? PollEvent.POLLIN.getValue() : 0)
+                    | (writer != null ? PollEvent.POLLOUT.getValue() : 0);
+        }
+
+        boolean isEmpty() {
+            return reader == null && writer == null;
+        }
+    }
+
+    /**
+     * Represents a task scheduled to run on the event loop thread at a deadline.
+     */
+    public static final class ScheduledTask implements Comparable<ScheduledTask> {
+        private final Runnable task;
+        private final long deadline;
+        private volatile boolean cancelled;
+
+        ScheduledTask(final Runnable task, final long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels this task if it has not run yet.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * Tests whether this task is cancelled.
+         *
+         * @return true if cancelled, false otherwise
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        void run() {
+            task.run();
+        }
+
+        @Override
+        public int compareTo(final ScheduledTask other) {
+            return Long.compare(deadline - other.deadline, 0);
+        }
+    }
+
+    /**
+     * Lazily starts the shared default event poller.
+     */
+    private static final class DefaultHolder {
+        private static final EventPoller DEFAULT = new EventPoller("serial4j-event-poller");
+
+        static {
+            DEFAULT.start();
+        }
+    }
+}
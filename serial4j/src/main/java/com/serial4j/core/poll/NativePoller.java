@@ -0,0 +1,117 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.poll;
+
+import com.serial4j.util.loader.NativeImageLoader;
+
+/**
+ * Represents the native Java binding for the readiness multiplexing api,
+ * represented by `com_serial4j_core_poll_NativePoller.h` natively.
+ *
+ * @author pavl_g
+ */
+public final class NativePoller {
+
+    /*
+     * Static initializer: Loads the native image when this object is referenced.
+     */
+    static {
+        NativeImageLoader.loadSerial4jNatives();
+    }
+
+    private NativePoller() {
+    }
+
+    /**
+     * Creates a non-blocking wakeup file descriptor that interrupts a blocking
+     * poll when signaled from another thread.
+     *
+     * @return the wakeup file descriptor, or (-1) for failure.
+     */
+    static native int createWakeup();
+
+    /**
+     * Signals a wakeup file descriptor.
+     *
+     * @param fd the wakeup file descriptor
+     * @return (- 1) for failure, (-2) for invalid descriptor, (0) for success.
+     */
+    static native int signalWakeup(final int fd);
+
+    /**
+     * Clears the pending signals of a wakeup file descriptor.
+     *
+     * @param fd the wakeup file descriptor
+     * @return (- 1) for failure, (-2) for invalid descriptor, (0) for success.
+     */
+    static native int clearWakeup(final int fd);
+
+    /**
+     * Waits for one of a set of file descriptors to become ready to perform I/O.
+     *
+     * @param fds     the file descriptors to wait on
+     * @param events  the requested events for each file descriptor
+     * @param revents an array to write the returned events for each file descriptor into
+     * @param count   the number of the file descriptors to wait on
+     * @param timeout the timeout in nanoseconds, (-1) to wait indefinitely
+     * @return the number of the ready descriptors, (0) for timeout or interruption, (-1) for failure.
+     */
+    static native int poll(final int[] fds, final int[] events, final int[] revents, final int count, final long timeout);
+
+    /**
+     * Closes a file descriptor created by {@link NativePoller#createWakeup()}.
+     *
+     * @param fd the file descriptor to close
+     * @return (- 1) for failure, (-2) for invalid descriptor, (0) for success.
+     */
+    static native int closeDescriptor(final int fd);
+
+    /**
+     * Retrieves the last error encountered by the native code.
+     *
+     * @return the last error code from the native <errno.h>.
+     */
+    static native int getErrno();
+
+    static native int getPollIn();
+
+    static native int getPollPri();
+
+    static native int getPollOut();
+
+    static native int getPollErr();
+
+    static native int getPollHup();
+
+    static native int getPollNval();
+}
@@ -0,0 +1,112 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.poll;
+
+import com.serial4j.core.flag.FlagConst;
+
+/**
+ * Represents the readiness events of a file descriptor, requested and returned by the native poll api.
+ *
+ * @author pavl_g
+ */
+public enum PollEvent implements FlagConst {
+
+    /**
+     * There is data to read.
+     */
+    POLLIN(NativePoller.getPollIn(), "DATA_AVAILABLE"),
+
+    /**
+     * There is an exceptional condition on the file descriptor.
+     */
+    POLLPRI(NativePoller.getPollPri(), "EXCEPTIONAL_CONDITION"),
+
+    /**
+     * Writing is now possible without blocking.
+     */
+    POLLOUT(NativePoller.getPollOut(), "WRITE_POSSIBLE"),
+
+    /**
+     * An error condition, always returned without being requested.
+     */
+    POLLERR(NativePoller.getPollErr(), "ERROR_CONDITION"),
+
+    /**
+     * The peer has closed the connection (hang up), always returned without being requested.
+     */
+    POLLHUP(NativePoller.getPollHup(), "HANG_UP"),
+
+    /**
+     * Invalid request, the file descriptor is not open, always returned without being requested.
+     */
+    POLLNVAL(NativePoller.getPollNval(), "INVALID_DESCRIPTOR");
+
+    private final int value;
+    private final String description;
+
+    PollEvent(final int value, final String description) {
+        this.value = value;
+        this.description = description;
+    }
+
+    /**
+     * Tests whether this event is set in a returned events value.
+     *
+     * @param revents the returned events value
+     * @return true if this event is set, false otherwise
+     */
+    public boolean isSet(final int revents) {
+        return (revents & value) != 0;
+    }
+
+    /**
+     * Tests whether a returned events value signifies a terminal condition (error, hang up or
+     * invalid descriptor), on which the file descriptor is going to remain ready forever.
+     *
+     * @param revents the returned events value
+     * @return true if the file descriptor is in a terminal condition, false otherwise
+     */
+    public static boolean isTerminal(final int revents) {
+        return (revents & (POLLERR.value | POLLHUP.value | POLLNVAL.value)) != 0;
+    }
+
+    @Override
+    public int getValue() {
+        return value;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+}
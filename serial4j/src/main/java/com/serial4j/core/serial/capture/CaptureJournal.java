@@ -0,0 +1,449 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.serial.capture;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Records the received and transmitted chunks of a port in an append-only journal of
+ * memory-mapped segment files, see {@link CaptureSegment} for the layout.
+ *
+ * <p>
+ * The records are copied straight into the mapped segment, so that an append costs no allocation and
+ * no system call, the operating system writes the dirty pages back in the background, and {@link CaptureJournal#force()}
+ * waits for them, a full segment is rolled over to a new one, and the old segments are deleted beyond
+ * the retention size or age.
+ * </p>
+ *
+ * <p>
+ * The next segment is pre-allocated and mapped ahead by a housekeeping thread, so that a roll over on the
+ * appending thread costs a pair of file renames, the closed segment is written back, and the retention
+ * is enforced on the housekeeping thread as well.
+ * </p>
+ *
+ * <p>
+ * The record timestamps are monotonic, they are taken from {@link System#nanoTime()} and anchored
+ * to the wall clock of the journal opening in nanoseconds since the epoch.
+ * </p>
+ *
+ * <p>
+ * Note: the appending operations are confined to a single thread, install a journal per port
+ * with {@link com.serial4j.core.serial.monitor.SerialMonitor#setCaptureJournal(CaptureJournal)}
+ * to append from the monitor thread, the journal is read with a {@link CaptureReader}.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class CaptureJournal implements Closeable {
+
+    /**
+     * The default size of the segment files, 64 MiB.
+     */
+    public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * The granularity of touching the pre-allocated segments.
+     */
+    private static final int PAGE_SIZE = 4096;
+
+    private static final Logger LOGGER = Logger.getLogger(CaptureJournal.class.getName());
+
+    private final Path directory;
+    private final long segmentSize;
+    private final long anchorEpochNanos;
+    private final long anchorNanoTime;
+    private volatile long retentionSize = Long.MAX_VALUE;
+    private volatile long retentionAge = Long.MAX_VALUE;
+    private long sequence;
+    private MappedByteBuffer data;
+    private MappedByteBuffer index;
+    private int nextIndexedPosition;
+    private long lastTimestamp;
+    private long appendedRecords;
+    private long appendedBytes;
+    private volatile boolean closed;
+
+    /**
+     * Pre-allocates the next segments, writes the closed segments back, and enforces the retention.
+     */
+    private final ExecutorService housekeeper;
+    private Future<Segment> nextSegment;
+
+    /**
+     * Opens a journal with {@link CaptureJournal#DEFAULT_SEGMENT_SIZE} segments.
+     *
+     * @param directory the directory of the segment files, created if missing
+     * @throws IOException if the first segment could not be created
+     */
+    public CaptureJournal(final Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens a journal in a directory, the appended records start a new segment after the existing ones.
+     *
+     * @param directory   the directory of the segment files, created if missing
+     * @param segmentSize the size of the segment files in bytes
+     * @throws IOException if the first segment could not be created
+     */
+    public CaptureJournal(final Path directory, final long segmentSize) throws IOException {
+        if (segmentSize <= CaptureSegment.HEADER_SIZE + CaptureSegment.RECORD_HEADER_SIZE || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid segment size " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        final Instant now = Instant.now();
+        this.anchorNanoTime = System.nanoTime();
+        this.anchorEpochNanos = TimeUnit.SECONDS.toNanos(now.getEpochSecond()) + now.getNano();
+        Files.createDirectories(directory);
+        final List<Long> sequences = listSegments(directory);
+        this.housekeeper = Executors.newSingleThreadExecutor(task -> {
+            final Thread thread = new Thread(task, "capture-journal-" + directory.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        final long firstSequence = sequences.isEmpty() ? 0 : sequences.get(sequences.size() - 1) + 1;
+        useSegment(prepareSegment(firstSequence));
+        nextSegment = housekeeper.submit(() -> prepareSegment(firstSequence + 1));
+    }
+
+    /**
+     * Appends a chunk to the journal, the chunk is copied without changing its position, a chunk
+     * larger than a segment is split into consecutive records.
+     *
+     * @param direction the direction of the chunk
+     * @param chunk     the chunk to record
+     * @param nanoTime  the time of the chunk from {@link System#nanoTime()}
+     * @return true if the chunk is recorded, false if the journal is closed, or has failed to roll over.
+     */
+    public boolean append(final CaptureDirection direction, final ByteBuffer chunk, final long nanoTime) {
+        if (closed) {
+            return false;
+        }
+        /* keep the timestamps monotonic */
+        final long timestamp = Math.max(lastTimestamp, anchorEpochNanos + (nanoTime - anchorNanoTime));
+        lastTimestamp = timestamp;
+        int offset = chunk.position();
+        final int limit = chunk.limit();
+        while (offset < limit) {
+            if (data.remaining() < CaptureSegment.RECORD_HEADER_SIZE + 1 && !rollOver()) {
+                return false;
+            }
+            final int length = Math.min(limit - offset, data.remaining() - CaptureSegment.RECORD_HEADER_SIZE);
+            final int position = data.position();
+            if (position == CaptureSegment.HEADER_SIZE) {
+                data.putLong(CaptureSegment.FIRST_TIMESTAMP_OFFSET, timestamp);
+            }
+            if (position >= nextIndexedPosition) {
+                index.putLong(timestamp).putInt(position);
+                nextIndexedPosition = position + CaptureSegment.INDEX_INTERVAL;
+            }
+            data.put(position + 4, direction.getValue());
+            data.putLong(position + 5, timestamp);
+            data.put(position + CaptureSegment.RECORD_HEADER_SIZE, chunk, offset, length);
+            /* the length is written last, so that the concurrent readers never see a partial record */
+            data.putInt(position, length);
+            data.position(position + CaptureSegment.RECORD_HEADER_SIZE + length);
+            offset += length;
+            appendedRecords++;
+            appendedBytes += length;
+        }
+        return true;
+    }
+
+    /**
+     * Writes the dirty pages of the active segment back to the storage.
+     */
+    public void force() {
+        if (!closed) {
+            data.force();
+            index.force();
+        }
+    }
+
+    /**
+     * Adjusts the retention of the closed segments, the oldest segments are deleted on roll over
+     * while the journal exceeds the retention size, or while they are older than the retention age.
+     *
+     * @param maxSize the maximum size of the journal in bytes, or {@link Long#MAX_VALUE} to retain by age only
+     * @param maxAge  the maximum age of a closed segment, or {@link Long#MAX_VALUE} to retain by size only
+     * @param unit    the unit of the age
+     */
+    public void setRetention(final long maxSize, final long maxAge, final TimeUnit unit) {
+        this.retentionSize = maxSize;
+        this.retentionAge = maxAge == Long.MAX_VALUE ? Long.MAX_VALUE : unit.toMillis(maxAge);
+    }
+
+    /**
+     * Switches to the pre-allocated next segment, and hands the closed segment over to the housekeeping thread.
+     *
+     * @return true if rolled over, false if the next segment could not be allocated
+     */
+    private boolean rollOver() {
+        final Segment closedSegment = new Segment(sequence, data, index);
+        try {
+            /* prepared ahead in the background, waits only if the segments are filled faster than allocated */
+            useSegment(nextSegment.get());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            closed = true;
+            housekeeper.shutdown();
+            return false;
+        } catch (final ExecutionException | IOException e) {
+            LOGGER.log(Level.SEVERE, "Capture journal " + directory + " roll over has failed!", e);
+            closed = true;
+            housekeeper.shutdown();
+            return false;
+        }
+        final long activeSequence = sequence;
+        housekeeper.execute(() -> {
+            try {
+                closeSegment(closedSegment);
+                enforceRetention(activeSequence);
+            } catch (final IOException e) {
+                LOGGER.log(Level.WARNING, "Capture journal " + directory + " segment clean up has failed!", e);
+            }
+        });
+        nextSegment = housekeeper.submit(() -> prepareSegment(activeSequence + 1));
+        return true;
+    }
+
+    /**
+     * Allocates and maps a new segment under its prepared paths, a stale prepared file is replaced.
+     *
+     * @param sequence the segment sequence
+     * @return the prepared segment
+     * @throws IOException if the segment could not be allocated
+     */
+    private Segment prepareSegment(final long sequence) throws IOException {
+        final Path dataPath = CaptureSegment.getPreparedPath(CaptureSegment.getDataPath(directory, sequence));
+        final Path indexPath = CaptureSegment.getPreparedPath(CaptureSegment.getIndexPath(directory, sequence));
+        Files.deleteIfExists(dataPath);
+        Files.deleteIfExists(indexPath);
+        final MappedByteBuffer data = CaptureSegment.map(dataPath, segmentSize, true);
+        final MappedByteBuffer index = CaptureSegment.map(indexPath, CaptureSegment.getIndexSize(segmentSize), true);
+        /* touches the pages of the sparse files, so that the page faults are taken here rather than on appending */
+        for (int page = 0; page < data.capacity(); page += PAGE_SIZE) {
+            data.put(page, (byte) 0);
+        }
+        for (int page = 0; page < index.capacity(); page += PAGE_SIZE) {
+            index.put(page, (byte) 0);
+        }
+        data.putInt(0, CaptureSegment.MAGIC);
+        data.putInt(4, CaptureSegment.VERSION);
+        return new Segment(sequence, data, index);
+    }
+
+    /**
+     * Publishes a prepared segment under its final paths, and appends to it, the index is renamed first,
+     * as the readers list the data files.
+     *
+     * @param segment the prepared segment
+     * @throws IOException if the segment could not be renamed
+     */
+    private void useSegment(final Segment segment) throws IOException {
+        final Path dataPath = CaptureSegment.getDataPath(directory, segment.sequence());
+        final Path indexPath = CaptureSegment.getIndexPath(directory, segment.sequence());
+        Files.move(CaptureSegment.getPreparedPath(indexPath), indexPath, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(CaptureSegment.getPreparedPath(dataPath), dataPath, StandardCopyOption.ATOMIC_MOVE);
+        this.sequence = segment.sequence();
+        data = segment.data();
+        index = segment.index();
+        data.position(CaptureSegment.HEADER_SIZE);
+        nextIndexedPosition = CaptureSegment.HEADER_SIZE;
+    }
+
+    private void closeSegment(final Segment segment) throws IOException {
+        segment.data().force();
+        segment.index().force();
+        /* the age of a closed segment counts from its last record */
+        final FileTime now = FileTime.fromMillis(System.currentTimeMillis());
+        Files.setLastModifiedTime(CaptureSegment.getDataPath(directory, segment.sequence()), now);
+    }
+
+    private void enforceRetention(final long activeSequence) throws IOException {
+        final List<Long> sequences = listSegments(directory);
+        long size = sequences.size() * segmentSize;
+        final long now = System.currentTimeMillis();
+        for (final long closedSequence : sequences) {
+            if (closedSequence >= activeSequence) {
+                break;
+            }
+            final Path dataPath = CaptureSegment.getDataPath(directory, closedSequence);
+            final long age = now - Files.getLastModifiedTime(dataPath).toMillis();
+            if (size <= retentionSize && age <= retentionAge) {
+                break;
+            }
+            Files.deleteIfExists(dataPath);
+            Files.deleteIfExists(CaptureSegment.getIndexPath(directory, closedSequence));
+            size -= segmentSize;
+        }
+    }
+
+    /**
+     * Lists the sequences of the segments in a directory.
+     *
+     * @param directory the journal directory
+     * @return the segment sequences in ascending order
+     * @throws IOException if the directory could not be listed
+     */
+    static List<Long> listSegments(final Path directory) throws IOException {
+        final List<Long> sequences = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + CaptureSegment.DATA_SUFFIX)) {
+            for (final Path path : stream) {
+                final long segmentSequence = CaptureSegment.parseSequence(path.getFileName().toString());
+                if (segmentSequence >= 0) {
+                    sequences.add(segmentSequence);
+                }
+            }
+        }
+        Collections.sort(sequences);
+        return sequences;
+    }
+
+    /**
+     * Closes the active segment, the appending operations have no effect afterwards, waits
+     * for the housekeeping thread to finish, and deletes the pre-allocated next segment.
+     *
+     * @throws IOException if the segment modification time could not be updated
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        housekeeper.shutdown();
+        try {
+            housekeeper.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeSegment(new Segment(sequence, data, index));
+        Files.deleteIfExists(CaptureSegment.getPreparedPath(CaptureSegment.getDataPath(directory, sequence + 1)));
+        Files.deleteIfExists(CaptureSegment.getPreparedPath(CaptureSegment.getIndexPath(directory, sequence + 1)));
+    }
+
+    /**
+     * Retrieves the directory of the segment files.
+     *
+     * @return the journal directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Retrieves the size of the segment files.
+     *
+     * @return the segment size in bytes
+     */
+    public long getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Retrieves the sequence of the active segment.
+     *
+     * @return the sequence of the segment being appended
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Converts a {@link System#nanoTime()} time to the timestamps of the records.
+     *
+     * @param nanoTime a time from {@link System#nanoTime()}
+     * @return the time in nanoseconds since the epoch
+     */
+    public long toTimestamp(final long nanoTime) {
+        return anchorEpochNanos + (nanoTime - anchorNanoTime);
+    }
+
+    /**
+     * Retrieves the number of the appended records.
+     *
+     * @return the number of the records appended since the journal is opened
+     */
+    public long getAppendedRecords() {
+        return appendedRecords;
+    }
+
+    /**
+     * Retrieves the number of the appended payload bytes.
+     *
+     * @return the number of the payload bytes appended since the journal is opened
+     */
+    public long getAppendedBytes() {
+        return appendedBytes;
+    }
+
+    /**
+     * Tests whether this journal is closed.
+     *
+     * @return true if the journal is closed, false otherwise.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * A mapped segment, its data and index files.
+     *
+     * @param sequence the segment sequence
+     * @param data     the mapped data file
+     * @param index    the mapped index file
+     */
+    private record Segment(long sequence, MappedByteBuffer data, MappedByteBuffer index) {
+    }
+}
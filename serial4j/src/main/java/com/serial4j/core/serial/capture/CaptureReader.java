@@ -0,0 +1,224 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.serial.capture;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads the records of a {@link CaptureJournal} in order, from the oldest retained segment,
+ * or from a timestamp located by the sparse time index.
+ *
+ * <p>
+ * The reader could follow a journal being appended, {@link CaptureReader#next(CaptureRecord)} returns
+ * false on the last written record, and picks the new records and segments up on the next calls.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class CaptureReader implements Closeable {
+
+    private final Path directory;
+    private List<Long> sequences;
+    private int segment = -1;
+    private long sequence;
+    private MappedByteBuffer data;
+    private ByteBuffer view;
+    private int position;
+
+    /**
+     * Opens a reader positioned at the first record of the journal.
+     *
+     * @param directory the journal directory
+     * @throws IOException if the directory could not be listed
+     */
+    public CaptureReader(final Path directory) throws IOException {
+        this.directory = directory;
+        this.sequences = CaptureJournal.listSegments(directory);
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @param record the record to fill
+     * @return true if a record is read, false if there are no more written records.
+     * @throws IOException if a segment could not be mapped
+     */
+    public boolean next(final CaptureRecord record) throws IOException {
+        while (true) {
+            if (data == null && !openNextSegment()) {
+                return false;
+            }
+            final int length = getLength(position);
+            if (length > 0) {
+                final byte direction = data.get(position + 4);
+                final long timestamp = data.getLong(position + 5);
+                final int payloadPosition = position + CaptureSegment.RECORD_HEADER_SIZE;
+                view.limit(payloadPosition + length).position(payloadPosition);
+                record.set(CaptureDirection.fromValue(direction), timestamp, sequence, position, view);
+                position = payloadPosition + length;
+                return true;
+            }
+            /* the active segment could still be appended, a later segment means this one is closed */
+            if (segment + 1 >= sequences.size()) {
+                listSegments();
+                if (segment + 1 >= sequences.size()) {
+                    /* the segment is mapped to its full size, the next records show up in the same mapping */
+                    return false;
+                }
+            }
+            data = null;
+        }
+    }
+
+    /**
+     * Positions this reader at the first record with a timestamp at, or after a time.
+     *
+     * @param timestamp the time in nanoseconds since the epoch
+     * @throws IOException if a segment could not be mapped
+     */
+    public void seek(final long timestamp) throws IOException {
+        sequences = CaptureJournal.listSegments(directory);
+        /* the last segment starting at, or before the time */
+        int target = 0;
+        for (int i = 0; i < sequences.size(); i++) {
+            final long first = readFirstTimestamp(sequences.get(i));
+            if (first != 0 && first <= timestamp) {
+                target = i;
+            } else if (first > timestamp) {
+                break;
+            }
+        }
+        if (!openSegment(target)) {
+            return;
+        }
+        position = findIndexedPosition(timestamp);
+        /* scan forward from the indexed record */
+        int length;
+        while ((length = getLength(position)) > 0 && data.getLong(position + 5) < timestamp) {
+            position += CaptureSegment.RECORD_HEADER_SIZE + length;
+        }
+        if (length <= 0 && target + 1 < sequences.size()) {
+            openSegment(target + 1);
+        }
+    }
+
+    private int findIndexedPosition(final long timestamp) throws IOException {
+        final MappedByteBuffer index = CaptureSegment.map(CaptureSegment.getIndexPath(directory, sequence), 0, false);
+        int low = 0;
+        int high = index.capacity() / CaptureSegment.INDEX_ENTRY_SIZE - 1;
+        int found = CaptureSegment.HEADER_SIZE;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final int entry = middle * CaptureSegment.INDEX_ENTRY_SIZE;
+            final int entryPosition = index.getInt(entry + 8);
+            if (entryPosition != 0 && index.getLong(entry) <= timestamp) {
+                found = entryPosition;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return found;
+    }
+
+    private long readFirstTimestamp(final long segmentSequence) throws IOException {
+        final MappedByteBuffer header = CaptureSegment.map(CaptureSegment.getDataPath(directory, segmentSequence),
+                0, false);
+        if (header.capacity() < CaptureSegment.HEADER_SIZE) {
+            return 0;
+        }
+        return header.getLong(CaptureSegment.FIRST_TIMESTAMP_OFFSET);
+    }
+
+    /**
+     * Lists the segments, and re-locates the current segment by its sequence, as the retention
+     * could have deleted the older segments meanwhile.
+     *
+     * @throws IOException if the directory could not be listed
+     */
+    private void listSegments() throws IOException {
+        sequences = CaptureJournal.listSegments(directory);
+        if (segment >= 0) {
+            final int found = Collections.binarySearch(sequences, sequence);
+            /* a deleted segment is located before its successor */
+            segment = found >= 0 ? found : -found - 2;
+        }
+    }
+
+    private boolean openNextSegment() throws IOException {
+        if (segment + 1 >= sequences.size()) {
+            listSegments();
+            if (segment + 1 >= sequences.size()) {
+                return false;
+            }
+        }
+        return openSegment(segment + 1);
+    }
+
+    private boolean openSegment(final int segment) throws IOException {
+        if (segment >= sequences.size()) {
+            return false;
+        }
+        this.segment = segment;
+        this.sequence = sequences.get(segment);
+        data = CaptureSegment.map(CaptureSegment.getDataPath(directory, sequence), 0, false);
+        if (data.capacity() < CaptureSegment.HEADER_SIZE || data.getInt(0) != CaptureSegment.MAGIC) {
+            throw new IOException("Invalid capture segment " + CaptureSegment.getDataPath(directory, sequence));
+        }
+        view = data.asReadOnlyBuffer();
+        position = CaptureSegment.HEADER_SIZE;
+        return true;
+    }
+
+    private int getLength(final int position) {
+        if (position + CaptureSegment.RECORD_HEADER_SIZE > data.capacity()) {
+            return 0;
+        }
+        return data.getInt(position);
+    }
+
+    /**
+     * Releases the mapped segment, the mapping is unmapped once collected.
+     */
+    @Override
+    public void close() {
+        data = null;
+        view = null;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.serial.capture;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Represents a reusable record of a {@link CaptureReader}, the record is filled in place
+ * by {@link CaptureReader#next(CaptureRecord)}, and its payload is a read-only view of the
+ * mapped segment, which is valid until the next read.
+ *
+ * @author pavl_g
+ */
+public final class CaptureRecord {
+
+    private CaptureDirection direction;
+    private long timestamp;
+    private long sequence;
+    private int position;
+    private ByteBuffer payload;
+
+    void set(final CaptureDirection direction, final long timestamp, final long sequence,
+             final int position, final ByteBuffer payload) {
+        this.direction = direction;
+        this.timestamp = timestamp;
+        this.sequence = sequence;
+        this.position = position;
+        this.payload = payload;
+    }
+
+    /**
+     * Retrieves the direction of the captured chunk.
+     *
+     * @return the chunk direction
+     */
+    public CaptureDirection getDirection() {
+        return direction;
+    }
+
+    /**
+     * Retrieves the timestamp of the captured chunk.
+     *
+     * @return the monotonic timestamp in nanoseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Retrieves the payload of the captured chunk.
+     *
+     * @return a read-only view of the payload, valid until the next read
+     */
+    public ByteBuffer getPayload() {
+        return payload;
+    }
+
+    /**
+     * Retrieves the sequence of the segment holding this record.
+     *
+     * @return the segment sequence
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Retrieves the position of this record in its segment.
+     *
+     * @return the record position in bytes
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    @Override
+    public String toString() {
+        return "CaptureRecord[direction=" + direction + ", timestamp=" + timestamp
+                + ", length=" + (payload == null ? 0 : payload.remaining()) + "]";
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.serial.capture;
+
+import com.serial4j.core.terminal.ParkingTerminalDevice;
+import com.serial4j.core.terminal.PseudoTerminal;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays the chunks of a {@link CaptureJournal} into the master side of a {@link PseudoTerminal},
+ * so that a {@link com.serial4j.core.serial.monitor.SerialMonitor} opened on the slave side receives
+ * the captured traffic, e.g., to reproduce a field incident, or to benchmark the decoding stack.
+ *
+ * <p>
+ * The chunks are written at their original pace, at a scaled pace with {@link CaptureReplayer#setSpeed(double)},
+ * or back to back with {@link CaptureReplayer#AS_FAST_AS_POSSIBLE}, the master writes park on the port readiness
+ * while the output queue is full, hence the fastest replay is paced by the consumer of the slave side.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class CaptureReplayer {
+
+    /**
+     * The speed of a replay ignoring the captured timing.
+     */
+    public static final double AS_FAST_AS_POSSIBLE = Double.POSITIVE_INFINITY;
+
+    /**
+     * The remaining time below which the replay spins rather than parks, so that the
+     * chunks are released close to their due time.
+     */
+    private static final long SPIN_THRESHOLD = 50_000;
+
+    private final Path directory;
+    private final ParkingTerminalDevice master;
+    private volatile double speed = 1.0;
+    private volatile CaptureDirection direction = CaptureDirection.RECEIVED;
+    private volatile long fromTimestamp = Long.MIN_VALUE;
+    private volatile long toTimestamp = Long.MAX_VALUE;
+    private volatile boolean stopped;
+    private volatile long replayedRecords;
+    private volatile long replayedBytes;
+    private volatile long maxLateness;
+
+    /**
+     * Instantiates a replayer of a journal into a pseudo-terminal.
+     *
+     * @param directory      the journal directory
+     * @param pseudoTerminal the pseudo-terminal, the chunks are written to its master side
+     */
+    public CaptureReplayer(final Path directory, final PseudoTerminal pseudoTerminal) {
+        this.directory = directory;
+        this.master = new ParkingTerminalDevice(pseudoTerminal.getMaster());
+    }
+
+    /**
+     * Replays the journal on the calling thread until the end of the written records,
+     * the end of the time range, or {@link CaptureReplayer#stop()}.
+     *
+     * @return the number of the replayed bytes
+     * @throws IOException          if a segment could not be read
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public long replay() throws IOException, InterruptedException {
+        stopped = false;
+        replayedRecords = 0;
+        replayedBytes = 0;
+        maxLateness = 0;
+        final double replaySpeed = speed;
+        final CaptureDirection replayDirection = direction;
+        final CaptureReader reader = new CaptureReader(directory);
+        final CaptureRecord record = new CaptureRecord();
+        try {
+            if (fromTimestamp != Long.MIN_VALUE) {
+                reader.seek(fromTimestamp);
+            }
+            long firstTimestamp = -1;
+            long start = 0;
+            while (!stopped && reader.next(record)) {
+                if (record.getTimestamp() > toTimestamp) {
+                    break;
+                }
+                if (record.getDirection() != replayDirection) {
+                    continue;
+                }
+                if (firstTimestamp < 0) {
+                    firstTimestamp = record.getTimestamp();
+                    start = System.nanoTime();
+                }
+                if (replaySpeed != AS_FAST_AS_POSSIBLE) {
+                    final long due = start + (long) ((record.getTimestamp() - firstTimestamp) / replaySpeed);
+                    awaitDue(due);
+                    maxLateness = Math.max(maxLateness, System.nanoTime() - due);
+                }
+                replayedBytes += master.write(record.getPayload());
+                replayedRecords++;
+            }
+        } finally {
+            reader.close();
+        }
+        return replayedBytes;
+    }
+
+    private static void awaitDue(final long due) throws InterruptedException {
+        long remaining;
+        while ((remaining = due - System.nanoTime()) > 0) {
+            if (remaining > SPIN_THRESHOLD) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * Stops the running replay after the chunk being written.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Adjusts the pace of the replay.
+     *
+     * @param speed the multiplier of the captured pace, e.g., 1.0 for the original timing, 10.0 for ten times faster,
+     *              or {@link CaptureReplayer#AS_FAST_AS_POSSIBLE} to ignore the timing
+     */
+    public void setSpeed(final double speed) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("Invalid replay speed " + speed);
+        }
+        this.speed = speed;
+    }
+
+    /**
+     * Retrieves the pace of the replay.
+     *
+     * @return the multiplier of the captured pace
+     */
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Adjusts the direction of the replayed chunks.
+     *
+     * @param direction the replayed direction, default is {@link CaptureDirection#RECEIVED},
+     *                  the traffic the monitor has received from the device
+     */
+    public void setDirection(final CaptureDirection direction) {
+        this.direction = direction;
+    }
+
+    /**
+     * Retrieves the direction of the replayed chunks.
+     *
+     * @return the replayed direction
+     */
+    public CaptureDirection getDirection() {
+        return direction;
+    }
+
+    /**
+     * Restricts the replay to a time range of the journal.
+     *
+     * @param fromTimestamp the first replayed time in nanoseconds since the epoch, or {@link Long#MIN_VALUE}
+     * @param toTimestamp   the last replayed time in nanoseconds since the epoch, or {@link Long#MAX_VALUE}
+     */
+    public void setRange(final long fromTimestamp, final long toTimestamp) {
+        this.fromTimestamp = fromTimestamp;
+        this.toTimestamp = toTimestamp;
+    }
+
+    /**
+     * Retrieves the number of the chunks written by the last replay.
+     *
+     * @return the number of the replayed records
+     */
+    public long getReplayedRecords() {
+        return replayedRecords;
+    }
+
+    /**
+     * Retrieves the number of the bytes written by the last replay.
+     *
+     * @return the number of the replayed bytes
+     */
+    public long getReplayedBytes() {
+        return replayedBytes;
+    }
+
+    /**
+     * Retrieves the largest delay of a chunk behind its due time on the last timed replay.
+     *
+     * @return the maximum lateness in nanoseconds
+     */
+    public long getMaxLateness() {
+        return maxLateness;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.serial.capture;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * Defines the layout of the capture segments, a segment is a pair of memory-mapped files
+ * named after the segment sequence, the data file and its sparse time index.
+ *
+ * <p>
+ * The data file starts with a {@link CaptureSegment#HEADER_SIZE} bytes header (magic, version,
+ * the timestamp of the first record), followed by the records, each record is an int payload length,
+ * a byte direction flag, a long timestamp, and the payload, a zero length marks the end of the written records.
+ * </p>
+ *
+ * <p>
+ * The index file holds an entry (a long timestamp, and an int position) for the first record past
+ * each {@link CaptureSegment#INDEX_INTERVAL} bytes of data, a zero position marks the end of the entries.
+ * </p>
+ *
+ * @author pavl_g
+ */
+final class CaptureSegment {
+
+    static final int MAGIC = 0x53344A43;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int FIRST_TIMESTAMP_OFFSET = 8;
+    static final int RECORD_HEADER_SIZE = 13;
+    static final int INDEX_INTERVAL = 4096;
+    static final int INDEX_ENTRY_SIZE = 12;
+    static final String DATA_SUFFIX = ".capture";
+    static final String INDEX_SUFFIX = ".index";
+    static final String PREPARED_SUFFIX = ".prepared";
+
+    private CaptureSegment() {
+    }
+
+    static Path getDataPath(final Path directory, final long sequence) {
+        return directory.resolve(String.format("%020d%s", sequence, DATA_SUFFIX));
+    }
+
+    static Path getIndexPath(final Path directory, final long sequence) {
+        return directory.resolve(String.format("%020d%s", sequence, INDEX_SUFFIX));
+    }
+
+    /**
+     * Retrieves the path of a segment file pre-allocated ahead of its use, the prepared files are
+     * not listed as segments until renamed to their final paths.
+     *
+     * @param path the final path of the segment file
+     * @return the path of the prepared file
+     */
+    static Path getPreparedPath(final Path path) {
+        return path.resolveSibling(path.getFileName() + PREPARED_SUFFIX);
+    }
+
+    static int getIndexSize(final long segmentSize) {
+        return (int) (segmentSize / INDEX_INTERVAL + 2) * INDEX_ENTRY_SIZE;
+    }
+
+    /**
+     * Parses the sequence of a data file name.
+     *
+     * @param fileName the file name
+     * @return the segment sequence, or (-1) if the file is not a segment data file
+     */
+    static long parseSequence(final String fileName) {
+        if (!fileName.endsWith(DATA_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(fileName.substring(0, fileName.length() - DATA_SUFFIX.length()));
+        } catch (final NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Maps a segment file, the file is closed once mapped, the mapping remains valid.
+     *
+     * @param path     the file path
+     * @param size     the mapping size, the file is extended (sparse) to this size when writable
+     * @param writable true to map the file for writing, false to map it read-only
+     * @return the mapped buffer
+     * @throws IOException if the file could not be mapped
+     */
+    static MappedByteBuffer map(final Path path, final long size, final boolean writable) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), writable ? "rw" : "r");
+             FileChannel channel = file.getChannel()) {
+            if (writable && file.length() < size) {
+                file.setLength(size);
+            }
+            final long length = writable ? size : file.length();
+            return channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, length);
+        }
+    }
+}
@@ -0,0 +1,363 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.serial.channel;
+
+import com.serial4j.core.poll.EventPoller;
+import com.serial4j.core.poll.PollEvent;
+import com.serial4j.core.poll.ReadinessListener;
+import com.serial4j.core.terminal.TerminalDevice;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.InterruptedByTimeoutException;
+import java.nio.channels.ReadPendingException;
+import java.nio.channels.WritePendingException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An asynchronous channel over an opened {@link TerminalDevice}, the read and write
+ * operations return immediately with a {@link CompletableFuture} that is completed
+ * once the operation is done, without holding a thread per outstanding operation.
+ *
+ * <p>
+ * The terminal device is switched to the non-blocking mode, an operation that can't
+ * be done immediately arms the port on an {@link EventPoller}, and is continued and
+ * completed on the event poller thread once the port becomes ready, hence many
+ * channels share the single event poller thread, and the dependent stages of the futures
+ * should use the asynchronous variants (e.g., {@link CompletableFuture#thenApplyAsync(java.util.function.Function)})
+ * for any heavy work.
+ * </p>
+ *
+ * <p>
+ * At most one read and one write operation could be outstanding at a time, the read and
+ * the write operations are independent, a timed-out operation completes exceptionally with
+ * an {@link InterruptedByTimeoutException}, and the position of its buffer reflects the
+ * bytes transferred before the timeout.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class AsynchronousSerialChannel implements AutoCloseable {
+
+    private final TerminalDevice terminalDevice;
+    private final EventPoller eventPoller;
+    private final AtomicReference<Operation> pendingRead = new AtomicReference<>();
+    private final AtomicReference<Operation> pendingWrite = new AtomicReference<>();
+    private volatile boolean closed;
+
+    /**
+     * Opens an asynchronous channel over an opened terminal device on the shared default event poller.
+     *
+     * @param terminalDevice the opened terminal device
+     */
+    public AsynchronousSerialChannel(final TerminalDevice terminalDevice) {
+        this(terminalDevice, EventPoller.getDefault());
+    }
+
+    /**
+     * Opens an asynchronous channel over an opened terminal device, the terminal
+     * device is switched to the non-blocking mode.
+     *
+     * @param terminalDevice the opened terminal device
+     * @param eventPoller    the event poller that drives the completions
+     */
+    public AsynchronousSerialChannel(final TerminalDevice terminalDevice, final EventPoller eventPoller) {
+        this.terminalDevice = terminalDevice;
+        this.eventPoller = eventPoller;
+        terminalDevice.setNonBlocking(true);
+    }
+
+    /**
+     * Reads the available bytes into the remaining space of a buffer, the
+     * operation completes once at least one byte is read.
+     *
+     * @param buffer the buffer to read the data into
+     * @return a future completed with the number of the read bytes, or -1 if the port has hung up
+     * @throws ReadPendingException if a read operation is already outstanding
+     */
+    public CompletableFuture<Integer> read(final ByteBuffer buffer) {
+        return read(buffer, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reads the available bytes into the remaining space of a buffer, the
+     * operation completes once at least one byte is read, or the timeout elapses.
+     *
+     * @param buffer  the buffer to read the data into
+     * @param timeout the maximum time to wait, zero or less for no timeout
+     * @param unit    the time unit of the timeout
+     * @return a future completed with the number of the read bytes, or -1 if the port has hung up
+     * @throws ReadPendingException if a read operation is already outstanding
+     */
+    public CompletableFuture<Integer> read(final ByteBuffer buffer, final long timeout, final TimeUnit unit) {
+        final Operation operation = new Operation(PollEvent.POLLIN, buffer, pendingRead);
+        if (!pendingRead.compareAndSet(null, operation)) {
+            throw new ReadPendingException();
+        }
+        return operation.start(timeout, unit);
+    }
+
+    /**
+     * Writes all the remaining bytes of a buffer, the operation completes
+     * once all the bytes are written.
+     *
+     * @param buffer the buffer holding the data to write
+     * @return a future completed with the number of the written bytes
+     * @throws WritePendingException if a write operation is already outstanding
+     */
+    public CompletableFuture<Integer> write(final ByteBuffer buffer) {
+        return write(buffer, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes all the remaining bytes of a buffer, the operation completes
+     * once all the bytes are written, or the timeout elapses.
+     *
+     * @param buffer  the buffer holding the data to write
+     * @param timeout the maximum time to wait, zero or less for no timeout
+     * @param unit    the time unit of the timeout
+     * @return a future completed with the number of the written bytes
+     * @throws WritePendingException if a write operation is already outstanding
+     */
+    public CompletableFuture<Integer> write(final ByteBuffer buffer, final long timeout, final TimeUnit unit) {
+        final Operation operation = new Operation(PollEvent.POLLOUT, buffer, pendingWrite);
+        if (!pendingWrite.compareAndSet(null, operation)) {
+            throw new WritePendingException();
+        }
+        return operation.start(timeout, unit);
+    }
+
+    /**
+     * Tests whether this channel is open.
+     *
+     * @return true if open, false otherwise
+     */
+    public boolean isOpen() {
+        return !closed;
+    }
+
+    /**
+     * Closes this channel, the outstanding operations complete exceptionally
+     * with an {@link AsynchronousCloseException}.
+     *
+     * <p>
+     * Note: the terminal device is owned by the caller, and it's not closed by this channel.
+     * </p>
+     */
+    @Override
+    public void close() {
+        closed = true;
+        final Operation read = pendingRead.get();
+        final Operation write = pendingWrite.get();
+        if (read != null) {
+            read.fail(new AsynchronousCloseException());
+        }
+        if (write != null) {
+            write.fail(new AsynchronousCloseException());
+        }
+    }
+
+    /**
+     * Retrieves the terminal device of this channel.
+     *
+     * @return the associated terminal device
+     */
+    public TerminalDevice getTerminalDevice() {
+        return terminalDevice;
+    }
+
+    /**
+     * Retrieves the event poller that drives the completions of this channel.
+     *
+     * @return the associated event poller
+     */
+    public EventPoller getEventPoller() {
+        return eventPoller;
+    }
+
+    /**
+     * An outstanding read or write operation, it's continued on the event poller
+     * thread, and it's released before its future is completed, so that the dependent
+     * stages could start the next operation.
+     *
+     * <p>
+     * The operation is driven by a single state, a transfer claims the pending operation,
+     * and the failures (i.e., the timeout, the close, and the cancellation) complete a pending
+     * operation only, a failure raised during a transfer is picked up once the transfer is over,
+     * so that the bytes of a transfer are never lost to a racing failure. Likewise, a readiness
+     * signalled during a transfer is picked up once the transfer is over.
+     * </p>
+     */
+    private final class Operation implements ReadinessListener {
+        private static final int PENDING = 0;
+        private static final int TRANSFERRING = 1;
+        private static final int DONE = 2;
+
+        private final PollEvent event;
+        private final ByteBuffer buffer;
+        private final AtomicReference<Operation> slot;
+        private final int fd;
+        private final CompletableFuture<Integer> future = new CompletableFuture<>();
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private final AtomicInteger readyEvents = new AtomicInteger();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private volatile boolean armed;
+        private int transferredBytes;
+        private EventPoller.ScheduledTask timer;
+
+        Operation(final PollEvent event, final ByteBuffer buffer, final AtomicReference<Operation> slot) {
+            this.event = event;
+            this.buffer = buffer;
+            this.slot = slot;
+            this.fd = terminalDevice.getSerialPort().getFd();
+        }
+
+        CompletableFuture<Integer> start(final long timeout, final TimeUnit unit) {
+            if (closed) {
+                fail(new ClosedChannelException());
+                return future;
+            }
+            /* cancelling the future by the user disarms the operation */
+            future.whenComplete((bytes, throwable) -> {
+                if (future.isCancelled()) {
+                    fail(throwable);
+                }
+            });
+            if (timeout > 0) {
+                timer = eventPoller.schedule(() -> fail(new InterruptedByTimeoutException()), timeout, unit);
+            }
+            /* attempt the operation immediately, the port is usually ready */
+            transfer(0);
+            return future;
+        }
+
+        @Override
+        public void onReady(final int fd, final int revents, final long timestamp) {
+            readyEvents.set(revents);
+            dispatchReadiness();
+        }
+
+        private void dispatchReadiness() {
+            int revents;
+            while (state.get() == PENDING && (revents = readyEvents.getAndSet(0)) != 0) {
+                transfer(revents);
+            }
+        }
+
+        private void transfer(final int revents) {
+            if (!state.compareAndSet(PENDING, TRANSFERRING)) {
+                return;
+            }
+            try {
+                if (event == PollEvent.POLLIN) {
+                    final int bytes = terminalDevice.read(buffer);
+                    if (bytes > 0 || !buffer.hasRemaining()) {
+                        complete(bytes);
+                    } else if (PollEvent.isTerminal(revents)) {
+                        complete(-1);
+                    } else {
+                        rearm();
+                    }
+                } else {
+                    transferredBytes += terminalDevice.write(buffer);
+                    if (!buffer.hasRemaining()) {
+                        complete(transferredBytes);
+                    } else if (PollEvent.POLLNVAL.isSet(revents)) {
+                        abort(new AsynchronousCloseException());
+                    } else {
+                        rearm();
+                    }
+                }
+            } catch (final RuntimeException e) {
+                abort(e);
+            }
+        }
+
+        /**
+         * Arms the port, and hands the operation back to the pending state, the readiness
+         * and the failures signalled during the transfer are picked up afterwards.
+         */
+        private void rearm() {
+            armed = true;
+            eventPoller.arm(fd, event, this);
+            state.set(PENDING);
+            dispatchReadiness();
+            if (failure.get() != null) {
+                tryFail();
+            }
+        }
+
+        private void complete(final int bytes) {
+            state.set(DONE);
+            release();
+            future.complete(bytes);
+        }
+
+        private void abort(final Throwable throwable) {
+            failure.compareAndSet(null, throwable);
+            state.set(DONE);
+            completeExceptionally();
+        }
+
+        void fail(final Throwable throwable) {
+            failure.compareAndSet(null, throwable);
+            tryFail();
+        }
+
+        private void tryFail() {
+            if (state.compareAndSet(PENDING, DONE)) {
+                completeExceptionally();
+            }
+        }
+
+        private void completeExceptionally() {
+            release();
+            if (armed) {
+                eventPoller.disarm(fd, event);
+            }
+            future.completeExceptionally(failure.get());
+        }
+
+        /**
+         * Releases the operation slot exactly once.
+         */
+        private void release() {
+            if (slot.compareAndSet(this, null) && timer != null) {
+                timer.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.serial.channel;
+
+import com.serial4j.core.terminal.TerminalDevice;
+import com.serial4j.core.terminal.control.TerminalControlFlag;
+import com.serial4j.core.terminal.control.TerminalFlag;
+import com.serial4j.core.terminal.control.TerminalInputFlag;
+
+/**
+ * Represents the flow control of the terminal driver, which throttles the sender
+ * once the kernel input buffer fills up because the receiver stopped reading.
+ *
+ * @author pavl_g
+ */
+public enum FlowControl {
+
+    /**
+     * No flow control, the bytes overflowing the kernel input buffer are lost.
+     */
+    NONE,
+
+    /**
+     * Software flow control, the terminal driver sends the XOFF (stop) character once the input
+     * buffer is nearly full, and the XON (start) character once it drains [IXOFF].
+     */
+    SOFTWARE,
+
+    /**
+     * Hardware flow control, the terminal driver de-asserts the RTS line once the input
+     * buffer is nearly full, and re-asserts it once it drains [CRTSCTS].
+     */
+    HARDWARE;
+
+    /**
+     * Applies this flow control to the terminal flags of an opened terminal device.
+     *
+     * @param terminalDevice the opened terminal device
+     */
+    public void apply(final TerminalDevice terminalDevice) {
+        if (this == SOFTWARE) {
+            final TerminalFlag inputFlag = terminalDevice.getTerminalInputFlag();
+            inputFlag.append(TerminalInputFlag.IXOFF);
+            terminalDevice.setTerminalInputFlag(inputFlag);
+        } else if (this == HARDWARE) {
+            final TerminalFlag controlFlag = terminalDevice.getTerminalControlFlag();
+            controlFlag.append(TerminalControlFlag.CRTSCTS);
+            terminalDevice.setTerminalControlFlag(controlFlag);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.serial.channel;
+
+import com.serial4j.core.poll.EventPoller;
+import com.serial4j.core.poll.PollEvent;
+import com.serial4j.core.poll.ReadinessListener;
+import com.serial4j.core.terminal.TerminalDevice;
+import com.serial4j.util.concurrent.LockFreeBoundedQueue;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A reactive {@link Flow.Publisher} view of the data received by an opened {@link TerminalDevice},
+ * the subscriber receives the data in chunks (up to the chunk capacity each) instead of single bytes.
+ *
+ * <p>
+ * The subscriber demand maps directly to the kernel reads, each requested chunk is a single read
+ * from the kernel input buffer, and nothing is read while there is no outstanding demand, thus a
+ * slow subscriber leaves the data in the kernel input buffer instead of stalling a monitor thread or
+ * losing the data, and once the kernel input buffer fills up, the {@link FlowControl} of the terminal
+ * driver throttles the sender.
+ * </p>
+ *
+ * <p>
+ * The reads and the subscriber signals are dispatched on the {@link EventPoller} thread, the subscriber
+ * should hand off any heavy work to another thread. This is a unicast publisher, it accepts a single
+ * subscriber, the additional subscribers are rejected with an {@link IllegalStateException}.
+ * </p>
+ *
+ * <p>
+ * Each chunk is a heap buffer owned by the subscriber once delivered, so that a subscriber could retain it,
+ * or hand it off to another thread. A subscriber that is done with a chunk could return it to this publisher
+ * by {@link SerialPublisher#release(ByteBuffer)}, the released chunks are reused by the next reads instead of
+ * allocating new ones, thus a subscriber releasing its chunks puts no garbage on the read path,
+ * while the chunks that are never released are left to the garbage collector.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class SerialPublisher implements Flow.Publisher<ByteBuffer> {
+
+    /**
+     * The default maximum number of bytes per chunk.
+     */
+    public static final int DEFAULT_CHUNK_CAPACITY = 1024;
+
+    /**
+     * The maximum number of the chunks read in a row before yielding the event poller thread to the other ports.
+     */
+    private static final int MAX_CHUNKS_PER_DISPATCH = 16;
+
+    /**
+     * The maximum number of the released chunks held for reuse, the excess released chunks are dropped.
+     */
+    private static final int MAX_RECYCLED_CHUNKS = MAX_CHUNKS_PER_DISPATCH * 4;
+
+    private final TerminalDevice terminalDevice;
+    private final EventPoller eventPoller;
+    private final int chunkCapacity;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private final LockFreeBoundedQueue<ByteBuffer> recycledChunks = new LockFreeBoundedQueue<>(MAX_RECYCLED_CHUNKS);
+
+    /**
+     * Instantiates a publisher for an opened terminal device on the shared default event poller,
+     * with {@link SerialPublisher#DEFAULT_CHUNK_CAPACITY} chunks and no flow control.
+     *
+     * @param terminalDevice the opened terminal device
+     */
+    public SerialPublisher(final TerminalDevice terminalDevice) {
+        this(terminalDevice, EventPoller.getDefault(), DEFAULT_CHUNK_CAPACITY, FlowControl.NONE);
+    }
+
+    /**
+     * Instantiates a publisher for an opened terminal device, the terminal device is
+     * switched to the non-blocking mode, and the flow control is applied to its terminal flags.
+     *
+     * @param terminalDevice the opened terminal device
+     * @param eventPoller    the event poller that dispatches the reads and the subscriber signals
+     * @param chunkCapacity  the maximum number of bytes per chunk
+     * @param flowControl    the flow control to throttle the sender once the kernel input buffer fills up
+     */
+    public SerialPublisher(final TerminalDevice terminalDevice, final EventPoller eventPoller,
+                           final int chunkCapacity, final FlowControl flowControl) {
+        if (chunkCapacity <= 0) {
+            throw new IllegalArgumentException("Chunk capacity must be a positive value!");
+        }
+        this.terminalDevice = terminalDevice;
+        this.eventPoller = eventPoller;
+        this.chunkCapacity = chunkCapacity;
+        terminalDevice.setNonBlocking(true);
+        flowControl.apply(terminalDevice);
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super ByteBuffer> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(final long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("Serial publisher accepts a single subscriber!"));
+            return;
+        }
+        final ChunkSubscription subscription = new ChunkSubscription(subscriber);
+        eventPoller.execute(() -> subscriber.onSubscribe(subscription));
+    }
+
+    /**
+     * Returns a delivered chunk to this publisher for reuse by the next reads, the subscriber
+     * must not access the chunk after releasing it. This method could be called from any thread,
+     * the buffers that are not chunks of this publisher are ignored.
+     *
+     * @param chunk a chunk delivered by this publisher
+     */
+    public void release(final ByteBuffer chunk) {
+        if (chunk.capacity() != chunkCapacity || chunk.isDirect() || chunk.isReadOnly()) {
+            return;
+        }
+        recycledChunks.offer(chunk.clear());
+    }
+
+    /**
+     * Retrieves the terminal device of this publisher.
+     *
+     * @return the associated terminal device
+     */
+    public TerminalDevice getTerminalDevice() {
+        return terminalDevice;
+    }
+
+    /**
+     * The subscription of the single subscriber, it reads the requested chunks on
+     * the event poller thread, and arms the port whenever the kernel input buffer is empty.
+     */
+    private final class ChunkSubscription implements Flow.Subscription, ReadinessListener {
+        private final Flow.Subscriber<? super ByteBuffer> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final int fd;
+        private volatile boolean cancelled;
+        /* a chunk left over by an empty read, accessed on the event poller thread only */
+        private ByteBuffer spareChunk;
+
+        ChunkSubscription(final Flow.Subscriber<? super ByteBuffer> subscriber) {
+            this.subscriber = subscriber;
+            this.fd = terminalDevice.getSerialPort().getFd();
+        }
+
+        @Override
+        public void request(final long n) {
+            if (cancelled) {
+                return;
+            }
+            if (n <= 0) {
+                eventPoller.execute(() -> terminate(new IllegalArgumentException("Non-positive request: " + n)));
+                return;
+            }
+            final long previous = demand.getAndAccumulate(n, (current, added) -> {
+                final long sum = current + added;
+                return sum < 0 ? Long.MAX_VALUE : sum;
+            });
+            /* resume reading, as the reading stops on no demand */
+            if (previous == 0) {
+                eventPoller.execute(() -> drain(0));
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                eventPoller.disarm(fd, PollEvent.POLLIN);
+            }
+        }
+
+        @Override
+        public void onReady(final int fd, final int revents, final long timestamp) {
+            drain(revents);
+        }
+
+        private void drain(final int revents) {
+            try {
+                for (int chunks = 0; !cancelled && demand.get() > 0; chunks++) {
+                    if (chunks == MAX_CHUNKS_PER_DISPATCH) {
+                        eventPoller.execute(() -> drain(0));
+                        return;
+                    }
+                    final ByteBuffer chunk = acquireChunk();
+                    if (terminalDevice.read(chunk) > 0) {
+                        demand.decrementAndGet();
+                        subscriber.onNext(chunk.flip());
+                        continue;
+                    }
+                    spareChunk = chunk;
+                    if (PollEvent.isTerminal(revents)) {
+                        cancelled = true;
+                        subscriber.onComplete();
+                    } else {
+                        eventPoller.arm(fd, PollEvent.POLLIN, this);
+                        return;
+                    }
+                }
+            } catch (final RuntimeException e) {
+                terminate(e);
+            }
+        }
+
+        private ByteBuffer acquireChunk() {
+            final ByteBuffer chunk = spareChunk;
+            if (chunk != null) {
+                spareChunk = null;
+                return chunk;
+            }
+            final ByteBuffer recycled = recycledChunks.poll();
+            return recycled != null ? recycled : ByteBuffer.allocate(chunkCapacity);
+        }
+
+        private void terminate(final Throwable throwable) {
+            if (!cancelled) {
+                cancel();
+                subscriber.onError(throwable);
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.serial.dispatch;
+
+import com.serial4j.core.serial.entity.EntityStatus;
+import com.serial4j.core.serial.monitor.SerialDataListener;
+import com.serial4j.core.serial.monitor.SerialMonitor;
+import com.serial4j.util.concurrent.RingBuffer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Represents a consumer thread of the {@link ListenerDispatcher}, which delivers the published events
+ * in order to a listener, and tracks how far it falls behind the monitor thread.
+ * <p>
+ * The consumer of the monitor listeners delivers the data events to {@link SerialMonitor#getSerialDataListener()},
+ * and the entity events to the entity status listeners, the consumers added by
+ * {@link ListenerDispatcher#addConsumer(SerialDataListener)} deliver the data events only.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class DispatchConsumer implements Runnable {
+
+    private static final Logger LOGGER = Logger.getLogger(DispatchConsumer.class.getName());
+
+    private final RingBuffer<DispatchEvent> ringBuffer;
+    private final RingBuffer<DispatchEvent>.Consumer consumer;
+    private final SerialDataListener serialDataListener;
+    private final AtomicLong dispatchedEvents = new AtomicLong();
+    private final AtomicLong maxLag = new AtomicLong();
+    /* the read-only views of the slots data, cached per consumer, as the listeners could move the view positions */
+    private final ByteBuffer[] views;
+    private final byte[][] viewedData;
+    private volatile SerialMonitor serialMonitor;
+    private volatile Thread thread;
+
+    DispatchConsumer(final RingBuffer<DispatchEvent> ringBuffer, final SerialDataListener serialDataListener) {
+        this.ringBuffer = ringBuffer;
+        this.consumer = ringBuffer.newConsumer();
+        this.serialDataListener = serialDataListener;
+        this.views = new ByteBuffer[ringBuffer.getCapacity()];
+        this.viewedData = new byte[ringBuffer.getCapacity()][];
+    }
+
+    void start(final SerialMonitor serialMonitor, final String name) {
+        this.serialMonitor = serialMonitor;
+        thread = new Thread(this, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+        long next = consumer.getSequence() + 1;
+        long available;
+        while ((available = consumer.waitFor(next)) >= 0) {
+            updateMaxLag(available - next + 1);
+            for (; next <= available; next++) {
+                final DispatchEvent event = ringBuffer.get(next);
+                try {
+                    dispatch(event, (int) next & (views.length - 1));
+                } catch (final RuntimeException e) {
+                    LOGGER.log(Level.SEVERE, "Listener dispatch has failed!", e);
+                }
+            }
+            dispatchedEvents.addAndGet(available - consumer.getSequence());
+            consumer.release(available);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void dispatch(final DispatchEvent event, final int slot) {
+        if (!event.isDataEvent()) {
+            /* the entity events belong to the monitor listeners */
+            if (serialDataListener != null) {
+                return;
+            }
+            final EntityStatus status = event.status;
+            switch (event.type) {
+                case DispatchEvent.ENTITY_INITIALIZED:
+                    status.onSerialEntityInitialized(event.entity);
+                    break;
+                case DispatchEvent.ENTITY_TERMINATED:
+                    status.onSerialEntityTerminated(event.entity);
+                    break;
+                case DispatchEvent.ENTITY_UPDATED:
+                    status.onUpdate(event.entity);
+                    break;
+                default:
+                    status.onExceptionThrown(event.cause);
+                    break;
+            }
+            return;
+        }
+        final SerialDataListener listener = serialDataListener != null ? serialDataListener
+                : serialMonitor.getSerialDataListener();
+        if (listener == null) {
+            return;
+        }
+        final ByteBuffer view = getView(event, slot);
+        switch (event.type) {
+            case DispatchEvent.DATA_RECEIVED:
+                listener.onDataReceived(view, event.timestamp);
+                break;
+            case DispatchEvent.DATA_TRANSMITTED:
+                listener.onDataTransmitted(view);
+                break;
+            default:
+                listener.onFrameReceived(view, event.timestamp);
+                break;
+        }
+    }
+
+    private ByteBuffer getView(final DispatchEvent event, final int slot) {
+        if (viewedData[slot] != event.data) {
+            viewedData[slot] = event.data;
+            views[slot] = ByteBuffer.wrap(event.data).asReadOnlyBuffer();
+        }
+        final ByteBuffer view = views[slot];
+        view.clear().limit(event.length);
+        return view;
+    }
+
+    private void updateMaxLag(final long lag) {
+        long current;
+        while (lag > (current = maxLag.get()) && !maxLag.compareAndSet(current, lag)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Retrieves the number of the published events not yet delivered by this consumer.
+     *
+     * @return the current lag of this consumer behind the monitor thread
+     */
+    public long getLag() {
+        return consumer.getLag();
+    }
+
+    /**
+     * Retrieves the largest number of the published events this consumer has found pending at once.
+     *
+     * @return the maximum lag of this consumer behind the monitor thread
+     */
+    public long getMaxLag() {
+        return maxLag.get();
+    }
+
+    /**
+     * Retrieves the number of the events delivered by this consumer.
+     *
+     * @return the number of the dispatched events
+     */
+    public long getDispatchedEvents() {
+        return dispatchedEvents.get();
+    }
+
+    /**
+     * Retrieves the listener of this consumer.
+     *
+     * @return the data listener of this consumer, or null if this consumer delivers to the monitor listeners
+     */
+    public SerialDataListener getSerialDataListener() {
+        return serialDataListener;
+    }
+
+    /**
+     * Retrieves the thread of this consumer.
+     *
+     * @return the consumer thread, or null if the dispatcher is not started
+     */
+    public Thread getThread() {
+        return thread;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.serial.dispatch;
+
+import com.serial4j.core.serial.entity.EntityStatus;
+import com.serial4j.core.serial.entity.SerialMonitorEntity;
+import java.nio.ByteBuffer;
+
+/**
+ * Represents a preallocated slot of the dispatch ring, the slot data is copied in place
+ * by the monitor thread, and reused once released by all the consumers.
+ *
+ * @author pavl_g
+ */
+final class DispatchEvent {
+
+    static final int DATA_RECEIVED = 0;
+    static final int DATA_TRANSMITTED = 1;
+    static final int FRAME_RECEIVED = 2;
+    static final int ENTITY_INITIALIZED = 3;
+    static final int ENTITY_TERMINATED = 4;
+    static final int ENTITY_UPDATED = 5;
+    static final int EXCEPTION_THROWN = 6;
+
+    private static final int INITIAL_DATA_CAPACITY = 256;
+
+    int type;
+    byte[] data = new byte[INITIAL_DATA_CAPACITY];
+    int length;
+    long timestamp;
+    EntityStatus<?> status;
+    SerialMonitorEntity entity;
+    Exception cause;
+
+    /**
+     * Copies the remaining bytes of a buffer into this slot without changing the buffer position.
+     *
+     * @param buffer the buffer to copy
+     */
+    void setData(final ByteBuffer buffer) {
+        length = buffer.remaining();
+        if (length > data.length) {
+            data = new byte[Integer.highestOneBit(length - 1) << 1];
+        }
+        buffer.get(buffer.position(), data, 0, length);
+    }
+
+    void setStatus(final EntityStatus<?> status, final SerialMonitorEntity entity, final Exception cause) {
+        this.status = status;
+        this.entity = entity;
+        this.cause = cause;
+        this.length = 0;
+    }
+
+    boolean isDataEvent() {
+        return type <= FRAME_RECEIVED;
+    }
+}
@@ -0,0 +1,404 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.serial.dispatch;
+
+import com.serial4j.core.serial.entity.EntityStatus;
+import com.serial4j.core.serial.entity.SerialMonitorEntity;
+import com.serial4j.core.serial.monitor.SerialDataListener;
+import com.serial4j.core.serial.monitor.SerialMonitor;
+import com.serial4j.util.concurrent.RingBuffer;
+import com.serial4j.util.concurrent.WaitStrategy;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dispatches the serial monitor listeners off the monitor thread.
+ * <p>
+ * The monitor thread copies the received chunks, the transmitted chunks, the frames, and the
+ * entity events into the preallocated slots of a {@link RingBuffer}, and each {@link DispatchConsumer}
+ * thread delivers them in order to its listener, so that a slow listener never stalls the port I/O,
+ * and the steady-state dispatch allocates nothing.
+ * </p>
+ * <p>
+ * The publishing operations belong to the monitor thread, use
+ * {@link SerialMonitor#setListenerDispatcher(ListenerDispatcher)} to install a dispatcher before starting the monitor.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class ListenerDispatcher {
+
+    /**
+     * The default number of the ring slots.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * The default rate of the {@link DispatchOverflowPolicy#SAMPLE} policy.
+     */
+    public static final int DEFAULT_SAMPLE_RATE = 8;
+
+    private final RingBuffer<DispatchEvent> ringBuffer;
+    private final WaitStrategy waitStrategy;
+    private final DispatchOverflowPolicy overflowPolicy;
+    private final List<DispatchConsumer> consumers = new ArrayList<>();
+    private final AtomicLong publishedEvents = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong sampledEvents = new AtomicLong();
+    private volatile int sampleRate = DEFAULT_SAMPLE_RATE;
+    private volatile boolean started;
+    private int sampleCounter;
+
+    /**
+     * Instantiates a dispatcher with {@link ListenerDispatcher#DEFAULT_CAPACITY} slots, blocking consumers,
+     * and the {@link DispatchOverflowPolicy#BLOCK} policy.
+     */
+    public ListenerDispatcher() {
+        this(DEFAULT_CAPACITY, WaitStrategy.BLOCKING, DispatchOverflowPolicy.BLOCK);
+    }
+
+    /**
+     * Instantiates a dispatcher, and preallocates its ring.
+     *
+     * @param capacity       the number of the ring slots, rounded up to the next power of two
+     * @param waitStrategy   the wait strategy of the consumer threads
+     * @param overflowPolicy the action taken when the consumers fall behind
+     */
+    public ListenerDispatcher(final int capacity, final WaitStrategy waitStrategy,
+                              final DispatchOverflowPolicy overflowPolicy) {
+        this.ringBuffer = new RingBuffer<>(DispatchEvent::new, capacity, waitStrategy);
+        this.waitStrategy = waitStrategy;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Adds a consumer thread delivering the data events to a listener, the consumers
+     * are added before starting the dispatcher.
+     *
+     * @param serialDataListener the listener of the new consumer
+     * @return the new consumer to query its lag metrics
+     */
+    public DispatchConsumer addConsumer(final SerialDataListener serialDataListener) {
+        if (serialDataListener == null) {
+            throw new IllegalArgumentException("Null listener!");
+        }
+        return newConsumer(serialDataListener);
+    }
+
+    private synchronized DispatchConsumer newConsumer(final SerialDataListener serialDataListener) {
+        if (started) {
+            throw new IllegalStateException("Listener dispatcher has already started!");
+        }
+        final DispatchConsumer consumer = new DispatchConsumer(ringBuffer, serialDataListener);
+        consumers.add(consumer);
+        return consumer;
+    }
+
+    /**
+     * Starts the consumer threads, and the consumer of the monitor listeners, this has no effect
+     * if the dispatcher has already started.
+     *
+     * @param serialMonitor the monitor publishing to this dispatcher
+     */
+    public synchronized void start(final SerialMonitor serialMonitor) {
+        if (started) {
+            return;
+        }
+        newConsumer(null);
+        started = true;
+        for (int i = 0; i < consumers.size(); i++) {
+            consumers.get(i).start(serialMonitor, serialMonitor.getMonitorName() + "-dispatch-" + i);
+        }
+    }
+
+    /**
+     * Stops the consumer threads once they have delivered the published events, the
+     * publishing operations have no effect afterwards.
+     */
+    public void shutdown() {
+        ringBuffer.alert();
+    }
+
+    /**
+     * Waits for the consumer threads to stop after a {@link ListenerDispatcher#shutdown()}.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the unit of the timeout
+     * @return true if all the consumers have stopped, false if the timeout has elapsed.
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (final DispatchConsumer consumer : getConsumers()) {
+            final Thread thread = consumer.getThread();
+            if (thread == null) {
+                continue;
+            }
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return !thread.isAlive();
+            }
+            TimeUnit.NANOSECONDS.timedJoin(thread, remaining);
+            if (thread.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Publishes a received chunk to the consumers.
+     *
+     * @param chunk     the received chunk, its remaining bytes are copied without changing its position
+     * @param timestamp the monotonic time of reception in nanoseconds
+     */
+    public void publishDataReceived(final ByteBuffer chunk, final long timestamp) {
+        publishData(DispatchEvent.DATA_RECEIVED, chunk, timestamp);
+    }
+
+    /**
+     * Publishes a transmitted chunk to the consumers.
+     *
+     * @param chunk the transmitted chunk, its remaining bytes are copied without changing its position
+     */
+    public void publishDataTransmitted(final ByteBuffer chunk) {
+        publishData(DispatchEvent.DATA_TRANSMITTED, chunk, System.nanoTime());
+    }
+
+    /**
+     * Publishes a complete frame to the consumers.
+     *
+     * @param frame     the frame, its remaining bytes are copied without changing its position
+     * @param timestamp the monotonic time of the frame completion in nanoseconds
+     */
+    public void publishFrameReceived(final ByteBuffer frame, final long timestamp) {
+        publishData(DispatchEvent.FRAME_RECEIVED, frame, timestamp);
+    }
+
+    /**
+     * Publishes the initialization of an entity to its status listener.
+     *
+     * @param status the entity status listener
+     * @param entity the initialized entity
+     */
+    public void publishEntityInitialized(final EntityStatus<?> status, final SerialMonitorEntity entity) {
+        publishStatus(DispatchEvent.ENTITY_INITIALIZED, status, entity, null);
+    }
+
+    /**
+     * Publishes the termination of an entity to its status listener.
+     *
+     * @param status the entity status listener
+     * @param entity the terminated entity
+     */
+    public void publishEntityTerminated(final EntityStatus<?> status, final SerialMonitorEntity entity) {
+        publishStatus(DispatchEvent.ENTITY_TERMINATED, status, entity, null);
+    }
+
+    /**
+     * Publishes an update of an entity to its status listener, the updates follow the overflow policy.
+     *
+     * @param status the entity status listener
+     * @param entity the updated entity
+     */
+    public void publishEntityUpdated(final EntityStatus<?> status, final SerialMonitorEntity entity) {
+        publishStatus(DispatchEvent.ENTITY_UPDATED, status, entity, null);
+    }
+
+    /**
+     * Publishes an exception thrown by an entity to its status listener.
+     *
+     * @param status the entity status listener
+     * @param entity the entity that has thrown
+     * @param cause  the thrown exception
+     */
+    public void publishExceptionThrown(final EntityStatus<?> status, final SerialMonitorEntity entity,
+                                       final Exception cause) {
+        publishStatus(DispatchEvent.EXCEPTION_THROWN, status, entity, cause);
+    }
+
+    private void publishData(final int type, final ByteBuffer buffer, final long timestamp) {
+        final long sequence = claim(true);
+        if (sequence < 0) {
+            return;
+        }
+        final DispatchEvent event = ringBuffer.get(sequence);
+        event.type = type;
+        event.timestamp = timestamp;
+        event.setStatus(null, null, null);
+        event.setData(buffer);
+        publish(sequence);
+    }
+
+    private void publishStatus(final int type, final EntityStatus<?> status, final SerialMonitorEntity entity,
+                               final Exception cause) {
+        /* the lifecycle events are never dropped */
+        final long sequence = claim(type == DispatchEvent.ENTITY_UPDATED);
+        if (sequence < 0) {
+            return;
+        }
+        final DispatchEvent event = ringBuffer.get(sequence);
+        event.type = type;
+        event.timestamp = System.nanoTime();
+        event.setStatus(status, entity, cause);
+        publish(sequence);
+    }
+
+    /**
+     * Claims a slot according to the overflow policy.
+     *
+     * @param droppable true if the event is subject to the overflow policy, false if it has to wait for a slot
+     * @return the claimed sequence, or (-1) if the event is dropped
+     */
+    private long claim(final boolean droppable) {
+        if (ringBuffer.isAlerted()) {
+            return -1;
+        }
+        if (!droppable || overflowPolicy == DispatchOverflowPolicy.BLOCK) {
+            return ringBuffer.next();
+        }
+        if (overflowPolicy == DispatchOverflowPolicy.SAMPLE
+                && ringBuffer.getOccupancy() >= ringBuffer.getCapacity() / 2
+                && sampleCounter++ % sampleRate != 0) {
+            sampledEvents.incrementAndGet();
+            return -1;
+        }
+        final long sequence = ringBuffer.tryNext();
+        if (sequence < 0) {
+            droppedEvents.incrementAndGet();
+        }
+        return sequence;
+    }
+
+    private void publish(final long sequence) {
+        ringBuffer.publish(sequence);
+        publishedEvents.incrementAndGet();
+    }
+
+    /**
+     * Retrieves the consumers of this dispatcher, including the consumer of the monitor listeners once started.
+     *
+     * @return an unmodifiable snapshot of the consumers
+     */
+    public synchronized List<DispatchConsumer> getConsumers() {
+        return Collections.unmodifiableList(new ArrayList<>(consumers));
+    }
+
+    /**
+     * Retrieves the largest lag of the consumers.
+     *
+     * @return the number of the published events not yet delivered by the slowest consumer
+     */
+    public long getOccupancy() {
+        return ringBuffer.getOccupancy();
+    }
+
+    /**
+     * Retrieves the number of the ring slots.
+     *
+     * @return the capacity of this dispatcher
+     */
+    public int getCapacity() {
+        return ringBuffer.getCapacity();
+    }
+
+    /**
+     * Retrieves the number of the published events.
+     *
+     * @return the number of the events published to the consumers
+     */
+    public long getPublishedEvents() {
+        return publishedEvents.get();
+    }
+
+    /**
+     * Retrieves the number of the events dropped on a full ring.
+     *
+     * @return the number of the dropped events
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Retrieves the number of the events skipped by the {@link DispatchOverflowPolicy#SAMPLE} policy.
+     *
+     * @return the number of the skipped events while the ring is half-full
+     */
+    public long getSampledEvents() {
+        return sampledEvents.get();
+    }
+
+    /**
+     * Retrieves the sample rate of the {@link DispatchOverflowPolicy#SAMPLE} policy.
+     *
+     * @return one out of this number of data events is published while the ring is half-full
+     */
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Adjusts the sample rate of the {@link DispatchOverflowPolicy#SAMPLE} policy.
+     *
+     * @param sampleRate one out of this number of data events is published while the ring is half-full
+     */
+    public void setSampleRate(final int sampleRate) {
+        if (sampleRate <= 0) {
+            throw new IllegalArgumentException("Invalid sample rate " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Retrieves the wait strategy of the consumer threads.
+     *
+     * @return the wait strategy of the consumers
+     */
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    /**
+     * Retrieves the overflow policy of this dispatcher.
+     *
+     * @return the action taken when the consumers fall behind
+     */
+    public DispatchOverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+}
@@ -32,6 +32,9 @@
 package com.serial4j.core.serial.entity;
 
 import com.serial4j.core.terminal.TerminalDevice;
+import com.serial4j.core.serial.capture.CaptureDirection;
+import com.serial4j.core.serial.capture.CaptureJournal;
+import com.serial4j.core.serial.dispatch.ListenerDispatcher;
 import com.serial4j.core.serial.monitor.SerialDataListener;
 import com.serial4j.core.serial.monitor.SerialMonitor;
 import java.util.concurrent.locks.ReentrantLock;
@@ -39,6 +42,7 @@ import java.util.logging.Logger;
 import java.util.logging.Level;
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * Represents the base implementation for serial monitor Read and Write entities.
@@ -97,15 +101,18 @@ public abstract class SerialMonitorEntity implements Runnable {
      * Terminates this entity by closing the entity stream and the serial port.
      */
     protected void terminate() {
-        try {
-            getEntityStream().close();
+        synchronized (SerialMonitorEntity.class) {
+            /* the entity streams share the same port, which could be closed by the other entity */
+            if (getTerminalDevice().getSerialPort().isPortOpened()) {
+                try {
+                    getEntityStream().close();
+                } catch (IOException e) {
+                    Logger.getLogger(SerialMonitorEntity.class.getName())
+                            .log(Level.SEVERE, "Termination has failed!", e);
+                }
+            }
             hasLoggedMonitor = false;
             entityLogger.log(Level.WARNING, "Terminated data monitoring for " + entityName + " thread " + Thread.currentThread());
-        } catch (IOException e) {
-            Logger.getLogger(SerialMonitorEntity.class.getName())
-                    .log(Level.SEVERE, "Termination has failed!", e);
-        }
-        synchronized (SerialMonitorEntity.class) {
             if (getTerminalDevice().getSerialPort().isPortOpened()) {
                 try {
                     getTerminalDevice().closePort();
@@ -181,6 +188,137 @@ public abstract class SerialMonitorEntity implements Runnable {
         return getSerialMonitor().getSerialDataListener();
     }
 
+    /**
+     * Tests whether the data events have a destination, either the serial data listener,
+     * the consumers of the listener dispatcher, or the capture journal.
+     *
+     * @return true if the data events are dispatched, false otherwise.
+     */
+    protected boolean hasDataListener() {
+        return getSerialMonitor().hasDataListener();
+    }
+
+    /**
+     * Captures a received chunk, and dispatches it to the serial data listener, or publishes it to the listener dispatcher.
+     *
+     * @param chunk     the received chunk
+     * @param timestamp the monotonic time of reception in nanoseconds
+     */
+    protected void dispatchDataReceived(final ByteBuffer chunk, final long timestamp) {
+        final CaptureJournal captureJournal = getSerialMonitor().getCaptureJournal();
+        if (captureJournal != null) {
+            captureJournal.append(CaptureDirection.RECEIVED, chunk, timestamp);
+        }
+        final ListenerDispatcher dispatcher = getSerialMonitor().getListenerDispatcher();
+        if (dispatcher != null) {
+            dispatcher.publishDataReceived(chunk, timestamp);
+        } else if (getSerialDataListener() != null) {
+            getSerialDataListener().onDataReceived(chunk.asReadOnlyBuffer(), timestamp);
+        }
+    }
+
+    /**
+     * Captures a transmitted chunk, and dispatches it to the serial data listener, or publishes it to the listener dispatcher.
+     *
+     * @param chunk the transmitted chunk
+     */
+    protected void dispatchDataTransmitted(final ByteBuffer chunk) {
+        final CaptureJournal captureJournal = getSerialMonitor().getCaptureJournal();
+        if (captureJournal != null) {
+            captureJournal.append(CaptureDirection.TRANSMITTED, chunk, System.nanoTime());
+        }
+        final ListenerDispatcher dispatcher = getSerialMonitor().getListenerDispatcher();
+        if (dispatcher != null) {
+            dispatcher.publishDataTransmitted(chunk);
+        } else if (getSerialDataListener() != null) {
+            getSerialDataListener().onDataTransmitted(chunk);
+        }
+    }
+
+    /**
+     * Dispatches a complete frame to the serial data listener, or publishes it to the listener dispatcher.
+     *
+     * @param frame     the complete frame
+     * @param timestamp the monotonic time of the frame completion in nanoseconds
+     */
+    protected void dispatchFrameReceived(final ByteBuffer frame, final long timestamp) {
+        final ListenerDispatcher dispatcher = getSerialMonitor().getListenerDispatcher();
+        if (dispatcher != null) {
+            dispatcher.publishFrameReceived(frame, timestamp);
+        } else if (getSerialDataListener() != null) {
+            getSerialDataListener().onFrameReceived(frame, timestamp);
+        }
+    }
+
+    /**
+     * Dispatches the initialization of this entity to the entity status listener.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected void dispatchEntityInitialized() {
+        final EntityStatus status = getSerialEntityStatusListener();
+        if (status == null) {
+            return;
+        }
+        final ListenerDispatcher dispatcher = getSerialMonitor().getListenerDispatcher();
+        if (dispatcher != null) {
+            dispatcher.publishEntityInitialized(status, this);
+        } else {
+            status.onSerialEntityInitialized(this);
+        }
+    }
+
+    /**
+     * Dispatches the termination of this entity to the entity status listener.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected void dispatchEntityTerminated() {
+        final EntityStatus status = getSerialEntityStatusListener();
+        if (status == null) {
+            return;
+        }
+        final ListenerDispatcher dispatcher = getSerialMonitor().getListenerDispatcher();
+        if (dispatcher != null) {
+            dispatcher.publishEntityTerminated(status, this);
+        } else {
+            status.onSerialEntityTerminated(this);
+        }
+    }
+
+    /**
+     * Dispatches an update of this entity to the entity status listener.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected void dispatchEntityUpdated() {
+        final EntityStatus status = getSerialEntityStatusListener();
+        if (status == null) {
+            return;
+        }
+        final ListenerDispatcher dispatcher = getSerialMonitor().getListenerDispatcher();
+        if (dispatcher != null) {
+            dispatcher.publishEntityUpdated(status, this);
+        } else {
+            status.onUpdate(this);
+        }
+    }
+
+    /**
+     * Dispatches an exception thrown by this entity to the entity status listener.
+     *
+     * @param e the thrown exception
+     */
+    protected void dispatchExceptionThrown(final Exception e) {
+        final EntityStatus<? extends SerialMonitorEntity> status = getSerialEntityStatusListener();
+        if (status == null) {
+            return;
+        }
+        final ListenerDispatcher dispatcher = getSerialMonitor().getListenerDispatcher();
+        if (dispatcher != null) {
+            dispatcher.publishExceptionThrown(status, this, e);
+        } else {
+            status.onExceptionThrown(e);
+        }
+    }
+
     /**
      * Tests whether the serial monitor holding this entity terminated.
      *
@@ -0,0 +1,178 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.serial.entity.impl;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Reports the achieved write coalescing of a {@link SerialWriteEntity}, the flushed batches
+ * are counted in power-of-two buckets by their number of capsules, i.e., the bucket (n)
+ * counts the batches of [2^n, 2^(n+1)) capsules.
+ *
+ * <p>
+ * The statistics are recorded by the monitor thread, and could be read from any thread.
+ * </p>
+ *
+ * @author pavl_g.
+ */
+public final class CoalescingStatistics {
+
+    /**
+     * The number of the batch size buckets, the last bucket counts the full batches.
+     */
+    public static final int BUCKETS = 7;
+
+    private static final int FLUSHES = BUCKETS;
+    private static final int CAPSULES = BUCKETS + 1;
+    private static final int BYTES = BUCKETS + 2;
+    private static final int SIZE_FLUSHES = BUCKETS + 3;
+    private static final int DEADLINE_FLUSHES = BUCKETS + 4;
+
+    private final AtomicLongArray counters = new AtomicLongArray(BUCKETS + 5);
+
+    CoalescingStatistics() {
+    }
+
+    /**
+     * Records a flushed batch.
+     *
+     * @param capsules the number of the capsules in the batch
+     * @param bytes    the number of the bytes in the batch
+     * @param reason   the flush reason, either {@link CoalescingStatistics#SIZE_FLUSHES},
+     *                 {@link CoalescingStatistics#DEADLINE_FLUSHES}, or (-1) for a forced flush
+     */
+    private void record(final int capsules, final int bytes, final int reason) {
+        final int bucket = Math.min(BUCKETS - 1, 31 - Integer.numberOfLeadingZeros(capsules));
+        counters.incrementAndGet(bucket);
+        counters.incrementAndGet(FLUSHES);
+        counters.addAndGet(CAPSULES, capsules);
+        counters.addAndGet(BYTES, bytes);
+        if (reason >= 0) {
+            counters.incrementAndGet(reason);
+        }
+    }
+
+    void recordSizeFlush(final int capsules, final int bytes) {
+        record(capsules, bytes, SIZE_FLUSHES);
+    }
+
+    void recordDeadlineFlush(final int capsules, final int bytes) {
+        record(capsules, bytes, DEADLINE_FLUSHES);
+    }
+
+    void recordForcedFlush(final int capsules, final int bytes) {
+        record(capsules, bytes, -1);
+    }
+
+    /**
+     * Retrieves the number of the batches of a bucket.
+     *
+     * @param bucket the bucket index, from 0 to {@link CoalescingStatistics#BUCKETS} - 1
+     * @return the number of the flushed batches of [2^bucket, 2^(bucket+1)) capsules
+     */
+    public long getBatches(final int bucket) {
+        if (bucket < 0 || bucket >= BUCKETS) {
+            throw new IndexOutOfBoundsException("Bucket " + bucket + " is out of range!");
+        }
+        return counters.get(bucket);
+    }
+
+    /**
+     * Retrieves the total number of the flushed batches.
+     *
+     * @return the number of the gathering writes started by the coalescing stage
+     */
+    public long getFlushes() {
+        return counters.get(FLUSHES);
+    }
+
+    /**
+     * Retrieves the total number of the coalesced capsules.
+     *
+     * @return the number of the capsules written in batches
+     */
+    public long getCoalescedCapsules() {
+        return counters.get(CAPSULES);
+    }
+
+    /**
+     * Retrieves the total number of the coalesced bytes.
+     *
+     * @return the number of the bytes written in batches
+     */
+    public long getCoalescedBytes() {
+        return counters.get(BYTES);
+    }
+
+    /**
+     * Retrieves the number of the batches flushed by reaching the size threshold, or the maximum capsules.
+     *
+     * @return the number of the size flushes
+     */
+    public long getSizeFlushes() {
+        return counters.get(SIZE_FLUSHES);
+    }
+
+    /**
+     * Retrieves the number of the batches flushed by reaching the maximum delay.
+     *
+     * @return the number of the deadline flushes
+     */
+    public long getDeadlineFlushes() {
+        return counters.get(DEADLINE_FLUSHES);
+    }
+
+    /**
+     * Retrieves the mean number of the capsules per batch.
+     *
+     * @return the mean batch size, or (0) if no batches are flushed
+     */
+    public double getMeanBatchSize() {
+        final long flushes = getFlushes();
+        return flushes == 0 ? 0 : (double) getCoalescedCapsules() / flushes;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("CoalescingStatistics[flushes=").append(getFlushes())
+                .append(", size=").append(getSizeFlushes())
+                .append(", deadline=").append(getDeadlineFlushes())
+                .append(", capsules=").append(getCoalescedCapsules())
+                .append(", bytes=").append(getCoalescedBytes())
+                .append(", batches={");
+        for (int i = 0; i < BUCKETS; i++) {
+            builder.append(i == 0 ? "" : ", ").append(1 << i).append(i == BUCKETS - 1 ? "+" : "").append(": ").append(getBatches(i));
+        }
+        return builder.append("}]").toString();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.serial.entity.impl;
+
+import com.serial4j.core.serial.monitor.WritePriority;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Reports the write scheduling of a {@link SerialWriteEntity} per {@link WritePriority} lane,
+ * a deadline miss is either an expired capsule that is dropped, or a capsule that is written late.
+ *
+ * <p>
+ * The statistics are recorded by the monitor thread, and could be read from any thread.
+ * </p>
+ *
+ * @author pavl_g.
+ */
+public final class SchedulingStatistics {
+
+    private static final int LANES = WritePriority.values().length;
+    private static final int WRITTEN = 0;
+    private static final int LATE = LANES;
+    private static final int EXPIRED = LANES * 2;
+
+    private final AtomicLongArray counters = new AtomicLongArray(LANES * 3);
+    private final AtomicLong preemptions = new AtomicLong();
+
+    SchedulingStatistics() {
+    }
+
+    void recordWritten(final WritePriority priority, final boolean late) {
+        counters.incrementAndGet(WRITTEN + priority.ordinal());
+        if (late) {
+            counters.incrementAndGet(LATE + priority.ordinal());
+        }
+    }
+
+    void recordExpired(final WritePriority priority) {
+        counters.incrementAndGet(EXPIRED + priority.ordinal());
+    }
+
+    void recordPreemption() {
+        preemptions.incrementAndGet();
+    }
+
+    /**
+     * Retrieves the number of the written capsules of a lane.
+     *
+     * @param priority the write lane
+     * @return the number of the capsules written completely
+     */
+    public long getWrittenCapsules(final WritePriority priority) {
+        return counters.get(WRITTEN + priority.ordinal());
+    }
+
+    /**
+     * Retrieves the number of the capsules of a lane that are written after their deadline.
+     *
+     * @param priority the write lane
+     * @return the number of the late capsules
+     */
+    public long getLateCapsules(final WritePriority priority) {
+        return counters.get(LATE + priority.ordinal());
+    }
+
+    /**
+     * Retrieves the number of the expired capsules of a lane that are dropped before being written.
+     *
+     * @param priority the write lane
+     * @return the number of the expired capsules
+     */
+    public long getExpiredCapsules(final WritePriority priority) {
+        return counters.get(EXPIRED + priority.ordinal());
+    }
+
+    /**
+     * Retrieves the number of the deadline misses of a lane.
+     *
+     * @param priority the write lane
+     * @return the number of the late and the expired capsules
+     */
+    public long getDeadlineMisses(final WritePriority priority) {
+        return getLateCapsules(priority) + getExpiredCapsules(priority);
+    }
+
+    /**
+     * Retrieves the number of the times a payload of the lower lanes is pre-empted by an urgent capsule.
+     *
+     * @return the number of the pre-emptions
+     */
+    public long getPreemptions() {
+        return preemptions.get();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("SchedulingStatistics[");
+        for (final WritePriority priority : WritePriority.values()) {
+            builder.append(priority).append("={written=").append(getWrittenCapsules(priority))
+                    .append(", late=").append(getLateCapsules(priority))
+                    .append(", expired=").append(getExpiredCapsules(priority)).append("}, ");
+        }
+        return builder.append("preemptions=").append(getPreemptions()).append("]").toString();
+    }
+}
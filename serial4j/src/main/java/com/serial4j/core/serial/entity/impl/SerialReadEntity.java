@@ -34,16 +34,25 @@ package com.serial4j.core.serial.entity.impl;
 
 import com.serial4j.core.serial.entity.EntityStatus;
 import com.serial4j.core.serial.entity.SerialMonitorEntity;
+import com.serial4j.core.serial.frame.FrameDecoder;
+import com.serial4j.core.serial.frame.FrameListener;
+import com.serial4j.core.serial.monitor.SerialDataListener;
 import com.serial4j.core.serial.monitor.SerialMonitor;
 import com.serial4j.core.serial.monitor.SerialMonitorException;
 import com.serial4j.core.terminal.FilePermissions;
-import com.serial4j.core.terminal.NativeBufferInputStream;
+import com.serial4j.core.terminal.FullDuplexTerminalDevice;
 import com.serial4j.core.terminal.control.BaudRate;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Represents a Read entity for the {@link SerialMonitor}.
  * <p>
+ * The received chunks are fed to the {@link SerialMonitor#getFrameDecoder()}, which dispatches
+ * the complete frames at {@link SerialDataListener#onFrameReceived(ByteBuffer, long)}.
+ * </p>
+ * <p>
  * Use {@link SerialMonitor#startDataMonitoring(String, BaudRate, FilePermissions)} to start this entity.
  * </p>
  *
@@ -51,7 +60,14 @@ import java.io.InputStream;
  */
 public class SerialReadEntity extends SerialMonitorEntity {
 
-    private StringBuffer stringBuffer = new StringBuffer();
+    /**
+     * The maximum number of the chunks read on a single update, so that the writes are not starved.
+     */
+    private static final int MAX_CHUNKS_PER_UPDATE = 16;
+
+    private final FrameListener frameListener = this::dispatchFrameReceived;
+    private int numberOfReadBytes;
+    private boolean frameFlushScheduled;
 
     /**
      * Defines a read entity instance to read serial data from UART.
@@ -75,51 +91,41 @@ public class SerialReadEntity extends SerialMonitorEntity {
         /* sanity check [terminate] flag */
         if (isTerminate()) {
             terminate();
-            if (getSerialEntityStatusListener() != null) {
-                getSerialEntityStatusListener().onSerialEntityTerminated(this);
-            }
+            dispatchEntityTerminated();
             return;
         }
 
         if (!isSerialEntityInitialized()) {
-            if (getSerialEntityStatusListener() != null) {
-                getSerialEntityStatusListener().onSerialEntityInitialized(this);
-            }
+            dispatchEntityInitialized();
             setSerialEntityInitialized(true);
         }
 
-        if (getSerialEntityStatusListener() != null) {
-            getSerialEntityStatusListener().onUpdate(this);
-        }
+        dispatchEntityUpdated();
 
-        final NativeBufferInputStream nbis = (NativeBufferInputStream) getEntityStream();
+        final FullDuplexTerminalDevice fullDuplexTerminalDevice = getSerialMonitor().getFullDuplexTerminalDevice();
+        numberOfReadBytes = 0;
 
-        /* execute serial data tasks */
-        if (getSerialDataListener() != null) {
+        /* execute serial data tasks, reads the available data in chunks without blocking */
+        if (hasDataListener()) {
+            /* the data frames are assembled by the framing stage, e.g., separated by [\n\r] the return carriage/newline */
+            final FrameDecoder frameDecoder = isProcessLinefeedCarriageReturn() ? getSerialMonitor().getFrameDecoder() : null;
             try {
-                while (getEntityStream().read() > 0) {
-                    /* send characters serially */
-                    getSerialDataListener().onDataReceived(nbis.getBuffer()[0]);
-
-                    /* get a string buffer from a data frame */
-                    stringBuffer.append(nbis.getBuffer());
-
-                    /* send data frames separated by [\n\r] the return carriage/newline */
-                    if (!isProcessLinefeedCarriageReturn()) {
-                        continue;
-                    }
-
-                    /* LF/CR */
-                    if (stringBuffer.toString().endsWith("\n\r")) {
-                        getSerialDataListener().onDataReceived(stringBuffer.toString());
-                        stringBuffer = new StringBuffer();
-                        break;
+                ByteBuffer chunk;
+                for (int chunks = 0; chunks < MAX_CHUNKS_PER_UPDATE
+                        && (chunk = fullDuplexTerminalDevice.read()).hasRemaining(); chunks++) {
+                    final long timestamp = System.nanoTime();
+                    numberOfReadBytes += chunk.remaining();
+                    /* send the chunk at once, the framing stage consumes the chunk afterwards */
+                    dispatchDataReceived(chunk, timestamp);
+                    if (frameDecoder != null) {
+                        frameDecoder.decode(chunk, timestamp, frameListener);
                     }
                 }
-            } catch (Exception e) {
-                if (getSerialEntityStatusListener() != null) {
-                    getSerialEntityStatusListener().onExceptionThrown(e);
+                if (frameDecoder != null) {
+                    flushFrames(frameDecoder);
                 }
+            } catch (Exception e) {
+                dispatchExceptionThrown(e);
             }
         }
 
@@ -128,6 +134,31 @@ public class SerialReadEntity extends SerialMonitorEntity {
         }
     }
 
+    /**
+     * Delivers the frames completed by the time, and schedules the next due flush on the monitor thread.
+     *
+     * @param frameDecoder the framing stage
+     */
+    private void flushFrames(final FrameDecoder frameDecoder) {
+        final long delay = frameDecoder.flush(System.nanoTime(), frameListener);
+        if (delay >= 0 && !frameFlushScheduled) {
+            frameFlushScheduled = true;
+            getSerialMonitor().schedule(() -> {
+                frameFlushScheduled = false;
+                getSerialMonitor().wakeup();
+            }, delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Retrieves the number of bytes read on the last update.
+     *
+     * @return the number of the read bytes, 0 if there was no data available on the last update
+     */
+    public int getNumberOfReadBytes() {
+        return numberOfReadBytes;
+    }
+
     @Override
     protected InputStream getEntityStream() {
         return getSerialMonitor().getReadEntityStream();
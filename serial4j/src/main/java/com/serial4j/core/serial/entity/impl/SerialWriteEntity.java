@@ -33,17 +33,45 @@ package com.serial4j.core.serial.entity.impl;
 
 import com.serial4j.core.serial.entity.EntityStatus;
 import com.serial4j.core.serial.entity.SerialMonitorEntity;
+import com.serial4j.core.serial.monitor.OverflowPolicy;
 import com.serial4j.core.serial.monitor.SerialMonitor;
 import com.serial4j.core.serial.monitor.SerialMonitorException;
+import com.serial4j.core.serial.monitor.WritePriority;
 import com.serial4j.core.terminal.FilePermissions;
 import com.serial4j.core.terminal.control.BaudRate;
-import java.io.IOException;
 import java.io.OutputStream;
+import com.serial4j.util.concurrent.LockFreeBoundedQueue;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Represents a serial write data entity for the {@link SerialMonitor}.
  * <p>
+ * The capsules are queued on a bounded lock-free queue by any number of producer threads, and
+ * they are written and dropped by the monitor thread in order, the behavior of a full queue is
+ * defined by the {@link SerialMonitor#getOverflowPolicy()}.
+ * </p>
+ * <p>
+ * Each {@link WritePriority} lane has its own queue, and the lanes are drained in order, the expired
+ * capsules of the lower lanes are dropped, and their large payloads are pre-empted by the urgent
+ * capsules if {@link SerialMonitor#setPreemptionChunkSize(int)} is enabled,
+ * see {@link SerialWriteEntity#getSchedulingStatistics()}.
+ * </p>
+ * <p>
+ * The payload of each capsule is written in bulk, and its completion is completed once the kernel
+ * has accepted the whole payload, the capsules requiring a drain are held until the output queue
+ * of the terminal device is found empty, which is polled without blocking the monitor thread.
+ * </p>
+ * <p>
+ * If {@link SerialMonitor#setWriteCoalescing(int, long)} is enabled, the small capsules are merged into
+ * batches that are written with a single gathering write, see {@link SerialWriteEntity#getCoalescingStatistics()}.
+ * </p>
+ * <p>
  * Use {@link SerialMonitor#startDataMonitoring(String, BaudRate, FilePermissions)} to start this entity.
  * </p>
  *
@@ -51,10 +79,88 @@ import java.util.ArrayList;
  */
 public class SerialWriteEntity extends SerialMonitorEntity {
 
-    private final ArrayList<WritableCapsule> writableCapsules = new ArrayList<>();
+    /**
+     * The back-off of the producers blocked on a full queue.
+     */
+    private static final long BLOCKED_PRODUCER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * The delay between the checks of the output queue of the capsules waiting on a drain.
+     */
+    private static final long DRAIN_CHECK_INTERVAL = 1;
+
+    /**
+     * The maximum number of the capsules in a coalesced batch.
+     */
+    private static final int MAX_BATCH_CAPSULES = 64;
+
+    private static final WritePriority[] PRIORITIES = WritePriority.values();
+
+    private final LockFreeBoundedQueue<WritableCapsule>[] lanes;
+    private final AtomicLong droppedCapsules = new AtomicLong();
+    private final SchedulingStatistics schedulingStatistics = new SchedulingStatistics();
+    private final int preemptionChunkSize;
+
+    /**
+     * The partially written capsule, its remaining data is written once the port becomes writable.
+     */
+    private WritableCapsule pendingCapsule;
+    private ByteBuffer pendingData;
+
+    /**
+     * The payload pre-empted by the urgent lane, and resumed once the urgent lane is empty.
+     */
+    private WritableCapsule suspendedCapsule;
+    private ByteBuffer suspendedData;
+
+    /**
+     * Whether the pending capsule waits on the output queue to go below the pre-emption chunk size.
+     */
+    private boolean throttled;
+    private boolean throttleCheckScheduled;
+
+    /**
+     * The written capsules waiting on the output queue to drain, in the order of writing.
+     */
+    private final ArrayDeque<WritableCapsule> drainingCapsules = new ArrayDeque<>();
+    private boolean drainCheckScheduled;
+
+    /**
+     * The coalescing stage state, the batch is open until it is flushed, then it is written
+     * in order across the updates until all of its capsules are written.
+     */
+    private final int coalescingThreshold;
+    private final long coalescingDelay;
+    private final CoalescingStatistics coalescingStatistics = new CoalescingStatistics();
+    private WritableCapsule[] batchCapsules;
+    private ByteBuffer[] batchBuffers;
+    private int[] batchReportedPositions;
+    private ByteBuffer stagingBuffer;
+    private int batchSize;
+    private int batchHead;
+    private int batchBytes;
+    private long batchOpenedAt;
+    private boolean batchFlushing;
+    private boolean batchDeadlineScheduled;
+    private WritableCapsule deferredCapsule;
 
+    @SuppressWarnings({"unchecked", "rawtypes"})
     public SerialWriteEntity(final SerialMonitor serialMonitor) {
         super(serialMonitor, SerialWriteEntity.class.getName());
+        this.lanes = new LockFreeBoundedQueue[PRIORITIES.length];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new LockFreeBoundedQueue<>(serialMonitor.getWriteQueueCapacity());
+        }
+        this.preemptionChunkSize = serialMonitor.getPreemptionChunkSize();
+        this.coalescingThreshold = serialMonitor.getWriteCoalescingThreshold();
+        this.coalescingDelay = TimeUnit.MICROSECONDS.toNanos(serialMonitor.getWriteCoalescingDelay());
+        if (coalescingThreshold > 0) {
+            batchCapsules = new WritableCapsule[MAX_BATCH_CAPSULES];
+            batchBuffers = new ByteBuffer[MAX_BATCH_CAPSULES];
+            batchReportedPositions = new int[MAX_BATCH_CAPSULES];
+            /* an open batch holds less than the threshold, so the next capsule always fits */
+            stagingBuffer = ByteBuffer.allocateDirect(coalescingThreshold * 2);
+        }
     }
 
     @Override
@@ -66,10 +172,9 @@ public class SerialWriteEntity extends SerialMonitorEntity {
 
         /* sanity check [terminate] flag */
         if (isTerminate()) {
+            failCapsules(new SerialMonitorException("Serial monitor is terminated!"));
             terminate();
-            if (getSerialEntityStatusListener() != null) {
-                getSerialEntityStatusListener().onSerialEntityTerminated(this);
-            }
+            dispatchEntityTerminated();
             return;
         }
 
@@ -80,34 +185,54 @@ public class SerialWriteEntity extends SerialMonitorEntity {
 
         /* initialize and update serial entity */
         if (!isSerialEntityInitialized()) {
-            if (getSerialEntityStatusListener() != null) {
-                getSerialEntityStatusListener().onSerialEntityInitialized(this);
-            }
+            dispatchEntityInitialized();
             setSerialEntityInitialized(true);
         }
 
-        if (getSerialEntityStatusListener() != null) {
-            getSerialEntityStatusListener().onUpdate(this);
-        }
+        dispatchEntityUpdated();
 
-        /* write required data  */
-        for (WritableCapsule capsule : writableCapsules) {
-            /* skip capsules with written data */
-            if (capsule.isDataWritten()) {
-                continue;
-            }
-            /* send capsule data to the UART */
-            final String data = capsule.getData();
-            for (int i = 0; i < data.length(); i++) {
-                send(data.charAt(i));
-                if (getSerialDataListener() == null) {
-                    continue;
+        if (coalescingThreshold > 0) {
+            writeCoalesced();
+        } else {
+            /* write required data without blocking, a partially written capsule is resumed on the next update */
+            WritableCapsule capsule;
+            while ((capsule = pendingCapsule != null ? pendingCapsule : nextCapsule()) != null) {
+                /* send capsule data to the UART */
+                if (!writeCapsule(capsule)) {
+                    break;
                 }
-                getSerialDataListener().onDataTransmitted(data.charAt(i));
             }
-            capsule.setDataWritten(true);
         }
 
+        completeDrainedCapsules();
+    }
+
+    /**
+     * Tests whether a capsule is partially written, and waits for the port to become writable.
+     *
+     * @return true if a capsule has remaining data to write, false otherwise.
+     */
+    public boolean hasPendingData() {
+        return (pendingCapsule != null && !throttled) || batchFlushing;
+    }
+
+    /**
+     * Retrieves the statistics of the write lanes.
+     *
+     * @return the scheduling statistics
+     */
+    public SchedulingStatistics getSchedulingStatistics() {
+        return schedulingStatistics;
+    }
+
+    /**
+     * Retrieves the statistics of the write coalescing stage.
+     *
+     * @return the coalescing statistics, all zeros if the coalescing is disabled
+     * @see SerialMonitor#setWriteCoalescing(int, long)
+     */
+    public CoalescingStatistics getCoalescingStatistics() {
+        return coalescingStatistics;
     }
 
     @Override
@@ -131,50 +256,476 @@ public class SerialWriteEntity extends SerialMonitorEntity {
     }
 
     /**
-     * Gets the Serial writable Capsules holding the writable data.
+     * Gets a snapshot of the writable capsules waiting to be written.
      *
-     * @return an array list of the writable capsules.
+     * @return a new array list of the queued writable capsules.
+     * @deprecated the written capsules are no longer retained, and the queue is not exposed for
+     * modification, use {@link SerialWriteEntity#getQueuedCapsules()} to inspect the queue.
      */
+    @Deprecated
     public ArrayList<WritableCapsule> getSerialWriteCapsules() {
-        return writableCapsules;
+        final ArrayList<WritableCapsule> capsules = new ArrayList<>();
+        for (final LockFreeBoundedQueue<WritableCapsule> lane : lanes) {
+            capsules.addAll(lane.snapshot());
+        }
+        return capsules;
+    }
+
+    /**
+     * Retrieves the number of the capsules waiting to be written in all the lanes.
+     *
+     * @return the number of the queued capsules
+     */
+    public int getQueuedCapsules() {
+        int size = 0;
+        for (final LockFreeBoundedQueue<WritableCapsule> lane : lanes) {
+            size += lane.size();
+        }
+        return size;
+    }
+
+    /**
+     * Retrieves the number of the capsules waiting to be written in a lane.
+     *
+     * @param priority the write lane
+     * @return the number of the queued capsules of the lane
+     */
+    public int getQueuedCapsules(final WritePriority priority) {
+        return lanes[priority.ordinal()].size();
     }
 
     /**
-     * Adds a new writable capsule, the data will be extracted during the
-     * next update run.
+     * Retrieves the number of the capsules evicted by the {@link OverflowPolicy#DROP_OLDEST} policy.
+     *
+     * @return the number of the dropped capsules
+     */
+    public long getDroppedCapsules() {
+        return droppedCapsules.get();
+    }
+
+    /**
+     * Adds a new writable capsule to the write queue of its {@link WritableCapsule#getPriority()} lane,
+     * and wakes up the monitor to write it, the capsule is dropped from the queue once written.
+     *
+     * <p>
+     * If the queue is full, the capsule is added according to the {@link SerialMonitor#getOverflowPolicy()},
+     * the {@link OverflowPolicy#BLOCK} policy fails fast on the monitor thread itself (e.g., from
+     * {@link EntityStatus#onUpdate(SerialMonitorEntity)}), as the monitor thread is the one that drains the queue.
+     * </p>
      *
      * @param writableCapsule a new {@link WritableCapsule} to add.
+     * @throws SerialMonitorException if the queue is full with the {@link OverflowPolicy#FAIL_FAST} policy.
      */
-    public synchronized void addWritableCapsule(final WritableCapsule writableCapsule) {
-        if (writableCapsules.contains(writableCapsule)) {
-            return;
+    public void addWritableCapsule(final WritableCapsule writableCapsule) {
+        final LockFreeBoundedQueue<WritableCapsule> lane = lanes[writableCapsule.getPriority().ordinal()];
+        while (!lane.offer(writableCapsule)) {
+            final OverflowPolicy overflowPolicy = getSerialMonitor().getOverflowPolicy();
+            if (overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+                final WritableCapsule droppedCapsule = lane.poll();
+                if (droppedCapsule != null) {
+                    droppedCapsules.incrementAndGet();
+                    droppedCapsule.getCompletion()
+                            .completeExceptionally(new SerialMonitorException("Capsule is dropped from a full write queue!"));
+                }
+            } else if (overflowPolicy == OverflowPolicy.FAIL_FAST || isMonitorThread() || isTerminate()) {
+                throw new SerialMonitorException("Write queue is full!");
+            } else {
+                /* the monitor has been woken up by the capsules filling the queue */
+                LockSupport.parkNanos(this, BLOCKED_PRODUCER_PARK_NANOS);
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new SerialMonitorException("Interrupted while waiting on a full write queue!");
+                }
+            }
         }
-        writableCapsules.add(writableCapsule);
+        /* signal the monitor to write the new capsule */
+        getSerialMonitor().wakeup();
     }
 
     /**
-     * Removes a writable capsule from the list of serial data capsules.
+     * Removes a writable capsule from the write queue by marking it as written,
+     * so that the monitor skips it, and cancels its completion.
      *
      * @param writableCapsule an instance of the {@link WritableCapsule}.
      */
     public void removeWritableCapsule(final WritableCapsule writableCapsule) {
-        if (!writableCapsules.contains(writableCapsule)) {
+        writableCapsule.setDataWritten(true);
+        writableCapsule.getCompletion().cancel(false);
+    }
+
+    private boolean isMonitorThread() {
+        return Thread.currentThread() == getSerialMonitor().getMonitorThread();
+    }
+
+    /**
+     * Retrieves the next capsule to write in the priority order, the pre-empted payload is resumed
+     * once the urgent lane is empty, and the expired capsules of the lower lanes are dropped.
+     *
+     * @return the next capsule to write, or null if the lanes are empty
+     */
+    private WritableCapsule nextCapsule() {
+        final long now = System.nanoTime();
+        for (final WritePriority priority : PRIORITIES) {
+            if (suspendedCapsule != null && priority != WritePriority.URGENT) {
+                pendingCapsule = suspendedCapsule;
+                pendingData = suspendedData;
+                suspendedCapsule = null;
+                suspendedData = null;
+                return pendingCapsule;
+            }
+            WritableCapsule capsule;
+            while ((capsule = lanes[priority.ordinal()].poll()) != null) {
+                /* skip removed capsules */
+                if (capsule.isDataWritten()) {
+                    continue;
+                }
+                if (priority != WritePriority.URGENT && capsule.isExpired(now)) {
+                    capsule.setDataWritten(true);
+                    schedulingStatistics.recordExpired(priority);
+                    capsule.getCompletion().completeExceptionally(new TimeoutException("Capsule deadline has expired!"));
+                    continue;
+                }
+                return capsule;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Writes a capsule, or resumes writing it without blocking, the payloads of the lower lanes
+     * are written in chunks and pre-empted by the urgent lane if the pre-emption is enabled.
+     *
+     * @param capsule the capsule to write, or to resume writing
+     * @return true if the capsule is completely written or pre-empted, false if the port output queue is full.
+     */
+    private boolean writeCapsule(final WritableCapsule capsule) {
+        throttled = false;
+        if (capsule.isDataWritten()) {
+            /* skip a removed capsule */
+            pendingCapsule = null;
+            pendingData = null;
+            return true;
+        }
+        if (pendingCapsule != capsule) {
+            pendingData = capsule.getWritablePayload().duplicate();
+            pendingCapsule = capsule;
+        }
+        if (preemptionChunkSize == 0 || capsule.getPriority() == WritePriority.URGENT) {
+            return transmit(capsule, Integer.MAX_VALUE);
+        }
+        while (pendingCapsule == capsule) {
+            if (!lanes[WritePriority.URGENT.ordinal()].isEmpty()) {
+                suspendedCapsule = capsule;
+                suspendedData = pendingData;
+                pendingCapsule = null;
+                pendingData = null;
+                schedulingStatistics.recordPreemption();
+                return true;
+            }
+            /* keep at most a chunk ahead of the urgent capsules in the output queue */
+            final int chunk;
+            try {
+                chunk = preemptionChunkSize - getTerminalDevice().getOutputQueueSize();
+            } catch (Exception e) {
+                failPendingCapsule(e);
+                return true;
+            }
+            if (chunk <= 0) {
+                throttle();
+                return false;
+            }
+            if (!transmit(capsule, chunk)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Waits on the output queue to drain below the pre-emption chunk size without arming the port writability.
+     */
+    private void throttle() {
+        throttled = true;
+        if (!throttleCheckScheduled) {
+            throttleCheckScheduled = true;
+            getSerialMonitor().schedule(() -> {
+                throttleCheckScheduled = false;
+                getSerialMonitor().wakeup();
+            }, DRAIN_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Transmits the pending payload of a capsule to the UART without blocking.
+     *
+     * <p>
+     * A direct payload is written with a single system call, an array-backed payload is written
+     * from its array in bounded native chunks, and a read-only heap payload is staged in chunks
+     * through the direct output buffer.
+     * </p>
+     *
+     * @param capsule  the pending capsule
+     * @param maxBytes the maximum number of the bytes to write
+     * @return true if the capsule data is completely written, or the maximum bytes are written,
+     * false if the port output queue is full.
+     */
+    private boolean transmit(final WritableCapsule capsule, final int maxBytes) {
+        try {
+            final int offset = pendingData.position();
+            final int length = Math.min(maxBytes, pendingData.remaining());
+            final int bytes;
+            if (pendingData.hasArray()) {
+                bytes = getTerminalDevice().write(pendingData.array(), pendingData.arrayOffset() + offset, length);
+            } else {
+                bytes = getSerialMonitor().getFullDuplexTerminalDevice().write(pendingData.duplicate().limit(offset + length));
+            }
+            pendingData.position(offset + bytes);
+            if (hasDataListener() && bytes > 0) {
+                dispatchDataTransmitted(pendingData.asReadOnlyBuffer().limit(offset + bytes).position(offset));
+            }
+            if (pendingData.hasRemaining()) {
+                return bytes == length;
+            }
+            completeWrittenCapsule(capsule, pendingData.position());
+            pendingCapsule = null;
+            pendingData = null;
+        } catch (Exception e) {
+            failPendingCapsule(e);
+        }
+        return true;
+    }
+
+    /**
+     * Drops the failed pending capsule.
+     *
+     * @param cause the failure cause
+     */
+    private void failPendingCapsule(final Exception cause) {
+        pendingCapsule.setDataWritten(true);
+        pendingCapsule.getCompletion().completeExceptionally(cause);
+        pendingCapsule = null;
+        pendingData = null;
+        dispatchExceptionThrown(cause);
+    }
+
+    /**
+     * Writes the queued capsules through the coalescing stage without blocking, the capsules
+     * are added to the open batch until it holds the threshold bytes, or until the queue is empty,
+     * in which case the batch waits for more capsules until its deadline.
+     */
+    private void writeCoalesced() {
+        while (true) {
+            /* resume the partially written batch, or capsule */
+            if (batchFlushing) {
+                if (!flushBatch()) {
+                    return;
+                }
+                continue;
+            }
+            if (pendingCapsule != null) {
+                if (!writeCapsule(pendingCapsule)) {
+                    return;
+                }
+                continue;
+            }
+            final WritableCapsule capsule = deferredCapsule != null ? deferredCapsule : nextCapsule();
+            deferredCapsule = null;
+            if (capsule == null) {
+                break;
+            }
+            /* skip removed capsules, or resume the pre-empted capsule */
+            if (capsule.isDataWritten() || capsule == pendingCapsule) {
+                continue;
+            }
+            final ByteBuffer payload = capsule.getWritablePayload();
+            if (payload.remaining() >= coalescingThreshold) {
+                /* large capsules are not coalesced, they are written in order after the open batch */
+                if (batchSize > 0) {
+                    deferredCapsule = capsule;
+                    coalescingStatistics.recordForcedFlush(batchSize, batchBytes);
+                    batchFlushing = true;
+                } else if (!writeCapsule(capsule)) {
+                    return;
+                }
+                continue;
+            }
+            addToBatch(capsule, payload);
+            if (batchBytes >= coalescingThreshold || batchSize == MAX_BATCH_CAPSULES) {
+                coalescingStatistics.recordSizeFlush(batchSize, batchBytes);
+                batchFlushing = true;
+            } else if (capsule.getPriority() == WritePriority.URGENT) {
+                /* urgent capsules never wait for the batch deadline */
+                coalescingStatistics.recordForcedFlush(batchSize, batchBytes);
+                batchFlushing = true;
+            }
+        }
+        if (batchSize == 0) {
             return;
         }
-        writableCapsules.remove(writableCapsule);
+        final long delay = batchOpenedAt + coalescingDelay - System.nanoTime();
+        if (delay <= 0) {
+            coalescingStatistics.recordDeadlineFlush(batchSize, batchBytes);
+            batchFlushing = true;
+            flushBatch();
+        } else if (!batchDeadlineScheduled) {
+            batchDeadlineScheduled = true;
+            getSerialMonitor().schedule(() -> {
+                batchDeadlineScheduled = false;
+                getSerialMonitor().wakeup();
+            }, delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Adds a capsule to the open batch, direct payloads are referenced, while heap
+     * payloads are copied into the direct staging buffer.
+     *
+     * @param capsule the capsule to add
+     * @param payload the payload of the capsule
+     */
+    private void addToBatch(final WritableCapsule capsule, final ByteBuffer payload) {
+        if (batchSize == 0) {
+            batchOpenedAt = System.nanoTime();
+            stagingBuffer.clear();
+        }
+        final ByteBuffer buffer;
+        if (payload.isDirect()) {
+            buffer = payload.duplicate();
+        } else {
+            final int position = stagingBuffer.position();
+            stagingBuffer.put(payload.duplicate());
+            buffer = stagingBuffer.duplicate().position(position).limit(stagingBuffer.position());
+        }
+        batchCapsules[batchSize] = capsule;
+        batchBuffers[batchSize] = buffer;
+        batchReportedPositions[batchSize] = buffer.position();
+        batchBytes += buffer.remaining();
+        batchSize++;
     }
 
     /**
-     * Sends data to the {@link OutputStream} of {@link com.serial4j.core.serial.SerialPort}.
+     * Writes the remaining capsules of the flushed batch with a single gathering write.
      *
-     * @param data the data to send in integers.
+     * @return true if the batch is completely written, false if the port output queue is full.
      */
-    private void send(final int data) {
+    private boolean flushBatch() {
         try {
-            getEntityStream().write(data);
-        } catch (IOException e) {
-            if (getSerialEntityStatusListener() != null) {
-                getSerialEntityStatusListener().onExceptionThrown(e);
+            getTerminalDevice().write(batchBuffers, batchHead, batchSize - batchHead);
+            for (; batchHead < batchSize; batchHead++) {
+                final ByteBuffer buffer = batchBuffers[batchHead];
+                if (hasDataListener() && buffer.position() > batchReportedPositions[batchHead]) {
+                    dispatchDataTransmitted(buffer.asReadOnlyBuffer()
+                            .limit(buffer.position()).position(batchReportedPositions[batchHead]));
+                }
+                batchReportedPositions[batchHead] = buffer.position();
+                if (buffer.hasRemaining()) {
+                    return false;
+                }
+                final WritableCapsule capsule = batchCapsules[batchHead];
+                completeWrittenCapsule(capsule, capsule.getWritablePayload().remaining());
+            }
+        } catch (Exception e) {
+            /* drop the failed batch */
+            for (; batchHead < batchSize; batchHead++) {
+                batchCapsules[batchHead].setDataWritten(true);
+                batchCapsules[batchHead].getCompletion().completeExceptionally(e);
+            }
+            dispatchExceptionThrown(e);
+        }
+        clearBatch();
+        return true;
+    }
+
+    private void clearBatch() {
+        for (int i = 0; i < batchSize; i++) {
+            batchCapsules[i] = null;
+            batchBuffers[i] = null;
+        }
+        batchSize = 0;
+        batchHead = 0;
+        batchBytes = 0;
+        batchFlushing = false;
+    }
+
+    /**
+     * Completes a written capsule, or holds it until the output queue is drained.
+     *
+     * @param capsule              the written capsule
+     * @param numberOfWrittenBytes the number of the payload bytes
+     */
+    private void completeWrittenCapsule(final WritableCapsule capsule, final int numberOfWrittenBytes) {
+        capsule.setDataWritten(true);
+        schedulingStatistics.recordWritten(capsule.getPriority(), capsule.isExpired(System.nanoTime()));
+        if (capsule.isDrainRequired()) {
+            drainingCapsules.add(capsule);
+        } else {
+            capsule.getCompletion().complete(new WriteReceipt(numberOfWrittenBytes, System.nanoTime(), false));
+        }
+    }
+
+    /**
+     * Completes the capsules waiting on a drain if the output queue is empty, otherwise
+     * schedules a new check on the monitor thread.
+     */
+    private void completeDrainedCapsules() {
+        if (drainingCapsules.isEmpty()) {
+            return;
+        }
+        try {
+            if (getTerminalDevice().getOutputQueueSize() > 0) {
+                if (!drainCheckScheduled) {
+                    drainCheckScheduled = true;
+                    getSerialMonitor().schedule(() -> {
+                        drainCheckScheduled = false;
+                        getSerialMonitor().wakeup();
+                    }, DRAIN_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+                }
+                return;
+            }
+        } catch (Exception e) {
+            failCapsules(e);
+            dispatchExceptionThrown(e);
+            return;
+        }
+        final long timestamp = System.nanoTime();
+        WritableCapsule capsule;
+        while ((capsule = drainingCapsules.poll()) != null) {
+            capsule.getCompletion().complete(new WriteReceipt(capsule.getWritablePayload().remaining(), timestamp, true));
+        }
+    }
+
+    /**
+     * Completes the pending, the pre-empted, the batched, the queued and the draining capsules exceptionally.
+     *
+     * @param cause the failure cause
+     */
+    private void failCapsules(final Exception cause) {
+        if (pendingCapsule != null) {
+            pendingCapsule.getCompletion().completeExceptionally(cause);
+            pendingCapsule = null;
+            pendingData = null;
+        }
+        for (int i = batchHead; i < batchSize; i++) {
+            batchCapsules[i].getCompletion().completeExceptionally(cause);
+        }
+        if (batchSize > 0) {
+            clearBatch();
+        }
+        if (deferredCapsule != null) {
+            deferredCapsule.getCompletion().completeExceptionally(cause);
+            deferredCapsule = null;
+        }
+        if (suspendedCapsule != null) {
+            suspendedCapsule.getCompletion().completeExceptionally(cause);
+            suspendedCapsule = null;
+            suspendedData = null;
+        }
+        WritableCapsule capsule;
+        while ((capsule = drainingCapsules.poll()) != null) {
+            capsule.getCompletion().completeExceptionally(cause);
+        }
+        for (final LockFreeBoundedQueue<WritableCapsule> lane : lanes) {
+            while ((capsule = lane.poll()) != null) {
+                capsule.getCompletion().completeExceptionally(cause);
             }
         }
     }
@@ -31,15 +31,39 @@
  */
 package com.serial4j.core.serial.entity.impl;
 
+import com.serial4j.core.serial.monitor.WritePriority;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Represents a serial write capsule for the {@link SerialWriteEntity}.
  *
+ * <p>
+ * A capsule carries either a string, which is sent as 8-bit characters, or a binary payload
+ * from a {@code byte[]} or a {@link ByteBuffer}, the payload is written to the terminal device
+ * in bulk, and the capsule completion {@link WritableCapsule#getCompletion()} is completed
+ * with a {@link WriteReceipt} once the kernel has accepted the whole payload, or once the
+ * output queue of the terminal device has drained if {@link WritableCapsule#setDrainRequired(boolean)} is set.
+ * </p>
+ * <p>
+ * The capsule is queued on the lane of its {@link WritableCapsule#getPriority()}, and could have a deadline,
+ * after which it is dropped instead of being written late, unless it is {@link WritePriority#URGENT}.
+ * </p>
+ *
  * @author pavl_g.
  */
 public final class WritableCapsule implements Cloneable {
 
-    private String data;
-    private boolean dataWritten;
+    private volatile String data;
+    private volatile ByteBuffer payload;
+    private volatile boolean dataWritten;
+    private volatile boolean drainRequired;
+    private volatile WritePriority priority = WritePriority.NORMAL;
+    private volatile boolean deadlineSet;
+    private volatile long deadline;
+    private volatile CompletableFuture<WriteReceipt> completion = new CompletableFuture<>();
 
     /**
      * Specifies the data to be written on the next update of the
@@ -48,18 +72,160 @@ public final class WritableCapsule implements Cloneable {
      * @param data the data to be written to the UART.
      */
     public void write(final String data) {
-        this.data = data;
+        /* the characters are sent as 8-bit data */
+        final byte[] bytes = new byte[data.length()];
+        for (int i = 0; i < data.length(); i++) {
+            bytes[i] = (byte) data.charAt(i);
+        }
+        setPayload(data, ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Specifies a binary payload to be written on the next update of the SerialWriteEntity,
+     * the array is not copied, and must not be modified until the capsule is completed.
+     *
+     * @param data the bytes to be written to the UART.
+     */
+    public void write(final byte[] data) {
+        setPayload(null, ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Specifies a binary payload to be written on the next update of the SerialWriteEntity,
+     * the remaining bytes of the buffer are written without a copy, the position of the buffer
+     * is not changed, and the buffer must not be modified until the capsule is completed.
+     *
+     * <p>
+     * A direct buffer is handed to the kernel as it is, an array-backed heap buffer is written
+     * from its array, copied in bounded chunks through a native stack buffer with no allocation,
+     * and a read-only heap buffer is staged in chunks through the direct output buffer of the monitor.
+     * </p>
+     *
+     * @param data the buffer to be written to the UART.
+     */
+    public void write(final ByteBuffer data) {
+        setPayload(null, data.slice());
     }
 
     /**
      * Retrieves the data of the capsule.
      *
-     * @return the data in string.
+     * @return the data in string, binary payloads are decoded as 8-bit characters.
      */
     public String getData() {
+        if (data == null && payload != null) {
+            data = StandardCharsets.ISO_8859_1.decode(getPayload()).toString();
+        }
         return data;
     }
 
+    /**
+     * Retrieves a read-only view of the payload of the capsule.
+     *
+     * @return a new read-only buffer with the payload bytes remaining, or null if no data is specified.
+     */
+    public ByteBuffer getPayload() {
+        final ByteBuffer payload = this.payload;
+        return payload == null ? null : payload.asReadOnlyBuffer();
+    }
+
+    /**
+     * Retrieves the completion of the last specified payload, it is completed exceptionally if the
+     * payload fails to be written or is dropped, and is cancelled if the capsule is removed before
+     * being written.
+     *
+     * @return the completion future of the capsule payload
+     */
+    public CompletableFuture<WriteReceipt> getCompletion() {
+        return completion;
+    }
+
+    /**
+     * Specifies whether the completion of this capsule waits on the output queue of the
+     * terminal device to drain, i.e., until the payload is transmitted by the UART.
+     *
+     * @param drainRequired true to complete the capsule once drained, false to complete it
+     *                      once the kernel has accepted the payload (the default).
+     */
+    public void setDrainRequired(final boolean drainRequired) {
+        this.drainRequired = drainRequired;
+    }
+
+    /**
+     * Tests whether the completion of this capsule waits on the output queue to drain.
+     *
+     * @return true if the capsule is completed once drained, false otherwise.
+     */
+    public boolean isDrainRequired() {
+        return drainRequired;
+    }
+
+    /**
+     * Specifies the write lane of this capsule, this should be specified before adding the capsule.
+     *
+     * @param priority the priority of the capsule, default is {@link WritePriority#NORMAL}
+     */
+    public void setPriority(final WritePriority priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * Retrieves the write lane of this capsule.
+     *
+     * @return the priority of the capsule
+     */
+    public WritePriority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Specifies a deadline relative to now, after which the capsule completes exceptionally with
+     * a {@link java.util.concurrent.TimeoutException} instead of being written late, the
+     * {@link WritePriority#URGENT} capsules are written anyway, and are reported as late.
+     *
+     * @param timeout the time until the deadline
+     * @param unit    the time unit of the timeout
+     */
+    public void setDeadline(final long timeout, final TimeUnit unit) {
+        this.deadline = System.nanoTime() + unit.toNanos(timeout);
+        this.deadlineSet = true;
+    }
+
+    /**
+     * Removes the deadline of this capsule.
+     */
+    public void clearDeadline() {
+        this.deadlineSet = false;
+    }
+
+    /**
+     * Tests whether this capsule has a deadline.
+     *
+     * @return true if a deadline is specified, false otherwise.
+     */
+    public boolean hasDeadline() {
+        return deadlineSet;
+    }
+
+    /**
+     * Retrieves the deadline of this capsule in the {@link System#nanoTime()} time base.
+     *
+     * @return the monotonic deadline in nanoseconds, meaningful only if {@link WritableCapsule#hasDeadline()}
+     */
+    public long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Tests whether the deadline of this capsule has passed.
+     *
+     * @param now the current monotonic time in nanoseconds
+     * @return true if the capsule has an expired deadline, false otherwise.
+     */
+    boolean isExpired(final long now) {
+        return deadlineSet && now - deadline > 0;
+    }
+
     /**
      * Tests whether data is written to the UART.
      *
@@ -81,7 +247,8 @@ public final class WritableCapsule implements Cloneable {
 
     /**
      * Creates a new instance and performs a deep copy operation to the internal value of {@link WritableCapsule#getData()},
-     * and reverts the state {@link WritableCapsule#isDataWritten()} back to false.
+     * and reverts the state {@link WritableCapsule#isDataWritten()} back to false, the new instance
+     * has its own completion.
      *
      * @return a new object with the same writable data
      */
@@ -90,6 +257,28 @@ public final class WritableCapsule implements Cloneable {
         // creates a new instance with same values as the original
         final WritableCapsule writableCapsule = (WritableCapsule) super.clone();
         writableCapsule.setDataWritten(false); // revert back to false
+        writableCapsule.completion = new CompletableFuture<>();
+        if (payload != null) {
+            writableCapsule.payload = payload.duplicate();
+        }
         return writableCapsule;
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieves the payload buffer written by the monitor.
+     *
+     * @return the internal payload buffer.
+     */
+    ByteBuffer getWritablePayload() {
+        return payload;
+    }
+
+    private void setPayload(final String data, final ByteBuffer payload) {
+        this.data = data;
+        this.payload = payload;
+        /* a completed capsule is re-used with a new completion */
+        if (completion.isDone()) {
+            completion = new CompletableFuture<>();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.serial.entity.impl;
+
+/**
+ * Represents the completion of a {@link WritableCapsule}, holds the number of the written
+ * bytes, and the monotonic timestamp of the completion.
+ *
+ * @author pavl_g.
+ */
+public final class WriteReceipt {
+
+    private final int numberOfWrittenBytes;
+    private final long timestamp;
+    private final boolean drained;
+
+    WriteReceipt(final int numberOfWrittenBytes, final long timestamp, final boolean drained) {
+        this.numberOfWrittenBytes = numberOfWrittenBytes;
+        this.timestamp = timestamp;
+        this.drained = drained;
+    }
+
+    /**
+     * Retrieves the number of the bytes written to the terminal device.
+     *
+     * @return the number of the written bytes
+     */
+    public int getNumberOfWrittenBytes() {
+        return numberOfWrittenBytes;
+    }
+
+    /**
+     * Retrieves the time at which the kernel has accepted the whole payload, or at which
+     * the output queue is found drained, in the {@link System#nanoTime()} time base.
+     *
+     * @return the monotonic completion timestamp in nanoseconds
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Tests whether the output queue of the terminal device is drained when this receipt is issued.
+     *
+     * @return true if the payload is transmitted by the UART, false if it is only accepted by the kernel
+     */
+    public boolean isDrained() {
+        return drained;
+    }
+
+    @Override
+    public String toString() {
+        return "WriteReceipt[bytes=" + numberOfWrittenBytes + ", timestamp=" + timestamp + ", drained=" + drained + "]";
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.serial.frame;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Provides the reusable frame buffer of the {@link FrameDecoder} implementations, the buffer
+ * grows up to the maximum frame length, and the frames beyond this length are discarded.
+ *
+ * @author pavl_g
+ */
+public abstract class AbstractFrameDecoder implements FrameDecoder {
+
+    /**
+     * The default maximum length of a frame in bytes.
+     */
+    public static final int DEFAULT_MAX_FRAME_LENGTH = 65536;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    protected final int maxFrameLength;
+    private ByteBuffer frameBuffer;
+    private ByteBuffer frameView;
+    private long frames;
+    private long discardedFrames;
+
+    /**
+     * Instantiates the frame buffer of a decoder.
+     *
+     * @param maxFrameLength the maximum length of a frame in bytes
+     */
+    protected AbstractFrameDecoder(final int maxFrameLength) {
+        if (maxFrameLength <= 0) {
+            throw new IllegalArgumentException("Invalid maximum frame length " + maxFrameLength);
+        }
+        this.maxFrameLength = maxFrameLength;
+        allocate(Math.min(INITIAL_CAPACITY, maxFrameLength));
+    }
+
+    @Override
+    public void reset() {
+        frameBuffer.clear();
+    }
+
+    /**
+     * Retrieves the number of the delivered frames.
+     *
+     * @return the number of the complete frames
+     */
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * Retrieves the number of the discarded frames, either exceeding the maximum frame
+     * length, or malformed.
+     *
+     * @return the number of the discarded frames
+     */
+    public long getDiscardedFrames() {
+        return discardedFrames;
+    }
+
+    /**
+     * Retrieves the maximum length of a frame.
+     *
+     * @return the maximum frame length in bytes
+     */
+    public int getMaxFrameLength() {
+        return maxFrameLength;
+    }
+
+    /**
+     * Appends a region of a chunk to the frame buffer in bulk.
+     *
+     * @param chunk the received chunk
+     * @param from  the absolute start index in the chunk
+     * @param to    the absolute end index in the chunk, exclusive
+     * @return true if the bytes are appended, false if the frame exceeds the maximum length, and is discarded.
+     */
+    protected boolean append(final ByteBuffer chunk, final int from, final int to) {
+        if (!ensureCapacity(to - from)) {
+            return false;
+        }
+        frameBuffer.put(chunk.duplicate().limit(to).position(from));
+        return true;
+    }
+
+    /**
+     * Appends a single byte to the frame buffer.
+     *
+     * @param data the byte to append
+     * @return true if the byte is appended, false if the frame exceeds the maximum length, and is discarded.
+     */
+    protected boolean append(final byte data) {
+        if (!ensureCapacity(1)) {
+            return false;
+        }
+        frameBuffer.put(data);
+        return true;
+    }
+
+    /**
+     * Retrieves the number of the bytes of the partially received frame.
+     *
+     * @return the current frame length
+     */
+    protected int getFrameLength() {
+        return frameBuffer.position();
+    }
+
+    /**
+     * Retrieves a byte of the partially received frame.
+     *
+     * @param index the index of the byte in the frame
+     * @return the byte at the index
+     */
+    protected byte getFrameByte(final int index) {
+        return frameBuffer.get(index);
+    }
+
+    /**
+     * Delivers the whole frame buffer as a frame, and clears the buffer for the next frame.
+     *
+     * @param listener  the listener of the frames
+     * @param timestamp the timestamp of the frame
+     */
+    protected void emitFrame(final FrameListener listener, final long timestamp) {
+        emitFrame(listener, timestamp, 0, frameBuffer.position());
+    }
+
+    /**
+     * Delivers a region of the frame buffer as a frame (e.g., without its header, or its delimiter),
+     * and clears the buffer for the next frame.
+     *
+     * @param listener  the listener of the frames
+     * @param timestamp the timestamp of the frame
+     * @param offset    the start index of the frame in the buffer
+     * @param length    the length of the frame
+     */
+    protected void emitFrame(final FrameListener listener, final long timestamp, final int offset, final int length) {
+        frameBuffer.clear();
+        frames++;
+        frameView.limit(offset + length).position(offset);
+        listener.onFrameReceived(frameView, timestamp);
+    }
+
+    /**
+     * Discards the partially received frame.
+     */
+    protected void discardFrame() {
+        frameBuffer.clear();
+        discardedFrames++;
+    }
+
+    private boolean ensureCapacity(final int length) {
+        final int required = frameBuffer.position() + length;
+        if (required > maxFrameLength) {
+            discardFrame();
+            return false;
+        }
+        if (required > frameBuffer.capacity()) {
+            final ByteBuffer oldBuffer = frameBuffer.flip();
+            allocate((int) Math.min(maxFrameLength, Math.max(required, (long) frameBuffer.capacity() * 2)));
+            frameBuffer.put(oldBuffer);
+        }
+        return true;
+    }
+
+    private void allocate(final int capacity) {
+        frameBuffer = ByteBuffer.allocate(capacity);
+        frameView = frameBuffer.asReadOnlyBuffer();
+    }
+}
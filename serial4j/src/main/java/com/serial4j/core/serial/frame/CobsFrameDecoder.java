@@ -0,0 +1,118 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.serial.frame;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Assembles the frames of the Consistent Overhead Byte Stuffing, the frames are terminated by
+ * a zero byte, and are decoded incrementally from the code blocks as they are received.
+ *
+ * <p>
+ * A malformed frame (i.e., terminated inside a code block), or an oversized frame is discarded
+ * up to the next zero byte.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public class CobsFrameDecoder extends AbstractFrameDecoder {
+
+    private static final int MAX_BLOCK_CODE = 0xFF;
+
+    private int remaining;
+    private boolean pendingZero;
+    private boolean started;
+    private boolean discarding;
+
+    /**
+     * Instantiates a COBS decoder with the {@link AbstractFrameDecoder#DEFAULT_MAX_FRAME_LENGTH}.
+     */
+    public CobsFrameDecoder() {
+        this(DEFAULT_MAX_FRAME_LENGTH);
+    }
+
+    /**
+     * Instantiates a COBS decoder.
+     *
+     * @param maxFrameLength the maximum length of a decoded frame
+     */
+    public CobsFrameDecoder(final int maxFrameLength) {
+        super(maxFrameLength);
+    }
+
+    @Override
+    public void decode(final ByteBuffer chunk, final long timestamp, final FrameListener listener) {
+        final int limit = chunk.limit();
+        for (int i = chunk.position(); i < limit; i++) {
+            final byte data = chunk.get(i);
+            if (data == 0) {
+                if (!discarding && started) {
+                    if (remaining == 0) {
+                        emitFrame(listener, timestamp);
+                    } else {
+                        discardFrame();
+                    }
+                }
+                reset();
+                continue;
+            }
+            if (discarding) {
+                continue;
+            }
+            if (remaining > 0) {
+                remaining--;
+                discarding = !append(data);
+                continue;
+            }
+            /* a new code block, the previous block is followed by an implicit zero */
+            if (pendingZero && !append((byte) 0)) {
+                discarding = true;
+                continue;
+            }
+            final int code = data & 0xFF;
+            remaining = code - 1;
+            pendingZero = code < MAX_BLOCK_CODE;
+            started = true;
+        }
+        chunk.position(limit);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        remaining = 0;
+        pendingZero = false;
+        started = false;
+        discarding = false;
+    }
+}
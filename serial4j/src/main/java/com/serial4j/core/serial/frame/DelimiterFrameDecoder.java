@@ -0,0 +1,138 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.serial.frame;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Assembles the frames terminated by a delimiter sequence, the delimiter is matched incrementally
+ * across the chunks by a prefix (Knuth-Morris-Pratt) matcher, and the frame bytes are appended in bulk.
+ *
+ * <p>
+ * A frame exceeding the maximum frame length is discarded up to the next delimiter.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public class DelimiterFrameDecoder extends AbstractFrameDecoder {
+
+    private final byte[] delimiter;
+    private final int[] failure;
+    private final boolean stripDelimiter;
+    private int matched;
+    private boolean discarding;
+
+    /**
+     * Instantiates a delimiter decoder with the {@link AbstractFrameDecoder#DEFAULT_MAX_FRAME_LENGTH}.
+     *
+     * @param delimiter      the delimiter sequence
+     * @param stripDelimiter true to deliver the frames without the delimiter, false otherwise
+     */
+    public DelimiterFrameDecoder(final byte[] delimiter, final boolean stripDelimiter) {
+        this(delimiter, stripDelimiter, DEFAULT_MAX_FRAME_LENGTH);
+    }
+
+    /**
+     * Instantiates a delimiter decoder.
+     *
+     * @param delimiter      the delimiter sequence
+     * @param stripDelimiter true to deliver the frames without the delimiter, false otherwise
+     * @param maxFrameLength the maximum length of a frame, including the delimiter
+     */
+    public DelimiterFrameDecoder(final byte[] delimiter, final boolean stripDelimiter, final int maxFrameLength) {
+        super(maxFrameLength);
+        if (delimiter.length == 0) {
+            throw new IllegalArgumentException("Empty frame delimiter!");
+        }
+        this.delimiter = delimiter.clone();
+        this.stripDelimiter = stripDelimiter;
+        /* the length of the longest proper prefix of the delimiter that is a suffix of each prefix */
+        this.failure = new int[delimiter.length];
+        for (int i = 1, length = 0; i < delimiter.length; i++) {
+            while (length > 0 && delimiter[i] != delimiter[length]) {
+                length = failure[length - 1];
+            }
+            if (delimiter[i] == delimiter[length]) {
+                length++;
+            }
+            failure[i] = length;
+        }
+    }
+
+    /**
+     * Instantiates the default decoder of the monitor, the frames are terminated by
+     * the LF/CR sequence [\n\r], which is kept in the frames.
+     *
+     * @return a new LF/CR delimiter decoder
+     */
+    public static DelimiterFrameDecoder newLinefeedCarriageReturnDecoder() {
+        return new DelimiterFrameDecoder(new byte[]{'\n', '\r'}, false);
+    }
+
+    @Override
+    public void decode(final ByteBuffer chunk, final long timestamp, final FrameListener listener) {
+        final int limit = chunk.limit();
+        int start = chunk.position();
+        for (int i = start; i < limit; i++) {
+            final byte data = chunk.get(i);
+            while (matched > 0 && delimiter[matched] != data) {
+                matched = failure[matched - 1];
+            }
+            if (delimiter[matched] == data) {
+                matched++;
+            }
+            if (matched < delimiter.length) {
+                continue;
+            }
+            matched = 0;
+            if (discarding) {
+                /* resynchronized on the delimiter */
+                discarding = false;
+            } else if (append(chunk, start, i + 1)) {
+                emitFrame(listener, timestamp, 0, getFrameLength() - (stripDelimiter ? delimiter.length : 0));
+            }
+            start = i + 1;
+        }
+        if (!discarding && start < limit && !append(chunk, start, limit)) {
+            discarding = true;
+        }
+        chunk.position(limit);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        matched = 0;
+        discarding = false;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.serial.frame;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Assembles the frames of a fixed length.
+ *
+ * @author pavl_g
+ */
+public class FixedLengthFrameDecoder extends AbstractFrameDecoder {
+
+    private final int frameLength;
+
+    /**
+     * Instantiates a fixed-length decoder.
+     *
+     * @param frameLength the length of each frame in bytes
+     */
+    public FixedLengthFrameDecoder(final int frameLength) {
+        super(frameLength);
+        this.frameLength = frameLength;
+    }
+
+    @Override
+    public void decode(final ByteBuffer chunk, final long timestamp, final FrameListener listener) {
+        final int limit = chunk.limit();
+        int position = chunk.position();
+        while (position < limit) {
+            final int length = Math.min(limit - position, frameLength - getFrameLength());
+            append(chunk, position, position + length);
+            position += length;
+            if (getFrameLength() == frameLength) {
+                emitFrame(listener, timestamp);
+            }
+        }
+        chunk.position(limit);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.serial.frame;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Represents a stateful framing stage, the received chunks are fed to the decoder in order,
+ * and the decoder delivers the frames as soon as they are complete, regardless of the chunk boundaries.
+ *
+ * <p>
+ * A decoder is confined to a single reader thread (e.g., the monitor thread).
+ * </p>
+ *
+ * @author pavl_g
+ * @see com.serial4j.core.serial.monitor.SerialMonitor#setFrameDecoder(FrameDecoder)
+ */
+public interface FrameDecoder {
+
+    /**
+     * Consumes the remaining bytes of a received chunk, and delivers the completed frames.
+     *
+     * @param chunk     the received bytes, the position of the buffer is advanced to its limit
+     * @param timestamp the monotonic time in nanoseconds at which the chunk is received
+     * @param listener  the listener of the completed frames
+     */
+    void decode(final ByteBuffer chunk, final long timestamp, final FrameListener listener);
+
+    /**
+     * Delivers the frames that are completed by the time, rather than by the data (e.g., by an idle gap).
+     *
+     * @param timestamp the current monotonic time in nanoseconds
+     * @param listener  the listener of the completed frames
+     * @return the time in nanoseconds until the next flush is due, or (-1) if no flush is due.
+     */
+    default long flush(final long timestamp, final FrameListener listener) {
+        return -1;
+    }
+
+    /**
+     * Drops the partially received frame, and resets the decoder state.
+     */
+    void reset();
+}
@@ -0,0 +1,113 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.serial.frame;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assembles the frames separated by an idle gap in the received data (e.g., the Modbus RTU
+ * inter-frame silence), a frame is complete once no data is received for the gap duration.
+ *
+ * <p>
+ * The frames are completed by {@link FrameDecoder#flush(long, FrameListener)}, or by the next
+ * chunk received after the gap, the gap resolution is the resolution of the chunk timestamps.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public class IdleGapFrameDecoder extends AbstractFrameDecoder {
+
+    private final long gap;
+    private long lastTimestamp;
+    private boolean discarding;
+
+    /**
+     * Instantiates an idle-gap decoder with the {@link AbstractFrameDecoder#DEFAULT_MAX_FRAME_LENGTH}.
+     *
+     * @param gap  the idle gap between the frames
+     * @param unit the time unit of the gap
+     */
+    public IdleGapFrameDecoder(final long gap, final TimeUnit unit) {
+        this(gap, unit, DEFAULT_MAX_FRAME_LENGTH);
+    }
+
+    /**
+     * Instantiates an idle-gap decoder.
+     *
+     * @param gap            the idle gap between the frames
+     * @param unit           the time unit of the gap
+     * @param maxFrameLength the maximum length of a frame
+     */
+    public IdleGapFrameDecoder(final long gap, final TimeUnit unit, final int maxFrameLength) {
+        super(maxFrameLength);
+        this.gap = unit.toNanos(gap);
+    }
+
+    @Override
+    public void decode(final ByteBuffer chunk, final long timestamp, final FrameListener listener) {
+        if (!chunk.hasRemaining()) {
+            return;
+        }
+        /* the frame before a gap, whose flush is not due yet */
+        flush(timestamp, listener);
+        lastTimestamp = timestamp;
+        if (!discarding && !append(chunk, chunk.position(), chunk.limit())) {
+            discarding = true;
+        }
+        chunk.position(chunk.limit());
+    }
+
+    @Override
+    public long flush(final long timestamp, final FrameListener listener) {
+        if (getFrameLength() == 0 && !discarding) {
+            return -1;
+        }
+        final long elapsed = timestamp - lastTimestamp;
+        if (elapsed < gap) {
+            return gap - elapsed;
+        }
+        if (discarding) {
+            discarding = false;
+        } else {
+            emitFrame(listener, lastTimestamp);
+        }
+        return -1;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        discarding = false;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.serial.frame;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Assembles the frames prefixed by an unsigned length field, which holds the number of the
+ * payload bytes following the field.
+ *
+ * <p>
+ * A frame with a length beyond the maximum frame length is skipped as a whole.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public class LengthPrefixedFrameDecoder extends AbstractFrameDecoder {
+
+    private final int lengthFieldLength;
+    private final ByteOrder byteOrder;
+    private final boolean stripLengthField;
+    private long payloadLength = -1;
+    private long skipping;
+
+    /**
+     * Instantiates a length-prefixed decoder with the {@link AbstractFrameDecoder#DEFAULT_MAX_FRAME_LENGTH}.
+     *
+     * @param lengthFieldLength the length of the length field, either 1, 2, or 4 bytes
+     * @param byteOrder         the byte order of the length field
+     * @param stripLengthField  true to deliver the payload only, false to deliver the length field as well
+     */
+    public LengthPrefixedFrameDecoder(final int lengthFieldLength, final ByteOrder byteOrder, final boolean stripLengthField) {
+        this(lengthFieldLength, byteOrder, stripLengthField, DEFAULT_MAX_FRAME_LENGTH);
+    }
+
+    /**
+     * Instantiates a length-prefixed decoder.
+     *
+     * @param lengthFieldLength the length of the length field, either 1, 2, or 4 bytes
+     * @param byteOrder         the byte order of the length field
+     * @param stripLengthField  true to deliver the payload only, false to deliver the length field as well
+     * @param maxFrameLength    the maximum length of a frame, including the length field,
+     *                          at least the length of the length field
+     */
+    public LengthPrefixedFrameDecoder(final int lengthFieldLength, final ByteOrder byteOrder,
+                                      final boolean stripLengthField, final int maxFrameLength) {
+        super(maxFrameLength);
+        if (lengthFieldLength != 1 && lengthFieldLength != 2 && lengthFieldLength != 4) {
+            throw new IllegalArgumentException("Unsupported length field of " + lengthFieldLength + " bytes!");
+        }
+        if (maxFrameLength < lengthFieldLength) {
+            throw new IllegalArgumentException("Maximum frame length " + maxFrameLength
+                    + " is shorter than the length field of " + lengthFieldLength + " bytes!");
+        }
+        this.lengthFieldLength = lengthFieldLength;
+        this.byteOrder = byteOrder;
+        this.stripLengthField = stripLengthField;
+    }
+
+    @Override
+    public void decode(final ByteBuffer chunk, final long timestamp, final FrameListener listener) {
+        final int limit = chunk.limit();
+        int position = chunk.position();
+        while (position < limit) {
+            if (skipping > 0) {
+                final int length = (int) Math.min(skipping, limit - position);
+                position += length;
+                skipping -= length;
+                continue;
+            }
+            if (payloadLength < 0) {
+                append(chunk.get(position++));
+                if (getFrameLength() == lengthFieldLength) {
+                    payloadLength = getLengthField();
+                    if (payloadLength > maxFrameLength - lengthFieldLength) {
+                        discardFrame();
+                        skipping = payloadLength;
+                        payloadLength = -1;
+                        continue;
+                    }
+                }
+            } else {
+                final int length = (int) Math.min(limit - position, lengthFieldLength + payloadLength - getFrameLength());
+                append(chunk, position, position + length);
+                position += length;
+            }
+            if (payloadLength >= 0 && getFrameLength() == lengthFieldLength + payloadLength) {
+                payloadLength = -1;
+                final int offset = stripLengthField ? lengthFieldLength : 0;
+                emitFrame(listener, timestamp, offset, getFrameLength() - offset);
+            }
+        }
+        chunk.position(limit);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        payloadLength = -1;
+        skipping = 0;
+    }
+
+    private long getLengthField() {
+        long length = 0;
+        for (int i = 0; i < lengthFieldLength; i++) {
+            final int index = byteOrder == ByteOrder.BIG_ENDIAN ? i : lengthFieldLength - 1 - i;
+            length = (length << 8) | (getFrameByte(index) & 0xFF);
+        }
+        return length;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.serial.frame;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Assembles the frames of the Serial Line Internet Protocol [RFC 1055], the frames are terminated
+ * by an END byte, and the END and ESC bytes within a frame are escaped.
+ *
+ * <p>
+ * Empty frames (e.g., the leading END bytes used to flush the line noise) are skipped, and an
+ * oversized frame is discarded up to the next END byte.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public class SlipFrameDecoder extends AbstractFrameDecoder {
+
+    /**
+     * Terminates a frame.
+     */
+    public static final byte END = (byte) 0xC0;
+
+    /**
+     * Escapes the next byte.
+     */
+    public static final byte ESC = (byte) 0xDB;
+
+    /**
+     * An escaped END byte.
+     */
+    public static final byte ESC_END = (byte) 0xDC;
+
+    /**
+     * An escaped ESC byte.
+     */
+    public static final byte ESC_ESC = (byte) 0xDD;
+
+    private boolean escaped;
+    private boolean discarding;
+
+    /**
+     * Instantiates a SLIP decoder with the {@link AbstractFrameDecoder#DEFAULT_MAX_FRAME_LENGTH}.
+     */
+    public SlipFrameDecoder() {
+        this(DEFAULT_MAX_FRAME_LENGTH);
+    }
+
+    /**
+     * Instantiates a SLIP decoder.
+     *
+     * @param maxFrameLength the maximum length of a decoded frame
+     */
+    public SlipFrameDecoder(final int maxFrameLength) {
+        super(maxFrameLength);
+    }
+
+    @Override
+    public void decode(final ByteBuffer chunk, final long timestamp, final FrameListener listener) {
+        final int limit = chunk.limit();
+        for (int i = chunk.position(); i < limit; i++) {
+            byte data = chunk.get(i);
+            if (data == END) {
+                if (!discarding && getFrameLength() > 0) {
+                    emitFrame(listener, timestamp);
+                }
+                discarding = false;
+                escaped = false;
+                continue;
+            }
+            if (discarding) {
+                continue;
+            }
+            if (escaped) {
+                escaped = false;
+                /* a protocol violation leaves the byte as it is, as RFC 1055 suggests */
+                data = data == ESC_END ? END : data == ESC_ESC ? ESC : data;
+            } else if (data == ESC) {
+                escaped = true;
+                continue;
+            }
+            if (!append(data)) {
+                discarding = true;
+            }
+        }
+        chunk.position(limit);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        escaped = false;
+        discarding = false;
+    }
+}
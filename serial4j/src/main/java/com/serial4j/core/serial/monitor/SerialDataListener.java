@@ -31,10 +31,20 @@
  */
 package com.serial4j.core.serial.monitor;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Listens to Serial Monitor entities {@link com.serial4j.core.serial.entity.impl.SerialReadEntity}
  * and {@link com.serial4j.core.serial.entity.impl.SerialWriteEntity}.
  *
+ * <p>
+ * The entities dispatch the batch callbacks {@link SerialDataListener#onDataReceived(ByteBuffer, long)}
+ * and {@link SerialDataListener#onDataTransmitted(ByteBuffer)} once per read or written chunk, their default
+ * implementations adapt the chunks to the per-byte callbacks, all the callbacks are optional, and a listener
+ * overrides either the batch callbacks or the per-byte callbacks.
+ * </p>
+ *
  * @author pavl_g.
  */
 public interface SerialDataListener {
@@ -43,33 +53,90 @@ public interface SerialDataListener {
      * Dispatched when the data is received at the {@link com.serial4j.core.serial.entity.impl.SerialReadEntity}.
      *
      * <p>
-     * This method is dispatched on the {@link com.serial4j.core.serial.entity.impl.SerialReadEntity}.
+     * This method is dispatched on the {@link com.serial4j.core.serial.entity.impl.SerialReadEntity}
+     * by the default {@link SerialDataListener#onDataReceived(ByteBuffer, long)}.
      * </p>
      *
      * @param data the data received serially in 8-bit format.
      */
-    void onDataReceived(final int data);
+    default void onDataReceived(final int data) {
+    }
 
     /**
      * Dispatched when the capsular data is transmitted at the {@link com.serial4j.core.serial.entity.impl.SerialWriteEntity}.
      *
      * <p>
-     * This method is dispatched on the {@link com.serial4j.core.serial.entity.impl.SerialWriteEntity}.
+     * This method is dispatched on the {@link com.serial4j.core.serial.entity.impl.SerialWriteEntity}
+     * by the default {@link SerialDataListener#onDataTransmitted(ByteBuffer)}.
      * </p>
      *
      * @param data the data transmitted serially in 8-bit format.
      */
-    void onDataTransmitted(final int data);
+    default void onDataTransmitted(final int data) {
+    }
+
+    /**
+     * Dispatched once per chunk of the data received at the {@link com.serial4j.core.serial.entity.impl.SerialReadEntity}.
+     *
+     * <p>
+     * The chunk is a read-only view of the native input buffer of the monitor, it is valid only during this call,
+     * the default implementation dispatches {@link SerialDataListener#onDataReceived(int)} for each byte.
+     * </p>
+     *
+     * @param chunk     a read-only view of the received bytes, from its position to its limit
+     * @param timestamp the monotonic time in nanoseconds at which the chunk is read
+     */
+    default void onDataReceived(final ByteBuffer chunk, final long timestamp) {
+        for (int i = chunk.position(); i < chunk.limit(); i++) {
+            onDataReceived(chunk.get(i) & 0xFF);
+        }
+    }
+
+    /**
+     * Dispatched once per chunk of the data transmitted at the {@link com.serial4j.core.serial.entity.impl.SerialWriteEntity},
+     * i.e., the bytes of a capsule payload accepted by a single write.
+     *
+     * <p>
+     * The chunk is a read-only view of the capsule payload, it is valid only during this call,
+     * the default implementation dispatches {@link SerialDataListener#onDataTransmitted(int)} for each byte.
+     * </p>
+     *
+     * @param chunk a read-only view of the transmitted bytes, from its position to its limit
+     */
+    default void onDataTransmitted(final ByteBuffer chunk) {
+        for (int i = chunk.position(); i < chunk.limit(); i++) {
+            onDataTransmitted(chunk.get(i) & 0xFF);
+        }
+    }
 
     /**
      * Dispatched whenever a data frame is completely received at the {@link com.serial4j.core.serial.entity.impl.SerialReadEntity} end
      * when "Return-Carriage/Newline" check is enabled as it specifies a particular data frame.
      *
      * <p>
-     * This method is dispatched on the {@link com.serial4j.core.serial.entity.impl.SerialReadEntity}.
+     * This method is dispatched on the {@link com.serial4j.core.serial.entity.impl.SerialReadEntity}
+     * by the default {@link SerialDataListener#onFrameReceived(ByteBuffer, long)}.
      * </p>
      *
      * @param data the data frame terminated by '\r\n'
      */
-    void onDataReceived(final String data);
+    default void onDataReceived(final String data) {
+    }
+
+    /**
+     * Dispatched whenever a data frame is completely assembled by the {@link SerialMonitor#getFrameDecoder()}
+     * at the {@link com.serial4j.core.serial.entity.impl.SerialReadEntity}.
+     *
+     * <p>
+     * The frame is a read-only view of the reusable buffer of the decoder, and is valid only during this call,
+     * the default implementation decodes the frame bytes as 8-bit characters, and dispatches
+     * {@link SerialDataListener#onDataReceived(String)}, override it to receive the frames without strings.
+     * </p>
+     *
+     * @param frame     a read-only view of the frame bytes
+     * @param timestamp the monotonic time in nanoseconds at which the frame is completed
+     */
+    default void onFrameReceived(final ByteBuffer frame, final long timestamp) {
+        onDataReceived(StandardCharsets.ISO_8859_1.decode(frame).toString());
+    }
 }
@@ -31,28 +31,73 @@
  */
 package com.serial4j.core.serial.monitor;
 
+import com.serial4j.core.poll.EventPoller;
+import com.serial4j.core.poll.PollEvent;
+import com.serial4j.core.poll.ReadinessListener;
 import com.serial4j.core.serial.SerialPort;
+import com.serial4j.core.serial.capture.CaptureJournal;
+import com.serial4j.core.serial.dispatch.ListenerDispatcher;
 import com.serial4j.core.serial.entity.EntityStatus;
 import com.serial4j.core.serial.entity.impl.SerialReadEntity;
 import com.serial4j.core.serial.entity.impl.SerialWriteEntity;
+import com.serial4j.core.serial.frame.DelimiterFrameDecoder;
+import com.serial4j.core.serial.frame.FrameDecoder;
 import com.serial4j.core.serial.throwable.*;
 import com.serial4j.core.terminal.FilePermissions;
+import com.serial4j.core.terminal.FullDuplexTerminalDevice;
 import com.serial4j.core.terminal.NativeBufferInputStream;
 import com.serial4j.core.terminal.NativeBufferOutputStream;
 import com.serial4j.core.terminal.TerminalDevice;
 import com.serial4j.core.terminal.control.*;
+import com.serial4j.util.concurrent.LockFreeBoundedQueue;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Monitors the UART Data Port using {@link SerialReadEntity} for serial data read and {@link SerialWriteEntity} for serial
  * data write.
  *
+ * <p>
+ * The monitor entities are dispatched on an event loop ({@link EventPoller}) only when there is something to do,
+ * i.e., when the port becomes readable, when the port becomes writable while a capsule is partially written,
+ * or when a new capsule is added to the {@link SerialWriteEntity}, the monitor thread waits on the port readiness
+ * in between, and consumes no cpu time while idle.
+ * </p>
+ * <p>
+ * The listeners are dispatched on the monitor thread by default, install a {@link ListenerDispatcher}
+ * to dispatch them on dedicated consumer threads, so that the monitor thread never runs the user code.
+ * </p>
+ *
  * @author pavl_g.
  */
 public class SerialMonitor {
 
+    /**
+     * The delay in milliseconds before the next read attempt once a readable port has no more data
+     * (e.g., the end of a regular file, which is always readable), a port with no data listener is
+     * not read, and not armed for reading at all.
+     */
+    public static final long END_OF_DATA_RETRY_DELAY = 20;
+
+    /**
+     * The default capacity of the bounded write queue of the {@link SerialWriteEntity}.
+     */
+    public static final int DEFAULT_WRITE_QUEUE_CAPACITY = 1024;
+
+    /**
+     * The default maximum delay in microseconds of a coalesced write batch.
+     */
+    public static final long DEFAULT_WRITE_COALESCING_DELAY = 500;
+
+    private static final Logger LOGGER = Logger.getLogger(SerialMonitor.class.getName());
+
     protected final String monitorName;
     protected final TerminalDevice terminalDevice = new TerminalDevice();
     /**
@@ -79,13 +124,37 @@ public class SerialMonitor {
      * The state of use CR/NL (jump to the start of a new line). Default is "true".
      */
     public volatile boolean processLinefeedCarriageReturn = true;
-    protected SerialDataListener serialDataListener;
+    protected volatile SerialDataListener serialDataListener;
+    protected volatile ListenerDispatcher listenerDispatcher;
+    protected volatile CaptureJournal captureJournal;
+    protected volatile int writeQueueCapacity = DEFAULT_WRITE_QUEUE_CAPACITY;
+    protected volatile OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    protected volatile int writeCoalescingThreshold;
+    protected volatile long writeCoalescingDelay = DEFAULT_WRITE_COALESCING_DELAY;
+    protected volatile int preemptionChunkSize;
+    protected volatile FrameDecoder frameDecoder = DelimiterFrameDecoder.newLinefeedCarriageReturnDecoder();
     protected volatile Thread monitorThread;
     protected volatile InputStream readEntityStream;
     protected volatile OutputStream writeEntityStream;
     protected volatile boolean terminate = false;
     protected volatile SerialReadEntity serialReadEntity;
     protected volatile SerialWriteEntity serialWriteEntity;
+    protected volatile EventPoller eventPoller;
+    protected volatile boolean sharedEventPoller;
+    protected volatile FullDuplexTerminalDevice fullDuplexTerminalDevice;
+    private final AtomicBoolean dispatchPending = new AtomicBoolean();
+    private final ReadinessListener readinessListener = (fd, revents, timestamp) -> dispatch(revents);
+    private volatile int fd;
+
+    /**
+     * The pending timers of the monitor by their tasks, confined to the monitor event loop.
+     */
+    private final Map<Runnable, EventPoller.ScheduledTask> timers = new IdentityHashMap<>();
+
+    /**
+     * Whether the monitor event loop is terminated, confined to the monitor event loop.
+     */
+    private boolean eventLoopTerminated;
 
     /**
      * Instantiates a new SerialMonitor with a name.
@@ -160,14 +229,151 @@ public class SerialMonitor {
         serialWriteEntity = new SerialWriteEntity(this);
 
         serialReadEntity = new SerialReadEntity(this);
-        monitorThread = new Thread(() -> {
-            while (!isTerminate()) {
-                serialReadEntity.run();
-                serialWriteEntity.run();
+        startEventLoop();
+    }
+
+    /**
+     * Switches the opened port to the non-blocking mode, and starts the monitor event loop
+     * with an initial dispatch of the monitor entities.
+     */
+    protected void startEventLoop() {
+        terminalDevice.setNonBlocking(true);
+        fullDuplexTerminalDevice = new FullDuplexTerminalDevice(terminalDevice);
+        fd = terminalDevice.getSerialPort().getFd();
+        if (listenerDispatcher != null) {
+            listenerDispatcher.start(this);
+        }
+        if (!sharedEventPoller) {
+            eventPoller = new EventPoller(monitorName);
+            eventPoller.start();
+        }
+        monitorThread = eventPoller.getThread();
+        wakeup();
+    }
+
+    /**
+     * Wakes up the monitor event loop to dispatch the monitor entities, the wake-ups
+     * requested before the dispatch are coalesced into a single dispatch.
+     */
+    public void wakeup() {
+        final EventPoller poller = eventPoller;
+        if (poller != null && dispatchPending.compareAndSet(false, true)) {
+            poller.execute(() -> dispatch(0));
+        }
+    }
+
+    /**
+     * Dispatches the monitor entities in order, a dispatch is fired on each wake-up of the monitor event loop.
+     */
+    protected void updateEntities() {
+        serialReadEntity.run();
+        serialWriteEntity.run();
+    }
+
+    /**
+     * Dispatches the monitor entities on the monitor event loop, and re-arms the port readiness.
+     *
+     * @param revents the returned readiness events, or 0 if not dispatched on the port readiness
+     */
+    private void dispatch(final int revents) {
+        dispatchPending.set(false);
+        if (isTerminate()) {
+            terminateEventLoop();
+            return;
+        }
+        try {
+            updateEntities();
+        } catch (final RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Serial monitor " + monitorName + " update has failed!", e);
+        }
+        if (isTerminate()) {
+            terminateEventLoop();
+            return;
+        }
+        if (PollEvent.POLLNVAL.isSet(revents)) {
+            LOGGER.log(Level.SEVERE, "Serial monitor " + monitorName + " port is no longer valid!");
+            return;
+        }
+        final boolean drained = serialReadEntity.getNumberOfReadBytes() == 0;
+        if (drained && (PollEvent.POLLHUP.isSet(revents) || PollEvent.POLLERR.isSet(revents))) {
+            /* a hung up port with no data has reached its end, terminate the entities and notify the listeners */
+            LOGGER.log(Level.WARNING, "Serial monitor " + monitorName + " port has hung up!");
+            terminate = true;
+            terminateEventLoop();
+            return;
+        }
+        /* a port with no data listener is left to the entity streams, and armed again once a data listener is set */
+        if (hasDataListener()) {
+            if (drained && PollEvent.POLLIN.isSet(revents)) {
+                /* a readable port with no data has reached its end, there are no readiness notifications to wait on */
+                schedule(this::wakeup, END_OF_DATA_RETRY_DELAY, TimeUnit.MILLISECONDS);
+            } else {
+                eventPoller.arm(fd, PollEvent.POLLIN, readinessListener);
             }
-        }, monitorName);
+        }
+        if (serialWriteEntity.hasPendingData()) {
+            eventPoller.arm(fd, PollEvent.POLLOUT, readinessListener);
+        }
+    }
 
-        monitorThread.start();
+    /**
+     * Schedules a task of the monitor on the monitor event loop after a delay, the pending tasks are cancelled
+     * once the monitor terminates, so that they never fire on a shared event loop afterwards.
+     *
+     * <p>
+     * To be called on the monitor event loop, e.g., by the monitor entities.
+     * </p>
+     *
+     * @param task  the task to run
+     * @param delay the delay from now
+     * @param unit  the time unit of the delay
+     */
+    public void schedule(final Runnable task, final long delay, final TimeUnit unit) {
+        if (eventLoopTerminated) {
+            return;
+        }
+        final Runnable timer = new Runnable() {
+            @Override
+            public void run() {
+                timers.remove(this);
+                task.run();
+            }
+        };
+        timers.put(timer, eventPoller.schedule(timer, delay, unit));
+    }
+
+    /**
+     * Disarms the port, dispatches the monitor entities for the last time to terminate, and stops the event loop,
+     * the listener dispatcher delivers the remaining events, then stops.
+     *
+     * <p>
+     * The termination runs once, the pending timers are cancelled, as the port descriptor could be
+     * reused by another monitor on a shared event loop afterwards.
+     * </p>
+     */
+    private void terminateEventLoop() {
+        if (eventLoopTerminated) {
+            return;
+        }
+        eventLoopTerminated = true;
+        for (final EventPoller.ScheduledTask timer : timers.values()) {
+            timer.cancel();
+        }
+        timers.clear();
+        eventPoller.disarm(fd, PollEvent.POLLIN);
+        eventPoller.disarm(fd, PollEvent.POLLOUT);
+        try {
+            updateEntities();
+        } catch (final RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Serial monitor " + monitorName + " termination has failed!", e);
+        } finally {
+            if (!sharedEventPoller) {
+                eventPoller.shutdown();
+            }
+            if (listenerDispatcher != null) {
+                listenerDispatcher.shutdown();
+            }
+        }
     }
 
     /**
@@ -198,10 +404,11 @@ public class SerialMonitor {
     }
 
     /**
-     * Sets the termination flag to trigger termination on the next update.
+     * Sets the termination flag, and wakes up the monitor to terminate.
      */
     public void setTerminate() {
         this.terminate = true;
+        wakeup();
     }
 
     /**
@@ -222,6 +429,24 @@ public class SerialMonitor {
         return terminalDevice;
     }
 
+    /**
+     * Gets the full-duplex mode of the terminal device utilized by the monitor entities.
+     *
+     * @return the full-duplex terminal device, or null if the monitor is not started yet.
+     */
+    public FullDuplexTerminalDevice getFullDuplexTerminalDevice() {
+        return fullDuplexTerminalDevice;
+    }
+
+    /**
+     * Gets the event poller running the monitor event loop.
+     *
+     * @return the event poller of this monitor, or null if the monitor is not started yet.
+     */
+    public EventPoller getEventPoller() {
+        return eventPoller;
+    }
+
     /**
      * Gets the Serial write output stream.
      *
@@ -292,11 +517,152 @@ public class SerialMonitor {
      * @param processLinefeedCarriageReturn true to enable `CR/LF` and return data frames
      *                          at {@link SerialDataListener#onDataReceived(String)}, false to disable
      *                          both the `CR/LF` check and disable {@link SerialDataListener#onDataReceived(String)}.
+     *                          This flag enables or disables the framing stage as a whole,
+     *                          see {@link SerialMonitor#setFrameDecoder(FrameDecoder)}.
      */
     public void setProcessLinefeedCarriageReturn(boolean processLinefeedCarriageReturn) {
         this.processLinefeedCarriageReturn = processLinefeedCarriageReturn;
     }
 
+    /**
+     * Retrieves the capacity of the bounded write queue of each {@link WritePriority} lane.
+     *
+     * @return the maximum number of the capsules waiting to be written
+     */
+    public int getWriteQueueCapacity() {
+        return writeQueueCapacity;
+    }
+
+    /**
+     * Adjusts the capacity of the bounded write queue, default value is {@link SerialMonitor#DEFAULT_WRITE_QUEUE_CAPACITY}.
+     *
+     * <p>
+     * Note: the capacity is rounded up to the next power of two, and it takes effect
+     * on the next {@link SerialMonitor#startDataMonitoring(String, BaudRate, FilePermissions)}.
+     * </p>
+     *
+     * @param writeQueueCapacity the maximum number of the capsules waiting to be written
+     * @throws IllegalArgumentException if the capacity is not in the range [1, 2^30]
+     */
+    public void setWriteQueueCapacity(final int writeQueueCapacity) {
+        if (writeQueueCapacity <= 0 || writeQueueCapacity > LockFreeBoundedQueue.MAX_CAPACITY) {
+            throw new IllegalArgumentException("Queue capacity must be in the range [1, 2^30]!");
+        }
+        this.writeQueueCapacity = writeQueueCapacity;
+    }
+
+    /**
+     * Retrieves the overflow policy of the bounded write queue.
+     *
+     * @return the overflow policy, default is {@link OverflowPolicy#BLOCK}
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Adjusts the behavior of adding capsules while the bounded write queue is full.
+     *
+     * @param overflowPolicy the new overflow policy
+     */
+    public void setOverflowPolicy(final OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Enables the coalescing of the small queued capsules into a single gathering write,
+     * the batch is flushed once it holds the threshold bytes, or once the oldest capsule
+     * in the batch has waited for the maximum delay, whichever comes first.
+     *
+     * <p>
+     * Note: capsules holding the threshold bytes or more are never coalesced, and the coalescing
+     * takes effect on the next {@link SerialMonitor#startDataMonitoring(String, BaudRate, FilePermissions)}.
+     * </p>
+     *
+     * @param threshold the size threshold in bytes of a batch, (0) to disable the coalescing (the default)
+     * @param maxDelay  the maximum delay in microseconds of a batch, default value is
+     *                  {@link SerialMonitor#DEFAULT_WRITE_COALESCING_DELAY}
+     */
+    public void setWriteCoalescing(final int threshold, final long maxDelay) {
+        if (threshold < 0 || maxDelay < 0) {
+            throw new IllegalArgumentException("Negative coalescing threshold or delay!");
+        }
+        this.writeCoalescingThreshold = threshold;
+        this.writeCoalescingDelay = maxDelay;
+    }
+
+    /**
+     * Retrieves the size threshold of the coalesced write batches.
+     *
+     * @return the size threshold in bytes, or (0) if the coalescing is disabled
+     */
+    public int getWriteCoalescingThreshold() {
+        return writeCoalescingThreshold;
+    }
+
+    /**
+     * Retrieves the maximum delay of the coalesced write batches.
+     *
+     * @return the maximum delay in microseconds
+     */
+    public long getWriteCoalescingDelay() {
+        return writeCoalescingDelay;
+    }
+
+    /**
+     * Retrieves the maximum number of the bytes of the lower lanes held by the output queue of the terminal device.
+     *
+     * @return the pre-emption chunk size in bytes, or (0) if the pre-emption is disabled
+     */
+    public int getPreemptionChunkSize() {
+        return preemptionChunkSize;
+    }
+
+    /**
+     * Enables the pre-emption of the {@link WritePriority#NORMAL} and {@link WritePriority#BULK} capsules by the
+     * {@link WritePriority#URGENT} capsules, the payloads of the lower lanes are written in chunks, so that the output
+     * queue of the terminal device holds at most the chunk size bytes ahead of an urgent capsule, and the urgent
+     * capsules are written between the chunks.
+     *
+     * <p>
+     * Note: the urgent data is interleaved with the bytes of a pre-empted payload, and the chunks are written
+     * as the output queue drains, which trades the throughput of the lower lanes for the latency of the urgent lane.
+     * </p>
+     *
+     * @param preemptionChunkSize the chunk size in bytes, (0) to disable the pre-emption (the default)
+     */
+    public void setPreemptionChunkSize(final int preemptionChunkSize) {
+        if (preemptionChunkSize < 0) {
+            throw new IllegalArgumentException("Negative pre-emption chunk size!");
+        }
+        this.preemptionChunkSize = preemptionChunkSize;
+    }
+
+    /**
+     * Retrieves the framing stage of the received data.
+     *
+     * @return the frame decoder, default is a {@link DelimiterFrameDecoder} of the `LF/CR` sequence
+     */
+    public FrameDecoder getFrameDecoder() {
+        return frameDecoder;
+    }
+
+    /**
+     * Adjusts the framing stage of the received data, the complete frames are dispatched at
+     * {@link SerialDataListener#onFrameReceived(java.nio.ByteBuffer, long)}.
+     *
+     * <p>
+     * Note: the decoder is confined to the monitor thread, and it should be specified
+     * before the {@link SerialMonitor#startDataMonitoring(String, BaudRate, FilePermissions)}.
+     * </p>
+     *
+     * @param frameDecoder the frame decoder (e.g., {@link com.serial4j.core.serial.frame.LengthPrefixedFrameDecoder}),
+     *                     or null to disable the framing.
+     */
+    public void setFrameDecoder(final FrameDecoder frameDecoder) {
+        this.frameDecoder = frameDecoder;
+    }
+
     /**
      * Retrieves the data listener that is dispatched upon I/O operations.
      *
@@ -313,5 +679,94 @@ public class SerialMonitor {
      */
     public void setSerialDataListener(final SerialDataListener serialDataListener) {
         this.serialDataListener = serialDataListener;
+        /* arms the port for reading */
+        wakeup();
+    }
+
+    /**
+     * Tests whether the received data has a destination, either the serial data listener,
+     * the consumers of the listener dispatcher, or the capture journal, the port is read
+     * by the {@link SerialReadEntity} only if so.
+     *
+     * @return true if the received data is dispatched, false otherwise.
+     */
+    public boolean hasDataListener() {
+        return serialDataListener != null || listenerDispatcher != null || captureJournal != null;
+    }
+
+    /**
+     * Hosts this monitor on a shared event loop, e.g., the event loops of a {@link SerialMonitorGroup},
+     * the monitor arms its port on the shared event loop rather than starting its own thread,
+     * and leaves the event loop running on termination.
+     *
+     * <p>
+     * Note: the event loop should be specified before the
+     * {@link SerialMonitor#startDataMonitoring(String, BaudRate, FilePermissions)}, and started by its owner.
+     * </p>
+     *
+     * @param eventPoller a started event poller, or null to start a dedicated event loop
+     */
+    public void setEventPoller(final EventPoller eventPoller) {
+        this.eventPoller = eventPoller;
+        this.sharedEventPoller = eventPoller != null;
+    }
+
+    /**
+     * Tests whether this monitor is hosted on a shared event loop.
+     *
+     * @return true if the event loop is shared, false if the monitor owns its event loop.
+     */
+    public boolean isSharedEventPoller() {
+        return sharedEventPoller;
+    }
+
+    /**
+     * Retrieves the dispatcher of the listeners.
+     *
+     * @return the listener dispatcher, or null if the listeners are dispatched on the monitor thread
+     */
+    public ListenerDispatcher getListenerDispatcher() {
+        return listenerDispatcher;
+    }
+
+    /**
+     * Adjusts the dispatcher of the listeners, the data listener and the entity status listeners are
+     * dispatched on the consumer threads of the dispatcher afterwards.
+     *
+     * <p>
+     * Note: the dispatcher should be specified before the
+     * {@link SerialMonitor#startDataMonitoring(String, BaudRate, FilePermissions)}, it is started with
+     * the monitor, and shut down on the monitor termination.
+     * </p>
+     *
+     * @param listenerDispatcher the listener dispatcher, or null to dispatch the listeners on the monitor thread
+     */
+    public void setListenerDispatcher(final ListenerDispatcher listenerDispatcher) {
+        this.listenerDispatcher = listenerDispatcher;
+    }
+
+    /**
+     * Retrieves the capture journal of the port streams.
+     *
+     * @return the capture journal, or null if the streams are not captured
+     */
+    public CaptureJournal getCaptureJournal() {
+        return captureJournal;
+    }
+
+    /**
+     * Adjusts the capture journal of the port streams, the received and transmitted chunks are
+     * appended to the journal from the monitor thread before dispatching the listeners.
+     *
+     * <p>
+     * Note: the journal is owned by the caller, and should be closed after the monitor termination.
+     * </p>
+     *
+     * @param captureJournal the capture journal, or null to stop capturing
+     */
+    public void setCaptureJournal(final CaptureJournal captureJournal) {
+        this.captureJournal = captureJournal;
+        /* arms the port for reading */
+        wakeup();
     }
 }
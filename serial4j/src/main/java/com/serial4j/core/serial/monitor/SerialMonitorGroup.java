@@ -0,0 +1,330 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.serial.monitor;
+
+import com.serial4j.core.poll.EventPoller;
+import com.serial4j.core.terminal.FilePermissions;
+import com.serial4j.core.terminal.control.BaudRate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hosts many {@link SerialMonitor}s on a fixed number of shared event loops, so that
+ * hundreds of ports are monitored by a handful of threads.
+ *
+ * <p>
+ * Each port is assigned to the event loop hosting the fewest ports, and its monitor arms the port
+ * on that event loop rather than starting its own thread, the ports of an event loop are
+ * dispatched one at a time, hence a port listener should not block the event loop, install a
+ * {@link com.serial4j.core.serial.dispatch.ListenerDispatcher} on the monitor of a port with slow listeners.
+ * </p>
+ *
+ * <p>
+ * The ports added before {@link SerialMonitorGroup#start()} are started with the group, the ports
+ * added afterwards are started immediately, and {@link SerialMonitorGroup#shutdown()} terminates
+ * all the monitors, then stops the event loops.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class SerialMonitorGroup {
+
+    private static final Logger LOGGER = Logger.getLogger(SerialMonitorGroup.class.getName());
+
+    private final String groupName;
+    private final EventPoller[] eventLoops;
+    private final int[] eventLoopPorts;
+    private final Map<String, Member> members = new LinkedHashMap<>();
+    private boolean started;
+    private boolean terminated;
+
+    /**
+     * Instantiates a group with an event loop per available processor.
+     *
+     * @param groupName the name prefix of the event loop threads
+     */
+    public SerialMonitorGroup(final String groupName) {
+        this(groupName, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Instantiates a group with a number of event loops, the event loops are started with the group.
+     *
+     * @param groupName          the name prefix of the event loop threads
+     * @param numberOfEventLoops the number of the event loop threads
+     */
+    public SerialMonitorGroup(final String groupName, final int numberOfEventLoops) {
+        if (numberOfEventLoops <= 0) {
+            throw new IllegalArgumentException("Invalid number of event loops " + numberOfEventLoops);
+        }
+        this.groupName = groupName;
+        this.eventLoops = new EventPoller[numberOfEventLoops];
+        this.eventLoopPorts = new int[numberOfEventLoops];
+        for (int i = 0; i < numberOfEventLoops; i++) {
+            eventLoops[i] = new EventPoller(groupName + "-loop-" + i);
+        }
+    }
+
+    /**
+     * Adds a port monitored by a new {@link SerialMonitor} named after the port.
+     *
+     * @param port               the serial port path
+     * @param baudRate           the baud rate of the port
+     * @param serialDataListener the listener of the port, or null to add it later to the returned monitor
+     * @return the monitor of the port to adjust before the group starts
+     */
+    public SerialMonitor addPort(final String port, final BaudRate baudRate, final SerialDataListener serialDataListener) {
+        final SerialMonitor serialMonitor = new SerialMonitor(port);
+        serialMonitor.setSerialDataListener(serialDataListener);
+        addMonitor(serialMonitor, port, baudRate, null);
+        return serialMonitor;
+    }
+
+    /**
+     * Adds a port monitored by a monitor instance (e.g., a {@link VirtualMonitor}).
+     *
+     * @param serialMonitor   a monitor that is not started yet
+     * @param port            the serial port path
+     * @param baudRate        the baud rate of the port
+     * @param filePermissions the permissions to open the port with, or null for the defaults
+     */
+    public synchronized void addMonitor(final SerialMonitor serialMonitor, final String port, final BaudRate baudRate,
+                                        final FilePermissions filePermissions) {
+        if (terminated) {
+            throw new IllegalStateException("Serial monitor group " + groupName + " is terminated!");
+        }
+        if (members.containsKey(port)) {
+            throw new IllegalArgumentException("Port " + port + " is already monitored!");
+        }
+        final Member member = new Member(serialMonitor, port, baudRate, filePermissions, nextEventLoop());
+        serialMonitor.setEventPoller(eventLoops[member.eventLoop]);
+        eventLoopPorts[member.eventLoop]++;
+        members.put(port, member);
+        if (started) {
+            startMember(member);
+        }
+    }
+
+    /**
+     * Terminates the monitor of a port, and removes it from this group.
+     *
+     * @param port the serial port path
+     * @return the removed monitor, or null if the port is not in this group
+     */
+    public synchronized SerialMonitor removePort(final String port) {
+        final Member member = members.remove(port);
+        if (member == null) {
+            return null;
+        }
+        eventLoopPorts[member.eventLoop]--;
+        member.serialMonitor.setTerminate();
+        return member.serialMonitor;
+    }
+
+    /**
+     * Starts the event loops, and the monitors of the added ports, a port that fails to start
+     * is logged and removed from this group.
+     *
+     * @return the number of the started ports
+     */
+    public synchronized int start() {
+        if (started || terminated) {
+            throw new IllegalStateException("Serial monitor group " + groupName + " is already started!");
+        }
+        started = true;
+        for (final EventPoller eventLoop : eventLoops) {
+            eventLoop.start();
+        }
+        int startedPorts = 0;
+        for (final Member member : new ArrayList<>(members.values())) {
+            if (startMember(member)) {
+                startedPorts++;
+            }
+        }
+        return startedPorts;
+    }
+
+    /**
+     * Terminates all the monitors, then stops the event loops once the monitors have terminated.
+     */
+    public synchronized void shutdown() {
+        if (terminated) {
+            return;
+        }
+        terminated = true;
+        for (final Member member : members.values()) {
+            member.serialMonitor.setTerminate();
+        }
+        members.clear();
+        if (!started) {
+            return;
+        }
+        /* the termination dispatches are queued before, and the tasks of an event loop run in order */
+        for (final EventPoller eventLoop : eventLoops) {
+            eventLoop.execute(eventLoop::shutdown);
+        }
+    }
+
+    /**
+     * Waits for the event loops to stop after a {@link SerialMonitorGroup#shutdown()}.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the unit of the timeout
+     * @return true if all the event loops have stopped, false if the timeout has elapsed.
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (final EventPoller eventLoop : eventLoops) {
+            final Thread thread = eventLoop.getThread();
+            if (thread == null) {
+                continue;
+            }
+            final long remaining = deadline - System.nanoTime();
+            if (remaining > 0) {
+                TimeUnit.NANOSECONDS.timedJoin(thread, remaining);
+            }
+            if (thread.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean startMember(final Member member) {
+        try {
+            member.serialMonitor.startDataMonitoring(member.port, member.baudRate, member.filePermissions);
+            return true;
+        } catch (final Exception e) {
+            LOGGER.log(Level.SEVERE, "Serial monitor group " + groupName + " has failed to start port " + member.port, e);
+            members.remove(member.port);
+            eventLoopPorts[member.eventLoop]--;
+            return false;
+        }
+    }
+
+    private int nextEventLoop() {
+        int eventLoop = 0;
+        for (int i = 1; i < eventLoopPorts.length; i++) {
+            if (eventLoopPorts[i] < eventLoopPorts[eventLoop]) {
+                eventLoop = i;
+            }
+        }
+        return eventLoop;
+    }
+
+    /**
+     * Retrieves the monitor of a port.
+     *
+     * @param port the serial port path
+     * @return the monitor of the port, or null if the port is not in this group
+     */
+    public synchronized SerialMonitor getMonitor(final String port) {
+        final Member member = members.get(port);
+        return member == null ? null : member.serialMonitor;
+    }
+
+    /**
+     * Retrieves the monitors of this group.
+     *
+     * @return an unmodifiable snapshot of the monitors in the order of addition
+     */
+    public synchronized List<SerialMonitor> getMonitors() {
+        final List<SerialMonitor> monitors = new ArrayList<>(members.size());
+        for (final Member member : members.values()) {
+            monitors.add(member.serialMonitor);
+        }
+        return Collections.unmodifiableList(monitors);
+    }
+
+    /**
+     * Retrieves the number of the ports hosted by an event loop.
+     *
+     * @param eventLoop the index of the event loop
+     * @return the number of the ports of the event loop
+     */
+    public synchronized int getNumberOfPorts(final int eventLoop) {
+        return eventLoopPorts[eventLoop];
+    }
+
+    /**
+     * Retrieves the number of the event loops.
+     *
+     * @return the number of the event loop threads
+     */
+    public int getNumberOfEventLoops() {
+        return eventLoops.length;
+    }
+
+    /**
+     * Retrieves an event loop of this group.
+     *
+     * @param eventLoop the index of the event loop
+     * @return the event poller of the event loop
+     */
+    public EventPoller getEventLoop(final int eventLoop) {
+        return eventLoops[eventLoop];
+    }
+
+    /**
+     * Retrieves the name of this group.
+     *
+     * @return the name prefix of the event loop threads
+     */
+    public String getGroupName() {
+        return groupName;
+    }
+
+    private static final class Member {
+        private final SerialMonitor serialMonitor;
+        private final String port;
+        private final BaudRate baudRate;
+        private final FilePermissions filePermissions;
+        private final int eventLoop;
+
+        private Member(final SerialMonitor serialMonitor, final String port, final BaudRate baudRate,
+                       final FilePermissions filePermissions, final int eventLoop) {
+            this.serialMonitor = serialMonitor;
+            this.port = port;
+            this.baudRate = baudRate;
+            this.filePermissions = filePermissions;
+            this.eventLoop = eventLoop;
+        }
+    }
+}
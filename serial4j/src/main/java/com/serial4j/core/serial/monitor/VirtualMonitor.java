@@ -57,14 +57,13 @@ public class VirtualMonitor extends SerialMonitor {
 
         terminalDevice.chmod(userAccessPermissions);
 
-        monitorThread = new Thread(() -> {
-            while (!isTerminate()) {
-                /* change mode access and start data monitoring */
-                serialWriteEntity.run();
-                serialReadEntity.run();
-            }
-        }, monitorName);
+        startEventLoop();
+    }
 
-        monitorThread.start();
+    @Override
+    protected void updateEntities() {
+        /* writes before reading, so that the written data could be read back */
+        serialWriteEntity.run();
+        serialReadEntity.run();
     }
 }
\ No newline at end of file
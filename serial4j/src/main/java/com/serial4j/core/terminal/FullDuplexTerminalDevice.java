@@ -0,0 +1,205 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.serial4j.core.terminal;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Provides a full-duplex mode for a {@link TerminalDevice} that is safe to be used
+ * by exactly one reader thread and one writer thread at the same time.
+ *
+ * <p>
+ * The input and output paths are completely independent, each path owns a separate
+ * native (direct) buffer, the input buffer is confined to the reader thread, while
+ * the output buffer is confined to the writer thread, and both paths dispatch the
+ * stateless operations {@link TerminalDevice#read(ByteBuffer)} and {@link TerminalDevice#write(ByteBuffer)},
+ * which assign no fields on the terminal device, so reads and writes on the same port
+ * proceed in parallel at the full line-rate in both directions.
+ * </p>
+ *
+ * <p>
+ * Note: the stateful operations (e.g. {@link TerminalDevice#iread(int)} and {@link TerminalDevice#sread()})
+ * are not a part of this mode, and shouldn't be dispatched on the same device while this mode is in use.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class FullDuplexTerminalDevice {
+
+    /**
+     * The default capacity of each of the native buffers in bytes.
+     */
+    public static final int DEFAULT_BUFFER_CAPACITY = 4096;
+
+    private final TerminalDevice terminalDevice;
+
+    /**
+     * The native buffer of the input path, confined to the reader thread.
+     */
+    private final ByteBuffer inputBuffer;
+
+    /**
+     * The native buffer of the output path, confined to the writer thread.
+     */
+    private final ByteBuffer outputBuffer;
+
+    /**
+     * Instantiates a full-duplex mode for an opened terminal device with
+     * {@link FullDuplexTerminalDevice#DEFAULT_BUFFER_CAPACITY} native buffers.
+     *
+     * @param terminalDevice the terminal device to operate on
+     */
+    public FullDuplexTerminalDevice(final TerminalDevice terminalDevice) {
+        this(terminalDevice, DEFAULT_BUFFER_CAPACITY);
+    }
+
+    /**
+     * Instantiates a full-duplex mode for an opened terminal device.
+     *
+     * @param terminalDevice the terminal device to operate on
+     * @param capacity       the capacity of each of the input and the output native buffers in bytes
+     */
+    public FullDuplexTerminalDevice(final TerminalDevice terminalDevice, final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Buffer capacity must be a positive value!");
+        }
+        this.terminalDevice = terminalDevice;
+        this.inputBuffer = ByteBuffer.allocateDirect(capacity);
+        this.outputBuffer = ByteBuffer.allocateDirect(capacity);
+    }
+
+    /**
+     * Reads the available bytes (up to the input buffer capacity) into the input native buffer.
+     *
+     * <p>
+     * This operation belongs to the reader thread, the returned buffer is the input
+     * native buffer, and it's valid until the next read operation.
+     * </p>
+     *
+     * @return the input native buffer flipped for reading the received bytes, has no
+     * remaining bytes if nothing is available for a non-blocking port or a polling read configuration
+     */
+    public ByteBuffer read() {
+        inputBuffer.clear();
+        terminalDevice.read(inputBuffer);
+        return inputBuffer.flip();
+    }
+
+    /**
+     * Reads the available bytes into the remaining space of a user buffer.
+     *
+     * <p>
+     * This operation belongs to the reader thread, direct buffers are read into directly,
+     * while heap buffers are read through the input native buffer.
+     * </p>
+     *
+     * @param buffer the user buffer to read the data into
+     * @return the number of the read bytes
+     */
+    public int read(final ByteBuffer buffer) {
+        if (buffer.isDirect()) {
+            return terminalDevice.read(buffer);
+        }
+        inputBuffer.clear();
+        inputBuffer.limit(Math.min(inputBuffer.capacity(), buffer.remaining()));
+        final int bytes = terminalDevice.read(inputBuffer);
+        buffer.put(inputBuffer.flip());
+        return bytes;
+    }
+
+    /**
+     * Writes the remaining bytes of a user buffer, and advances its position by the
+     * number of the written bytes.
+     *
+     * <p>
+     * This operation belongs to the writer thread, direct buffers are written directly,
+     * while heap buffers are staged into the output native buffer in chunks until either
+     * all the bytes are written, or the port accepts only a part of a chunk.
+     * </p>
+     *
+     * @param buffer the user buffer holding the data to write
+     * @return the number of the written bytes
+     */
+    public int write(final ByteBuffer buffer) {
+        if (buffer.isDirect()) {
+            return terminalDevice.write(buffer);
+        }
+        int numberOfWrittenBytes = 0;
+        while (buffer.hasRemaining()) {
+            final int chunk = Math.min(outputBuffer.capacity(), buffer.remaining());
+            outputBuffer.clear();
+            outputBuffer.put(buffer.duplicate().limit(buffer.position() + chunk));
+            outputBuffer.flip();
+            final int bytes = terminalDevice.write(outputBuffer);
+            buffer.position(buffer.position() + bytes);
+            numberOfWrittenBytes += bytes;
+            if (bytes < chunk) {
+                break;
+            }
+        }
+        return numberOfWrittenBytes;
+    }
+
+    /**
+     * Writes a region of a java array through the output native buffer.
+     *
+     * @param data   the java array holding the data to write
+     * @param offset the start position in the array
+     * @param length the number of bytes to write
+     * @return the number of the written bytes
+     * @see FullDuplexTerminalDevice#write(ByteBuffer)
+     */
+    public int write(final byte[] data, final int offset, final int length) {
+        int numberOfWrittenBytes = 0;
+        while (numberOfWrittenBytes < length) {
+            final int chunk = Math.min(outputBuffer.capacity(), length - numberOfWrittenBytes);
+            outputBuffer.clear();
+            outputBuffer.put(data, offset + numberOfWrittenBytes, chunk);
+            outputBuffer.flip();
+            final int bytes = terminalDevice.write(outputBuffer);
+            numberOfWrittenBytes += bytes;
+            if (bytes < chunk) {
+                break;
+            }
+        }
+        return numberOfWrittenBytes;
+    }
+
+    /**
+     * Retrieves the terminal device of this full-duplex mode.
+     *
+     * @return the associated terminal device
+     */
+    public TerminalDevice getTerminalDevice() {
+        return terminalDevice;
+    }
+}
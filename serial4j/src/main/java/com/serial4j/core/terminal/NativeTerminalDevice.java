@@ -38,6 +38,7 @@ import com.serial4j.core.terminal.control.TerminalInputFlag;
 import com.serial4j.core.terminal.control.TerminalLocalFlag;
 import com.serial4j.core.terminal.control.TerminalOutputFlag;
 import com.serial4j.util.loader.NativeImageLoader;
+import java.nio.ByteBuffer;
 
 /**
  * Represents the native Java binding for the Serial-4j API, represented by
@@ -327,6 +328,81 @@ public final class NativeTerminalDevice {
      */
     native long iread(final int length);
 
+    /**
+     * Reads the data from this terminal device directly into a region of a native (direct) buffer.
+     *
+     * <p>
+     * Unlike {@link NativeTerminalDevice#iread(int)} and {@link NativeTerminalDevice#sread(int)}, this
+     * operation assigns none of the fields of this object, so it could be dispatched by a reader
+     * thread while a writer thread dispatches {@link NativeTerminalDevice#writeBuffer(ByteBuffer, int, int)}.
+     * </p>
+     *
+     * @param buffer a direct buffer to read the data into
+     * @param offset the start position in the buffer
+     * @param length the number of the bytes to read (the requested bytes from the read())
+     * @return the number of the read bytes, (-1) for failure, (-2) for invalid port
+     */
+    native long readBuffer(final ByteBuffer buffer, final int offset, final int length);
+
+    /**
+     * Writes a region of a native (direct) buffer to this terminal device.
+     *
+     * <p>
+     * This operation assigns none of the fields of this object, see {@link NativeTerminalDevice#readBuffer(ByteBuffer, int, int)}.
+     * </p>
+     *
+     * @param buffer a direct buffer holding the data to write
+     * @param offset the start position in the buffer
+     * @param length the number of the bytes to write
+     * @return the number of the written bytes, (-1) for failure, (-2) for invalid port
+     */
+    native long writeBuffer(final ByteBuffer buffer, final int offset, final int length);
+
+    /**
+     * Writes the regions of multiple native (direct) buffers to this terminal device
+     * with a single gathering write.
+     *
+     * <p>
+     * This operation assigns none of the fields of this object, see {@link NativeTerminalDevice#readBuffer(ByteBuffer, int, int)}.
+     * </p>
+     *
+     * @param buffers   the direct buffers holding the data to write, in order
+     * @param positions the start position in each buffer
+     * @param lengths   the number of the bytes to write from each buffer
+     * @param count     the number of the buffers to write
+     * @return the total number of the written bytes, (-1) for failure, (-2) for invalid port
+     */
+    native long writeBuffers(final ByteBuffer[] buffers, final int[] positions, final int[] lengths, final int count);
+
+    /**
+     * Reads the data from this terminal device into a region of a java byte array.
+     *
+     * <p>
+     * This operation assigns none of the fields of this object, see {@link NativeTerminalDevice#readBuffer(ByteBuffer, int, int)}.
+     * </p>
+     *
+     * @param buffer the java array to read the data into
+     * @param offset the start position in the array
+     * @param length the number of the bytes to read (the requested bytes from the read()), up to 8 KiB
+     *               are read at once through a native stack buffer
+     * @return the number of the read bytes, (-1) for failure, (-2) for invalid port
+     */
+    native long read(final byte[] buffer, final int offset, final int length);
+
+    /**
+     * Writes a region of a java byte array to this terminal device.
+     *
+     * <p>
+     * This operation assigns none of the fields of this object, see {@link NativeTerminalDevice#readBuffer(ByteBuffer, int, int)}.
+     * </p>
+     *
+     * @param buffer the java array holding the data to write
+     * @param offset the start position in the array
+     * @param length the number of the bytes to write, staged in 8 KiB chunks through a native stack buffer
+     * @return the number of the written bytes, fewer on the first short write, (-1) for failure, (-2) for invalid port
+     */
+    native long write(final byte[] buffer, final int offset, final int length);
+
     /**
      * Seeks the current position of this file-system according to the
      * "whence" argument by an amount of bytes (offset).
@@ -445,6 +521,34 @@ public final class NativeTerminalDevice {
      */
     native int closePort();
 
+    /**
+     * Enables or disables the non-blocking mode [O_NONBLOCK] of this opened terminal device.
+     *
+     * <p>
+     * In the non-blocking mode, the read and write operations never block in the native code,
+     * they fail with [EAGAIN] when no data could be transferred instead.
+     * </p>
+     *
+     * @param enabled (1) to enable the non-blocking mode, (0) to disable it
+     * @return (- 1) for failure, (-2) for invalid port, (0) for success.
+     */
+    native int setNonBlocking(final int enabled);
+
+    /**
+     * Grants and unlocks the slave device of this opened pseudo-terminal master device [/dev/ptmx].
+     *
+     * @return the path of the pseudo-terminal slave device, or null for failure.
+     */
+    native String unlockPseudoTerminal();
+
+    /**
+     * Retrieves the number of bytes in the output queue of this terminal device that are
+     * not transmitted yet, without blocking.
+     *
+     * @return the number of the untransmitted bytes, (-1) for failure, (-2) for invalid port.
+     */
+    native int getOutputQueueSize();
+
     /**
      * The file seek criterion that feeds the {@link NativeTerminalDevice#seek(long, int)}.
      */
@@ -0,0 +1,204 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.terminal;
+
+import com.serial4j.core.poll.EventPoller;
+import com.serial4j.core.poll.PollEvent;
+import com.serial4j.core.poll.ReadinessListener;
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Provides a blocking read/write mode for a {@link TerminalDevice} that parks the calling
+ * thread instead of blocking inside the native code.
+ *
+ * <p>
+ * The terminal device is switched to the non-blocking mode, a read or a write that can't
+ * transfer any bytes arms the port on an {@link EventPoller} and parks the calling thread
+ * until the port becomes ready, thus a virtual thread unmounts from its carrier thread while
+ * waiting, and a few carrier threads could serve hundreds of ports with a thread per port.
+ * </p>
+ *
+ * <p>
+ * Like {@link FullDuplexTerminalDevice}, one reader thread and one writer thread could
+ * use the same parking device concurrently.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class ParkingTerminalDevice {
+
+    private final TerminalDevice terminalDevice;
+    private final EventPoller eventPoller;
+    private final Waiter readWaiter = new Waiter();
+    private final Waiter writeWaiter = new Waiter();
+
+    /**
+     * Instantiates a parking mode for an opened terminal device on the shared default event poller.
+     *
+     * @param terminalDevice the opened terminal device to operate on
+     */
+    public ParkingTerminalDevice(final TerminalDevice terminalDevice) {
+        this(terminalDevice, EventPoller.getDefault());
+    }
+
+    /**
+     * Instantiates a parking mode for an opened terminal device, the device
+     * is switched to the non-blocking mode.
+     *
+     * @param terminalDevice the opened terminal device to operate on
+     * @param eventPoller    the event poller to wait on the port readiness
+     */
+    public ParkingTerminalDevice(final TerminalDevice terminalDevice, final EventPoller eventPoller) {
+        this.terminalDevice = terminalDevice;
+        this.eventPoller = eventPoller;
+        terminalDevice.setNonBlocking(true);
+    }
+
+    /**
+     * Reads the available bytes into the remaining space of a buffer, parking
+     * the calling thread until at least one byte is available.
+     *
+     * @param buffer the buffer to read the data into
+     * @return the number of the read bytes, or -1 if the port has hung up with no more data
+     * @throws InterruptedException if the calling thread is interrupted while parking
+     */
+    public int read(final ByteBuffer buffer) throws InterruptedException {
+        int revents = 0;
+        while (true) {
+            final int bytes = terminalDevice.read(buffer);
+            if (bytes > 0 || !buffer.hasRemaining()) {
+                return bytes;
+            }
+            if (PollEvent.isTerminal(revents)) {
+                return -1;
+            }
+            revents = await(readWaiter, PollEvent.POLLIN);
+        }
+    }
+
+    /**
+     * Reads the available bytes into a region of a java array, parking
+     * the calling thread until at least one byte is available.
+     *
+     * @param buffer the java array to read the data into
+     * @param offset the start position in the array
+     * @param length the maximum number of bytes to read
+     * @return the number of the read bytes, or -1 if the port has hung up with no more data
+     * @throws InterruptedException if the calling thread is interrupted while parking
+     */
+    public int read(final byte[] buffer, final int offset, final int length) throws InterruptedException {
+        return read(ByteBuffer.wrap(buffer, offset, length));
+    }
+
+    /**
+     * Writes all the remaining bytes of a buffer, parking the calling thread
+     * whenever the output queue of the port is full.
+     *
+     * @param buffer the buffer holding the data to write
+     * @return the number of the written bytes
+     * @throws InterruptedException if the calling thread is interrupted while parking
+     */
+    public int write(final ByteBuffer buffer) throws InterruptedException {
+        int numberOfWrittenBytes = 0;
+        while (buffer.hasRemaining()) {
+            final int bytes = terminalDevice.write(buffer);
+            numberOfWrittenBytes += bytes;
+            if (bytes == 0) {
+                await(writeWaiter, PollEvent.POLLOUT);
+            }
+        }
+        return numberOfWrittenBytes;
+    }
+
+    /**
+     * Writes a region of a java array, parking the calling thread
+     * whenever the output queue of the port is full.
+     *
+     * @param buffer the java array holding the data to write
+     * @param offset the start position in the array
+     * @param length the number of bytes to write
+     * @return the number of the written bytes
+     * @throws InterruptedException if the calling thread is interrupted while parking
+     */
+    public int write(final byte[] buffer, final int offset, final int length) throws InterruptedException {
+        return write(ByteBuffer.wrap(buffer, offset, length));
+    }
+
+    /**
+     * Retrieves the terminal device of this parking mode.
+     *
+     * @return the associated terminal device
+     */
+    public TerminalDevice getTerminalDevice() {
+        return terminalDevice;
+    }
+
+    /**
+     * Retrieves the event poller waiting on the port readiness.
+     *
+     * @return the associated event poller
+     */
+    public EventPoller getEventPoller() {
+        return eventPoller;
+    }
+
+    private int await(final Waiter waiter, final PollEvent event) throws InterruptedException {
+        final int fd = terminalDevice.getSerialPort().getFd();
+        waiter.thread = Thread.currentThread();
+        waiter.revents = 0;
+        eventPoller.arm(fd, event, waiter);
+        while (waiter.revents == 0) {
+            LockSupport.park(this);
+            if (Thread.interrupted()) {
+                eventPoller.disarm(fd, event);
+                throw new InterruptedException();
+            }
+        }
+        return waiter.revents;
+    }
+
+    /**
+     * Unparks a waiting thread on the port readiness.
+     */
+    private static final class Waiter implements ReadinessListener {
+        private volatile Thread thread;
+        private volatile int revents;
+
+        @Override
+        public void onReady(final int fd, final int revents, final long timestamp) {
+            this.revents = revents;
+            LockSupport.unpark(thread);
+        }
+    }
+}
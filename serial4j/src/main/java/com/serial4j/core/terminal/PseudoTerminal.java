@@ -0,0 +1,101 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.core.terminal;
+
+import com.serial4j.core.serial.SerialPort;
+
+/**
+ * Represents a pseudo-terminal pair, the master side is a terminal device opened
+ * from the pseudo-terminal multiplexer [/dev/ptmx], and the slave side is a
+ * virtual serial port path that could be opened by any other terminal device.
+ *
+ * <p>
+ * The data written to the master is received by the slave and vice versa, this
+ * is useful to emulate the serial devices without the hardware.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class PseudoTerminal {
+
+    /**
+     * The path of the pseudo-terminal multiplexer device.
+     */
+    public static final String MULTIPLEXER_PATH = "/dev/ptmx";
+
+    private final TerminalDevice master;
+    private final String slavePath;
+
+    private PseudoTerminal(final TerminalDevice master, final String slavePath) {
+        this.master = master;
+        this.slavePath = slavePath;
+    }
+
+    /**
+     * Opens a new pseudo-terminal pair with a raw master terminal, the slave
+     * device is unlocked and ready to be opened.
+     *
+     * @return a new pseudo-terminal pair
+     */
+    public static PseudoTerminal open() {
+        final TerminalDevice master = new TerminalDevice();
+        master.openPort(new SerialPort(MULTIPLEXER_PATH));
+        master.initTerminal();
+        return new PseudoTerminal(master, master.unlockPseudoTerminal());
+    }
+
+    /**
+     * Retrieves the master side terminal device.
+     *
+     * @return the master terminal device
+     */
+    public TerminalDevice getMaster() {
+        return master;
+    }
+
+    /**
+     * Retrieves the path of the slave device (e.g., "/dev/pts/3").
+     *
+     * @return the slave device path
+     */
+    public String getSlavePath() {
+        return slavePath;
+    }
+
+    /**
+     * Closes the master side, the readers of the slave side receive a hang up.
+     */
+    public void close() {
+        master.closePort();
+    }
+}
@@ -38,6 +38,7 @@ import com.serial4j.core.serial.SerialPort;
 import com.serial4j.core.serial.throwable.InvalidPortException;
 import com.serial4j.core.terminal.control.BaudRate;
 import com.serial4j.core.terminal.control.TerminalFlag;
+import java.nio.ByteBuffer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -291,6 +292,75 @@ public final class TerminalDevice {
         return ReadConfiguration.getFromNativeReadConfig(new ReadConfiguration.Mode(mode[0], mode[1]));
     }
 
+    /**
+     * Enables or disables the non-blocking mode of this opened terminal device.
+     *
+     * <p>
+     * In the non-blocking mode, the stateless operations {@link TerminalDevice#read(ByteBuffer)}
+     * and {@link TerminalDevice#write(ByteBuffer)} return immediately with 0 bytes instead of blocking
+     * inside the native code, this is the mode of choice for waiting on the port readiness through
+     * a {@link com.serial4j.core.poll.EventPoller}.
+     * </p>
+     *
+     * @param enabled true to enable the non-blocking mode, false to restore the blocking mode
+     */
+    public void setNonBlocking(final boolean enabled) {
+        if (nativeTerminalDevice.getSerialPort() == null) {
+            throw new InvalidPortException("Bad serial port!");
+        }
+        if (isSerial4jLoggingEnabled()) {
+            LOGGER.log(Level.INFO, "Setting non-blocking mode to " + enabled);
+        }
+        final int returnValue = nativeTerminalDevice.setNonBlocking(enabled ? 1 : 0);
+        if (returnValue == Errno.ERR_INVALID_PORT.getValue()) {
+            ErrnoToException.throwFromErrno(Errno.ERR_INVALID_PORT.getValue());
+        } else if (isOperationFailed(returnValue)) {
+            ErrnoToException.throwFromErrno(nativeTerminalDevice.getErrno());
+        }
+    }
+
+    /**
+     * Grants and unlocks the slave device of this opened pseudo-terminal master device [/dev/ptmx].
+     *
+     * @return the path of the pseudo-terminal slave device
+     * @see PseudoTerminal
+     */
+    String unlockPseudoTerminal() {
+        if (nativeTerminalDevice.getSerialPort() == null) {
+            throw new InvalidPortException("Bad serial port!");
+        }
+        final String slavePath = nativeTerminalDevice.unlockPseudoTerminal();
+        if (slavePath == null) {
+            ErrnoToException.throwFromErrno(nativeTerminalDevice.getErrno());
+        }
+        return slavePath;
+    }
+
+    /**
+     * Retrieves the number of bytes written to this terminal device, but not transmitted
+     * by the UART yet, without blocking.
+     *
+     * <p>
+     * The output queue is drained when this returns 0, this is the non-blocking counterpart of
+     * waiting on the transmission to complete, and is polled by the monitor to complete
+     * the {@link com.serial4j.core.serial.entity.impl.WritableCapsule} requiring a drain.
+     * </p>
+     *
+     * @return the number of the untransmitted bytes
+     */
+    public int getOutputQueueSize() {
+        if (nativeTerminalDevice.getSerialPort() == null) {
+            throw new InvalidPortException("Bad serial port!");
+        }
+        final int size = nativeTerminalDevice.getOutputQueueSize();
+        if (size == Errno.ERR_INVALID_PORT.getValue()) {
+            ErrnoToException.throwFromErrno(Errno.ERR_INVALID_PORT.getValue());
+        } else if (isOperationFailed(size)) {
+            ErrnoToException.throwFromErrno(nativeTerminalDevice.getErrno());
+        }
+        return size;
+    }
+
     public long write(final String buffer) {
         if (nativeTerminalDevice.getSerialPort() == null) {
             throw new InvalidPortException("Bad serial port!");
@@ -365,6 +435,156 @@ public final class TerminalDevice {
         return bytes;
     }
 
+    /**
+     * Reads the available bytes into the remaining space of a buffer, and advances
+     * the buffer position by the number of the read bytes.
+     *
+     * <p>
+     * Unlike {@link TerminalDevice#iread(int)} and {@link TerminalDevice#sread(int)}, the data
+     * is not kept on this device, it is read directly into the user buffer (without any intermediate copies for
+     * direct buffers), thus one reader thread could dispatch this operation concurrently with
+     * one writer thread dispatching {@link TerminalDevice#write(ByteBuffer)} on the same port.
+     * </p>
+     *
+     * @param buffer the buffer to read the data into
+     * @return the number of the read bytes, or 0 if there are no bytes available at the time of the
+     * call for a non-blocking port or a polling read configuration
+     */
+    public int read(final ByteBuffer buffer) {
+        if (nativeTerminalDevice.getSerialPort() == null) {
+            throw new InvalidPortException("Bad serial port!");
+        }
+        final int position = buffer.position();
+        final long bytes;
+        if (buffer.isDirect()) {
+            bytes = nativeTerminalDevice.readBuffer(buffer, position, buffer.remaining());
+        } else {
+            bytes = nativeTerminalDevice.read(buffer.array(), buffer.arrayOffset() + position, buffer.remaining());
+        }
+        final int numberOfReadBytes = (int) getTransferredBytes(bytes);
+        buffer.position(position + numberOfReadBytes);
+        return numberOfReadBytes;
+    }
+
+    /**
+     * Reads the available bytes into a region of a java array.
+     *
+     * @param buffer the java array to read the data into
+     * @param offset the start position in the array
+     * @param length the maximum number of bytes to read
+     * @return the number of the read bytes, or 0 if there are no bytes available at the time of the
+     * call for a non-blocking port or a polling read configuration
+     * @see TerminalDevice#read(ByteBuffer)
+     */
+    public int read(final byte[] buffer, final int offset, final int length) {
+        if (nativeTerminalDevice.getSerialPort() == null) {
+            throw new InvalidPortException("Bad serial port!");
+        }
+        if ((offset | length) < 0 || length > buffer.length - offset) {
+            throw new IndexOutOfBoundsException("Region [" + offset + ", " + length + "] is out of the buffer bounds!");
+        }
+        return (int) getTransferredBytes(nativeTerminalDevice.read(buffer, offset, length));
+    }
+
+    /**
+     * Writes the remaining bytes of a buffer to this terminal device, and advances the
+     * buffer position by the number of the written bytes.
+     *
+     * <p>
+     * Like {@link TerminalDevice#read(ByteBuffer)}, this operation keeps no state on this device,
+     * and could be dispatched by one writer thread concurrently with one reader thread.
+     * </p>
+     *
+     * @param buffer the buffer holding the data to write
+     * @return the number of the written bytes, this could be less than the remaining bytes,
+     * or 0 if the output queue of a non-blocking port is full
+     */
+    public int write(final ByteBuffer buffer) {
+        if (nativeTerminalDevice.getSerialPort() == null) {
+            throw new InvalidPortException("Bad serial port!");
+        }
+        final int position = buffer.position();
+        final long bytes;
+        if (buffer.isDirect()) {
+            bytes = nativeTerminalDevice.writeBuffer(buffer, position, buffer.remaining());
+        } else if (buffer.hasArray()) {
+            bytes = nativeTerminalDevice.write(buffer.array(), buffer.arrayOffset() + position, buffer.remaining());
+        } else {
+            /* read-only heap buffers have no accessible array */
+            final byte[] data = new byte[buffer.remaining()];
+            buffer.duplicate().get(data);
+            bytes = nativeTerminalDevice.write(data, 0, data.length);
+        }
+        final int numberOfWrittenBytes = (int) getTransferredBytes(bytes);
+        buffer.position(position + numberOfWrittenBytes);
+        return numberOfWrittenBytes;
+    }
+
+    /**
+     * Writes the remaining bytes of a sequence of direct buffers to this terminal device
+     * with a single gathering write [writev], and advances the buffer positions by the
+     * number of the bytes written from each buffer.
+     *
+     * <p>
+     * This operation keeps no state on this device, see {@link TerminalDevice#write(ByteBuffer)}.
+     * </p>
+     *
+     * @param buffers the direct buffers holding the data to write, in order
+     * @param offset  the index of the first buffer to write
+     * @param length  the number of the buffers to write
+     * @return the total number of the written bytes, this could be less than the remaining bytes,
+     * or 0 if the output queue of a non-blocking port is full
+     * @throws IllegalArgumentException if one of the buffers is not a direct buffer
+     */
+    public long write(final ByteBuffer[] buffers, final int offset, final int length) {
+        if (nativeTerminalDevice.getSerialPort() == null) {
+            throw new InvalidPortException("Bad serial port!");
+        }
+        if ((offset | length) < 0 || length > buffers.length - offset) {
+            throw new IndexOutOfBoundsException("Region [" + offset + ", " + length + "] is out of the buffers bounds!");
+        }
+        final ByteBuffer[] vector = new ByteBuffer[length];
+        final int[] positions = new int[length];
+        final int[] lengths = new int[length];
+        for (int i = 0; i < length; i++) {
+            vector[i] = buffers[offset + i];
+            if (!vector[i].isDirect()) {
+                throw new IllegalArgumentException("Gathering writes require direct buffers!");
+            }
+            positions[i] = vector[i].position();
+            lengths[i] = vector[i].remaining();
+        }
+        final long numberOfWrittenBytes = getTransferredBytes(nativeTerminalDevice.writeBuffers(vector, positions, lengths, length));
+        /* advance the buffers in order by the written bytes */
+        long remaining = numberOfWrittenBytes;
+        for (int i = 0; i < length && remaining > 0; i++) {
+            final int bytes = (int) Math.min(lengths[i], remaining);
+            vector[i].position(positions[i] + bytes);
+            remaining -= bytes;
+        }
+        return numberOfWrittenBytes;
+    }
+
+    /**
+     * Writes a region of a java array to this terminal device.
+     *
+     * @param buffer the java array holding the data to write
+     * @param offset the start position in the array
+     * @param length the number of bytes to write
+     * @return the number of the written bytes, this could be less than the length,
+     * or 0 if the output queue of a non-blocking port is full
+     * @see TerminalDevice#write(ByteBuffer)
+     */
+    public int write(final byte[] buffer, final int offset, final int length) {
+        if (nativeTerminalDevice.getSerialPort() == null) {
+            throw new InvalidPortException("Bad serial port!");
+        }
+        if ((offset | length) < 0 || length > buffer.length - offset) {
+            throw new IndexOutOfBoundsException("Region [" + offset + ", " + length + "] is out of the buffer bounds!");
+        }
+        return (int) getTransferredBytes(nativeTerminalDevice.write(buffer, offset, length));
+    }
+
     /**
      * Moves the current file-system position by a 64-bit offset value
      * forwardly or backwardly according to the file-seek criterion (the "whence" parameter).
@@ -496,6 +716,26 @@ public final class TerminalDevice {
         ErrnoToException.throwFromErrno(returnValue);
     }
 
+    /**
+     * Interprets the return value of the stateless native read/write operations, a try-again
+     * error on a non-blocking port is not an error, it indicates that no bytes were transferred.
+     *
+     * @param bytes the native return value
+     * @return the number of the transferred bytes
+     */
+    private long getTransferredBytes(final long bytes) {
+        if (bytes == Errno.ERR_INVALID_PORT.getValue()) {
+            ErrnoToException.throwFromErrno(Errno.ERR_INVALID_PORT.getValue());
+        } else if (bytes == Errno.ERR_OPERATION_FAILED.getValue()) {
+            final int errno = nativeTerminalDevice.getErrno();
+            if (errno == Errno.EAGAIN.getValue()) {
+                return 0;
+            }
+            ErrnoToException.throwFromErrno(errno);
+        }
+        return bytes;
+    }
+
     private boolean isOperationFailed(final int returnValue) {
         return returnValue == Errno.ERR_OPERATION_FAILED.getValue();
     }
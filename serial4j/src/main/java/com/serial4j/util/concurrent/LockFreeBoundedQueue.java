@@ -0,0 +1,200 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded lock-free queue on a preallocated ring of slots, each slot is stamped with a
+ * sequence number that tells the producers and the consumers whether the slot is free or full
+ * for the current lap of the ring (D. Vyukov's bounded queue).
+ *
+ * <p>
+ * The queue is designed for multiple producers and a single consumer, the consumer side is
+ * claimed by a compare-and-set as well, so that a producer could occasionally evict the oldest element
+ * (e.g., a drop-oldest overflow policy) while the consumer is polling.
+ * </p>
+ *
+ * @param <E> the type of the queued elements
+ * @author pavl_g
+ */
+public final class LockFreeBoundedQueue<E> {
+
+    /**
+     * The maximum capacity of a queue, 2^30 elements.
+     */
+    public static final int MAX_CAPACITY = 1 << 30;
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+
+    /**
+     * The position of the next element to poll.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * The position of the next element to offer.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Instantiates a bounded queue, the capacity is rounded up to the next power of two.
+     *
+     * @param capacity the minimum capacity of the queue
+     */
+    public LockFreeBoundedQueue(final int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Queue capacity must be in the range [1, 2^30]!");
+        }
+        final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Inserts an element at the tail of the queue if there is space.
+     *
+     * @param element the element to insert
+     * @return true if inserted, false if the queue is full
+     */
+    public boolean offer(final E element) {
+        if (element == null) {
+            throw new NullPointerException("Queue elements can't be null!");
+        }
+        long position = tail.get();
+        while (true) {
+            final int index = (int) position & mask;
+            final long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                /* the slot is free for this lap, claim it */
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.set(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                /* the slot still holds an element from the previous lap */
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Retrieves and removes the element at the head of the queue.
+     *
+     * @return the head element, or null if the queue is empty
+     */
+    public E poll() {
+        long position = head.get();
+        while (true) {
+            final int index = (int) position & mask;
+            final long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                /* the slot is full for this lap, claim it */
+                if (head.compareAndSet(position, position + 1)) {
+                    final E element = elements.get(index);
+                    elements.set(index, null);
+                    /* free the slot for the next lap */
+                    sequences.set(index, position + mask + 1);
+                    return element;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * Retrieves the number of the queued elements, it's an estimate while
+     * the queue is concurrently modified.
+     *
+     * @return the number of the queued elements
+     */
+    public int size() {
+        final long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    /**
+     * Tests whether the queue is empty.
+     *
+     * @return true if there are no queued elements, false otherwise
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Retrieves the capacity of the queue.
+     *
+     * @return the maximum number of the queued elements
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Copies the queued elements in order, it's a weakly consistent snapshot while
+     * the queue is concurrently modified.
+     *
+     * @return a new list holding the queued elements
+     */
+    public List<E> snapshot() {
+        final List<E> snapshot = new ArrayList<>();
+        final long end = tail.get();
+        for (long position = head.get(); position < end; position++) {
+            final int index = (int) position & mask;
+            final E element = elements.get(index);
+            if (element != null && sequences.get(index) == position + 1) {
+                snapshot.add(element);
+            }
+        }
+        return snapshot;
+    }
+}
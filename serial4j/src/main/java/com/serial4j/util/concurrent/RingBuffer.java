@@ -0,0 +1,346 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2022, Scrappers Team, The AVR-Sandbox Project, Serial4j API.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.serial4j.util.concurrent;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A single-producer broadcast ring of preallocated slots (the LMAX Disruptor pattern), the producer
+ * claims a sequence, fills the slot of the sequence in place, and publishes it, then each
+ * {@link RingBuffer.Consumer} processes every published slot in order at its own pace.
+ *
+ * <p>
+ * The slots are never reallocated, the producer is gated by the slowest consumer, so that a slot
+ * is reused only after all the consumers have released it, and {@link RingBuffer#tryNext()} tells
+ * the producer when the ring is full, rather than overwriting unconsumed slots.
+ * </p>
+ *
+ * @param <E> the type of the slots
+ * @author pavl_g
+ */
+public final class RingBuffer<E> {
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long SLEEP_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long PRODUCER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+
+    private final Object[] slots;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+    private final AtomicInteger blockedConsumers = new AtomicInteger();
+    private volatile AtomicLong[] gatingSequences = new AtomicLong[0];
+    private volatile boolean alerted;
+
+    /* producer state */
+    private long nextSequence;
+    private long cachedGatingSequence = -1;
+
+    /**
+     * Instantiates a ring, and preallocates its slots.
+     *
+     * @param factory      the factory of the slots
+     * @param capacity     the number of the slots, rounded up to the next power of two
+     * @param waitStrategy the wait strategy of the consumers
+     */
+    public RingBuffer(final Supplier<E> factory, final int capacity, final WaitStrategy waitStrategy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid ring capacity " + capacity);
+        }
+        final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new Object[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = factory.get();
+        }
+        this.mask = size - 1;
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * Adds a new consumer that processes the slots published after this call.
+     *
+     * @return a new consumer gating the producer
+     */
+    public Consumer newConsumer() {
+        synchronized (this) {
+            final Consumer consumer = new Consumer(cursor.get());
+            final AtomicLong[] newSequences = Arrays.copyOf(gatingSequences, gatingSequences.length + 1);
+            newSequences[gatingSequences.length] = consumer.sequence;
+            gatingSequences = newSequences;
+            return consumer;
+        }
+    }
+
+    /**
+     * Removes a consumer, so that it no longer gates the producer.
+     *
+     * @param consumer the consumer to remove
+     */
+    public void removeConsumer(final Consumer consumer) {
+        synchronized (this) {
+            final AtomicLong[] current = gatingSequences;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == consumer.sequence) {
+                    final AtomicLong[] newSequences = new AtomicLong[current.length - 1];
+                    System.arraycopy(current, 0, newSequences, 0, i);
+                    System.arraycopy(current, i + 1, newSequences, i, current.length - i - 1);
+                    gatingSequences = newSequences;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Claims the next sequence without waiting, this operation belongs to the producer thread.
+     *
+     * @return the claimed sequence, or (-1) if the ring is full.
+     */
+    public long tryNext() {
+        final long wrapPoint = nextSequence - slots.length;
+        if (wrapPoint > cachedGatingSequence) {
+            cachedGatingSequence = getMinimumSequence();
+            if (wrapPoint > cachedGatingSequence) {
+                return -1;
+            }
+        }
+        return nextSequence++;
+    }
+
+    /**
+     * Claims the next sequence, and waits for the slowest consumer to release its slot if the
+     * ring is full, this operation belongs to the producer thread.
+     *
+     * @return the claimed sequence, or (-1) if the ring is alerted while waiting.
+     */
+    public long next() {
+        long sequence;
+        while ((sequence = tryNext()) < 0) {
+            if (alerted) {
+                return -1;
+            }
+            LockSupport.parkNanos(this, PRODUCER_PARK_NANOS);
+        }
+        return sequence;
+    }
+
+    /**
+     * Retrieves the slot of a sequence.
+     *
+     * @param sequence a claimed, or an available sequence
+     * @return the slot of the sequence
+     */
+    @SuppressWarnings("unchecked")
+    public E get(final long sequence) {
+        return (E) slots[(int) sequence & mask];
+    }
+
+    /**
+     * Publishes a claimed sequence to the consumers, the sequences are published in order.
+     *
+     * @param sequence the claimed sequence
+     */
+    public void publish(final long sequence) {
+        cursor.set(sequence);
+        if (waitStrategy == WaitStrategy.BLOCKING && blockedConsumers.get() > 0) {
+            signalConsumers();
+        }
+    }
+
+    /**
+     * Retrieves the last published sequence.
+     *
+     * @return the cursor of the ring, or (-1) if nothing is published
+     */
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    /**
+     * Retrieves the number of the slots.
+     *
+     * @return the capacity of the ring
+     */
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * Retrieves the number of the published slots not yet released by the slowest consumer.
+     *
+     * @return the occupancy of the ring
+     */
+    public long getOccupancy() {
+        return cursor.get() - getMinimumSequence();
+    }
+
+    /**
+     * Alerts the waiting consumers and producer, the consumers process the remaining published
+     * slots, then their {@link Consumer#waitFor(long)} returns (-1).
+     */
+    public void alert() {
+        alerted = true;
+        signalConsumers();
+    }
+
+    /**
+     * Tests whether this ring is alerted.
+     *
+     * @return true if the ring is alerted, false otherwise.
+     */
+    public boolean isAlerted() {
+        return alerted;
+    }
+
+    private long getMinimumSequence() {
+        long minimum = cursor.get();
+        for (final AtomicLong sequence : gatingSequences) {
+            minimum = Math.min(minimum, sequence.get());
+        }
+        return minimum;
+    }
+
+    private void signalConsumers() {
+        lock.lock();
+        try {
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Represents a consumer of the ring, which releases the slots once processed.
+     */
+    public final class Consumer {
+
+        private final AtomicLong sequence;
+
+        private Consumer(final long sequence) {
+            this.sequence = new AtomicLong(sequence);
+        }
+
+        /**
+         * Waits for a sequence to be published according to the {@link WaitStrategy} of the ring.
+         *
+         * @param sequence the sequence to wait for
+         * @return the last published sequence, which could be beyond the requested sequence, or (-1) if the
+         * ring is alerted, and the requested sequence is not published.
+         */
+        public long waitFor(final long sequence) {
+            long available;
+            int tries = 0;
+            while ((available = cursor.get()) < sequence) {
+                if (alerted) {
+                    return -1;
+                }
+                tries++;
+                switch (waitStrategy) {
+                    case BUSY_SPIN:
+                        Thread.onSpinWait();
+                        break;
+                    case YIELDING:
+                        if (tries < SPIN_TRIES) {
+                            Thread.onSpinWait();
+                        } else {
+                            Thread.yield();
+                        }
+                        break;
+                    case SLEEPING:
+                        if (tries < SPIN_TRIES) {
+                            Thread.onSpinWait();
+                        } else if (tries < YIELD_TRIES) {
+                            Thread.yield();
+                        } else {
+                            LockSupport.parkNanos(this, SLEEP_NANOS);
+                        }
+                        break;
+                    default:
+                        block(sequence);
+                        break;
+                }
+            }
+            return available;
+        }
+
+        /**
+         * Releases the slots up to a sequence, so that the producer could reuse them.
+         *
+         * @param sequence the last processed sequence
+         */
+        public void release(final long sequence) {
+            this.sequence.set(sequence);
+        }
+
+        /**
+         * Retrieves the last released sequence.
+         *
+         * @return the sequence of this consumer
+         */
+        public long getSequence() {
+            return sequence.get();
+        }
+
+        /**
+         * Retrieves the number of the published slots not yet released by this consumer.
+         *
+         * @return the lag of this consumer behind the producer
+         */
+        public long getLag() {
+            return cursor.get() - sequence.get();
+        }
+
+        private void block(final long sequence) {
+            lock.lock();
+            try {
+                blockedConsumers.incrementAndGet();
+                while (cursor.get() < sequence && !alerted) {
+                    published.awaitUninterruptibly();
+                }
+            } finally {
+                blockedConsumers.decrementAndGet();
+                lock.unlock();
+            }
+        }
+    }
+}